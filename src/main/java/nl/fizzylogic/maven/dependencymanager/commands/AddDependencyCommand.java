@@ -1,32 +1,75 @@
 package nl.fizzylogic.maven.dependencymanager.commands;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import jakarta.inject.Inject;
 
 import nl.fizzylogic.maven.dependencymanager.model.DependencyCoordinates;
 import nl.fizzylogic.maven.dependencymanager.model.ResolvedDependency;
+import nl.fizzylogic.maven.dependencymanager.services.ArtifactPrefetcher;
+import nl.fizzylogic.maven.dependencymanager.services.BomIndex;
+import nl.fizzylogic.maven.dependencymanager.services.DependencyGraphSnapshot;
 import nl.fizzylogic.maven.dependencymanager.services.MavenDependencyResolver;
 import nl.fizzylogic.maven.dependencymanager.services.ProjectModelEditor;
+import nl.fizzylogic.maven.dependencymanager.util.OutputFormat;
+import nl.fizzylogic.maven.dependencymanager.util.StructuredFormatter;
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
 
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 
 @Command(
     name = "add",
     description = "Add a dependency to the current project's pom.xml",
     mixinStandardHelpOptions = true)
+@TraceStartup
 public class AddDependencyCommand implements Runnable {
 
   @Parameters(
       paramLabel = "DEPENDENCY",
       description =
           "The dependency coordinates in format <groupId>:<artifactId>[:<version>]. "
-              + "If version is omitted, the latest version will be resolved automatically.")
+              + "If version is omitted, the version managed by dependencyManagement or an"
+              + " imported BOM is used without writing it, or else the latest version is"
+              + " resolved automatically.")
   String dependencyCoordinates;
 
+  @Option(
+      names = "--check",
+      description =
+          "Verify that all dependencies of the project resolve after adding the dependency.")
+  boolean check;
+
+  @Option(
+      names = "--prefetch",
+      description =
+          "Download the dependency and its transitive dependencies into the local repository.")
+  boolean prefetch;
+
+  @Option(
+      names = {"-o", "--output"},
+      converter = OutputFormatConverter.class,
+      description =
+          "Output format for the result: table, json, ndjson or csv (default: table). "
+              + "Progress messages are omitted for machine-readable formats.")
+  OutputFormat outputFormat = OutputFormat.TABLE;
+
   @Inject MavenDependencyResolver dependencyResolver;
 
   @Inject ProjectModelEditor pomManipulation;
 
+  @Inject DependencyGraphSnapshot dependencySnapshot;
+
+  @Inject ArtifactPrefetcher artifactPrefetcher;
+
+  @Inject BomIndex bomIndex;
+
   @Override
   public void run() {
     try {
@@ -40,7 +83,7 @@ public class AddDependencyCommand implements Runnable {
       // Parse and validate dependency coordinates
       DependencyCoordinates coordinates = parseDependencyCoordinates(dependencyCoordinates);
 
-      System.out.println(
+      info(
           "Adding dependency: "
               + coordinates.getGroupId()
               + ":"
@@ -49,8 +92,15 @@ public class AddDependencyCommand implements Runnable {
                   ? ":" + coordinates.getVersion()
                   : " (resolving latest version...)"));
 
+      // A version managed by the project or an imported BOM needs no lookup and no <version>
+      String managedVersion = coordinates.hasVersion() ? null : findManagedVersion(coordinates);
+
       // Resolve dependency version
-      ResolvedDependency resolved = dependencyResolver.resolveDependency(coordinates);
+      ResolvedDependency resolved =
+          managedVersion != null
+              ? new ResolvedDependency(
+                  coordinates.getGroupId(), coordinates.getArtifactId(), managedVersion)
+              : dependencyResolver.resolveDependency(coordinates);
 
       if (resolved == null) {
         System.err.println(
@@ -66,30 +116,58 @@ public class AddDependencyCommand implements Runnable {
         } else {
           System.err.println("The dependency may not exist in the configured repositories");
         }
+        report(
+            "not_found",
+            coordinates.getGroupId(),
+            coordinates.getArtifactId(),
+            coordinates.getVersion(),
+            null);
         System.exit(1);
       }
 
-      System.out.println("Resolved to version: " + resolved.getVersion());
+      if (managedVersion != null) {
+        info("Version " + managedVersion + " is managed by dependencyManagement");
+      } else {
+        info("Resolved to version: " + resolved.getVersion());
+      }
 
       // Add dependency to POM
       boolean added =
           pomManipulation.addDependencyToPom(
-              resolved.getGroupId(), resolved.getArtifactId(), resolved.getVersion());
+              resolved.getGroupId(),
+              resolved.getArtifactId(),
+              managedVersion != null ? null : resolved.getVersion());
 
       if (added) {
-        System.out.println("✓ Successfully added dependency to pom.xml:");
-        System.out.println("  " + resolved.toString());
+        info("✓ Successfully added dependency to pom.xml:");
+        info("  " + resolved.toString());
       } else {
-        System.out.println(
+        info(
             "Dependency "
                 + resolved.getGroupId()
                 + ":"
                 + resolved.getArtifactId()
                 + " already exists in pom.xml");
-        System.out.println("No changes made.");
+        info("No changes made.");
+      }
+
+      report(
+          added ? "added" : "exists",
+          resolved.getGroupId(),
+          resolved.getArtifactId(),
+          resolved.getVersion(),
+          null);
+
+      if (check) {
+        checkDependencies();
+      }
+
+      if (prefetch) {
+        prefetchDependency(resolved);
       }
 
     } catch (IllegalArgumentException e) {
+      report("error", null, null, null, e.getMessage());
       System.err.println("Error: " + e.getMessage());
       System.err.println();
       System.err.println("Usage examples:");
@@ -98,6 +176,7 @@ public class AddDependencyCommand implements Runnable {
       System.err.println("  add com.fasterxml.jackson.core:jackson-core:2.15.2");
       System.exit(1);
     } catch (Exception e) {
+      report("error", null, null, null, e.getMessage());
       System.err.println("Unexpected error: " + e.getMessage());
       e.printStackTrace();
       System.exit(1);
@@ -105,43 +184,109 @@ public class AddDependencyCommand implements Runnable {
   }
 
   /**
-   * Parses dependency coordinates from string format groupId:artifactId[:version]
+   * Finds the version of a dependency that the dependencyManagement of the project or its parents,
+   * or a BOM they import, manages.
    *
-   * @param coordinates The dependency coordinates string
-   * @return Parsed dependency coordinates
-   * @throws IllegalArgumentException if the format is invalid
+   * @return the managed version, or null when it is not managed or the BOMs cannot be read
    */
-  DependencyCoordinates parseDependencyCoordinates(String coordinates) {
-    if (coordinates == null || coordinates.trim().isEmpty()) {
-      throw new IllegalArgumentException("Dependency coordinates cannot be empty");
+  String findManagedVersion(DependencyCoordinates coordinates) {
+    try {
+      return bomIndex
+          .managedVersion(
+              new File("."),
+              pomManipulation.readPom(),
+              coordinates.getGroupId(),
+              coordinates.getArtifactId())
+          .orElse(null);
+    } catch (IOException e) {
+      System.err.println("Warning: Could not read the managed versions: " + e.getMessage());
+      return null;
     }
+  }
 
-    // Use -1 to include trailing empty strings
-    String[] parts = coordinates.split(":", -1);
+  /**
+   * Checks that all dependencies of the project resolve. Dependencies that did not change since the
+   * previous check are loaded from the snapshot in the target directory.
+   */
+  void checkDependencies() throws IOException {
+    DependencyGraphSnapshot.Resolution resolution = dependencySnapshot.resolve(new File("."));
+
+    info(
+        "Checked "
+            + (resolution.getResolved().size() + resolution.getUnresolved().size())
+            + " dependencies ("
+            + resolution.getReusedCount()
+            + " from snapshot)");
 
-    if (parts.length < 2 || parts.length > 3) {
-      throw new IllegalArgumentException(
-          "Invalid dependency coordinates format. Expected: <groupId>:<artifactId>[:<version>],"
-              + " got: "
-              + coordinates);
+    if (!resolution.getUnresolved().isEmpty()) {
+      for (DependencyCoordinates coordinates : resolution.getUnresolved()) {
+        System.err.println("Error: Could not resolve dependency " + coordinates);
+      }
+      System.exit(1);
     }
+  }
+
+  /** Downloads the resolved dependency and its transitive dependencies. */
+  void prefetchDependency(ResolvedDependency resolved) {
+    info("Prefetching " + resolved + "...");
+
+    ArtifactPrefetcher.PrefetchResult result =
+        artifactPrefetcher.prefetch(
+            List.of(
+                new DependencyCoordinates(
+                    resolved.getGroupId(), resolved.getArtifactId(), resolved.getVersion())),
+            ArtifactPrefetcher.DEFAULT_CONNECTIONS_PER_HOST);
 
-    String groupId = parts[0].trim();
-    String artifactId = parts[1].trim();
-    String version = parts.length == 3 ? parts[2].trim() : null;
+    FetchDependenciesCommand.printResult(
+        result, isMachineReadable() ? System.err : System.out, System.err);
 
-    if (groupId.isEmpty()) {
-      throw new IllegalArgumentException("GroupId cannot be empty");
+    if (!result.getFailures().isEmpty()) {
+      System.exit(1);
     }
+  }
 
-    if (artifactId.isEmpty()) {
-      throw new IllegalArgumentException("ArtifactId cannot be empty");
+  /** Prints a progress message, unless the output is meant for scripts. */
+  private void info(String message) {
+    if (!isMachineReadable()) {
+      System.out.println(message);
     }
+  }
 
-    if (parts.length == 3 && (version == null || version.isEmpty())) {
-      throw new IllegalArgumentException("Version cannot be empty when specified");
+  private boolean isMachineReadable() {
+    return outputFormat != null && outputFormat.isMachineReadable();
+  }
+
+  /** Prints the result of the command in the selected machine-readable output format. */
+  void report(String status, String groupId, String artifactId, String version, String message) {
+    if (!isMachineReadable()) {
+      return;
     }
 
-    return new DependencyCoordinates(groupId, artifactId, version);
+    Map<String, String> fields = new LinkedHashMap<>();
+    fields.put("status", status);
+    fields.put("groupId", groupId);
+    fields.put("artifactId", artifactId);
+    fields.put("version", version);
+    fields.put("message", message);
+
+    PrintStream out = System.out;
+
+    if (outputFormat == OutputFormat.CSV) {
+      out.println(StructuredFormatter.toCsvRow(fields.keySet()));
+      out.println(StructuredFormatter.toCsvRow(fields.values()));
+    } else {
+      out.println(StructuredFormatter.toJsonObject(fields));
+    }
+  }
+
+  /**
+   * Parses dependency coordinates from string format groupId:artifactId[:version]
+   *
+   * @param coordinates The dependency coordinates string
+   * @return Parsed dependency coordinates
+   * @throws IllegalArgumentException if the format is invalid
+   */
+  DependencyCoordinates parseDependencyCoordinates(String coordinates) {
+    return DependencyCoordinates.parse(coordinates);
   }
 }
@@ -0,0 +1,10 @@
+package nl.fizzylogic.maven.dependencymanager.commands;
+
+import picocli.CommandLine.Command;
+
+@Command(
+    name = "cache",
+    description = "Move the search and metadata caches between machines",
+    mixinStandardHelpOptions = true,
+    subcommands = {CacheExportCommand.class, CacheImportCommand.class})
+public class CacheCommand {}
@@ -0,0 +1,48 @@
+package nl.fizzylogic.maven.dependencymanager.commands;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import jakarta.inject.Inject;
+
+import nl.fizzylogic.maven.dependencymanager.services.CacheArchive;
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Parameters;
+
+@Command(
+    name = "export",
+    description = "Write the search and metadata caches to a compressed archive",
+    mixinStandardHelpOptions = true,
+    footer = {
+      "",
+      "Examples:",
+      "  cache export dependency-cache.gz",
+    })
+@TraceStartup
+public class CacheExportCommand implements Runnable {
+
+  @Parameters(paramLabel = "ARCHIVE", description = "The archive file to write")
+  Path archive;
+
+  @Inject CacheArchive cacheArchive;
+
+  @Override
+  public void run() {
+    try {
+      CacheArchive.ArchiveResult result = cacheArchive.exportTo(archive);
+
+      System.out.printf(
+          "✓ Exported %d search results and %d version lists to %s in %.1fs%n",
+          result.getSearchEntries(),
+          result.getMetadataEntries(),
+          archive,
+          result.getElapsed().toMillis() / 1000.0);
+
+    } catch (IOException e) {
+      System.err.println("Error: Failed to export the cache: " + e.getMessage());
+      System.exit(1);
+    }
+  }
+}
@@ -0,0 +1,59 @@
+package nl.fizzylogic.maven.dependencymanager.commands;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import jakarta.inject.Inject;
+
+import nl.fizzylogic.maven.dependencymanager.services.CacheArchive;
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Parameters;
+
+@Command(
+    name = "import",
+    description = "Merge an archive written by 'cache export' into the search and metadata caches",
+    mixinStandardHelpOptions = true,
+    footer = {
+      "",
+      "Search results expire an hour after they were fetched, also when they are imported, so",
+      "import an archive soon after it was exported. Version lists don't expire.",
+      "",
+      "Examples:",
+      "  cache import dependency-cache.gz",
+    })
+@TraceStartup
+public class CacheImportCommand implements Runnable {
+
+  @Parameters(paramLabel = "ARCHIVE", description = "The archive file to read")
+  Path archive;
+
+  @Inject CacheArchive cacheArchive;
+
+  @Override
+  public void run() {
+    if (!Files.isRegularFile(archive)) {
+      System.err.println("Error: Archive not found: " + archive);
+      System.exit(1);
+    }
+
+    try {
+      CacheArchive.ArchiveResult result = cacheArchive.importFrom(archive);
+
+      System.out.printf(
+          "✓ Imported %d search results and %d version lists in %.1fs, %d already cached,"
+              + " %d expired%n",
+          result.getSearchEntries(),
+          result.getMetadataEntries(),
+          result.getElapsed().toMillis() / 1000.0,
+          result.getSkippedEntries(),
+          result.getExpiredEntries());
+
+    } catch (IOException e) {
+      System.err.println("Error: Failed to import the cache: " + e.getMessage());
+      System.exit(1);
+    }
+  }
+}
@@ -0,0 +1,161 @@
+package nl.fizzylogic.maven.dependencymanager.commands;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.inject.Inject;
+
+import nl.fizzylogic.maven.dependencymanager.model.DependencyCoordinates;
+import nl.fizzylogic.maven.dependencymanager.services.ArtifactPrefetcher;
+import nl.fizzylogic.maven.dependencymanager.services.BomIndex;
+import nl.fizzylogic.maven.dependencymanager.services.ProjectModelEditor;
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+@Command(
+    name = "fetch",
+    description =
+        "Download dependencies and their transitive dependencies into the local Maven repository",
+    mixinStandardHelpOptions = true,
+    footer = {
+      "",
+      "Examples:",
+      "  fetch                                      # Fetch the dependencies of pom.xml",
+      "  fetch org.springframework:spring-core:6.1.0"
+    })
+@TraceStartup
+public class FetchDependenciesCommand implements Runnable {
+
+  @Parameters(
+      paramLabel = "DEPENDENCY",
+      arity = "0..*",
+      description =
+          "The dependency coordinates in format <groupId>:<artifactId>:<version>. "
+              + "If omitted, the dependencies of the current project's pom.xml are fetched, with"
+              + " the versions managed by its parents and imported BOMs.")
+  List<String> dependencyCoordinates = new ArrayList<>();
+
+  @Option(
+      names = "--connections-per-host",
+      description = "Maximum number of concurrent downloads per repository host (default: 8).")
+  int connectionsPerHost = ArtifactPrefetcher.DEFAULT_CONNECTIONS_PER_HOST;
+
+  @Inject ArtifactPrefetcher artifactPrefetcher;
+
+  @Inject ProjectModelEditor pomManipulation;
+
+  @Inject BomIndex bomIndex;
+
+  @Override
+  public void run() {
+    try {
+      if (dependencyCoordinates.isEmpty()) {
+        if (!pomManipulation.pomExists()) {
+          System.err.println("Error: No pom.xml file found in current directory");
+          System.err.println(
+              "Please specify dependencies or run this command from a Maven project");
+          System.exit(1);
+        }
+
+        if (!fetchProject(new File("."), System.out, System.err)) {
+          System.exit(1);
+        }
+        return;
+      }
+
+      List<DependencyCoordinates> dependencies = new ArrayList<>();
+      for (String coordinates : dependencyCoordinates) {
+        dependencies.add(parseDependencyCoordinates(coordinates));
+      }
+
+      if (!fetch(dependencies, System.out, System.err)) {
+        System.exit(1);
+      }
+
+    } catch (IllegalArgumentException e) {
+      System.err.println("Error: " + e.getMessage());
+      System.err.println();
+      System.err.println("Usage examples:");
+      System.err.println("  fetch");
+      System.err.println("  fetch org.springframework:spring-core:6.1.0");
+      System.exit(1);
+    } catch (Exception e) {
+      System.err.println("Unexpected error: " + e.getMessage());
+      e.printStackTrace();
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Fetches the dependencies of the project in a directory, with the versions that its parents and
+   * imported BOMs manage. Dependencies without a resolvable version are reported as errors.
+   *
+   * @return true when every dependency had a version and was fetched
+   */
+  boolean fetchProject(File directory, PrintStream out, PrintStream err) throws IOException {
+    BomIndex.EffectiveDependencies effective =
+        bomIndex.effectiveDependencies(directory, pomManipulation.readPom(directory));
+
+    for (String unresolved : effective.getUnresolved()) {
+      err.println("Error: " + unresolved + " has no resolvable version");
+    }
+
+    return fetch(effective.getResolved(), out, err) && effective.getUnresolved().isEmpty();
+  }
+
+  /**
+   * Fetches dependencies and prints the outcome.
+   *
+   * @return true when every artifact was fetched
+   */
+  boolean fetch(List<DependencyCoordinates> dependencies, PrintStream out, PrintStream err) {
+    out.println("Fetching " + dependencies.size() + " dependencies...");
+
+    ArtifactPrefetcher.PrefetchResult result =
+        artifactPrefetcher.prefetch(dependencies, connectionsPerHost);
+
+    printResult(result, out, err);
+    return result.getFailures().isEmpty();
+  }
+
+  /** Prints a summary of the prefetch, followed by the artifacts that could not be fetched. */
+  static void printResult(
+      ArtifactPrefetcher.PrefetchResult result, PrintStream out, PrintStream err) {
+    out.printf(
+        "✓ Downloaded %d files (%.1f MB) in %.1fs, %d already present%n",
+        result.getDownloadedCount(),
+        result.getDownloadedBytes() / (1024.0 * 1024.0),
+        result.getElapsed().toMillis() / 1000.0,
+        result.getPresentCount());
+
+    for (String failure : result.getFailures()) {
+      err.println("Error: Failed to fetch " + failure);
+    }
+  }
+
+  /**
+   * Parses dependency coordinates from string format groupId:artifactId:version
+   *
+   * @param coordinates The dependency coordinates string
+   * @return Parsed dependency coordinates
+   * @throws IllegalArgumentException if the format is invalid
+   */
+  DependencyCoordinates parseDependencyCoordinates(String coordinates) {
+    DependencyCoordinates dependency = DependencyCoordinates.parse(coordinates);
+
+    if (!dependency.hasVersion()) {
+      throw new IllegalArgumentException(
+          "Invalid dependency coordinates format. Expected: <groupId>:<artifactId>:<version>,"
+              + " got: "
+              + coordinates);
+    }
+
+    return dependency;
+  }
+}
@@ -0,0 +1,296 @@
+package nl.fizzylogic.maven.dependencymanager.commands;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+import nl.fizzylogic.maven.dependencymanager.services.FederatedSearch;
+
+/**
+ * Search-as-you-type session for the interactive search mode. Every key press updates the query.
+ * Queries that were searched before are answered from memory straight away; other queries are
+ * searched once typing pauses, while the cached results of an earlier prefix are shown in the
+ * meantime. A search that is superseded by a newer query is cancelled.
+ */
+class InteractiveSearchSession implements AutoCloseable {
+
+  static final Duration DEFAULT_DEBOUNCE = Duration.ofMillis(150);
+
+  static final int KEY_UP = -10;
+  static final int KEY_DOWN = -11;
+
+  private static final int MIN_QUERY_LENGTH = 2;
+  private static final int MAX_VISIBLE_RESULTS = 15;
+  private static final int ESCAPE = 0x1b;
+  private static final int END_OF_TRANSMISSION = 0x04;
+  private static final String CLEAR_SCREEN = "\033[H\033[2J";
+  private static final String PROMPT = "Search: ";
+
+  private final FederatedSearch searchService;
+  private final PrintStream out;
+  private final Duration debounce;
+  private final ScheduledExecutorService scheduler;
+  private final Map<String, List<SearchResult>> cache = new ConcurrentHashMap<>();
+  private final StringBuilder query = new StringBuilder();
+
+  private List<SearchResult> results = List.of();
+  private int selected;
+  private String status = "";
+  private ScheduledFuture<?> pendingSearch;
+  private CompletableFuture<List<SearchResult>> inFlight;
+
+  InteractiveSearchSession(FederatedSearch searchService, PrintStream out, Duration debounce) {
+    this.searchService = searchService;
+    this.out = out;
+    this.debounce = debounce;
+    this.scheduler =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "interactive-search");
+              thread.setDaemon(true);
+              return thread;
+            });
+  }
+
+  /**
+   * Read key presses until the user selects a result with enter or ends the input with Ctrl-D.
+   *
+   * @param initialQuery The query to start with, or null to start empty
+   * @param in The stream delivering the key presses
+   * @return The selected search result, or null when the session was cancelled
+   * @throws IOException if the key presses cannot be read
+   */
+  SearchResult run(String initialQuery, InputStream in) throws IOException {
+    if (initialQuery != null) {
+      synchronized (this) {
+        query.append(initialQuery.trim());
+      }
+      queryChanged();
+    } else {
+      render();
+    }
+
+    int key;
+    while ((key = readKey(in)) != -1) {
+      if (key == END_OF_TRANSMISSION) {
+        return null;
+      }
+
+      if (onKey(key)) {
+        return getSelection();
+      }
+    }
+
+    return null;
+  }
+
+  /** Read a key press, translating the escape sequences of the arrow keys. */
+  private int readKey(InputStream in) throws IOException {
+    int key = in.read();
+
+    if (key != ESCAPE) {
+      return key;
+    }
+
+    if (in.read() != '[') {
+      return 0;
+    }
+
+    return switch (in.read()) {
+      case 'A' -> KEY_UP;
+      case 'B' -> KEY_DOWN;
+      case -1 -> -1;
+      default -> 0;
+    };
+  }
+
+  /**
+   * Handle a single key press.
+   *
+   * @return true when the user confirmed the selected result
+   */
+  boolean onKey(int key) {
+    synchronized (this) {
+      if (key == '\r' || key == '\n') {
+        return !results.isEmpty();
+      }
+
+      if (key == KEY_UP || key == KEY_DOWN) {
+        int visible = Math.min(results.size(), MAX_VISIBLE_RESULTS);
+        if (visible > 0) {
+          selected = (selected + (key == KEY_UP ? visible - 1 : 1)) % visible;
+          render();
+        }
+        return false;
+      }
+
+      if (key == 0x7f || key == 0x08) {
+        if (query.length() == 0) {
+          return false;
+        }
+        query.setLength(query.length() - 1);
+      } else if (key >= 0x20 && key < 0x7f) {
+        query.append((char) key);
+      } else {
+        return false;
+      }
+    }
+
+    queryChanged();
+    return false;
+  }
+
+  synchronized String getQuery() {
+    return query.toString();
+  }
+
+  synchronized List<SearchResult> getResults() {
+    return results;
+  }
+
+  synchronized SearchResult getSelection() {
+    return results.isEmpty() ? null : results.get(selected);
+  }
+
+  /** Show cached results at once, or schedule a search after the debounce delay. */
+  private synchronized void queryChanged() {
+    String current = query.toString().trim();
+    cancelPendingSearch();
+    selected = 0;
+
+    List<SearchResult> cached = cache.get(current);
+
+    if (cached != null) {
+      results = cached;
+      status = cached.isEmpty() ? "No dependencies found" : "";
+    } else if (current.length() < MIN_QUERY_LENGTH) {
+      results = List.of();
+      status = "Type at least " + MIN_QUERY_LENGTH + " characters";
+    } else {
+      results = filterCachedPrefix(current);
+      status = "Searching...";
+      pendingSearch =
+          scheduler.schedule(
+              () -> startSearch(current), debounce.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    render();
+  }
+
+  /**
+   * Narrow down the cached results of the longest earlier prefix of the query, so there is
+   * something to show while the search for the full query runs.
+   */
+  private List<SearchResult> filterCachedPrefix(String current) {
+    for (int length = current.length() - 1; length >= MIN_QUERY_LENGTH; length--) {
+      List<SearchResult> cached = cache.get(current.substring(0, length));
+
+      if (cached != null) {
+        String needle = current.toLowerCase(Locale.ROOT);
+        List<SearchResult> filtered = new ArrayList<>();
+        for (SearchResult result : cached) {
+          String coordinates = result.getGroupId() + ":" + result.getArtifactId();
+          if (coordinates.toLowerCase(Locale.ROOT).contains(needle)) {
+            filtered.add(result);
+          }
+        }
+        return filtered;
+      }
+    }
+
+    return List.of();
+  }
+
+  private synchronized void startSearch(String searchQuery) {
+    if (!searchQuery.equals(query.toString().trim())) {
+      return;
+    }
+
+    CompletableFuture<List<SearchResult>> search = searchService.searchAsync(searchQuery);
+    inFlight = search;
+    search.whenComplete((found, error) -> searchCompleted(searchQuery, search, found, error));
+  }
+
+  private synchronized void searchCompleted(
+      String searchQuery,
+      CompletableFuture<List<SearchResult>> search,
+      List<SearchResult> found,
+      Throwable error) {
+    if (error == null) {
+      cache.put(searchQuery, found);
+    }
+
+    if (inFlight == search) {
+      inFlight = null;
+    }
+
+    if (error instanceof CancellationException || !searchQuery.equals(query.toString().trim())) {
+      return;
+    }
+
+    if (error != null) {
+      Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+      results = List.of();
+      status = "Search failed: " + cause.getMessage();
+    } else {
+      results = found;
+      status = found.isEmpty() ? "No dependencies found" : "";
+    }
+
+    selected = 0;
+    render();
+  }
+
+  private void cancelPendingSearch() {
+    if (pendingSearch != null) {
+      pendingSearch.cancel(false);
+      pendingSearch = null;
+    }
+
+    if (inFlight != null) {
+      inFlight.cancel(true);
+      inFlight = null;
+    }
+  }
+
+  private synchronized void render() {
+    StringBuilder screen = new StringBuilder(CLEAR_SCREEN);
+    screen.append(PROMPT).append(query).append('\n');
+    screen.append(status).append('\n');
+
+    for (int i = 0; i < Math.min(results.size(), MAX_VISIBLE_RESULTS); i++) {
+      SearchResult result = results.get(i);
+      screen.append(i == selected ? "> " : "  ");
+      screen.append(result.getGroupId()).append(':').append(result.getArtifactId());
+      screen.append(':').append(result.getLatestVersion()).append('\n');
+    }
+
+    screen.append('\n').append("↑/↓ select, enter adds to pom.xml, Ctrl-D cancels");
+
+    // Move the cursor back to the end of the query
+    screen.append("\033[1;").append(PROMPT.length() + query.length() + 1).append('H');
+
+    out.print(screen);
+    out.flush();
+  }
+
+  @Override
+  public synchronized void close() {
+    cancelPendingSearch();
+    scheduler.shutdownNow();
+  }
+}
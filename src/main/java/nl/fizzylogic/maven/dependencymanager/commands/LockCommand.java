@@ -0,0 +1,133 @@
+package nl.fizzylogic.maven.dependencymanager.commands;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.List;
+import java.util.Map;
+
+import jakarta.inject.Inject;
+
+import nl.fizzylogic.maven.dependencymanager.services.DependencyLock;
+import nl.fizzylogic.maven.dependencymanager.services.ProjectModelEditor;
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+@Command(
+    name = "lock",
+    description =
+        "Write the versions of the dependencies to a "
+            + DependencyLock.LOCK_FILE_NAME
+            + " next to the pom.xml of every module, or verify them",
+    mixinStandardHelpOptions = true,
+    footer = {
+      "",
+      "Examples:",
+      "  lock                                       # Lock the direct dependencies",
+      "  lock --transitive                          # Also lock the checksums of all artifacts",
+      "  lock --verify                              # Check the modules against their lock files"
+    })
+@TraceStartup
+public class LockCommand implements Runnable {
+
+  @Option(
+      names = "--transitive",
+      description =
+          "Fetch the transitive dependencies and lock the SHA-256 checksum of every artifact.")
+  boolean transitive;
+
+  @Option(
+      names = "--verify",
+      description =
+          "Verify the POMs and the local artifacts against the lock files, without the network.")
+  boolean verify;
+
+  @Inject DependencyLock dependencyLock;
+
+  @Inject ProjectModelEditor pomManipulation;
+
+  @Override
+  public void run() {
+    if (!pomManipulation.pomExists()) {
+      System.err.println("Error: No pom.xml file found in current directory");
+      System.err.println("Please run this command from a Maven project");
+      System.exit(1);
+    }
+
+    try {
+      File project = new File(".");
+
+      if (verify) {
+        DependencyLock.VerifyResult result = dependencyLock.verify(project);
+        printResult(result, System.out, System.err);
+
+        if (!result.isValid()) {
+          System.exit(1);
+        }
+        return;
+      }
+
+      int dependencies = 0;
+      int artifacts = 0;
+      int unresolved = 0;
+      List<File> modules = dependencyLock.moduleDirectories(project);
+
+      for (File module : modules) {
+        DependencyLock.LockResult result = dependencyLock.lock(module, transitive);
+        dependencies += result.getDependencyCount();
+        artifacts += result.getArtifactCount();
+        unresolved += result.getUnresolved().size();
+
+        for (String dependency : result.getUnresolved()) {
+          System.err.println(
+              "✗ " + displayName(module) + ": " + dependency + " has no resolvable version");
+        }
+      }
+
+      System.out.printf(
+          "✓ Locked %d dependencies%s in %d modules%n",
+          dependencies, transitive ? " and " + artifacts + " artifacts" : "", modules.size());
+
+      if (unresolved > 0) {
+        System.err.printf("✗ %d dependencies could not be locked%n", unresolved);
+        System.exit(1);
+      }
+
+    } catch (Exception e) {
+      System.err.println("Error: " + e.getMessage());
+      System.exit(1);
+    }
+  }
+
+  /** Prints the problems of every module, followed by a summary of the verification. */
+  static void printResult(DependencyLock.VerifyResult result, PrintStream out, PrintStream err) {
+    int failed = 0;
+
+    for (Map.Entry<File, List<String>> module : result.getProblems().entrySet()) {
+      if (module.getValue().isEmpty()) {
+        continue;
+      }
+
+      failed++;
+      err.println("✗ " + displayName(module.getKey()) + ":");
+      for (String problem : module.getValue()) {
+        err.println("    " + problem);
+      }
+    }
+
+    if (failed == 0) {
+      out.printf(
+          "✓ Verified %d modules in %.1fs%n",
+          result.getModuleCount(), result.getElapsed().toMillis() / 1000.0);
+    } else {
+      out.printf(
+          "✗ %d of %d modules do not match their lock file%n", failed, result.getModuleCount());
+    }
+  }
+
+  private static String displayName(File module) {
+    String directory = module.toPath().normalize().toString();
+    return directory.isEmpty() ? "." : directory;
+  }
+}
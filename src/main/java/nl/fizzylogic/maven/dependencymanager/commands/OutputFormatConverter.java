@@ -0,0 +1,22 @@
+package nl.fizzylogic.maven.dependencymanager.commands;
+
+import java.util.Locale;
+
+import nl.fizzylogic.maven.dependencymanager.util.OutputFormat;
+
+import picocli.CommandLine.ITypeConverter;
+import picocli.CommandLine.TypeConversionException;
+
+/** Converts the value of an --output option to an output format, ignoring case. */
+public class OutputFormatConverter implements ITypeConverter<OutputFormat> {
+
+  @Override
+  public OutputFormat convert(String value) {
+    try {
+      return OutputFormat.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new TypeConversionException(
+          "Invalid output format '" + value + "'. Expected one of: table, json, ndjson, csv");
+    }
+  }
+}
@@ -1,10 +1,31 @@
 package nl.fizzylogic.maven.dependencymanager.commands;
 
+import nl.fizzylogic.maven.dependencymanager.util.StartupTrace;
+
 import io.quarkus.picocli.runtime.annotations.TopCommand;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
 
 @TopCommand
 @Command(
     mixinStandardHelpOptions = true,
-    subcommands = {AddDependencyCommand.class, SearchDependencyCommand.class})
-public class RootCommand {}
+    subcommands = {
+      AddDependencyCommand.class,
+      SearchDependencyCommand.class,
+      FetchDependenciesCommand.class,
+      WarmCacheCommand.class,
+      CacheCommand.class,
+      LockCommand.class,
+      VerifyLocalCommand.class
+    })
+public class RootCommand {
+
+  @Option(
+      names = "--trace-startup",
+      description = "Print how much time the construction of each service took when done.")
+  void setTraceStartup(boolean traceStartup) {
+    if (traceStartup) {
+      StartupTrace.enable(System.err);
+    }
+  }
+}
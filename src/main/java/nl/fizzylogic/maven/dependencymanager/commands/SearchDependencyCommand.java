@@ -1,46 +1,81 @@
 package nl.fizzylogic.maven.dependencymanager.commands;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import jakarta.inject.Inject;
 
 import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
-import nl.fizzylogic.maven.dependencymanager.services.MavenRepositorySearch;
+import nl.fizzylogic.maven.dependencymanager.services.FederatedSearch;
+import nl.fizzylogic.maven.dependencymanager.services.ProjectModelEditor;
+import nl.fizzylogic.maven.dependencymanager.util.OutputFormat;
+import nl.fizzylogic.maven.dependencymanager.util.StructuredFormatter;
 import nl.fizzylogic.maven.dependencymanager.util.TableFormatter;
+import nl.fizzylogic.maven.dependencymanager.util.TerminalMode;
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
 
 import picocli.CommandLine;
+import picocli.CommandLine.Option;
 import picocli.CommandLine.Parameters;
 
 @CommandLine.Command(
     name = "search",
     mixinStandardHelpOptions = true,
-    description = "Search for a dependency in the configured maven repositories",
+    description = "Search for a dependency in all configured maven repositories",
     usageHelpAutoWidth = true,
     footer = {
       "",
       "Examples:",
       "  search spring-boot                  # Keyword search",
-      "  search org.springframework:spring-core  # Exact groupId:artifactId search"
+      "  search org.springframework:spring-core  # Exact groupId:artifactId search",
+      "  search spring-boot --output ndjson  # One JSON object per result",
+      "  search --interactive                # Search as you type, enter adds to pom.xml"
     })
+@TraceStartup
 public class SearchDependencyCommand implements Runnable {
 
   private static final Logger LOGGER = Logger.getLogger(SearchDependencyCommand.class.getName());
 
+  /** Parent logger of the application, silenced while the interactive screen is shown. */
+  private static final String APPLICATION_LOGGER = "nl.fizzylogic.maven.dependencymanager";
+
   @Parameters(
       paramLabel = "QUERY",
+      arity = "0..1",
       description = {
         "Query string to search for dependencies.",
         "Use 'groupId:artifactId' for exact search or keywords for general search."
       })
   String query;
 
-  @Inject MavenRepositorySearch searchService;
+  @Option(
+      names = {"-o", "--output"},
+      converter = OutputFormatConverter.class,
+      description = "Output format: table, json, ndjson or csv (default: table).")
+  OutputFormat outputFormat = OutputFormat.TABLE;
+
+  @Option(
+      names = {"-i", "--interactive"},
+      description = "Search as you type and add the selected dependency to pom.xml.")
+  boolean interactive;
+
+  @Inject FederatedSearch searchService;
+
+  @Inject ProjectModelEditor pomManipulation;
 
   @Override
   public void run() {
     try {
-      executeSearch();
+      if (interactive) {
+        executeInteractiveSearch();
+      } else {
+        executeSearch();
+      }
     } catch (SearchCommandException e) {
       // Print error message and examples if applicable
       System.err.println("Error: " + e.getMessage());
@@ -80,6 +115,11 @@ public class SearchDependencyCommand implements Runnable {
     }
 
     try {
+      if (outputFormat != null && outputFormat.isMachineReadable()) {
+        writeStructuredResults();
+        return;
+      }
+
       System.out.println("Searching for: " + query);
       System.out.println();
 
@@ -90,8 +130,7 @@ public class SearchDependencyCommand implements Runnable {
         return;
       }
 
-      String table = TableFormatter.formatSearchResults(results);
-      System.out.println(table);
+      TableFormatter.writeSearchResults(results, System.out);
 
       System.out.println();
       System.out.printf(
@@ -105,6 +144,130 @@ public class SearchDependencyCommand implements Runnable {
     }
   }
 
+  /**
+   * Runs the search-as-you-type screen and adds the selected dependency to the pom.xml in the
+   * current directory.
+   */
+  void executeInteractiveSearch() throws SearchCommandException {
+    if (outputFormat != null && outputFormat.isMachineReadable()) {
+      throw new SearchCommandException(
+          "Interactive search cannot be combined with --output "
+              + outputFormat.name().toLowerCase(),
+          true,
+          false);
+    }
+
+    if (!TerminalMode.isSupported()) {
+      throw new SearchCommandException("Interactive search requires a terminal", true, false);
+    }
+
+    SearchResult selection;
+    Logger applicationLogger = Logger.getLogger(APPLICATION_LOGGER);
+    Level previousLevel = applicationLogger.getLevel();
+    applicationLogger.setLevel(Level.OFF);
+
+    try {
+      TerminalMode terminal = TerminalMode.enableCharacterMode();
+      try (InteractiveSearchSession session =
+          new InteractiveSearchSession(
+              searchService, System.out, InteractiveSearchSession.DEFAULT_DEBOUNCE)) {
+        selection = session.run(query, System.in);
+      } finally {
+        terminal.close();
+      }
+    } catch (IOException e) {
+      throw new SearchCommandException(
+          "Interactive search failed: " + e.getMessage(), false, false, e);
+    } finally {
+      applicationLogger.setLevel(previousLevel);
+    }
+
+    System.out.println();
+    System.out.println();
+
+    if (selection != null) {
+      addSelection(selection);
+    }
+  }
+
+  /** Adds the dependency selected in the interactive search to the pom.xml. */
+  void addSelection(SearchResult selection) throws SearchCommandException {
+    if (!pomManipulation.pomExists()) {
+      throw new SearchCommandException(
+          "No pom.xml file found in current directory, could not add "
+              + selection.getGroupId()
+              + ":"
+              + selection.getArtifactId(),
+          false,
+          false);
+    }
+
+    try {
+      boolean added =
+          pomManipulation.addDependencyToPom(
+              selection.getGroupId(), selection.getArtifactId(), selection.getLatestVersion());
+
+      if (added) {
+        System.out.println("✓ Successfully added dependency to pom.xml:");
+        System.out.printf(
+            "  %s:%s:%s%n",
+            selection.getGroupId(), selection.getArtifactId(), selection.getLatestVersion());
+      } else {
+        System.out.println(
+            "Dependency "
+                + selection.getGroupId()
+                + ":"
+                + selection.getArtifactId()
+                + " already exists in pom.xml");
+        System.out.println("No changes made.");
+      }
+    } catch (Exception e) {
+      throw new SearchCommandException(
+          "Failed to add dependency to pom.xml: " + e.getMessage(), false, false, e);
+    }
+  }
+
+  /**
+   * Writes the search results in a machine-readable format. NDJSON and CSV rows are written as soon
+   * as each result is parsed, so downstream tools can start processing before the search completes.
+   */
+  private void writeStructuredResults() throws Exception {
+    switch (outputFormat) {
+      case JSON -> {
+        // A later repository can report a higher version of an artifact that was already seen
+        Map<String, Map<String, String>> records = new LinkedHashMap<>();
+        searchService.execute(
+            query,
+            result ->
+                records.put(
+                    result.getGroupId() + ":" + result.getArtifactId(),
+                    StructuredFormatter.searchResultFields(result)));
+        System.out.println(StructuredFormatter.toJsonArray(new ArrayList<>(records.values())));
+      }
+      case NDJSON ->
+          searchService.execute(
+              query,
+              result -> {
+                System.out.println(
+                    StructuredFormatter.toJsonObject(
+                        StructuredFormatter.searchResultFields(result)));
+                System.out.flush();
+              });
+      case CSV -> {
+        System.out.println("groupId,artifactId,latestVersion,repository");
+        searchService.execute(
+            query,
+            result -> {
+              System.out.println(
+                  StructuredFormatter.toCsvRow(
+                      StructuredFormatter.searchResultFields(result).values()));
+              System.out.flush();
+            });
+      }
+      default -> throw new IllegalStateException("Unsupported output format: " + outputFormat);
+    }
+  }
+
   /**
    * Custom exception for SearchCommand errors with context about what additional information should
    * be shown to the user.
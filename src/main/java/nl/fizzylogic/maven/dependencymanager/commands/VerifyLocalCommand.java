@@ -0,0 +1,126 @@
+package nl.fizzylogic.maven.dependencymanager.commands;
+
+import java.io.File;
+import java.io.PrintStream;
+import java.util.List;
+
+import jakarta.inject.Inject;
+
+import nl.fizzylogic.maven.dependencymanager.model.DependencyCoordinates;
+import nl.fizzylogic.maven.dependencymanager.services.ArtifactPrefetcher;
+import nl.fizzylogic.maven.dependencymanager.services.BomIndex;
+import nl.fizzylogic.maven.dependencymanager.services.LocalRepositoryVerifier;
+import nl.fizzylogic.maven.dependencymanager.services.ProjectModelEditor;
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+@Command(
+    name = "verify-local",
+    description =
+        "Check the files of the project's dependencies in the local Maven repository against their"
+            + " checksums, and download the corrupt ones again. Files that are missing are"
+            + " reported, not downloaded",
+    mixinStandardHelpOptions = true,
+    footer = {
+      "",
+      "Examples:",
+      "  verify-local                               # Verify and repair the dependencies of"
+          + " pom.xml",
+      "  verify-local --no-repair                   # Only report the corrupt files"
+    })
+@TraceStartup
+public class VerifyLocalCommand implements Runnable {
+
+  @Option(
+      names = "--no-repair",
+      description = "Report the files that don't match their checksum without downloading them.")
+  boolean noRepair;
+
+  @Option(
+      names = "--connections-per-host",
+      description = "Maximum number of concurrent downloads per repository host (default: 8).")
+  int connectionsPerHost = ArtifactPrefetcher.DEFAULT_CONNECTIONS_PER_HOST;
+
+  @Inject LocalRepositoryVerifier verifier;
+
+  @Inject ProjectModelEditor pomManipulation;
+
+  @Inject BomIndex bomIndex;
+
+  @Override
+  public void run() {
+    try {
+      if (!pomManipulation.pomExists()) {
+        System.err.println("Error: No pom.xml file found in current directory");
+        System.err.println("Please run this command from a Maven project");
+        System.exit(1);
+      }
+
+      BomIndex.EffectiveDependencies effective =
+          bomIndex.effectiveDependencies(new File("."), pomManipulation.readPom());
+      List<DependencyCoordinates> dependencies = effective.getResolved();
+
+      for (String unresolved : effective.getUnresolved()) {
+        System.err.println("Warning: " + unresolved + " has no resolvable version, skipping it");
+      }
+
+      System.out.println("Verifying " + dependencies.size() + " dependencies...");
+
+      LocalRepositoryVerifier.VerifyResult result =
+          verifier.verify(dependencies, connectionsPerHost, !noRepair);
+
+      printResult(result, System.out, System.err);
+
+      boolean unrepaired = result.getRepairedCount() < result.getMismatches().size();
+      if (unrepaired
+          || !result.getMissing().isEmpty()
+          || !result.getFailures().isEmpty()
+          || !effective.getUnresolved().isEmpty()) {
+        System.exit(1);
+      }
+
+    } catch (IllegalArgumentException e) {
+      System.err.println("Error: " + e.getMessage());
+      System.exit(1);
+    } catch (Exception e) {
+      System.err.println("Unexpected error: " + e.getMessage());
+      e.printStackTrace();
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Prints a summary of the verification, followed by the corrupt files, the missing files and the
+   * failures.
+   */
+  static void printResult(
+      LocalRepositoryVerifier.VerifyResult result, PrintStream out, PrintStream err) {
+    out.printf(
+        "✓ Verified %d files in %.1fs, %d without checksum%n",
+        result.getVerifiedCount(),
+        result.getElapsed().toMillis() / 1000.0,
+        result.getUnverifiedCount());
+
+    if (!result.getMismatches().isEmpty()) {
+      out.printf(
+          "✗ %d files did not match their checksum, %d downloaded again%n",
+          result.getMismatches().size(), result.getRepairedCount());
+      for (String mismatch : result.getMismatches()) {
+        out.println("    " + mismatch);
+      }
+    }
+
+    if (!result.getMissing().isEmpty()) {
+      out.printf("✗ %d files are not in the local repository%n", result.getMissing().size());
+      for (String missing : result.getMissing()) {
+        out.println("    " + missing);
+      }
+    }
+
+    for (String failure : result.getFailures()) {
+      err.println("Error: " + failure);
+    }
+  }
+}
@@ -0,0 +1,158 @@
+package nl.fizzylogic.maven.dependencymanager.commands;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.inject.Inject;
+
+import nl.fizzylogic.maven.dependencymanager.model.DependencyCoordinates;
+import nl.fizzylogic.maven.dependencymanager.services.BomIndex;
+import nl.fizzylogic.maven.dependencymanager.services.CacheWarmer;
+import nl.fizzylogic.maven.dependencymanager.services.DependencyLock;
+import nl.fizzylogic.maven.dependencymanager.services.ProjectModelEditor;
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
+
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+import picocli.CommandLine.Parameters;
+
+@Command(
+    name = "warm",
+    description =
+        "Fetch the search answers for dependencies into the local cache, so later commands run"
+            + " from the cache",
+    mixinStandardHelpOptions = true,
+    footer = {
+      "",
+      "Examples:",
+      "  warm                                       # Warm the dependencies of pom.xml",
+      "  warm --file dependencies.txt               # One groupId:artifactId[:version] per line",
+      "  warm --file dependencies.lock              # The dependencies of a lock file",
+      "  warm org.springframework:spring-core"
+    })
+@TraceStartup
+public class WarmCacheCommand implements Runnable {
+
+  @Parameters(
+      paramLabel = "DEPENDENCY",
+      arity = "0..*",
+      description =
+          "The dependency coordinates in format <groupId>:<artifactId>[:<version>]. "
+              + "If omitted, the dependencies of the current project's pom.xml are warmed, with"
+              + " the versions managed by its parents and imported BOMs.")
+  List<String> dependencyCoordinates = new ArrayList<>();
+
+  @Option(
+      names = {"-f", "--file"},
+      description =
+          "A file with one <groupId>:<artifactId>[:<version>] per line. Empty lines and lines"
+              + " starting with # are skipped. A dependencies.lock file can be used as well.")
+  Path coordinatesFile;
+
+  @Inject CacheWarmer cacheWarmer;
+
+  @Inject ProjectModelEditor pomManipulation;
+
+  @Inject BomIndex bomIndex;
+
+  @Override
+  public void run() {
+    try {
+      List<DependencyCoordinates> dependencies = new ArrayList<>();
+
+      for (String coordinates : dependencyCoordinates) {
+        dependencies.add(DependencyCoordinates.parse(coordinates));
+      }
+
+      if (coordinatesFile != null) {
+        dependencies.addAll(readCoordinatesFile(coordinatesFile));
+      }
+
+      if (dependencies.isEmpty()) {
+        if (!pomManipulation.pomExists()) {
+          System.err.println("Error: No pom.xml file found in current directory");
+          System.err.println(
+              "Please specify dependencies or run this command from a Maven project");
+          System.exit(1);
+        }
+
+        BomIndex.EffectiveDependencies effective =
+            bomIndex.effectiveDependencies(new File("."), pomManipulation.readPom());
+        dependencies.addAll(effective.getResolved());
+
+        // Without a version only the latest version can be warmed
+        for (String unresolved : effective.getUnresolved()) {
+          String[] parts = unresolved.split(":");
+          dependencies.add(new DependencyCoordinates(parts[0], parts[1], null));
+        }
+      }
+
+      System.out.println("Warming the cache for " + dependencies.size() + " dependencies...");
+
+      CacheWarmer.WarmResult result = cacheWarmer.warm(dependencies);
+
+      printResult(result, System.out, System.err);
+
+      if (!result.getFailures().isEmpty()) {
+        System.exit(1);
+      }
+
+    } catch (IllegalArgumentException e) {
+      System.err.println("Error: " + e.getMessage());
+      System.err.println();
+      System.err.println("Usage examples:");
+      System.err.println("  warm");
+      System.err.println("  warm --file dependencies.txt");
+      System.err.println("  warm org.springframework:spring-core");
+      System.exit(1);
+    } catch (Exception e) {
+      System.err.println("Unexpected error: " + e.getMessage());
+      e.printStackTrace();
+      System.exit(1);
+    }
+  }
+
+  /** Prints a summary of the warming, followed by the searches that failed. */
+  static void printResult(CacheWarmer.WarmResult result, PrintStream out, PrintStream err) {
+    out.printf(
+        "✓ Fetched %d entries in %.1fs, %d already cached, %d not found%n",
+        result.getFetchedCount(),
+        result.getElapsed().toMillis() / 1000.0,
+        result.getCachedCount(),
+        result.getMissingCount());
+
+    for (String failure : result.getFailures()) {
+      err.println("Error: Failed to warm " + failure);
+    }
+  }
+
+  /**
+   * Reads the coordinates in a file, one per line. The lines of a lock file name their kind first:
+   * the dependencies are read without the keyword, and the artifacts of the graph are skipped.
+   */
+  List<DependencyCoordinates> readCoordinatesFile(Path file) throws IOException {
+    List<DependencyCoordinates> dependencies = new ArrayList<>();
+
+    for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+      String[] fields = line.trim().split("\\s+");
+
+      if (fields[0].isEmpty()
+          || fields[0].startsWith("#")
+          || fields[0].equals(DependencyLock.ARTIFACT)) {
+        continue;
+      } else if (fields[0].equals(DependencyLock.DEPENDENCY) && fields.length == 2) {
+        dependencies.add(DependencyCoordinates.parse(fields[1]));
+      } else {
+        dependencies.add(DependencyCoordinates.parse(line));
+      }
+    }
+
+    return dependencies;
+  }
+}
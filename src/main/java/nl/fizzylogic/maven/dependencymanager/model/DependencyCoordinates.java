@@ -1,15 +1,78 @@
 package nl.fizzylogic.maven.dependencymanager.model;
 
-/** Simple value class to hold dependency coordinates */
-public class DependencyCoordinates {
+import java.util.Objects;
+
+/**
+ * Simple value class to hold dependency coordinates. The groupId and artifactId are interned in
+ * {@link SymbolTable#COORDINATES}. Instances are immutable and can be used as keys of maps and
+ * caches.
+ */
+public final class DependencyCoordinates {
   private final String groupId;
   private final String artifactId;
   private final String version;
+  private final int hash;
 
   public DependencyCoordinates(String groupId, String artifactId, String version) {
-    this.groupId = groupId;
-    this.artifactId = artifactId;
+    this.groupId = SymbolTable.COORDINATES.intern(groupId);
+    this.artifactId = SymbolTable.COORDINATES.intern(artifactId);
     this.version = version;
+    this.hash =
+        31 * (31 * Objects.hashCode(this.groupId) + Objects.hashCode(this.artifactId))
+            + Objects.hashCode(version);
+  }
+
+  /**
+   * Parses dependency coordinates from string format groupId:artifactId[:version]. Whitespace
+   * around a field is ignored, whitespace within a field is not allowed.
+   *
+   * @param coordinates The dependency coordinates string
+   * @return Parsed dependency coordinates
+   * @throws IllegalArgumentException if the format is invalid
+   */
+  public static DependencyCoordinates parse(String coordinates) {
+    if (coordinates == null || coordinates.trim().isEmpty()) {
+      throw new IllegalArgumentException("Dependency coordinates cannot be empty");
+    }
+
+    // Use -1 to include trailing empty strings
+    String[] parts = coordinates.split(":", -1);
+
+    if (parts.length < 2 || parts.length > 3) {
+      throw new IllegalArgumentException(
+          "Invalid dependency coordinates format. Expected: <groupId>:<artifactId>[:<version>],"
+              + " got: "
+              + coordinates);
+    }
+
+    String groupId = parts[0].trim();
+    String artifactId = parts[1].trim();
+    String version = parts.length == 3 ? parts[2].trim() : null;
+
+    if (groupId.isEmpty()) {
+      throw new IllegalArgumentException("GroupId cannot be empty");
+    }
+
+    if (artifactId.isEmpty()) {
+      throw new IllegalArgumentException("ArtifactId cannot be empty");
+    }
+
+    if (version != null && version.isEmpty()) {
+      throw new IllegalArgumentException("Version cannot be empty when specified");
+    }
+
+    if (containsWhitespace(groupId)
+        || containsWhitespace(artifactId)
+        || (version != null && containsWhitespace(version))) {
+      throw new IllegalArgumentException(
+          "Dependency coordinates cannot contain whitespace, got: " + coordinates);
+    }
+
+    return new DependencyCoordinates(groupId, artifactId, version);
+  }
+
+  private static boolean containsWhitespace(String field) {
+    return field.chars().anyMatch(Character::isWhitespace);
   }
 
   public String getGroupId() {
@@ -28,8 +91,22 @@ public class DependencyCoordinates {
     return version != null;
   }
 
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof DependencyCoordinates coordinates
+        && hash == coordinates.hash
+        && Objects.equals(groupId, coordinates.groupId)
+        && Objects.equals(artifactId, coordinates.artifactId)
+        && Objects.equals(version, coordinates.version);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
   @Override
   public String toString() {
-    return groupId + ":" + artifactId + (version != null ? ":" + version : "");
+    return getGroupId() + ":" + getArtifactId() + (version != null ? ":" + version : "");
   }
 }
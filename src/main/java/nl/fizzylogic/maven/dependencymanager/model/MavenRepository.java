@@ -0,0 +1,25 @@
+package nl.fizzylogic.maven.dependencymanager.model;
+
+/** Value class representing a remote Maven repository with its identifier and base URL. */
+public class MavenRepository {
+  private final String id;
+  private final String url;
+
+  public MavenRepository(String id, String url) {
+    this.id = id;
+    this.url = url;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public String getUrl() {
+    return url;
+  }
+
+  @Override
+  public String toString() {
+    return id + " (" + url + ")";
+  }
+}
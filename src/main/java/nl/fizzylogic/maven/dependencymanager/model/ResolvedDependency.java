@@ -1,15 +1,25 @@
 package nl.fizzylogic.maven.dependencymanager.model;
 
-/** Value class representing a resolved dependency with its version. */
-public class ResolvedDependency {
+import java.util.Objects;
+
+/**
+ * Value class representing a resolved dependency with its version. The groupId and artifactId are
+ * interned in {@link SymbolTable#COORDINATES}. Instances are immutable and can be used as keys of
+ * maps and caches.
+ */
+public final class ResolvedDependency {
   private final String groupId;
   private final String artifactId;
   private final String version;
+  private final int hash;
 
   public ResolvedDependency(String groupId, String artifactId, String version) {
-    this.groupId = groupId;
-    this.artifactId = artifactId;
+    this.groupId = SymbolTable.COORDINATES.intern(groupId);
+    this.artifactId = SymbolTable.COORDINATES.intern(artifactId);
     this.version = version;
+    this.hash =
+        31 * (31 * Objects.hashCode(this.groupId) + Objects.hashCode(this.artifactId))
+            + Objects.hashCode(version);
   }
 
   public String getGroupId() {
@@ -24,8 +34,22 @@ public class ResolvedDependency {
     return version;
   }
 
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof ResolvedDependency dependency
+        && hash == dependency.hash
+        && Objects.equals(groupId, dependency.groupId)
+        && Objects.equals(artifactId, dependency.artifactId)
+        && Objects.equals(version, dependency.version);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
   @Override
   public String toString() {
-    return groupId + ":" + artifactId + ":" + version;
+    return getGroupId() + ":" + getArtifactId() + ":" + version;
   }
 }
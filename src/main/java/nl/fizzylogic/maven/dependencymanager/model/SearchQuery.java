@@ -0,0 +1,93 @@
+package nl.fizzylogic.maven.dependencymanager.model;
+
+/**
+ * A search query, either exact coordinates in the form groupId:artifactId or
+ * groupId:artifactId:version, or keywords for a general search.
+ */
+public class SearchQuery {
+  private final String text;
+  private final String groupId;
+  private final String artifactId;
+  private final String version;
+
+  private SearchQuery(String text, String groupId, String artifactId, String version) {
+    this.text = text;
+    this.groupId = groupId;
+    this.artifactId = artifactId;
+    this.version = version;
+  }
+
+  /**
+   * Parse a query as typed by the user.
+   *
+   * @param input The query
+   * @return The parsed query
+   * @throws IllegalArgumentException if the query is empty or has an invalid coordinates format
+   */
+  public static SearchQuery parse(String input) {
+    if (input == null || input.trim().isEmpty()) {
+      throw new IllegalArgumentException("Search query cannot be empty");
+    }
+
+    String text = input.trim();
+
+    if (!text.contains(":")) {
+      return new SearchQuery(text, null, null, null);
+    }
+
+    String[] parts = text.split(":");
+
+    if (parts.length == 2) {
+      String groupId = parts[0].trim();
+      String artifactId = parts[1].trim();
+
+      if (groupId.isEmpty() || artifactId.isEmpty()) {
+        throw new IllegalArgumentException("GroupId and artifactId cannot be empty");
+      }
+
+      return new SearchQuery(text, groupId, artifactId, null);
+    } else if (parts.length == 3) {
+      String groupId = parts[0].trim();
+      String artifactId = parts[1].trim();
+      String version = parts[2].trim();
+
+      if (groupId.isEmpty() || artifactId.isEmpty() || version.isEmpty()) {
+        throw new IllegalArgumentException("GroupId, artifactId, and version cannot be empty");
+      }
+
+      return new SearchQuery(text, groupId, artifactId, version);
+    }
+
+    throw new IllegalArgumentException(
+        "Invalid format. Use 'groupId:artifactId' or 'groupId:artifactId:version' for exact"
+            + " search, or keywords for general search");
+  }
+
+  /** Whether the query names exact coordinates instead of keywords. */
+  public boolean isExact() {
+    return groupId != null;
+  }
+
+  /** The query as typed, without surrounding whitespace. */
+  public String getText() {
+    return text;
+  }
+
+  public String getGroupId() {
+    return groupId;
+  }
+
+  public String getArtifactId() {
+    return artifactId;
+  }
+
+  /** The version of an exact query, or null when the latest version is searched. */
+  public String getVersion() {
+    return version;
+  }
+
+  @Override
+  public String toString() {
+    return text;
+  }
+}
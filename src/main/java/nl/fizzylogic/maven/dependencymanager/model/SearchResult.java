@@ -1,15 +1,33 @@
 package nl.fizzylogic.maven.dependencymanager.model;
 
-/** Represents a search result for a Maven dependency. */
-public class SearchResult {
+import java.util.Objects;
+
+/**
+ * Represents a search result for a Maven dependency. The groupId and artifactId are interned in
+ * {@link SymbolTable#COORDINATES}, so the many results of a large search share their strings.
+ * Instances are immutable and can be used as keys of maps and caches.
+ */
+public final class SearchResult {
   private final String groupId;
   private final String artifactId;
   private final String latestVersion;
+  private final String repository;
+  private final int hash;
 
   public SearchResult(String groupId, String artifactId, String latestVersion) {
-    this.groupId = groupId;
-    this.artifactId = artifactId;
+    this(groupId, artifactId, latestVersion, null);
+  }
+
+  public SearchResult(String groupId, String artifactId, String latestVersion, String repository) {
+    this.groupId = SymbolTable.COORDINATES.intern(groupId);
+    this.artifactId = SymbolTable.COORDINATES.intern(artifactId);
     this.latestVersion = latestVersion;
+    this.repository = repository;
+    this.hash =
+        31
+                * (31 * (31 * Objects.hashCode(this.groupId) + Objects.hashCode(this.artifactId))
+                    + Objects.hashCode(latestVersion))
+            + Objects.hashCode(repository);
   }
 
   public String getGroupId() {
@@ -24,11 +42,36 @@ public class SearchResult {
     return latestVersion;
   }
 
+  /** The id of the repository the result was found in, or null when it is not known. */
+  public String getRepository() {
+    return repository;
+  }
+
+  /** A copy of this result, attributed to the specified repository. */
+  public SearchResult withRepository(String repository) {
+    return new SearchResult(getGroupId(), getArtifactId(), latestVersion, repository);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof SearchResult result
+        && hash == result.hash
+        && Objects.equals(groupId, result.groupId)
+        && Objects.equals(artifactId, result.artifactId)
+        && Objects.equals(latestVersion, result.latestVersion)
+        && Objects.equals(repository, result.repository);
+  }
+
+  @Override
+  public int hashCode() {
+    return hash;
+  }
+
   @Override
   public String toString() {
     return String.format(
-        "SearchResult{groupId='%s', artifactId='%s', latestVersion='%s'}",
-        groupId, artifactId, latestVersion);
+        "SearchResult{groupId='%s', artifactId='%s', latestVersion='%s', repository='%s'}",
+        getGroupId(), getArtifactId(), latestVersion, repository);
   }
 
   public static Builder builder() {
@@ -39,6 +82,7 @@ public class SearchResult {
     private String groupId;
     private String artifactId;
     private String latestVersion;
+    private String repository;
 
     public Builder groupId(String groupId) {
       this.groupId = groupId;
@@ -55,8 +99,13 @@ public class SearchResult {
       return this;
     }
 
+    public Builder repository(String repository) {
+      this.repository = repository;
+      return this;
+    }
+
     public SearchResult build() {
-      return new SearchResult(groupId, artifactId, latestVersion);
+      return new SearchResult(groupId, artifactId, latestVersion, repository);
     }
   }
 }
@@ -0,0 +1,52 @@
+package nl.fizzylogic.maven.dependencymanager.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares equal strings, so repeated values such as groupIds are stored once however often they are
+ * parsed. Interning is lock-free, so it never blocks the carrier of a virtual thread. The table is
+ * bounded: when it holds its capacity of strings it is cleared and starts over, so a long-running
+ * process keeps sharing the strings it currently sees without holding on to every string it has
+ * ever seen. Strings that were handed out before stay shared by the objects that hold them.
+ */
+public final class SymbolTable {
+
+  /** The table for the groupIds and artifactIds of the model classes. */
+  public static final SymbolTable COORDINATES = new SymbolTable(1 << 17);
+
+  private final int capacity;
+  private final ConcurrentHashMap<String, String> symbols = new ConcurrentHashMap<>();
+
+  public SymbolTable(int capacity) {
+    this.capacity = capacity;
+  }
+
+  /**
+   * Get the string stored in the table that is equal to the value, adding the value when there is
+   * none.
+   *
+   * @return the shared string, or null for null
+   */
+  public String intern(String value) {
+    if (value == null) {
+      return null;
+    }
+
+    String symbol = symbols.get(value);
+    if (symbol != null) {
+      return symbol;
+    }
+
+    if (symbols.size() >= capacity) {
+      symbols.clear();
+    }
+
+    symbol = symbols.putIfAbsent(value, value);
+    return symbol != null ? symbol : value;
+  }
+
+  /** The number of strings in the table. */
+  public int size() {
+    return symbols.size();
+  }
+}
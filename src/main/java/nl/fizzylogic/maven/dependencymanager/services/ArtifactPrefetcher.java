@@ -0,0 +1,747 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+
+import nl.fizzylogic.maven.dependencymanager.model.DependencyCoordinates;
+import nl.fizzylogic.maven.dependencymanager.model.MavenRepository;
+import nl.fizzylogic.maven.dependencymanager.util.PropertyInterpolator;
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
+
+/**
+ * Service that downloads artifacts and their transitive dependencies into the local Maven
+ * repository. POMs are fetched first so the dependency graph expands as results arrive, while the
+ * JARs of artifacts that are already known download concurrently. Connections are limited per
+ * repository host, routed through the proxy configured for that host, and every download is
+ * verified against the SHA-1 checksum of the repository.
+ *
+ * <p>Every version that is encountered in the graph is fetched; no conflict resolution is applied,
+ * so the result is a superset of what a Maven build downloads.
+ */
+@TraceStartup
+@ApplicationScoped
+public class ArtifactPrefetcher {
+
+  private static final Logger LOGGER = Logger.getLogger(ArtifactPrefetcher.class.getName());
+  private static final Path LOCAL_REPOSITORY_PATH =
+      Path.of(System.getProperty("user.home"), ".m2", "repository");
+  private static final String REMOTE_REPOSITORIES_FILE_NAME = "_remote.repositories";
+  private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+  private static final Set<String> RESOLVED_SCOPES = Set.of("compile", "runtime");
+
+  public static final int DEFAULT_CONNECTIONS_PER_HOST = 8;
+
+  @Inject MavenConfiguration repositoryService;
+
+  @Inject HttpRouting routing;
+
+  Path localRepository = LOCAL_REPOSITORY_PATH;
+
+  /**
+   * Download the artifacts and their transitive dependencies into the local repository.
+   *
+   * @param dependencies The dependencies to fetch, each with a version
+   * @param connectionsPerHost The maximum number of concurrent connections per repository host
+   * @return The outcome of the prefetch
+   */
+  public PrefetchResult prefetch(List<DependencyCoordinates> dependencies, int connectionsPerHost) {
+    if (connectionsPerHost < 1) {
+      throw new IllegalArgumentException("Connections per host must be at least 1");
+    }
+
+    PrefetchRun run =
+        new PrefetchRun(
+            repositoryService.getRepositories(), routing, localRepository, connectionsPerHost);
+    return run.execute(dependencies);
+  }
+
+  /**
+   * Walk the dependency graph through the POMs in the local repository, without using the network.
+   * Files that are not in the local repository are listed as missing, and the part of the graph
+   * below a missing POM is not walked.
+   *
+   * @param dependencies The dependencies to walk, each with a version
+   * @return The outcome of the walk; nothing is downloaded
+   */
+  public PrefetchResult walkLocal(List<DependencyCoordinates> dependencies) {
+    PrefetchRun run =
+        new PrefetchRun(List.of(), routing, localRepository, DEFAULT_CONNECTIONS_PER_HOST, true);
+    return run.execute(dependencies);
+  }
+
+  /**
+   * Download files that are missing from the local repository, without expanding the dependencies
+   * of their artifacts.
+   *
+   * @param files The files by groupId:artifactId:version:extension
+   * @param connectionsPerHost The maximum number of concurrent connections per repository host
+   * @return The outcome of the downloads
+   */
+  public PrefetchResult fetchFiles(List<String> files, int connectionsPerHost) {
+    if (connectionsPerHost < 1) {
+      throw new IllegalArgumentException("Connections per host must be at least 1");
+    }
+
+    PrefetchRun run =
+        new PrefetchRun(
+            repositoryService.getRepositories(), routing, localRepository, connectionsPerHost);
+    return run.fetchAll(files);
+  }
+
+  /**
+   * Get the versions managed by a BOM, including the ones of its parents and of the BOMs it
+   * imports. Their POMs are downloaded into the local repository when they are missing.
+   *
+   * @param bom The coordinates of the BOM, with a version
+   * @return The managed versions by groupId:artifactId
+   * @throws IOException if a POM cannot be fetched or parsed
+   */
+  public Map<String, String> managedVersions(DependencyCoordinates bom) throws IOException {
+    PrefetchRun run =
+        new PrefetchRun(
+            repositoryService.getRepositories(),
+            routing,
+            localRepository,
+            DEFAULT_CONNECTIONS_PER_HOST);
+
+    try {
+      return run.managedVersionsOf(bom.getGroupId(), bom.getArtifactId(), bom.getVersion());
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Get the properties of a POM merged with those of its parents, as they apply to a child of it.
+   * The POMs are downloaded into the local repository when they are missing.
+   *
+   * @param pom The coordinates of the POM, with a version
+   * @return The properties, including project.groupId and project.version
+   * @throws IOException if a POM cannot be fetched or parsed
+   */
+  public Properties projectProperties(DependencyCoordinates pom) throws IOException {
+    PrefetchRun run =
+        new PrefetchRun(
+            repositoryService.getRepositories(),
+            routing,
+            localRepository,
+            DEFAULT_CONNECTIONS_PER_HOST);
+
+    try {
+      return run.propertiesOf(pom.getGroupId(), pom.getArtifactId(), pom.getVersion());
+    } catch (UncheckedIOException e) {
+      throw e.getCause();
+    }
+  }
+
+  /** State of a single prefetch, shared by all download tasks of that prefetch. */
+  private static class PrefetchRun {
+    private final List<MavenRepository> repositories;
+    private final Path localRepository;
+    private final int connectionsPerHost;
+    private final boolean offline;
+    private final ExecutorService executor;
+    private final HttpRouting routing;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<Model>> models = new ConcurrentHashMap<>();
+    private final Set<String> visited = ConcurrentHashMap.newKeySet();
+    private final PrefetchResult result = new PrefetchResult();
+
+    PrefetchRun(
+        List<MavenRepository> repositories,
+        HttpRouting routing,
+        Path localRepository,
+        int connectionsPerHost) {
+      this(repositories, routing, localRepository, connectionsPerHost, false);
+    }
+
+    PrefetchRun(
+        List<MavenRepository> repositories,
+        HttpRouting routing,
+        Path localRepository,
+        int connectionsPerHost,
+        boolean offline) {
+      this.repositories = repositories;
+      this.routing = routing;
+      this.localRepository = localRepository;
+      this.connectionsPerHost = connectionsPerHost;
+      this.offline = offline;
+      this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    PrefetchResult execute(List<DependencyCoordinates> dependencies) {
+      long start = System.nanoTime();
+
+      try {
+        List<CompletableFuture<Void>> roots = new ArrayList<>();
+        for (DependencyCoordinates dependency : dependencies) {
+          roots.add(
+              visit(dependency.getGroupId(), dependency.getArtifactId(), dependency.getVersion()));
+        }
+        allOf(roots).join();
+      } finally {
+        executor.shutdown();
+      }
+
+      result.elapsed = Duration.ofNanos(System.nanoTime() - start);
+      return result;
+    }
+
+    /** Fetch files by groupId:artifactId:version:extension, each on its own. */
+    PrefetchResult fetchAll(List<String> files) {
+      long start = System.nanoTime();
+
+      try {
+        List<CompletableFuture<Void>> downloads = new ArrayList<>();
+        for (String file : files) {
+          String[] parts = file.split(":");
+          downloads.add(
+              CompletableFuture.runAsync(
+                      () ->
+                          result.artifacts.put(file, fetch(parts[0], parts[1], parts[2], parts[3])),
+                      executor)
+                  .exceptionally(
+                      e -> {
+                        Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                        result.failures.add(file + ": " + cause.getMessage());
+                        return null;
+                      }));
+        }
+        allOf(downloads).join();
+      } finally {
+        executor.shutdown();
+      }
+
+      result.elapsed = Duration.ofNanos(System.nanoTime() - start);
+      return result;
+    }
+
+    /** Get the managed versions of a POM, such as a BOM, and of its parents and imports. */
+    Map<String, String> managedVersionsOf(String groupId, String artifactId, String version) {
+      try {
+        Model model = loadModel(groupId, artifactId, version);
+        return managedVersions(model, effectiveProperties(model));
+      } finally {
+        executor.shutdown();
+      }
+    }
+
+    /** Get the properties of a POM merged with those of its parents. */
+    Properties propertiesOf(String groupId, String artifactId, String version) {
+      try {
+        return effectiveProperties(loadModel(groupId, artifactId, version));
+      } finally {
+        executor.shutdown();
+      }
+    }
+
+    /**
+     * Fetch the POM of an artifact, then fetch its file and expand its dependencies concurrently.
+     * Each artifact is visited once; the returned future completes when its subtree is fetched.
+     */
+    private CompletableFuture<Void> visit(String groupId, String artifactId, String version) {
+      String key = groupId + ":" + artifactId + ":" + version;
+
+      if (!visited.add(key)) {
+        return CompletableFuture.completedFuture(null);
+      }
+
+      return CompletableFuture.supplyAsync(() -> loadModel(groupId, artifactId, version), executor)
+          .thenCompose(
+              model -> {
+                List<CompletableFuture<Void>> work = new ArrayList<>();
+                String extension = artifactExtension(model.getPackaging());
+
+                if (extension != null) {
+                  work.add(
+                      CompletableFuture.runAsync(
+                          () ->
+                              result.artifacts.put(
+                                  key + ":" + extension,
+                                  fetch(groupId, artifactId, version, extension)),
+                          executor));
+                } else {
+                  result.artifacts.put(
+                      key + ":pom", pomPath(localRepository, groupId, artifactId, version));
+                }
+
+                for (DependencyCoordinates dependency : dependenciesOf(model)) {
+                  work.add(
+                      visit(
+                          dependency.getGroupId(),
+                          dependency.getArtifactId(),
+                          dependency.getVersion()));
+                }
+
+                return allOf(work);
+              })
+          .exceptionally(
+              e -> {
+                Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                if (!isMissingLocally(cause)) {
+                  LOGGER.warning("Failed to prefetch " + key + ": " + cause.getMessage());
+                  result.failures.add(key + ": " + cause.getMessage());
+                }
+                return null;
+              });
+    }
+
+    /** Load and parse the POM of an artifact, downloading it at most once per prefetch. */
+    private Model loadModel(String groupId, String artifactId, String version) {
+      String key = groupId + ":" + artifactId + ":" + version;
+      CompletableFuture<Model> created = new CompletableFuture<>();
+      CompletableFuture<Model> existing = models.putIfAbsent(key, created);
+
+      if (existing != null) {
+        return existing.join();
+      }
+
+      try (Reader reader = Files.newBufferedReader(fetch(groupId, artifactId, version, "pom"))) {
+        Model model = new MavenXpp3Reader().read(reader);
+        created.complete(model);
+        return model;
+      } catch (Exception e) {
+        created.completeExceptionally(e);
+        throw e instanceof UncheckedIOException unchecked
+            ? unchecked
+            : new UncheckedIOException(new IOException("Failed to parse POM of " + key, e));
+      }
+    }
+
+    /** Get the runtime dependencies of a model with their versions resolved. */
+    private List<DependencyCoordinates> dependenciesOf(Model model) {
+      Properties properties = effectiveProperties(model);
+      Map<String, String> managedVersions = managedVersions(model, properties);
+      List<DependencyCoordinates> dependencies = new ArrayList<>();
+
+      for (Dependency dependency : model.getDependencies()) {
+        String scope = dependency.getScope() != null ? dependency.getScope() : "compile";
+
+        if (!RESOLVED_SCOPES.contains(scope) || dependency.isOptional()) {
+          continue;
+        }
+
+        String groupId = PropertyInterpolator.interpolate(dependency.getGroupId(), properties);
+        String artifactId =
+            PropertyInterpolator.interpolate(dependency.getArtifactId(), properties);
+        String version =
+            dependency.getVersion() != null
+                ? PropertyInterpolator.interpolate(dependency.getVersion(), properties)
+                : managedVersions.get(groupId + ":" + artifactId);
+
+        if (!isFixedVersion(version)) {
+          LOGGER.fine("Skipping " + groupId + ":" + artifactId + " without a fixed version");
+          continue;
+        }
+
+        dependencies.add(new DependencyCoordinates(groupId, artifactId, version));
+      }
+
+      return dependencies;
+    }
+
+    /** Merge the properties of a model with those of its parents. */
+    private Properties effectiveProperties(Model model) {
+      Properties properties = new Properties();
+      Parent parent = model.getParent();
+
+      if (parent != null) {
+        properties.putAll(
+            effectiveProperties(
+                loadModel(parent.getGroupId(), parent.getArtifactId(), parent.getVersion())));
+        properties.setProperty("project.parent.version", parent.getVersion());
+      }
+
+      properties.putAll(model.getProperties());
+
+      String groupId = model.getGroupId() != null ? model.getGroupId() : parent.getGroupId();
+      String version = model.getVersion() != null ? model.getVersion() : parent.getVersion();
+      properties.setProperty("project.groupId", groupId);
+      properties.setProperty("project.version", version);
+
+      return properties;
+    }
+
+    /**
+     * Collect the managed versions of a model and its parents. Entries declared directly take
+     * precedence over entries from imported BOMs, as they do in Maven.
+     */
+    private Map<String, String> managedVersions(Model model, Properties properties) {
+      Map<String, String> managedVersions = new HashMap<>();
+      Parent parent = model.getParent();
+
+      if (parent != null) {
+        managedVersions.putAll(
+            managedVersions(
+                loadModel(parent.getGroupId(), parent.getArtifactId(), parent.getVersion()),
+                properties));
+      }
+
+      if (model.getDependencyManagement() == null) {
+        return managedVersions;
+      }
+
+      List<Model> imports = new ArrayList<>();
+
+      for (Dependency dependency : model.getDependencyManagement().getDependencies()) {
+        String groupId = PropertyInterpolator.interpolate(dependency.getGroupId(), properties);
+        String artifactId =
+            PropertyInterpolator.interpolate(dependency.getArtifactId(), properties);
+        String version = PropertyInterpolator.interpolate(dependency.getVersion(), properties);
+
+        if (!isFixedVersion(version)) {
+          continue;
+        }
+
+        if ("import".equals(dependency.getScope()) && "pom".equals(dependency.getType())) {
+          imports.add(loadModel(groupId, artifactId, version));
+        } else {
+          managedVersions.put(groupId + ":" + artifactId, version);
+        }
+      }
+
+      for (Model bom : imports) {
+        managedVersions(bom, effectiveProperties(bom)).forEach(managedVersions::putIfAbsent);
+      }
+
+      return managedVersions;
+    }
+
+    /**
+     * Fetch a file of an artifact into the local repository, unless it is already present.
+     * Repositories are tried in order until one of them has the file.
+     */
+    private Path fetch(String groupId, String artifactId, String version, String extension) {
+      String fileName = artifactId + "-" + version + "." + extension;
+      String path = groupId.replace('.', '/') + "/" + artifactId + "/" + version + "/" + fileName;
+      Path target = localRepository.resolve(path);
+
+      if (Files.isRegularFile(target)) {
+        result.present.incrementAndGet();
+        return target;
+      }
+
+      if (offline) {
+        result.missing.add(groupId + ":" + artifactId + ":" + version + ":" + extension);
+        throw new UncheckedIOException(new MissingLocallyException(path));
+      }
+
+      IOException lastError = null;
+
+      for (MavenRepository repository : repositories) {
+        try {
+          Files.createDirectories(target.getParent());
+          Path temporary = Files.createTempFile(target.getParent(), fileName + "-", ".tmp");
+
+          try {
+            String checksum = download(repository, path, temporary);
+
+            if (checksum == null) {
+              continue;
+            }
+
+            verifyChecksum(repository, path, checksum);
+
+            long size = Files.size(temporary);
+            Files.move(
+                temporary,
+                target,
+                StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+            write(
+                target.resolveSibling(fileName + ".sha1"),
+                checksum.getBytes(StandardCharsets.US_ASCII));
+            recordRemoteRepository(target, repository);
+
+            result.downloaded.incrementAndGet();
+            result.bytes.addAndGet(size);
+            return target;
+          } finally {
+            Files.deleteIfExists(temporary);
+          }
+        } catch (IOException e) {
+          LOGGER.warning("Failed to download " + path + " from " + repository + ": " + e);
+          lastError = e;
+        }
+      }
+
+      throw new UncheckedIOException(
+          lastError != null
+              ? lastError
+              : new FileNotFoundException(path + " not found in any repository"));
+    }
+
+    /**
+     * Stream a file from a repository into a local file, computing its SHA-1 on the way, so large
+     * artifacts are never held in memory. The caller moves the file into place once the checksum is
+     * verified.
+     *
+     * @return the SHA-1 of the content, or null when the repository does not have the file
+     */
+    private String download(MavenRepository repository, String path, Path file) throws IOException {
+      return download(
+          repository,
+          path,
+          body -> {
+            MessageDigest digest = sha1();
+            try (InputStream input = new DigestInputStream(body, digest)) {
+              Files.copy(input, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return HexFormat.of().formatHex(digest.digest());
+          });
+    }
+
+    /** Download a small file, such as a checksum, returning null when it is not there. */
+    private byte[] download(MavenRepository repository, String path) throws IOException {
+      return download(repository, path, InputStream::readAllBytes);
+    }
+
+    /**
+     * Download a file from a repository and read its body while holding a connection permit of the
+     * host.
+     *
+     * @return what the reader made of the body, or null when the repository does not have the file
+     */
+    private <T> T download(MavenRepository repository, String path, BodyReader<T> reader)
+        throws IOException {
+      String baseUrl = repository.getUrl();
+      URI uri = URI.create(baseUrl.endsWith("/") ? baseUrl + path : baseUrl + "/" + path);
+      Semaphore permits =
+          hostPermits.computeIfAbsent(
+              String.valueOf(uri.getHost()), host -> new Semaphore(connectionsPerHost));
+
+      HttpRequest request =
+          HttpRequest.newBuilder().uri(uri).timeout(REQUEST_TIMEOUT).GET().build();
+
+      try {
+        permits.acquire();
+        try {
+          HttpResponse<InputStream> response =
+              routing.send(request, HttpResponse.BodyHandlers.ofInputStream(), repository);
+
+          try (InputStream body = response.body()) {
+            if (response.statusCode() == 404) {
+              return null;
+            }
+
+            if (response.statusCode() != 200) {
+              throw new IOException(
+                  "Download of " + uri + " failed with status: " + response.statusCode());
+            }
+
+            return reader.read(body);
+          }
+        } finally {
+          permits.release();
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new InterruptedIOException("Download of " + uri + " was interrupted");
+      }
+    }
+
+    /** Compare the checksum of downloaded content with the checksum published next to it. */
+    private void verifyChecksum(MavenRepository repository, String path, String actual)
+        throws IOException {
+      byte[] published = download(repository, path + ".sha1");
+
+      if (published == null) {
+        LOGGER.warning("No checksum published for " + path + " in " + repository);
+        return;
+      }
+
+      String expected = new String(published, StandardCharsets.US_ASCII).trim().split("\\s+")[0];
+
+      if (!expected.equalsIgnoreCase(actual)) {
+        throw new IOException(
+            "Checksum mismatch for " + path + ": expected " + expected + ", got " + actual);
+      }
+    }
+
+    /** Write a file atomically, so concurrent builds never see a partially written artifact. */
+    private void write(Path target, byte[] content) throws IOException {
+      Files.createDirectories(target.getParent());
+      Path temporary = Files.createTempFile(target.getParent(), target.getFileName() + "-", ".tmp");
+
+      try {
+        Files.write(temporary, content);
+        Files.move(
+            temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } finally {
+        Files.deleteIfExists(temporary);
+      }
+    }
+
+    /** Record the origin of a file, so Maven accepts it as downloaded from that repository. */
+    private synchronized void recordRemoteRepository(Path target, MavenRepository repository)
+        throws IOException {
+      Path recordFile = target.resolveSibling(REMOTE_REPOSITORIES_FILE_NAME);
+      String record = target.getFileName() + ">" + repository.getId() + "=\n";
+
+      Files.writeString(
+          recordFile,
+          record,
+          StandardCharsets.UTF_8,
+          StandardOpenOption.CREATE,
+          StandardOpenOption.APPEND);
+    }
+
+    private static MessageDigest sha1() {
+      try {
+        return MessageDigest.getInstance("SHA-1");
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException("SHA-1 is not available", e);
+      }
+    }
+
+    private static Path pomPath(
+        Path localRepository, String groupId, String artifactId, String version) {
+      return localRepository
+          .resolve(groupId.replace('.', '/'))
+          .resolve(artifactId)
+          .resolve(version)
+          .resolve(artifactId + "-" + version + ".pom");
+    }
+
+    /** Get the file extension for a packaging type, or null when there is no artifact file. */
+    private static String artifactExtension(String packaging) {
+      if (packaging == null) {
+        return "jar";
+      }
+
+      return switch (packaging) {
+        case "pom" -> null;
+        case "war", "ear", "rar" -> packaging;
+        default -> "jar";
+      };
+    }
+
+    private static boolean isFixedVersion(String version) {
+      return version != null
+          && !version.contains("${")
+          && !version.startsWith("[")
+          && !version.startsWith("(");
+    }
+
+    /** Whether a failure is caused by a file that is missing from the local repository. */
+    private static boolean isMissingLocally(Throwable e) {
+      for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+        if (cause instanceof MissingLocallyException) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private static CompletableFuture<Void> allOf(List<CompletableFuture<Void>> futures) {
+      return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+    }
+  }
+
+  /** Reads the body of a response. */
+  private interface BodyReader<T> {
+    T read(InputStream body) throws IOException;
+  }
+
+  /** Thrown when walking the local repository reaches a file that is not there. */
+  private static class MissingLocallyException extends FileNotFoundException {
+    private static final long serialVersionUID = 1L;
+
+    MissingLocallyException(String path) {
+      super(path + " is not in the local repository");
+    }
+  }
+
+  /** Outcome of a prefetch. */
+  public static class PrefetchResult {
+    private final AtomicInteger downloaded = new AtomicInteger();
+    private final AtomicInteger present = new AtomicInteger();
+    private final AtomicLong bytes = new AtomicLong();
+    private final ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+    private final Set<String> missing = new ConcurrentSkipListSet<>();
+    private final Map<String, Path> artifacts = new ConcurrentSkipListMap<>();
+    private Duration elapsed = Duration.ZERO;
+
+    /** Number of files that were downloaded into the local repository. */
+    public int getDownloadedCount() {
+      return downloaded.get();
+    }
+
+    /** Number of files that were already present in the local repository. */
+    public int getPresentCount() {
+      return present.get();
+    }
+
+    public long getDownloadedBytes() {
+      return bytes.get();
+    }
+
+    public List<String> getFailures() {
+      return new ArrayList<>(failures);
+    }
+
+    /**
+     * The files that were not in the local repository when walking it without the network, by
+     * groupId:artifactId:version:extension.
+     */
+    public List<String> getMissing() {
+      return new ArrayList<>(missing);
+    }
+
+    /**
+     * The artifacts in the dependency graph, by groupId:artifactId:version:extension, with their
+     * file in the local repository. Artifacts with pom packaging are listed with their POM.
+     */
+    public Map<String, Path> getArtifacts() {
+      return new TreeMap<>(artifacts);
+    }
+
+    public Duration getElapsed() {
+      return elapsed;
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Locale;
+
+import nl.fizzylogic.maven.dependencymanager.model.MavenRepository;
+import nl.fizzylogic.maven.dependencymanager.model.SearchQuery;
+import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+
+/**
+ * Searches a JFrog Artifactory repository through its GAVC and artifact search APIs. Repository
+ * URLs of Artifactory have the form {@code https://host/artifactory/<repository-key>/}.
+ */
+class ArtifactorySearchBackend extends HttpSearchBackend {
+
+  private static final String ARTIFACTORY_MARKER = "/artifactory/";
+  private static final String STORAGE_MARKER = "/api/storage/";
+
+  private final String baseUrl;
+  private final String repositoryKey;
+
+  ArtifactorySearchBackend(MavenRepository repository, HttpRouting routing) {
+    super(repository, routing);
+    this.baseUrl = baseUrl(repository.getUrl(), ARTIFACTORY_MARKER) + "/artifactory";
+    this.repositoryKey = segmentAfter(repository.getUrl(), ARTIFACTORY_MARKER);
+  }
+
+  /** Whether the repository URL has the form used by Artifactory. */
+  static boolean supports(MavenRepository repository) {
+    return segmentAfter(repository.getUrl(), ARTIFACTORY_MARKER) != null;
+  }
+
+  @Override
+  URI searchUri(SearchQuery query) {
+    StringBuilder uri = new StringBuilder(baseUrl);
+
+    if (query.isExact()) {
+      uri.append("/api/search/gavc?g=").append(encode(query.getGroupId()));
+      uri.append("&a=").append(encode(query.getArtifactId()));
+      if (query.getVersion() != null) {
+        uri.append("&v=").append(encode(query.getVersion()));
+      }
+    } else {
+      uri.append("/api/search/artifact?name=").append(encode("*" + query.getText() + "*"));
+    }
+
+    uri.append("&repos=").append(encode(repositoryKey));
+    return URI.create(uri.toString());
+  }
+
+  @Override
+  void readResults(InputStream body, SearchQuery query, HighestVersions results)
+      throws IOException {
+    String keyword = query.isExact() ? null : query.getText().toLowerCase(Locale.ROOT);
+
+    SearchResponseReader.readObjects(
+        body,
+        "results",
+        item -> {
+          SearchResult result = parseStorageUri(item.get("uri"));
+
+          if (result != null
+              && (keyword == null
+                  || (result.getGroupId() + ":" + result.getArtifactId())
+                      .toLowerCase(Locale.ROOT)
+                      .contains(keyword))) {
+            results.add(result);
+          }
+        });
+  }
+
+  /**
+   * Derive the coordinates from the storage URI of a POM or JAR file, such as {@code
+   * .../api/storage/libs-release/org/example/lib/1.0/lib-1.0.jar}.
+   */
+  static SearchResult parseStorageUri(String uri) {
+    if (uri == null || !(uri.endsWith(".pom") || uri.endsWith(".jar"))) {
+      return null;
+    }
+
+    int index = uri.indexOf(STORAGE_MARKER);
+    if (index < 0) {
+      return null;
+    }
+
+    // Skip the repository key that follows the storage marker
+    String path = uri.substring(index + STORAGE_MARKER.length());
+    String[] segments = path.substring(path.indexOf('/') + 1).split("/");
+
+    if (segments.length < 4) {
+      return null;
+    }
+
+    String artifactId = segments[segments.length - 3];
+    String version = segments[segments.length - 2];
+    String groupId = String.join(".", Arrays.copyOf(segments, segments.length - 3));
+
+    return new SearchResult(groupId, artifactId, version);
+  }
+}
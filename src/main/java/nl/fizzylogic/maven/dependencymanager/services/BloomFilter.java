@@ -0,0 +1,148 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Bloom filter for strings, with its bits kept outside the Java heap: in a direct buffer while it
+ * is built, or in a memory-mapped file when it is loaded. A "no" answer is definite; a "yes" answer
+ * is wrong with the false positive probability the filter was sized for.
+ */
+final class BloomFilter {
+
+  private static final int MAGIC = 0x424c4f31; // "BLO1"
+  private static final int HEADER_SIZE = 16;
+
+  private final ByteBuffer buffer;
+  private final long bitCount;
+  private final int hashCount;
+
+  private BloomFilter(ByteBuffer buffer, long bitCount, int hashCount) {
+    this.buffer = buffer;
+    this.bitCount = bitCount;
+    this.hashCount = hashCount;
+  }
+
+  /**
+   * Create an empty filter.
+   *
+   * @param expectedEntries The number of entries the filter is sized for
+   * @param falsePositiveProbability The probability of a false "yes" at the expected size
+   */
+  static BloomFilter create(long expectedEntries, double falsePositiveProbability) {
+    long entries = Math.max(1, expectedEntries);
+    long bits =
+        (long)
+            Math.ceil(-entries * Math.log(falsePositiveProbability) / (Math.log(2) * Math.log(2)));
+    bits = Math.max(64, (bits + 63) / 64 * 64);
+
+    if (bits / 8 > Integer.MAX_VALUE - HEADER_SIZE) {
+      throw new IllegalArgumentException("Bloom filter for " + expectedEntries + " is too large");
+    }
+
+    int hashes = Math.max(1, (int) Math.round((double) bits / entries * Math.log(2)));
+
+    ByteBuffer buffer = ByteBuffer.allocateDirect(HEADER_SIZE + (int) (bits / 8));
+    buffer.putInt(0, MAGIC);
+    buffer.putInt(4, hashes);
+    buffer.putLong(8, bits);
+    return new BloomFilter(buffer, bits, hashes);
+  }
+
+  /**
+   * Map a filter that was written with {@link #writeTo(Path)}. The file is mapped read-only, so the
+   * operating system shares its pages between processes.
+   *
+   * @throws IOException if the file cannot be read or is not a Bloom filter
+   */
+  static BloomFilter map(Path file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      if (channel.size() < HEADER_SIZE) {
+        throw new IOException("Not a Bloom filter: " + file);
+      }
+
+      ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      long bits = buffer.getLong(8);
+
+      if (buffer.getInt(0) != MAGIC || channel.size() != HEADER_SIZE + bits / 8) {
+        throw new IOException("Not a Bloom filter: " + file);
+      }
+
+      return new BloomFilter(buffer, bits, buffer.getInt(4));
+    }
+  }
+
+  void put(String value) {
+    long hash = hash(value);
+    long h1 = hash;
+    long h2 = mix(hash ^ 0x9e3779b97f4a7c15L) | 1;
+
+    for (int i = 0; i < hashCount; i++) {
+      long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+      int index = HEADER_SIZE + (int) (bit >>> 3);
+      buffer.put(index, (byte) (buffer.get(index) | (1 << (bit & 7))));
+    }
+  }
+
+  boolean mightContain(String value) {
+    long hash = hash(value);
+    long h1 = hash;
+    long h2 = mix(hash ^ 0x9e3779b97f4a7c15L) | 1;
+
+    for (int i = 0; i < hashCount; i++) {
+      long bit = Long.remainderUnsigned(h1 + i * h2, bitCount);
+      if ((buffer.get(HEADER_SIZE + (int) (bit >>> 3)) & (1 << (bit & 7))) == 0) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /** Size of the filter in bytes, including its header. */
+  long sizeInBytes() {
+    return HEADER_SIZE + bitCount / 8;
+  }
+
+  /** Write the filter to a file, replacing it atomically. */
+  void writeTo(Path file) throws IOException {
+    Files.createDirectories(file.getParent());
+    Path temporary = Files.createTempFile(file.getParent(), file.getFileName() + "-", ".tmp");
+
+    try {
+      try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+        ByteBuffer content = buffer.duplicate().clear();
+        while (content.hasRemaining()) {
+          channel.write(content);
+        }
+      }
+      Files.move(
+          temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  /** 64-bit FNV-1a over the UTF-8 bytes, finished with a mixer to spread the bits. */
+  static long hash(String value) {
+    long hash = 0xcbf29ce484222325L;
+    for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+      hash ^= b & 0xff;
+      hash *= 0x100000001b3L;
+    }
+    return mix(hash);
+  }
+
+  /** The finalizer of SplitMix64. */
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+}
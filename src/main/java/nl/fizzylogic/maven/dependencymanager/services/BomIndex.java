@@ -0,0 +1,339 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+
+import nl.fizzylogic.maven.dependencymanager.model.DependencyCoordinates;
+import nl.fizzylogic.maven.dependencymanager.util.PropertyInterpolator;
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
+
+/**
+ * Knows which versions the dependencyManagement of a project manages, including the versions of its
+ * parents and of the BOMs they import. A BOM is fetched and parsed once; its managed versions are
+ * then kept as an index from groupId:artifactId to version in a {@link CompactRecords} file per
+ * BOM, which later runs read instead of the POMs. Released BOMs never change, so their index never
+ * expires; snapshot BOMs are parsed again in every run.
+ *
+ * <p>As in Maven, a version that the project manages itself takes precedence over its parents, the
+ * managed versions of the project and its parents take precedence over the BOMs, and a BOM that is
+ * imported earlier takes precedence over the ones after it. Parents are read from the checkout when
+ * the relativePath of the parent element points at them, and from the repository otherwise.
+ */
+@TraceStartup
+@ApplicationScoped
+public class BomIndex {
+
+  private static final Logger LOGGER = Logger.getLogger(BomIndex.class.getName());
+  private static final Path CACHE_DIRECTORY_PATH =
+      Path.of(System.getProperty("user.home"), ".m2", "dependencymanager", "boms");
+
+  @Inject ArtifactPrefetcher artifactPrefetcher;
+
+  @Inject ProjectModelEditor pomManipulation;
+
+  private final Path cacheDirectory;
+  private final Map<DependencyCoordinates, Map<String, String>> indexes = new ConcurrentHashMap<>();
+  private final Map<DependencyCoordinates, Properties> parentProperties = new ConcurrentHashMap<>();
+
+  public BomIndex() {
+    this(CACHE_DIRECTORY_PATH);
+  }
+
+  BomIndex(Path cacheDirectory) {
+    this.cacheDirectory = cacheDirectory;
+  }
+
+  /**
+   * Find the version of an artifact that the dependencyManagement of a project manages, directly,
+   * through its parents, or through the BOMs they import.
+   *
+   * @param directory The directory of the project's pom.xml, used to find local parents
+   * @param model The project
+   * @return the managed version, or empty when the artifact is not managed
+   * @throws IOException if a parent or an imported BOM cannot be fetched or parsed
+   */
+  public Optional<String> managedVersion(
+      File directory, Model model, String groupId, String artifactId) throws IOException {
+    return Optional.ofNullable(
+        resolve(directory, model).managedVersion(groupId + ":" + artifactId));
+  }
+
+  /**
+   * Get the direct dependencies of a project with their versions resolved. A version comes from the
+   * dependency itself, with properties of the project and its parents filled in, or when it has
+   * none, from the dependencyManagement of the project, its parents, and the BOMs they import.
+   *
+   * @param directory The directory of the project's pom.xml, used to find local parents
+   * @param model The project
+   * @return The resolved dependencies, and the ones without a resolvable version
+   * @throws IOException if a parent or an imported BOM cannot be fetched or parsed
+   */
+  public EffectiveDependencies effectiveDependencies(File directory, Model model)
+      throws IOException {
+    Project project = resolve(directory, model);
+    List<DependencyCoordinates> resolved = new ArrayList<>();
+    List<String> unresolved = new ArrayList<>();
+
+    for (Dependency dependency : model.getDependencies()) {
+      String groupId =
+          PropertyInterpolator.interpolate(dependency.getGroupId(), project.properties);
+      String artifactId =
+          PropertyInterpolator.interpolate(dependency.getArtifactId(), project.properties);
+      String version =
+          dependency.getVersion() != null
+              ? PropertyInterpolator.interpolate(dependency.getVersion(), project.properties)
+              : project.managedVersion(groupId + ":" + artifactId);
+
+      if (version == null || version.contains("${")) {
+        unresolved.add(
+            groupId
+                + ":"
+                + artifactId
+                + (dependency.getVersion() != null ? ":" + dependency.getVersion() : ""));
+      } else {
+        resolved.add(new DependencyCoordinates(groupId, artifactId, version));
+      }
+    }
+
+    return new EffectiveDependencies(resolved, unresolved);
+  }
+
+  /**
+   * Collect the properties and managed versions of a project from the project and its parents.
+   * Parents are read from disk as long as the relativePath of the parent element points at them, as
+   * Maven does; the first parent that is not found there is taken from the repository, along with
+   * its own parents.
+   */
+  private Project resolve(File directory, Model model) throws IOException {
+    List<Model> models = new ArrayList<>();
+    Set<File> visited = new HashSet<>();
+    DependencyCoordinates remoteParent = null;
+
+    for (Model current = model; current != null; ) {
+      models.add(current);
+      Parent parent = current.getParent();
+      LocalParent local = parent != null ? localParent(directory, parent) : null;
+
+      if (parent == null) {
+        current = null;
+      } else if (local != null && visited.add(local.directory().getCanonicalFile())) {
+        directory = local.directory();
+        current = local.model();
+      } else {
+        remoteParent =
+            new DependencyCoordinates(
+                parent.getGroupId(), parent.getArtifactId(), parent.getVersion());
+        current = null;
+      }
+    }
+
+    Properties properties = new Properties();
+    if (remoteParent != null) {
+      properties.putAll(parentProperties(remoteParent));
+    }
+
+    for (Model current : models.reversed()) {
+      properties.putAll(current.getProperties());
+      Parent parent = current.getParent();
+      String groupId = current.getGroupId() != null ? current.getGroupId() : parentGroupId(current);
+      String version = current.getVersion() != null ? current.getVersion() : parentVersion(current);
+
+      if (groupId != null) {
+        properties.setProperty("project.groupId", groupId);
+      }
+      if (version != null) {
+        properties.setProperty("project.version", version);
+      }
+      if (parent != null && parent.getVersion() != null) {
+        properties.setProperty("project.parent.version", parent.getVersion());
+      }
+    }
+
+    Map<String, String> managed = new HashMap<>();
+    List<DependencyCoordinates> imports = new ArrayList<>();
+
+    if (remoteParent != null) {
+      imports.add(remoteParent);
+    }
+
+    for (Model current : models) {
+      if (current.getDependencyManagement() == null) {
+        continue;
+      }
+
+      for (Dependency dependency : current.getDependencyManagement().getDependencies()) {
+        String groupId = PropertyInterpolator.interpolate(dependency.getGroupId(), properties);
+        String artifactId =
+            PropertyInterpolator.interpolate(dependency.getArtifactId(), properties);
+        String version = PropertyInterpolator.interpolate(dependency.getVersion(), properties);
+
+        if (version == null || version.contains("${")) {
+          LOGGER.fine("Skipping managed " + groupId + ":" + artifactId);
+        } else if ("import".equals(dependency.getScope()) && "pom".equals(dependency.getType())) {
+          imports.add(new DependencyCoordinates(groupId, artifactId, version));
+        } else {
+          managed.putIfAbsent(groupId + ":" + artifactId, version);
+        }
+      }
+    }
+
+    return new Project(properties, managed, imports);
+  }
+
+  /** The parent of a project when it is part of the same checkout, or null if it is not. */
+  private LocalParent localParent(File directory, Parent parent) throws IOException {
+    if (parent.getRelativePath() == null || parent.getRelativePath().isBlank()) {
+      return null;
+    }
+
+    File relative = new File(directory, parent.getRelativePath());
+    File parentDirectory = relative.isDirectory() ? relative : relative.getParentFile();
+    if (parentDirectory == null || !new File(parentDirectory, "pom.xml").isFile()) {
+      return null;
+    }
+
+    Model model = pomManipulation.readPom(parentDirectory);
+    String groupId = model.getGroupId() != null ? model.getGroupId() : parentGroupId(model);
+    return parent.getArtifactId().equals(model.getArtifactId())
+            && parent.getGroupId().equals(groupId)
+        ? new LocalParent(parentDirectory, model)
+        : null;
+  }
+
+  private Properties parentProperties(DependencyCoordinates parent) throws IOException {
+    Properties properties = parentProperties.get(parent);
+    if (properties == null) {
+      properties = artifactPrefetcher.projectProperties(parent);
+      parentProperties.put(parent, properties);
+    }
+    return properties;
+  }
+
+  private static String parentGroupId(Model model) {
+    return model.getParent() != null ? model.getParent().getGroupId() : null;
+  }
+
+  private static String parentVersion(Model model) {
+    return model.getParent() != null ? model.getParent().getVersion() : null;
+  }
+
+  /** The managed versions of a BOM, from memory, its index file, or its POM in that order. */
+  Map<String, String> index(DependencyCoordinates bom) throws IOException {
+    Map<String, String> index = indexes.get(bom);
+    if (index != null) {
+      return index;
+    }
+
+    boolean snapshot = bom.getVersion().endsWith("-SNAPSHOT");
+    Path indexFile =
+        cacheDirectory
+            .resolve(bom.getGroupId())
+            .resolve(bom.getArtifactId())
+            .resolve(bom.getVersion() + ".index");
+
+    if (!snapshot && Files.isRegularFile(indexFile)) {
+      try {
+        index = readIndex(indexFile);
+      } catch (IOException | RuntimeException e) {
+        LOGGER.fine("Ignoring unreadable BOM index " + indexFile + ": " + e.getMessage());
+      }
+    }
+
+    if (index == null) {
+      index = artifactPrefetcher.managedVersions(bom);
+      if (!snapshot) {
+        writeIndex(indexFile, index);
+      }
+    }
+
+    indexes.put(bom, index);
+    return index;
+  }
+
+  private static Map<String, String> readIndex(Path indexFile) throws IOException {
+    CompactRecords.Reader reader = CompactRecords.Reader.map(indexFile);
+    Map<String, String> index = new HashMap<>(reader.recordCount() * 2);
+
+    for (int record = 0; record < reader.recordCount(); record++) {
+      String[] fields = reader.record(record);
+      index.put(fields[0], fields[1]);
+    }
+
+    return index;
+  }
+
+  private static void writeIndex(Path indexFile, Map<String, String> index) {
+    CompactRecords.Writer writer = new CompactRecords.Writer();
+    index.forEach((key, version) -> writer.add(key, version));
+
+    try {
+      writer.writeTo(indexFile);
+    } catch (IOException e) {
+      LOGGER.fine("Failed to write BOM index " + indexFile + ": " + e.getMessage());
+    }
+  }
+
+  private record LocalParent(File directory, Model model) {}
+
+  /** The properties and managed versions of a project, with its imported BOMs read on demand. */
+  private class Project {
+    private final Properties properties;
+    private final Map<String, String> managed;
+    private final List<DependencyCoordinates> imports;
+
+    Project(
+        Properties properties, Map<String, String> managed, List<DependencyCoordinates> imports) {
+      this.properties = properties;
+      this.managed = managed;
+      this.imports = imports;
+    }
+
+    String managedVersion(String key) throws IOException {
+      String version = managed.get(key);
+      for (int i = 0; version == null && i < imports.size(); i++) {
+        version = index(imports.get(i)).get(key);
+      }
+      return version;
+    }
+  }
+
+  /** The direct dependencies of a project, split by whether their version could be resolved. */
+  public static class EffectiveDependencies {
+    private final List<DependencyCoordinates> resolved;
+    private final List<String> unresolved;
+
+    EffectiveDependencies(List<DependencyCoordinates> resolved, List<String> unresolved) {
+      this.resolved = resolved;
+      this.unresolved = unresolved;
+    }
+
+    /** The dependencies with their versions. */
+    public List<DependencyCoordinates> getResolved() {
+      return resolved;
+    }
+
+    /** The groupId:artifactId, and the version as written if any, of dependencies without one. */
+    public List<String> getUnresolved() {
+      return unresolved;
+    }
+  }
+}
@@ -0,0 +1,307 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
+
+/**
+ * Packs the search result cache and the metadata store into a single archive, so they can be kept
+ * between runs on machines that start without them, such as CI runners. The archive is a gzip
+ * stream of checksummed frames, one per cache entry, closed by a frame that counts them:
+ *
+ * <pre>
+ * header:  int magic, int format version
+ * frame:   byte type, int payload length, int CRC32 of the payload, payload
+ * search:  entry payload of the {@link SearchResultCache}
+ * version: UTF key, long refreshed at, int count, UTF version per version
+ * end:     byte 0, int frame count
+ * </pre>
+ *
+ * <p>An import streams the archive without unpacking it to disk, and collects the entries of the
+ * frames whose checksums match. Only when the end frame confirms that no frame is missing are they
+ * merged into the caches, so a corrupt or truncated archive changes nothing. Entries that are
+ * already cached are kept: a search result when it expires later, and version lists are combined.
+ * Search results keep the time they expire at, which is an hour after they were fetched (see {@link
+ * SearchResultCache#DEFAULT_TTL}); the ones that expired before the import are left out. Version
+ * lists don't expire.
+ */
+@TraceStartup
+@ApplicationScoped
+public class CacheArchive {
+
+  static final int MAGIC = 0x4d444341; // "MDCA"
+  static final int FORMAT_VERSION = 2;
+
+  private static final byte END_FRAME = 0;
+  private static final byte SEARCH_FRAME = 1;
+  private static final byte METADATA_FRAME = 2;
+
+  /** Largest payload a frame may have; anything larger is a corrupt length. */
+  private static final int MAX_FRAME_SIZE = 16 * 1024 * 1024;
+
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  @Inject SearchResultCache searchCache;
+
+  @Inject RepositoryMetadataCache metadataCache;
+
+  /**
+   * Write the caches to an archive, replacing it atomically.
+   *
+   * @param archive The file to write
+   * @return the number of entries that were written
+   * @throws IOException if the caches cannot be read or the archive cannot be written
+   */
+  public ArchiveResult exportTo(Path archive) throws IOException {
+    long start = System.nanoTime();
+    ArchiveResult result = new ArchiveResult();
+    Path directory = archive.toAbsolutePath().getParent();
+    Files.createDirectories(directory);
+    Path temporary = Files.createTempFile(directory, archive.getFileName() + "-", ".tmp");
+
+    try {
+      try (DataOutputStream output =
+          new DataOutputStream(
+              new GZIPOutputStream(
+                  new BufferedOutputStream(Files.newOutputStream(temporary), BUFFER_SIZE),
+                  BUFFER_SIZE))) {
+        output.writeInt(MAGIC);
+        output.writeInt(FORMAT_VERSION);
+
+        FrameWriter frames = new FrameWriter(output);
+
+        searchCache.forEach(
+            (key, expiresAt, results) -> {
+              CompactRecords.VarintBuffer entry =
+                  SearchResultCache.encodePayload(key, results, expiresAt);
+              frames.begin().write(entry.bytes(), 0, entry.position());
+              frames.end(SEARCH_FRAME);
+              result.searchEntries++;
+            });
+
+        metadataCache.forEach(
+            (key, refreshedAt, versions) -> {
+              DataOutputStream payload = frames.begin();
+              payload.writeUTF(key);
+              payload.writeLong(refreshedAt);
+              payload.writeInt(versions.size());
+              for (String version : versions) {
+                payload.writeUTF(version);
+              }
+              frames.end(METADATA_FRAME);
+              result.metadataEntries++;
+            });
+
+        output.writeByte(END_FRAME);
+        output.writeInt(frames.count);
+      }
+
+      Files.move(
+          temporary, archive, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+
+    result.elapsed = Duration.ofNanos(System.nanoTime() - start);
+    return result;
+  }
+
+  /**
+   * Merge the entries of an archive into the caches.
+   *
+   * @param archive The file written by {@link #exportTo(Path)}
+   * @return the number of entries that were merged, skipped and expired
+   * @throws IOException if the archive cannot be read or is corrupt, in which case nothing is
+   *     merged
+   */
+  public ArchiveResult importFrom(Path archive) throws IOException {
+    long start = System.nanoTime();
+    ArchiveResult result = new ArchiveResult();
+    List<SearchEntry> searchEntries = new ArrayList<>();
+    List<MetadataEntry> metadataEntries = new ArrayList<>();
+
+    try (DataInputStream input =
+        new DataInputStream(
+            new GZIPInputStream(
+                new BufferedInputStream(Files.newInputStream(archive), BUFFER_SIZE),
+                BUFFER_SIZE))) {
+      if (input.readInt() != MAGIC) {
+        throw new IOException("Not a cache archive: " + archive);
+      }
+      if (input.readInt() != FORMAT_VERSION) {
+        throw new IOException("Unsupported cache archive version: " + archive);
+      }
+
+      CRC32 crc = new CRC32();
+      byte[] buffer = new byte[BUFFER_SIZE];
+      int frameCount = 0;
+
+      while (true) {
+        byte type = input.readByte();
+        if (type == END_FRAME) {
+          if (input.readInt() != frameCount || input.read() != -1) {
+            throw new IOException("Corrupt cache archive " + archive + ": unexpected end");
+          }
+          break;
+        }
+
+        int length = input.readInt();
+        int checksum = input.readInt();
+        if (length < 0 || length > MAX_FRAME_SIZE) {
+          throw new IOException("Corrupt cache archive " + archive + ": frame " + frameCount);
+        }
+        if (length > buffer.length) {
+          buffer = new byte[Math.max(length, buffer.length * 2)];
+        }
+        input.readFully(buffer, 0, length);
+
+        crc.reset();
+        crc.update(buffer, 0, length);
+        if ((int) crc.getValue() != checksum) {
+          throw new IOException("Corrupt cache archive " + archive + ": frame " + frameCount);
+        }
+
+        switch (type) {
+          case SEARCH_FRAME ->
+              SearchResultCache.decodePayload(
+                  ByteBuffer.wrap(buffer, 0, length),
+                  (key, expiresAt, results) ->
+                      searchEntries.add(new SearchEntry(key, expiresAt, results)));
+          case METADATA_FRAME ->
+              metadataEntries.add(
+                  readMetadataEntry(
+                      new DataInputStream(new ByteArrayInputStream(buffer, 0, length))));
+          default ->
+              throw new IOException("Corrupt cache archive " + archive + ": frame type " + type);
+        }
+        frameCount++;
+      }
+    } catch (EOFException e) {
+      throw new IOException("Corrupt cache archive " + archive + ": truncated", e);
+    }
+
+    for (SearchEntry entry : searchEntries) {
+      if (searchCache.isExpired(entry.expiresAt())) {
+        result.expiredEntries++;
+      } else if (searchCache.merge(entry.key(), entry.results(), entry.expiresAt())) {
+        result.searchEntries++;
+      } else {
+        result.skippedEntries++;
+      }
+    }
+
+    for (MetadataEntry entry : metadataEntries) {
+      metadataCache.merge(entry.key(), entry.refreshedAt(), entry.versions());
+      result.metadataEntries++;
+    }
+
+    result.elapsed = Duration.ofNanos(System.nanoTime() - start);
+    return result;
+  }
+
+  private static MetadataEntry readMetadataEntry(DataInputStream payload) throws IOException {
+    String key = payload.readUTF();
+    long refreshedAt = payload.readLong();
+    int count = payload.readInt();
+    List<String> versions = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      versions.add(payload.readUTF());
+    }
+    return new MetadataEntry(key, refreshedAt, versions);
+  }
+
+  private record SearchEntry(String key, long expiresAt, List<SearchResult> results) {}
+
+  private record MetadataEntry(String key, long refreshedAt, List<String> versions) {}
+
+  /** Writes frames, collecting each payload first to know its length and checksum. */
+  private static final class FrameWriter {
+    private final DataOutputStream output;
+    private final PayloadBuffer buffer = new PayloadBuffer();
+    private final DataOutputStream payload = new DataOutputStream(buffer);
+    private final CRC32 crc = new CRC32();
+    private int count;
+
+    FrameWriter(DataOutputStream output) {
+      this.output = output;
+    }
+
+    DataOutputStream begin() {
+      buffer.reset();
+      return payload;
+    }
+
+    void end(byte type) throws IOException {
+      payload.flush();
+      crc.reset();
+      crc.update(buffer.bytes(), 0, buffer.size());
+
+      output.writeByte(type);
+      output.writeInt(buffer.size());
+      output.writeInt((int) crc.getValue());
+      output.write(buffer.bytes(), 0, buffer.size());
+      count++;
+    }
+  }
+
+  /** A byte array stream that hands out its array instead of copying it. */
+  private static final class PayloadBuffer extends ByteArrayOutputStream {
+    byte[] bytes() {
+      return buf;
+    }
+  }
+
+  /** Outcome of an export or import. */
+  public static class ArchiveResult {
+    private int searchEntries;
+    private int metadataEntries;
+    private int skippedEntries;
+    private int expiredEntries;
+    private Duration elapsed = Duration.ZERO;
+
+    /** Number of search results that were written or merged. */
+    public int getSearchEntries() {
+      return searchEntries;
+    }
+
+    /** Number of version lists of artifacts that were written or merged. */
+    public int getMetadataEntries() {
+      return metadataEntries;
+    }
+
+    /** Number of search results that were not imported, as one that expires later is cached. */
+    public int getSkippedEntries() {
+      return skippedEntries;
+    }
+
+    /** Number of search results that were not imported, as they had expired. */
+    public int getExpiredEntries() {
+      return expiredEntries;
+    }
+
+    public Duration getElapsed() {
+      return elapsed;
+    }
+  }
+}
@@ -0,0 +1,154 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import nl.fizzylogic.maven.dependencymanager.model.DependencyCoordinates;
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
+
+/**
+ * Fills the caches with the answers that later commands will ask for, so a pipeline can warm them
+ * once before running many commands. For every dependency it looks up the latest version and, when
+ * the dependency has one, its version: the same searches that the resolver issues, sent to Central
+ * or, when Central is mirrored, to the configured repositories through the {@link FederatedSearch}.
+ * That way they land in the {@link SearchResultCache} or the {@link NegativeCache} under the keys
+ * the resolver looks for, and nothing is remembered as missing that the resolver did not miss. The
+ * versions in the local repository metadata are loaded into the {@link RepositoryMetadataCache} on
+ * the way, and the {@link LocalCoordinateIndex} is rebuilt. All searches and metadata loads are
+ * started at once; the {@link HttpRouting} paces the searches per host.
+ */
+@TraceStartup
+@ApplicationScoped
+public class CacheWarmer {
+
+  private static final Logger LOGGER = Logger.getLogger(CacheWarmer.class.getName());
+
+  @Inject MavenDependencyResolver dependencyResolver;
+
+  @Inject NegativeCache negativeCache;
+
+  @Inject RepositoryMetadataCache metadataCache;
+
+  @Inject LocalCoordinateIndex localIndex;
+
+  /**
+   * Warm the caches for the dependencies.
+   *
+   * @param dependencies The dependencies, with or without a version
+   * @return The outcome of the searches
+   */
+  public WarmResult warm(Collection<DependencyCoordinates> dependencies) {
+    long start = System.nanoTime();
+    WarmResult result = new WarmResult();
+    Set<String> queries = new LinkedHashSet<>();
+    Set<DependencyCoordinates> artifacts = new LinkedHashSet<>();
+
+    try {
+      localIndex.refresh();
+    } catch (IOException e) {
+      LOGGER.warning("Failed to index the local repository: " + e.getMessage());
+    }
+
+    for (DependencyCoordinates dependency : dependencies) {
+      String artifact = dependency.getGroupId() + ":" + dependency.getArtifactId();
+      queries.add(artifact);
+      if (dependency.hasVersion()) {
+        queries.add(artifact + ":" + dependency.getVersion());
+      }
+      artifacts.add(
+          new DependencyCoordinates(dependency.getGroupId(), dependency.getArtifactId(), null));
+    }
+
+    List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (DependencyCoordinates artifact : artifacts) {
+        tasks.add(
+            CompletableFuture.runAsync(
+                () -> metadataCache.versions(artifact.getGroupId(), artifact.getArtifactId()),
+                executor));
+      }
+
+      for (String query : queries) {
+        if (dependencyResolver.isCached(query) || negativeCache.isMissing(query)) {
+          result.cached.incrementAndGet();
+          continue;
+        }
+
+        tasks.add(search(query, result));
+      }
+
+      CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+    }
+
+    result.elapsed = Duration.ofNanos(System.nanoTime() - start);
+    return result;
+  }
+
+  /** Search for a query and record the outcome in the result. */
+  private CompletableFuture<Void> search(String query, WarmResult result) {
+    return dependencyResolver
+        .searchAsync(query)
+        .handle(
+            (results, error) -> {
+              if (error != null) {
+                Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                LOGGER.warning("Failed to warm " + query + ": " + cause.getMessage());
+                result.failures.add(query + ": " + cause.getMessage());
+              } else if (results.isEmpty()) {
+                negativeCache.recordMissing(query);
+                result.missing.incrementAndGet();
+              } else {
+                result.fetched.incrementAndGet();
+              }
+              return null;
+            });
+  }
+
+  /** Outcome of warming the caches. */
+  public static class WarmResult {
+    private final AtomicInteger fetched = new AtomicInteger();
+    private final AtomicInteger cached = new AtomicInteger();
+    private final AtomicInteger missing = new AtomicInteger();
+    private final ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+    private Duration elapsed = Duration.ZERO;
+
+    /** Number of answers that were fetched from the repositories and cached. */
+    public int getFetchedCount() {
+      return fetched.get();
+    }
+
+    /** Number of answers that were already cached. */
+    public int getCachedCount() {
+      return cached.get();
+    }
+
+    /** Number of searches that found nothing, now remembered as missing. */
+    public int getMissingCount() {
+      return missing.get();
+    }
+
+    public List<String> getFailures() {
+      return new ArrayList<>(failures);
+    }
+
+    public Duration getElapsed() {
+      return elapsed;
+    }
+  }
+}
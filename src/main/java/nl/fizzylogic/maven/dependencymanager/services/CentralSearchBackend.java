@@ -0,0 +1,29 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import nl.fizzylogic.maven.dependencymanager.model.SearchQuery;
+import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+
+/** Searches Maven Central through the Solr API of search.maven.org. */
+class CentralSearchBackend implements SearchBackend {
+
+  private final String repositoryId;
+  private final MavenRepositorySearch repositorySearch;
+
+  CentralSearchBackend(String repositoryId, MavenRepositorySearch repositorySearch) {
+    this.repositoryId = repositoryId;
+    this.repositorySearch = repositorySearch;
+  }
+
+  @Override
+  public String getRepositoryId() {
+    return repositoryId;
+  }
+
+  @Override
+  public CompletableFuture<List<SearchResult>> search(SearchQuery query) {
+    return repositorySearch.searchAsync(query);
+  }
+}
@@ -0,0 +1,307 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary file of records, where every record is a short list of strings that may be null.
+ * Strings are stored once in a shared string table and records refer to them by varint ids, so the
+ * groupIds and versions that repeat over thousands of records cost a byte or two each.
+ *
+ * <p>The layout is made for reading through a memory-mapped buffer without decoding the whole file:
+ * a fixed header, a table with the offset of every string, a table with the offset of every record,
+ * the strings as a varint length followed by UTF-8, and the records as a varint field count
+ * followed by a varint per field holding the string id + 1, or 0 for null. Varints are unsigned
+ * LEB128 of at most 32 bits. Reading a record only touches the pages of its offset, its bytes and
+ * the strings it refers to.
+ *
+ * <pre>
+ * int magic, int format version, int string count, int record count
+ * int[string count] string offsets
+ * int[record count] record offsets
+ * strings, records
+ * </pre>
+ */
+final class CompactRecords {
+
+  static final int MAGIC = 0x4d444352; // "MDCR"
+  static final int FORMAT_VERSION = 1;
+
+  private static final int HEADER_SIZE = 16;
+
+  private CompactRecords() {}
+
+  /** Collects records in memory and writes them as one file. Not thread-safe. */
+  static final class Writer {
+    private final Map<String, Integer> stringIds = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private final List<int[]> records = new ArrayList<>();
+
+    /** Add a record; null fields are allowed. */
+    void add(String... fields) {
+      int[] ids = new int[fields.length];
+      for (int i = 0; i < fields.length; i++) {
+        ids[i] = fields[i] == null ? 0 : stringId(fields[i]) + 1;
+      }
+      records.add(ids);
+    }
+
+    int recordCount() {
+      return records.size();
+    }
+
+    private int stringId(String value) {
+      return stringIds.computeIfAbsent(
+          value,
+          key -> {
+            strings.add(key);
+            return strings.size() - 1;
+          });
+    }
+
+    /** Encode the records, including the header and offset tables. */
+    ByteBuffer encode() {
+      VarintBuffer data = new VarintBuffer();
+      int dataStart = HEADER_SIZE + 4 * (strings.size() + records.size());
+      int[] stringOffsets = new int[strings.size()];
+      int[] recordOffsets = new int[records.size()];
+
+      for (int i = 0; i < strings.size(); i++) {
+        stringOffsets[i] = dataStart + data.position();
+        byte[] bytes = strings.get(i).getBytes(StandardCharsets.UTF_8);
+        data.putVarint(bytes.length);
+        data.put(bytes);
+      }
+
+      for (int i = 0; i < records.size(); i++) {
+        recordOffsets[i] = dataStart + data.position();
+        int[] ids = records.get(i);
+        data.putVarint(ids.length);
+        for (int id : ids) {
+          data.putVarint(id);
+        }
+      }
+
+      ByteBuffer buffer = ByteBuffer.allocate(dataStart + data.position());
+      buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(strings.size()).putInt(records.size());
+      for (int offset : stringOffsets) {
+        buffer.putInt(offset);
+      }
+      for (int offset : recordOffsets) {
+        buffer.putInt(offset);
+      }
+      buffer.put(data.bytes(), 0, data.position());
+      return buffer.flip();
+    }
+
+    /** Write the records to a file, replacing it atomically. */
+    void writeTo(Path file) throws IOException {
+      Files.createDirectories(file.getParent());
+      Path temporary = Files.createTempFile(file.getParent(), file.getFileName() + "-", ".tmp");
+
+      try {
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+          ByteBuffer content = encode();
+          while (content.hasRemaining()) {
+            channel.write(content);
+          }
+        }
+        Files.move(
+            temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } finally {
+        Files.deleteIfExists(temporary);
+      }
+    }
+  }
+
+  /**
+   * Reads records from a buffer, decoding only what is asked for. Strings are decoded once and
+   * kept; the reader may be shared between threads.
+   */
+  static final class Reader {
+    private final ByteBuffer buffer;
+    private final int stringCount;
+    private final int recordCount;
+    private final String[] decoded;
+
+    private Reader(ByteBuffer buffer, int stringCount, int recordCount) {
+      this.buffer = buffer;
+      this.stringCount = stringCount;
+      this.recordCount = recordCount;
+      this.decoded = new String[stringCount];
+    }
+
+    /**
+     * Map a file that was written by a {@link Writer}.
+     *
+     * @throws IOException if the file cannot be read or has another format
+     */
+    static Reader map(Path file) throws IOException {
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        return wrap(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), file);
+      }
+    }
+
+    /** Read records from a buffer in the format of a {@link Writer}. */
+    static Reader wrap(ByteBuffer buffer, Object source) throws IOException {
+      if (buffer.limit() < HEADER_SIZE
+          || buffer.getInt(0) != MAGIC
+          || buffer.getInt(4) != FORMAT_VERSION) {
+        throw new IOException("Not a record file in a known format: " + source);
+      }
+
+      int stringCount = buffer.getInt(8);
+      int recordCount = buffer.getInt(12);
+
+      if (stringCount < 0
+          || recordCount < 0
+          || HEADER_SIZE + 4L * (stringCount + (long) recordCount) > buffer.limit()) {
+        throw new IOException("Truncated record file: " + source);
+      }
+
+      return new Reader(buffer, stringCount, recordCount);
+    }
+
+    int recordCount() {
+      return recordCount;
+    }
+
+    int fieldCount(int record) {
+      return value(readVarint(buffer, recordOffset(record)));
+    }
+
+    /** Decode a field of a record, skipping the varints of the fields before it. */
+    String field(int record, int field) {
+      long count = readVarint(buffer, recordOffset(record));
+      if (field < 0 || field >= value(count)) {
+        throw new IndexOutOfBoundsException("Record " + record + " has no field " + field);
+      }
+
+      long id = count;
+      for (int i = 0; i <= field; i++) {
+        id = readVarint(buffer, next(id));
+      }
+
+      return stringOrNull(value(id));
+    }
+
+    /** All fields of a record. */
+    String[] record(int record) {
+      long varint = readVarint(buffer, recordOffset(record));
+      String[] fields = new String[value(varint)];
+
+      for (int i = 0; i < fields.length; i++) {
+        varint = readVarint(buffer, next(varint));
+        fields[i] = stringOrNull(value(varint));
+      }
+
+      return fields;
+    }
+
+    /** The string with an id, decoded on first use. */
+    String string(int id) {
+      if (id < 0 || id >= stringCount) {
+        throw new IndexOutOfBoundsException("No string " + id + " of " + stringCount);
+      }
+
+      // Racing threads decode the same string, which is harmless
+      String value = decoded[id];
+      if (value == null) {
+        long length = readVarint(buffer, buffer.getInt(HEADER_SIZE + 4 * id));
+        byte[] bytes = new byte[value(length)];
+        buffer.get(next(length), bytes);
+        value = new String(bytes, StandardCharsets.UTF_8);
+        decoded[id] = value;
+      }
+      return value;
+    }
+
+    private String stringOrNull(int reference) {
+      return reference == 0 ? null : string(reference - 1);
+    }
+
+    private int recordOffset(int record) {
+      if (record < 0 || record >= recordCount) {
+        throw new IndexOutOfBoundsException("No record " + record + " of " + recordCount);
+      }
+      return buffer.getInt(HEADER_SIZE + 4 * (stringCount + record));
+    }
+  }
+
+  /**
+   * Read an unsigned LEB128 varint at an absolute position, without allocating.
+   *
+   * @return the position after the varint in the high 32 bits and the value in the low 32 bits, to
+   *     be taken apart with {@link #next(long)} and {@link #value(long)}
+   */
+  static long readVarint(ByteBuffer buffer, int position) {
+    int value = 0;
+    int shift = 0;
+    byte b;
+
+    do {
+      if (shift > 28) {
+        throw new IllegalStateException("Malformed varint at " + position);
+      }
+      b = buffer.get(position++);
+      value |= (b & 0x7f) << shift;
+      shift += 7;
+    } while (b < 0);
+
+    return ((long) position << 32) | (value & 0xffffffffL);
+  }
+
+  static int value(long varint) {
+    return (int) varint;
+  }
+
+  static int next(long varint) {
+    return (int) (varint >>> 32);
+  }
+
+  /** Growable byte array with unsigned LEB128 varints. */
+  static final class VarintBuffer {
+    private byte[] bytes = new byte[256];
+    private int position;
+
+    void putVarint(int value) {
+      ensureCapacity(5);
+      while ((value & ~0x7f) != 0) {
+        bytes[position++] = (byte) ((value & 0x7f) | 0x80);
+        value >>>= 7;
+      }
+      bytes[position++] = (byte) value;
+    }
+
+    void put(byte[] value) {
+      ensureCapacity(value.length);
+      System.arraycopy(value, 0, bytes, position, value.length);
+      position += value.length;
+    }
+
+    int position() {
+      return position;
+    }
+
+    byte[] bytes() {
+      return bytes;
+    }
+
+    private void ensureCapacity(int extra) {
+      if (position + extra > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, position + extra));
+      }
+    }
+  }
+}
@@ -0,0 +1,253 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Logger;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.apache.maven.model.Model;
+
+import nl.fizzylogic.maven.dependencymanager.model.DependencyCoordinates;
+import nl.fizzylogic.maven.dependencymanager.model.ResolvedDependency;
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
+
+/**
+ * Service that keeps a binary snapshot of the resolved dependencies of a project in its target
+ * directory. The snapshot is keyed by a hash of the effective dependency section, so unchanged
+ * projects are answered straight from disk and changed projects only re-resolve the dependencies
+ * whose coordinates changed. Versions that the parents or imported BOMs of the project manage are
+ * filled in through the {@link BomIndex}; dependencies without a resolvable version are unresolved.
+ */
+@TraceStartup
+@ApplicationScoped
+public class DependencyGraphSnapshot {
+
+  private static final Logger LOGGER = Logger.getLogger(DependencyGraphSnapshot.class.getName());
+  private static final String SNAPSHOT_DIRECTORY = "target";
+  private static final String SNAPSHOT_FILE_NAME = "dependency-graph.snapshot";
+
+  @Inject ProjectModelEditor pomManipulation;
+
+  @Inject MavenDependencyResolver dependencyResolver;
+
+  @Inject BomIndex bomIndex;
+
+  /**
+   * Resolve the dependencies of the project in the specified directory, reusing the entries of an
+   * existing snapshot whose coordinates did not change.
+   *
+   * @param directory The directory containing the pom.xml file
+   * @return The outcome of the resolution
+   * @throws IOException if the pom.xml, its parents or its imported BOMs cannot be read
+   */
+  public Resolution resolve(File directory) throws IOException {
+    Model model = pomManipulation.readPom(directory);
+    BomIndex.EffectiveDependencies effective = bomIndex.effectiveDependencies(directory, model);
+    Map<String, DependencyCoordinates> dependencies = new LinkedHashMap<>();
+    for (DependencyCoordinates coordinates : effective.getResolved()) {
+      dependencies.put(coordinates.toString(), coordinates);
+    }
+    String sectionHash = hashDependencySection(dependencies.keySet(), effective.getUnresolved());
+
+    File snapshotFile = snapshotFile(directory);
+    Snapshot snapshot = readSnapshot(snapshotFile);
+
+    Resolution resolution = new Resolution();
+
+    for (String unresolved : effective.getUnresolved()) {
+      String[] parts = unresolved.split(":", 3);
+      resolution.addUnresolved(
+          new DependencyCoordinates(parts[0], parts[1], parts.length == 3 ? parts[2] : null));
+    }
+
+    if (snapshot != null && snapshot.sectionHash.equals(sectionHash)) {
+      LOGGER.info("Dependency section unchanged, loading resolution from " + snapshotFile);
+      for (String key : dependencies.keySet()) {
+        resolution.addReused(snapshot.entries.get(key));
+      }
+      return resolution;
+    }
+
+    Map<String, ResolvedDependency> entries = new LinkedHashMap<>();
+    Map<String, CompletableFuture<ResolvedDependency>> lookups = new LinkedHashMap<>();
+
+    // Start the lookups of all changed dependencies at once, so they run concurrently
+    for (Map.Entry<String, DependencyCoordinates> dependency : dependencies.entrySet()) {
+      ResolvedDependency previous =
+          snapshot != null ? snapshot.entries.get(dependency.getKey()) : null;
+
+      if (previous == null) {
+        lookups.put(
+            dependency.getKey(), dependencyResolver.resolveDependencyAsync(dependency.getValue()));
+      }
+    }
+
+    for (Map.Entry<String, DependencyCoordinates> dependency : dependencies.entrySet()) {
+      CompletableFuture<ResolvedDependency> lookup = lookups.get(dependency.getKey());
+
+      if (lookup == null) {
+        ResolvedDependency previous = snapshot.entries.get(dependency.getKey());
+        resolution.addReused(previous);
+        entries.put(dependency.getKey(), previous);
+        continue;
+      }
+
+      ResolvedDependency resolved = lookup.join();
+
+      if (resolved != null) {
+        resolution.addResolved(resolved);
+        entries.put(dependency.getKey(), resolved);
+      } else {
+        resolution.addUnresolved(dependency.getValue());
+      }
+    }
+
+    // Only store the snapshot as complete when every dependency resolved, so that a failed
+    // lookup is retried on the next run instead of being masked by the section hash.
+    String storedHash = resolution.getUnresolved().isEmpty() ? sectionHash : "";
+    writeSnapshot(snapshotFile, new Snapshot(storedHash, entries));
+
+    return resolution;
+  }
+
+  /** Compute a stable hash over the effective dependency section. */
+  private String hashDependencySection(Collection<String> resolved, List<String> unresolved) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      for (String key : resolved) {
+        digest.update(key.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+      }
+      for (String key : unresolved) {
+        digest.update((byte) '?');
+        digest.update(key.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+      }
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available", e);
+    }
+  }
+
+  private File snapshotFile(File directory) {
+    return new File(new File(directory, SNAPSHOT_DIRECTORY), SNAPSHOT_FILE_NAME);
+  }
+
+  /** Read an existing snapshot, returning null when it is missing or unreadable. */
+  private Snapshot readSnapshot(File snapshotFile) {
+    if (!snapshotFile.isFile()) {
+      return null;
+    }
+
+    try {
+      // Read into the heap rather than mapping, so the file can be replaced on every platform
+      CompactRecords.Reader reader =
+          CompactRecords.Reader.wrap(
+              ByteBuffer.wrap(Files.readAllBytes(snapshotFile.toPath())), snapshotFile);
+
+      if (reader.recordCount() == 0) {
+        LOGGER.info("Ignoring empty snapshot: " + snapshotFile);
+        return null;
+      }
+
+      String sectionHash = reader.field(0, 0);
+      Map<String, ResolvedDependency> entries = new LinkedHashMap<>();
+
+      for (int record = 1; record < reader.recordCount(); record++) {
+        String[] fields = reader.record(record);
+        entries.put(fields[0], new ResolvedDependency(fields[1], fields[2], fields[3]));
+      }
+
+      return new Snapshot(sectionHash, entries);
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warning("Failed to read dependency snapshot: " + e.getMessage());
+      return null;
+    }
+  }
+
+  private void writeSnapshot(File snapshotFile, Snapshot snapshot) {
+    File parent = snapshotFile.getParentFile();
+
+    if (!parent.isDirectory() && !parent.mkdirs()) {
+      LOGGER.warning("Failed to create snapshot directory: " + parent);
+      return;
+    }
+
+    // The first record holds the section hash, every other record a key and its resolution
+    CompactRecords.Writer writer = new CompactRecords.Writer();
+    writer.add(snapshot.sectionHash);
+
+    for (Map.Entry<String, ResolvedDependency> entry : snapshot.entries.entrySet()) {
+      ResolvedDependency dependency = entry.getValue();
+      writer.add(
+          entry.getKey(),
+          dependency.getGroupId(),
+          dependency.getArtifactId(),
+          dependency.getVersion());
+    }
+
+    try {
+      writer.writeTo(snapshotFile.toPath());
+      LOGGER.info("Wrote dependency snapshot to: " + snapshotFile);
+    } catch (IOException e) {
+      LOGGER.warning("Failed to write dependency snapshot: " + e.getMessage());
+    }
+  }
+
+  private static class Snapshot {
+    private final String sectionHash;
+    private final Map<String, ResolvedDependency> entries;
+
+    Snapshot(String sectionHash, Map<String, ResolvedDependency> entries) {
+      this.sectionHash = sectionHash;
+      this.entries = entries;
+    }
+  }
+
+  /** Outcome of resolving the dependencies of a project against its snapshot. */
+  public static class Resolution {
+    private final List<ResolvedDependency> resolved = new ArrayList<>();
+    private final List<DependencyCoordinates> unresolved = new ArrayList<>();
+    private int reusedCount;
+
+    void addReused(ResolvedDependency dependency) {
+      resolved.add(dependency);
+      reusedCount++;
+    }
+
+    void addResolved(ResolvedDependency dependency) {
+      resolved.add(dependency);
+    }
+
+    void addUnresolved(DependencyCoordinates coordinates) {
+      unresolved.add(coordinates);
+    }
+
+    public List<ResolvedDependency> getResolved() {
+      return resolved;
+    }
+
+    public List<DependencyCoordinates> getUnresolved() {
+      return unresolved;
+    }
+
+    /** Number of dependencies that were loaded from the snapshot instead of being resolved. */
+    public int getReusedCount() {
+      return reusedCount;
+    }
+  }
+}
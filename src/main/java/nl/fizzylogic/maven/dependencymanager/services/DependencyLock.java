@@ -0,0 +1,340 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.apache.maven.model.Model;
+
+import nl.fizzylogic.maven.dependencymanager.model.DependencyCoordinates;
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
+
+/**
+ * Writes and verifies lock files, which pin the versions of the direct dependencies of a project
+ * and optionally the checksums of every artifact in its dependency graph. A lock file is written
+ * next to the pom.xml of every module:
+ *
+ * <pre>
+ * # comment
+ * dependency groupId:artifactId:version
+ * artifact groupId:artifactId:version:extension sha256
+ * </pre>
+ *
+ * <p>Versions that a module leaves to dependencyManagement are resolved through its parents and the
+ * BOMs they import. A dependency whose version cannot be resolved is reported rather than skipped.
+ *
+ * <p>Verification needs no network once the module has been locked, as locking leaves the parents
+ * and BOMs in the local repository and the BOM index: it compares the dependencies in the POM with
+ * the locked ones and hashes the locked artifacts in the local repository. The modules, and the
+ * artifacts within them, are verified concurrently.
+ */
+@TraceStartup
+@ApplicationScoped
+public class DependencyLock {
+
+  private static final Path LOCAL_REPOSITORY_PATH =
+      Path.of(System.getProperty("user.home"), ".m2", "repository");
+
+  public static final String LOCK_FILE_NAME = "dependencies.lock";
+
+  /** Keyword of a line that locks the version of a direct dependency. */
+  public static final String DEPENDENCY = "dependency";
+
+  /** Keyword of a line that locks the checksum of an artifact in the dependency graph. */
+  public static final String ARTIFACT = "artifact";
+
+  @Inject ProjectModelEditor pomManipulation;
+
+  @Inject ArtifactPrefetcher artifactPrefetcher;
+
+  @Inject BomIndex bomIndex;
+
+  Path localRepository = LOCAL_REPOSITORY_PATH;
+
+  /**
+   * Write the lock file of a module.
+   *
+   * @param directory The directory of the module's pom.xml
+   * @param transitive Whether to fetch the dependency graph and lock the checksums of its artifacts
+   * @return The number of entries that were locked, and the dependencies that could not be locked
+   *     because their version cannot be resolved
+   * @throws IOException if the POM or its parents cannot be read, the graph cannot be fetched, or
+   *     the lock file cannot be written
+   */
+  public LockResult lock(File directory, boolean transitive) throws IOException {
+    Model model = pomManipulation.readPom(directory);
+    BomIndex.EffectiveDependencies effective = bomIndex.effectiveDependencies(directory, model);
+    List<DependencyCoordinates> dependencies = effective.getResolved();
+    Map<String, String> artifacts = new TreeMap<>();
+
+    if (transitive && !dependencies.isEmpty()) {
+      ArtifactPrefetcher.PrefetchResult prefetch =
+          artifactPrefetcher.prefetch(
+              dependencies, ArtifactPrefetcher.DEFAULT_CONNECTIONS_PER_HOST);
+
+      if (!prefetch.getFailures().isEmpty()) {
+        throw new IOException("Failed to fetch " + String.join(", ", prefetch.getFailures()));
+      }
+
+      for (Map.Entry<String, Path> artifact : prefetch.getArtifacts().entrySet()) {
+        artifacts.put(artifact.getKey(), FileDigests.sha256(artifact.getValue()));
+      }
+    }
+
+    List<String> lines = new ArrayList<>();
+    lines.add("# Locked dependencies of this module, written by the lock command. Do not edit.");
+    for (DependencyCoordinates dependency : dependencies) {
+      lines.add(DEPENDENCY + " " + dependency);
+    }
+    artifacts.forEach(
+        (coordinates, checksum) -> lines.add(ARTIFACT + " " + coordinates + " " + checksum));
+
+    write(directory.toPath().resolve(LOCK_FILE_NAME), lines);
+    return new LockResult(dependencies.size(), artifacts.size(), effective.getUnresolved());
+  }
+
+  /**
+   * Verify the lock files of a project and its modules, without using the network.
+   *
+   * @param directory The directory of the project's pom.xml
+   * @return The problems found per module directory; empty lists for modules that match
+   * @throws IOException if a POM cannot be read
+   */
+  public VerifyResult verify(File directory) throws IOException {
+    long start = System.nanoTime();
+    Map<File, Model> modules = new LinkedHashMap<>();
+    collectModules(directory, modules);
+    Map<File, CompletableFuture<List<String>>> verifications = new LinkedHashMap<>();
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      modules.forEach(
+          (module, model) ->
+              verifications.put(
+                  module,
+                  CompletableFuture.supplyAsync(
+                      () -> verifyModule(module, model, executor), executor)));
+
+      Map<File, List<String>> problems = new LinkedHashMap<>();
+      for (Map.Entry<File, CompletableFuture<List<String>>> verification :
+          verifications.entrySet()) {
+        problems.put(verification.getKey(), join(verification.getValue()));
+      }
+
+      return new VerifyResult(problems, Duration.ofNanos(System.nanoTime() - start));
+    }
+  }
+
+  /**
+   * The directory of a project followed by the directories of its modules, recursively.
+   *
+   * @throws IOException if a POM cannot be read
+   */
+  public List<File> moduleDirectories(File directory) throws IOException {
+    Map<File, Model> modules = new LinkedHashMap<>();
+    collectModules(directory, modules);
+    return new ArrayList<>(modules.keySet());
+  }
+
+  private void collectModules(File directory, Map<File, Model> modules) throws IOException {
+    Model model = pomManipulation.readPom(directory);
+    modules.put(directory, model);
+
+    for (String module : model.getModules()) {
+      File moduleFile = new File(directory, module);
+      collectModules(moduleFile.isFile() ? moduleFile.getParentFile() : moduleFile, modules);
+    }
+  }
+
+  /** Compare a module with its lock file, hashing the locked artifacts concurrently. */
+  private List<String> verifyModule(File directory, Model model, ExecutorService executor) {
+    Path lockFile = directory.toPath().resolve(LOCK_FILE_NAME);
+    List<String> problems = new ArrayList<>();
+
+    if (!Files.isRegularFile(lockFile)) {
+      problems.add("No " + LOCK_FILE_NAME + " found");
+      return problems;
+    }
+
+    try {
+      Map<String, String> locked = new LinkedHashMap<>();
+      List<CompletableFuture<String>> artifactChecks = new ArrayList<>();
+
+      for (String line : Files.readAllLines(lockFile, StandardCharsets.UTF_8)) {
+        String[] fields = line.trim().split("\\s+");
+
+        if (fields[0].isEmpty() || fields[0].startsWith("#")) {
+          continue;
+        } else if (fields[0].equals(DEPENDENCY) && fields.length == 2) {
+          String coordinates = fields[1];
+          locked.put(coordinates.substring(0, coordinates.lastIndexOf(':')), coordinates);
+        } else if (fields[0].equals(ARTIFACT) && fields.length == 3) {
+          artifactChecks.add(
+              CompletableFuture.supplyAsync(() -> verifyArtifact(fields[1], fields[2]), executor));
+        } else {
+          problems.add("Unreadable line in " + LOCK_FILE_NAME + ": " + line);
+        }
+      }
+
+      BomIndex.EffectiveDependencies effective = bomIndex.effectiveDependencies(directory, model);
+
+      for (String unresolved : effective.getUnresolved()) {
+        problems.add(unresolved + " has no resolvable version");
+      }
+
+      for (DependencyCoordinates dependency : effective.getResolved()) {
+        String lockedCoordinates =
+            locked.remove(dependency.getGroupId() + ":" + dependency.getArtifactId());
+
+        if (lockedCoordinates == null) {
+          problems.add(dependency + " is not locked");
+        } else if (!lockedCoordinates.equals(dependency.toString())) {
+          problems.add(dependency + " is locked at " + lockedCoordinates);
+        }
+      }
+
+      for (String removed : locked.values()) {
+        problems.add(removed + " is locked but no longer a dependency");
+      }
+
+      for (CompletableFuture<String> check : artifactChecks) {
+        String problem = join(check);
+        if (problem != null) {
+          problems.add(problem);
+        }
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return problems;
+  }
+
+  /**
+   * Hash a locked artifact in the local repository.
+   *
+   * @return the problem, or null when the checksum matches
+   */
+  private String verifyArtifact(String coordinates, String expected) {
+    String[] parts = coordinates.split(":");
+    if (parts.length != 4) {
+      return "Unreadable artifact in " + LOCK_FILE_NAME + ": " + coordinates;
+    }
+
+    Path file =
+        localRepository
+            .resolve(parts[0].replace('.', '/'))
+            .resolve(parts[1])
+            .resolve(parts[2])
+            .resolve(parts[1] + "-" + parts[2] + "." + parts[3]);
+
+    if (!Files.isRegularFile(file)) {
+      return coordinates + " is not in the local repository";
+    }
+
+    try {
+      String actual = FileDigests.sha256(file);
+      return actual.equalsIgnoreCase(expected)
+          ? null
+          : coordinates + " has checksum " + actual + ", locked " + expected;
+    } catch (IOException e) {
+      return coordinates + " cannot be read: " + e.getMessage();
+    }
+  }
+
+  /** Write the lock file atomically, so a concurrent verification never sees half of it. */
+  private static void write(Path file, List<String> lines) throws IOException {
+    Path temporary = Files.createTempFile(file.getParent(), file.getFileName() + "-", ".tmp");
+
+    try {
+      Files.write(temporary, lines, StandardCharsets.UTF_8);
+      Files.move(
+          temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+
+  private static <T> T join(CompletableFuture<T> future) throws IOException {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof UncheckedIOException unchecked) {
+        throw unchecked.getCause();
+      }
+      throw e;
+    }
+  }
+
+  /** Outcome of writing a lock file. */
+  public static class LockResult {
+    private final int dependencyCount;
+    private final int artifactCount;
+    private final List<String> unresolved;
+
+    LockResult(int dependencyCount, int artifactCount, List<String> unresolved) {
+      this.dependencyCount = dependencyCount;
+      this.artifactCount = artifactCount;
+      this.unresolved = unresolved;
+    }
+
+    /** Number of direct dependencies that were locked. */
+    public int getDependencyCount() {
+      return dependencyCount;
+    }
+
+    /** Number of artifacts in the dependency graph whose checksum was locked. */
+    public int getArtifactCount() {
+      return artifactCount;
+    }
+
+    /** Dependencies that were left out of the lock file because they have no resolvable version. */
+    public List<String> getUnresolved() {
+      return unresolved;
+    }
+  }
+
+  /** Outcome of verifying the lock files of a project. */
+  public static class VerifyResult {
+    private final Map<File, List<String>> problems;
+    private final Duration elapsed;
+
+    VerifyResult(Map<File, List<String>> problems, Duration elapsed) {
+      this.problems = problems;
+      this.elapsed = elapsed;
+    }
+
+    /** The problems per module directory, in the order of the modules. */
+    public Map<File, List<String>> getProblems() {
+      return problems;
+    }
+
+    public boolean isValid() {
+      return problems.values().stream().allMatch(List::isEmpty);
+    }
+
+    public int getModuleCount() {
+      return problems.size();
+    }
+
+    public Duration getElapsed() {
+      return elapsed;
+    }
+  }
+}
@@ -0,0 +1,300 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import nl.fizzylogic.maven.dependencymanager.model.MavenRepository;
+import nl.fizzylogic.maven.dependencymanager.model.SearchQuery;
+import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
+
+/**
+ * Searches all repositories configured in the Maven settings in parallel. Maven Central is searched
+ * through search.maven.org, Nexus 3 and Artifactory repositories through their search APIs and
+ * {@code file:} repositories on disk. A mirror of Central without a known search API is asked for
+ * the maven-metadata.xml of the artifact instead, so exact searches still reach what Central
+ * serves. The results are merged per groupId:artifactId, keeping the highest version and the
+ * repository it was found in. Merged answers of searches that every repository answered are kept in
+ * the {@link SearchResultCache}, under a key of the query and the repositories that were searched.
+ */
+@TraceStartup
+@ApplicationScoped
+public class FederatedSearch {
+
+  private static final Logger LOGGER = Logger.getLogger(FederatedSearch.class.getName());
+  private static final Set<String> CENTRAL_HOSTS =
+      Set.of("repo1.maven.org", "repo.maven.apache.org", "central.sonatype.com");
+
+  @Inject MavenConfiguration repositoryService;
+
+  @Inject MavenRepositorySearch centralSearch;
+
+  @Inject HttpRouting routing;
+
+  @Inject SearchResultCache cache;
+
+  /** Search all repositories and return the merged results. */
+  public List<SearchResult> execute(String query) throws IOException, InterruptedException {
+    HighestVersions merged = new HighestVersions();
+    execute(query, merged::add);
+    return merged.toList(Integer.MAX_VALUE);
+  }
+
+  /**
+   * Search all repositories, passing results to the consumer as soon as a repository answers, so a
+   * slow repository doesn't hold back the results of the others. A result is passed again when a
+   * later repository has a higher version of the same artifact. The consumer is never called
+   * concurrently.
+   *
+   * @throws IllegalArgumentException if the query is invalid
+   * @throws IOException if none of the repositories could be searched
+   */
+  public void execute(String query, Consumer<SearchResult> consumer)
+      throws IOException, InterruptedException {
+    SearchQuery searchQuery = SearchQuery.parse(query);
+    List<SearchBackend> backends = backends();
+    String cacheKey = cacheKey(searchQuery, backends);
+    Optional<List<SearchResult>> cached = cache.get(cacheKey);
+
+    if (cached.isPresent()) {
+      cached.get().forEach(consumer);
+      return;
+    }
+
+    HighestVersions merged = new HighestVersions();
+    boolean complete =
+        execute(
+            searchQuery,
+            backends,
+            result -> {
+              merged.add(result);
+              consumer.accept(result);
+            });
+
+    if (complete) {
+      cache.put(cacheKey, merged.toList(Integer.MAX_VALUE));
+    }
+  }
+
+  /**
+   * Search all repositories without blocking the calling thread. The future completes with the
+   * merged results once every repository has answered; cancelling it cancels the searches that are
+   * still running.
+   */
+  public CompletableFuture<List<SearchResult>> searchAsync(String query) {
+    SearchQuery searchQuery;
+
+    try {
+      searchQuery = SearchQuery.parse(query);
+    } catch (IllegalArgumentException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+
+    List<SearchBackend> backends = backends();
+    String cacheKey = cacheKey(searchQuery, backends);
+    Optional<List<SearchResult>> cached = cache.get(cacheKey);
+
+    if (cached.isPresent()) {
+      return CompletableFuture.completedFuture(new ArrayList<>(cached.get()));
+    }
+
+    List<CompletableFuture<List<SearchResult>>> searches = new ArrayList<>();
+    for (SearchBackend backend : backends) {
+      searches.add(search(backend, searchQuery));
+    }
+
+    CompletableFuture<List<SearchResult>> merged =
+        CompletableFuture.allOf(
+                searches.stream()
+                    .map(search -> search.exceptionally(error -> null))
+                    .toArray(CompletableFuture[]::new))
+            .thenApply(
+                done -> {
+                  HighestVersions results = new HighestVersions();
+                  List<String> failures = new ArrayList<>();
+
+                  for (int i = 0; i < backends.size(); i++) {
+                    CompletableFuture<List<SearchResult>> search = searches.get(i);
+                    if (search.isCompletedExceptionally()) {
+                      failures.add(describeFailure(backends.get(i), search));
+                      continue;
+                    }
+                    String repositoryId = backends.get(i).getRepositoryId();
+                    for (SearchResult result : search.join()) {
+                      results.add(result.withRepository(repositoryId));
+                    }
+                  }
+
+                  if (!backends.isEmpty() && failures.size() == backends.size()) {
+                    throw new CompletionException(allFailed(failures));
+                  }
+
+                  List<SearchResult> answer = results.toList(Integer.MAX_VALUE);
+                  if (failures.isEmpty()) {
+                    cache.put(cacheKey, answer);
+                  }
+                  return answer;
+                });
+
+    merged.whenComplete(
+        (results, error) -> {
+          if (merged.isCancelled()) {
+            searches.forEach(search -> search.cancel(true));
+          }
+        });
+
+    return merged;
+  }
+
+  /**
+   * Check whether the merged answer to a search is in the search result cache, without searching.
+   *
+   * @throws IllegalArgumentException if the query is not valid
+   */
+  public boolean isCached(String query) {
+    return cache.get(cacheKey(SearchQuery.parse(query), backends())).isPresent();
+  }
+
+  /**
+   * Search the backends in parallel, streaming the merged results to the consumer.
+   *
+   * @return true when every backend answered
+   */
+  boolean execute(SearchQuery query, List<SearchBackend> backends, Consumer<SearchResult> consumer)
+      throws IOException, InterruptedException {
+    HighestVersions merged = new HighestVersions();
+    List<String> failures = new CopyOnWriteArrayList<>();
+    List<CompletableFuture<List<SearchResult>>> searches = new ArrayList<>();
+    List<CompletableFuture<Void>> handled = new ArrayList<>();
+
+    for (SearchBackend backend : backends) {
+      CompletableFuture<List<SearchResult>> search = search(backend, query);
+      searches.add(search);
+      handled.add(
+          search.handle(
+              (results, error) -> {
+                if (error != null) {
+                  String failure = describeFailure(backend, search);
+                  LOGGER.warning("Search failed in " + failure);
+                  failures.add(failure);
+                  return null;
+                }
+
+                synchronized (merged) {
+                  for (SearchResult result : results) {
+                    SearchResult attributed = result.withRepository(backend.getRepositoryId());
+                    if (merged.add(attributed)) {
+                      consumer.accept(attributed);
+                    }
+                  }
+                }
+                return null;
+              }));
+    }
+
+    try {
+      CompletableFuture.allOf(handled.toArray(CompletableFuture[]::new)).get();
+    } catch (InterruptedException e) {
+      searches.forEach(search -> search.cancel(true));
+      throw e;
+    } catch (ExecutionException e) {
+      throw new IOException("Failed to process search results: " + e.getCause().getMessage(), e);
+    }
+
+    if (!backends.isEmpty() && failures.size() == backends.size()) {
+      throw allFailed(failures);
+    }
+    return failures.isEmpty();
+  }
+
+  /** The cache key of a search: the query, and the repositories it is sent to. */
+  private static String cacheKey(SearchQuery query, List<SearchBackend> backends) {
+    StringBuilder key = new StringBuilder("federated:").append(query.getText());
+    for (SearchBackend backend : backends) {
+      key.append(' ').append(backend.getRepositoryId());
+    }
+    return key.toString();
+  }
+
+  /** The search backends of the configured repositories, skipping those without a search API. */
+  List<SearchBackend> backends() {
+    List<SearchBackend> backends = new ArrayList<>();
+    boolean centralAdded = false;
+    MavenRepository centralMirror = repositoryService.getCentralMirror().orElse(null);
+
+    for (MavenRepository repository : repositoryService.getRepositories()) {
+      if (isCentral(repository)) {
+        if (!centralAdded) {
+          backends.add(new CentralSearchBackend(repository.getId(), centralSearch));
+          centralAdded = true;
+        }
+      } else if (LocalRepositorySearchBackend.supports(repository)) {
+        backends.add(new LocalRepositorySearchBackend(repository));
+      } else if (NexusSearchBackend.supports(repository)) {
+        backends.add(new NexusSearchBackend(repository, routing));
+      } else if (ArtifactorySearchBackend.supports(repository)) {
+        backends.add(new ArtifactorySearchBackend(repository, routing));
+      } else if (centralMirror != null && centralMirror.getUrl().equals(repository.getUrl())) {
+        backends.add(new MetadataSearchBackend(repository, routing));
+      } else {
+        LOGGER.info("No search API known for repository " + repository + ", skipping it");
+      }
+    }
+
+    return backends;
+  }
+
+  private static boolean isCentral(MavenRepository repository) {
+    try {
+      String host = URI.create(repository.getUrl()).getHost();
+      return host != null && CENTRAL_HOSTS.contains(host);
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  /** Start a search, turning an exception thrown by the backend into a failed future. */
+  private static CompletableFuture<List<SearchResult>> search(
+      SearchBackend backend, SearchQuery query) {
+    try {
+      return backend.search(query);
+    } catch (RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+
+  private static String describeFailure(
+      SearchBackend backend, CompletableFuture<List<SearchResult>> search) {
+    Throwable error;
+    try {
+      search.join();
+      return backend.getRepositoryId();
+    } catch (CompletionException e) {
+      error = e.getCause() != null ? e.getCause() : e;
+    } catch (RuntimeException e) {
+      error = e;
+    }
+
+    return backend.getRepositoryId()
+        + ": "
+        + error.getClass().getSimpleName()
+        + (error.getMessage() != null ? " " + error.getMessage() : "");
+  }
+
+  private static IOException allFailed(List<String> failures) {
+    return new IOException("Search failed in all repositories: " + String.join("; ", failures));
+  }
+}
@@ -0,0 +1,51 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Digests of files, computed over a memory mapping of the file so its content is hashed straight
+ * from the page cache without being copied onto the heap.
+ */
+final class FileDigests {
+
+  /** Largest region that is mapped at once; larger files are hashed in parts. */
+  private static final long MAX_MAPPING = 256L * 1024 * 1024;
+
+  private FileDigests() {}
+
+  /** The SHA-256 of a file, as lowercase hex. */
+  static String sha256(Path file) throws IOException {
+    return digest(file, "SHA-256");
+  }
+
+  /** The SHA-1 of a file, as lowercase hex. */
+  static String sha1(Path file) throws IOException {
+    return digest(file, "SHA-1");
+  }
+
+  private static String digest(Path file, String algorithm) throws IOException {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance(algorithm);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(algorithm + " is not available", e);
+    }
+
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+      long size = channel.size();
+
+      for (long position = 0; position < size; position += MAX_MAPPING) {
+        long length = Math.min(MAX_MAPPING, size - position);
+        digest.update(channel.map(FileChannel.MapMode.READ_ONLY, position, length));
+      }
+    }
+
+    return HexFormat.of().formatHex(digest.digest());
+  }
+}
@@ -0,0 +1,55 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.artifact.versioning.ComparableVersion;
+
+import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+
+/**
+ * Keeps one search result per groupId:artifactId, the one with the highest version, in the order in
+ * which the artifacts were first seen. Not thread-safe.
+ */
+final class HighestVersions {
+
+  private final Map<String, SearchResult> results = new LinkedHashMap<>();
+
+  /**
+   * Add a result, unless a result with the same or a higher version was added before.
+   *
+   * @return true when the result is new or has a higher version than the one kept so far
+   */
+  boolean add(SearchResult result) {
+    String key = result.getGroupId() + ":" + result.getArtifactId();
+    SearchResult current = results.get(key);
+
+    if (current != null
+        && new ComparableVersion(result.getLatestVersion())
+                .compareTo(new ComparableVersion(current.getLatestVersion()))
+            <= 0) {
+      return false;
+    }
+
+    results.put(key, result);
+    return true;
+  }
+
+  int size() {
+    return results.size();
+  }
+
+  /** The results, at most the specified number. */
+  List<SearchResult> toList(int maxResults) {
+    List<SearchResult> list = new ArrayList<>(Math.min(results.size(), maxResults));
+    for (SearchResult result : results.values()) {
+      if (list.size() == maxResults) {
+        break;
+      }
+      list.add(result);
+    }
+    return list;
+  }
+}
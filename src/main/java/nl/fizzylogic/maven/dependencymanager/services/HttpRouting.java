@@ -0,0 +1,408 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.io.IOException;
+import java.net.Authenticator;
+import java.net.InetSocketAddress;
+import java.net.PasswordAuthentication;
+import java.net.ProxySelector;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.logging.Logger;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import org.apache.maven.settings.Proxy;
+import org.apache.maven.settings.Server;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import org.eclipse.microprofile.config.inject.ConfigProperty;
+
+import nl.fizzylogic.maven.dependencymanager.model.MavenRepository;
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
+
+/**
+ * Hands out the HTTP clients used to talk to repositories and search APIs. Every target host gets
+ * its own client, and so its own connection pool, configured with the proxy that the Maven settings
+ * select for that host, or with no proxy at all. Clients are created on the first request to a host
+ * and closed before a CRaC checkpoint, so no connections are captured in the checkpoint image.
+ *
+ * <p>Requests to a repository that has credentials in the settings carry them preemptively, so they
+ * don't need a 401 round trip first. The Authorization header is built once per repository.
+ * Redirects are followed here instead of by the clients, so every hop is routed through the client
+ * of its own host and credentials are never sent to another host.
+ *
+ * <p>Requests to search APIs are held to the request rate configured with {@code
+ * dependencymanager.search.requests-per-second}; file downloads are only paced by how the host
+ * responds.
+ */
+@TraceStartup
+@ApplicationScoped
+public class HttpRouting implements Resource {
+
+  private static final Logger LOGGER = Logger.getLogger(HttpRouting.class.getName());
+  static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+  private static final int MAX_REDIRECTS = 5;
+  private static final Set<Integer> REDIRECT_STATUSES = Set.of(301, 302, 303, 307, 308);
+  private static final Set<Integer> THROTTLING_STATUSES = Set.of(429, 503);
+
+  /** Path segments of the search APIs, which are rate-limited unlike file downloads. */
+  private static final List<String> SEARCH_PATHS =
+      List.of("/solrsearch/", "/service/rest/v1/search", "/api/search/");
+
+  /** Number of times a request is sent before a throttling response is handed to the caller. */
+  static final int MAX_ATTEMPTS = 4;
+
+  @Inject MavenConfiguration repositoryService;
+
+  private final Map<String, HttpClient> clients = new ConcurrentHashMap<>();
+  private final Map<String, Optional<String>> authorizations = new ConcurrentHashMap<>();
+
+  @ConfigProperty(name = "dependencymanager.search.requests-per-second", defaultValue = "10")
+  double searchRequestsPerSecond;
+
+  @ConfigProperty(name = "dependencymanager.search.burst", defaultValue = "10")
+  int searchBurst;
+
+  RequestScheduler scheduler = new RequestScheduler();
+
+  @PostConstruct
+  void registerCheckpointResource() {
+    scheduler = new RequestScheduler(searchRequestsPerSecond, searchBurst);
+    Core.getGlobalContext().register(this);
+  }
+
+  /**
+   * Close the HTTP clients, waiting for requests in flight, and forget the credentials before a
+   * checkpoint is taken, so neither ends up in the checkpoint image.
+   */
+  @Override
+  public synchronized void beforeCheckpoint(Context<? extends Resource> context) {
+    clients.values().forEach(HttpClient::close);
+    clients.clear();
+    authorizations.clear();
+  }
+
+  /** The HTTP clients and credentials are created again on the first request after a restore. */
+  @Override
+  public void afterRestore(Context<? extends Resource> context) {}
+
+  /**
+   * Get the HTTP client for requests to the host of a URI.
+   *
+   * @param uri A URI on the target host
+   * @return The client routing requests to that host directly or through its proxy
+   */
+  public HttpClient clientFor(URI uri) {
+    return clients.computeIfAbsent(routeOf(uri), route -> createClient(route, uri));
+  }
+
+  /**
+   * Send a request, following redirects and authenticating with the credentials of the repository.
+   * The request waits for its turn with the request scheduler, and is sent again when the host
+   * throttles it.
+   *
+   * @param request The request to send
+   * @param handler The handler for the body of the final response
+   * @param repository The repository the request belongs to, or null for requests without
+   *     credentials
+   * @return The final response
+   */
+  public <T> HttpResponse<T> send(
+      HttpRequest request, HttpResponse.BodyHandler<T> handler, MavenRepository repository)
+      throws IOException, InterruptedException {
+    HttpRequest current = authorize(request, repository);
+    int redirects = 0;
+
+    for (int attempt = 1; ; attempt++) {
+      String route = routeOf(current.uri());
+      boolean rateLimited = isSearchRequest(current.uri());
+      awaitTurn(route, rateLimited);
+
+      HttpResponse<T> response;
+      try {
+        response = clientFor(current.uri()).send(current, discardingIntermediate(handler));
+      } catch (IOException | InterruptedException | RuntimeException e) {
+        scheduler.failed(route, rateLimited);
+        throw e;
+      }
+
+      if (throttled(route, rateLimited, response) && attempt < MAX_ATTEMPTS) {
+        continue;
+      }
+
+      HttpRequest next = redirectOf(current, response, repository, redirects);
+      if (next == null) {
+        return response;
+      }
+
+      current = next;
+      redirects++;
+      attempt = 0;
+    }
+  }
+
+  /**
+   * Send a request without blocking, following redirects and authenticating with the credentials of
+   * the repository. The request waits for its turn with the request scheduler, and is sent again
+   * when the host throttles it. Cancelling the returned future aborts the exchange in flight.
+   *
+   * @param request The request to send
+   * @param handler The handler for the body of the final response
+   * @param repository The repository the request belongs to, or null for requests without
+   *     credentials
+   * @return A future completing with the final response
+   */
+  public <T> CompletableFuture<HttpResponse<T>> sendAsync(
+      HttpRequest request, HttpResponse.BodyHandler<T> handler, MavenRepository repository) {
+    CompletableFuture<HttpResponse<T>> result = new CompletableFuture<>();
+    sendAsync(authorize(request, repository), handler, repository, 0, 1, result);
+    return result;
+  }
+
+  private <T> void sendAsync(
+      HttpRequest request,
+      HttpResponse.BodyHandler<T> handler,
+      MavenRepository repository,
+      int redirects,
+      int attempt,
+      CompletableFuture<HttpResponse<T>> result) {
+    String route = routeOf(request.uri());
+    boolean rateLimited = isSearchRequest(request.uri());
+    CompletableFuture<Void> turn = scheduler.acquire(route, rateLimited);
+
+    result.whenComplete(
+        (response, error) -> {
+          if (result.isCancelled()) {
+            turn.cancel(false);
+          }
+        });
+
+    turn.thenRun(
+        () -> {
+          if (result.isDone()) {
+            scheduler.failed(route, rateLimited);
+            return;
+          }
+
+          CompletableFuture<HttpResponse<T>> exchange =
+              clientFor(request.uri()).sendAsync(request, discardingIntermediate(handler));
+
+          result.whenComplete(
+              (response, error) -> {
+                if (result.isCancelled()) {
+                  exchange.cancel(true);
+                }
+              });
+
+          exchange.whenComplete(
+              (response, error) -> {
+                if (error != null) {
+                  scheduler.failed(route, rateLimited);
+                  result.completeExceptionally(
+                      error instanceof CompletionException && error.getCause() != null
+                          ? error.getCause()
+                          : error);
+                  return;
+                }
+
+                if (throttled(route, rateLimited, response) && attempt < MAX_ATTEMPTS) {
+                  sendAsync(request, handler, repository, redirects, attempt + 1, result);
+                  return;
+                }
+
+                HttpRequest next = redirectOf(request, response, repository, redirects);
+                if (next == null) {
+                  result.complete(response);
+                } else {
+                  sendAsync(next, handler, repository, redirects + 1, 1, result);
+                }
+              });
+        });
+  }
+
+  /** Wait for the turn of a request, giving up the place in the queue when interrupted. */
+  private void awaitTurn(String route, boolean rateLimited)
+      throws IOException, InterruptedException {
+    CompletableFuture<Void> turn = scheduler.acquire(route, rateLimited);
+
+    try {
+      turn.get();
+    } catch (InterruptedException e) {
+      turn.cancel(false);
+      throw e;
+    } catch (ExecutionException e) {
+      throw new IOException("Failed to schedule request to " + route, e.getCause());
+    }
+  }
+
+  /**
+   * Report the response to the scheduler.
+   *
+   * @return true when the host throttled the request and it should be sent again
+   */
+  private boolean throttled(String route, boolean rateLimited, HttpResponse<?> response) {
+    return scheduler.completed(
+        route, rateLimited, response.statusCode(), response.headers().firstValue("Retry-After"));
+  }
+
+  /** The request for the redirect target of a response, or null when the response is final. */
+  private HttpRequest redirectOf(
+      HttpRequest request, HttpResponse<?> response, MavenRepository repository, int redirects) {
+    Optional<String> location = response.headers().firstValue("Location");
+
+    if (!REDIRECT_STATUSES.contains(response.statusCode())
+        || location.isEmpty()
+        || redirects >= MAX_REDIRECTS) {
+      return null;
+    }
+
+    URI target = request.uri().resolve(location.get());
+    HttpRequest.Builder redirected =
+        HttpRequest.newBuilder(request, (name, value) -> !name.equalsIgnoreCase("Authorization"))
+            .uri(target);
+
+    if (response.statusCode() == 303) {
+      redirected.GET();
+    }
+
+    return authorize(redirected.build(), repository);
+  }
+
+  /** Add the credentials of the repository, when the request goes to the host of the repository. */
+  private HttpRequest authorize(HttpRequest request, MavenRepository repository) {
+    if (repository == null
+        || !routeOf(request.uri()).equals(routeOf(URI.create(repository.getUrl())))) {
+      return request;
+    }
+
+    Optional<String> authorization = authorizationFor(repository);
+
+    if (authorization.isEmpty()) {
+      return request;
+    }
+
+    return HttpRequest.newBuilder(request, (name, value) -> true)
+        .setHeader("Authorization", authorization.get())
+        .build();
+  }
+
+  /** The Authorization header for a repository, built once from the server of the same id. */
+  Optional<String> authorizationFor(MavenRepository repository) {
+    return authorizations.computeIfAbsent(
+        repository.getId(),
+        id ->
+            repositoryService
+                .getServer(id)
+                .filter(server -> server.getUsername() != null)
+                .map(HttpRouting::basicAuthorization));
+  }
+
+  private static String basicAuthorization(Server server) {
+    String password = server.getPassword() != null ? server.getPassword() : "";
+    String credentials = server.getUsername() + ":" + password;
+    return "Basic "
+        + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Discard the body of redirect and throttling responses, which are followed or retried instead of
+   * being handed to the caller.
+   */
+  @SuppressWarnings("unchecked")
+  private static <T> HttpResponse.BodyHandler<T> discardingIntermediate(
+      HttpResponse.BodyHandler<T> handler) {
+    return info ->
+        THROTTLING_STATUSES.contains(info.statusCode())
+                || (REDIRECT_STATUSES.contains(info.statusCode())
+                    && info.headers().firstValue("Location").isPresent())
+            ? (HttpResponse.BodySubscriber<T>) HttpResponse.BodySubscribers.discarding()
+            : handler.apply(info);
+  }
+
+  /** Number of routes that have a client, one per target host. */
+  int routeCount() {
+    return clients.size();
+  }
+
+  private HttpClient createClient(String route, URI uri) {
+    HttpClient.Builder builder =
+        HttpClient.newBuilder()
+            .connectTimeout(CONNECT_TIMEOUT)
+            .followRedirects(HttpClient.Redirect.NEVER);
+
+    Optional<Proxy> proxy = repositoryService.getProxy(uri);
+
+    if (proxy.isPresent()) {
+      Proxy selected = proxy.get();
+      LOGGER.info(
+          "Routing " + route + " through proxy " + selected.getHost() + ":" + selected.getPort());
+      builder.proxy(
+          ProxySelector.of(
+              InetSocketAddress.createUnresolved(selected.getHost(), selected.getPort())));
+
+      if (selected.getUsername() != null) {
+        builder.authenticator(proxyAuthenticator(selected));
+      }
+    } else {
+      builder.proxy(HttpClient.Builder.NO_PROXY);
+    }
+
+    return builder.build();
+  }
+
+  /**
+   * Answer proxy authentication challenges with the credentials of the proxy. Note that the JDK
+   * does not offer Basic credentials when tunnelling HTTPS through a proxy, unless the system
+   * property {@code jdk.http.auth.tunneling.disabledSchemes} is set to an empty value.
+   */
+  private static Authenticator proxyAuthenticator(Proxy proxy) {
+    String password = proxy.getPassword() != null ? proxy.getPassword() : "";
+
+    return new Authenticator() {
+      @Override
+      protected PasswordAuthentication getPasswordAuthentication() {
+        if (getRequestorType() != RequestorType.PROXY) {
+          return null;
+        }
+        return new PasswordAuthentication(proxy.getUsername(), password.toCharArray());
+      }
+    };
+  }
+
+  /**
+   * Whether a URI is a request to a search API: the Central search, or the search endpoints of
+   * Nexus and Artifactory. Only these are held to the configured request rate.
+   */
+  static boolean isSearchRequest(URI uri) {
+    String path = uri.getRawPath() != null ? uri.getRawPath() : "";
+    return SEARCH_PATHS.stream().anyMatch(path::contains);
+  }
+
+  /** The route of a URI: its scheme, host and port. */
+  static String routeOf(URI uri) {
+    String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase() : "http";
+    int port = uri.getPort();
+
+    if (port == -1) {
+      port = "https".equals(scheme) ? 443 : 80;
+    }
+
+    return scheme + "://" + String.valueOf(uri.getHost()).toLowerCase() + ":" + port;
+  }
+}
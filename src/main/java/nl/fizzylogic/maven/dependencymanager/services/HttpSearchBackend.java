@@ -0,0 +1,120 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Logger;
+
+import nl.fizzylogic.maven.dependencymanager.model.MavenRepository;
+import nl.fizzylogic.maven.dependencymanager.model.SearchQuery;
+import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+
+/**
+ * Base class for the search APIs of repository managers, which are queried over HTTP with the
+ * credentials of the repository.
+ */
+abstract class HttpSearchBackend implements SearchBackend {
+
+  private static final Logger LOGGER = Logger.getLogger(HttpSearchBackend.class.getName());
+  static final int MAX_RESULTS = 20;
+  static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+  protected final MavenRepository repository;
+  private final HttpRouting routing;
+
+  HttpSearchBackend(MavenRepository repository, HttpRouting routing) {
+    this.repository = repository;
+    this.routing = routing;
+  }
+
+  @Override
+  public String getRepositoryId() {
+    return repository.getId();
+  }
+
+  @Override
+  public CompletableFuture<List<SearchResult>> search(SearchQuery query) {
+    URI searchUri = searchUri(query);
+    LOGGER.info("Searching " + repository.getId() + " with URL: " + searchUri);
+
+    HttpRequest request =
+        HttpRequest.newBuilder()
+            .uri(searchUri)
+            .timeout(REQUEST_TIMEOUT)
+            .header("Accept", "application/json")
+            .GET()
+            .build();
+
+    CompletableFuture<HttpResponse<byte[]>> response =
+        routing.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray(), repository);
+
+    CompletableFuture<List<SearchResult>> results =
+        response.thenApply(
+            completed -> {
+              if (completed.statusCode() != 200) {
+                throw new CompletionException(
+                    new IOException(
+                        "Search request to "
+                            + repository.getId()
+                            + " failed with status: "
+                            + completed.statusCode()));
+              }
+
+              HighestVersions found = new HighestVersions();
+              try {
+                readResults(new ByteArrayInputStream(completed.body()), query, found);
+              } catch (IOException e) {
+                throw new CompletionException(e);
+              }
+              return found.toList(MAX_RESULTS);
+            });
+
+    results.whenComplete(
+        (found, error) -> {
+          if (results.isCancelled()) {
+            response.cancel(true);
+          }
+        });
+
+    return results;
+  }
+
+  /** The URI of the search request for the query. */
+  abstract URI searchUri(SearchQuery query);
+
+  /** Read the response body, adding every artifact version it lists to the results. */
+  abstract void readResults(InputStream body, SearchQuery query, HighestVersions results)
+      throws IOException;
+
+  /** The part of the repository URL before the marker, or null when the URL has no marker. */
+  static String baseUrl(String repositoryUrl, String marker) {
+    int index = repositoryUrl.indexOf(marker);
+    return index < 0 ? null : repositoryUrl.substring(0, index);
+  }
+
+  /** The first path segment after the marker, or null when there is none. */
+  static String segmentAfter(String repositoryUrl, String marker) {
+    int index = repositoryUrl.indexOf(marker);
+    if (index < 0) {
+      return null;
+    }
+
+    String rest = repositoryUrl.substring(index + marker.length());
+    int end = rest.indexOf('/');
+    String segment = end < 0 ? rest : rest.substring(0, end);
+    return segment.isEmpty() ? null : segment;
+  }
+
+  static String encode(String value) {
+    return URLEncoder.encode(value, StandardCharsets.UTF_8);
+  }
+}
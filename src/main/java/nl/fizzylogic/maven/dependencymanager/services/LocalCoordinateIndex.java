@@ -0,0 +1,240 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
+
+/**
+ * Knows which groupId:artifactId:version coordinates were downloaded into the local Maven
+ * repository from a remote repository, so their existence can be confirmed without a network round
+ * trip. The coordinates are held in a Bloom filter that is stored next to the other caches of the
+ * tool and memory-mapped, so it costs a few megabytes outside the heap even for a large local
+ * repository. A "no" from the filter skips the disk entirely; a "maybe" is confirmed against the
+ * files of the local repository.
+ *
+ * <p>Walking the local repository takes seconds, so a lookup never builds the filter. The first
+ * lookup maps the index file on a background thread, rebuilding it there when it is missing or too
+ * old, and until that is done lookups check the files of the local repository directly. The cache
+ * warmer rebuilds the filter up front through {@link #refresh()}.
+ *
+ * <p>Only artifacts that Maven recorded as downloaded count: an artifact that was installed from a
+ * local build may never have been published.
+ */
+@TraceStartup
+@ApplicationScoped
+public class LocalCoordinateIndex {
+
+  private static final Logger LOGGER = Logger.getLogger(LocalCoordinateIndex.class.getName());
+  private static final Path LOCAL_REPOSITORY_PATH =
+      Path.of(System.getProperty("user.home"), ".m2", "repository");
+  private static final Path INDEX_FILE_PATH =
+      Path.of(
+          System.getProperty("user.home"), ".m2", "dependencymanager", "local-coordinates.bloom");
+  private static final String REMOTE_REPOSITORIES_FILE_NAME = "_remote.repositories";
+
+  /** Age after which the index is rebuilt, to pick up what was downloaded in the meantime. */
+  static final Duration MAX_AGE = Duration.ofDays(1);
+
+  static final double FALSE_POSITIVE_PROBABILITY = 0.01;
+
+  private final Path localRepository;
+  private final Path indexFile;
+  private final Clock clock;
+  private volatile BloomFilter filter;
+  private final AtomicReference<CompletableFuture<Void>> loading = new AtomicReference<>();
+  private final ReentrantLock rebuildLock = new ReentrantLock();
+
+  public LocalCoordinateIndex() {
+    this(LOCAL_REPOSITORY_PATH, INDEX_FILE_PATH, Clock.systemUTC());
+  }
+
+  LocalCoordinateIndex(Path localRepository, Path indexFile, Clock clock) {
+    this.localRepository = localRepository;
+    this.indexFile = indexFile;
+    this.clock = clock;
+  }
+
+  /**
+   * Check whether a version of an artifact was downloaded into the local repository.
+   *
+   * @return true when the local repository has the POM of the version from a remote repository
+   */
+  public boolean isDownloaded(String groupId, String artifactId, String version) {
+    BloomFilter current = filter;
+
+    if (current == null) {
+      load();
+    } else if (!current.mightContain(key(groupId, artifactId, version))) {
+      return false;
+    }
+
+    Path versionDirectory =
+        localRepository.resolve(groupId.replace('.', '/')).resolve(artifactId).resolve(version);
+    return isDownloaded(versionDirectory, artifactId + "-" + version + ".pom");
+  }
+
+  /**
+   * Rebuild the filter from the local repository now, so it knows everything that was downloaded up
+   * to this moment.
+   *
+   * @throws IOException if the local repository cannot be walked or the index cannot be written
+   */
+  public void refresh() throws IOException {
+    rebuildLock.lock();
+    try {
+      rebuild();
+      filter = BloomFilter.map(indexFile);
+    } finally {
+      rebuildLock.unlock();
+    }
+  }
+
+  /**
+   * Map the filter from the index file on a background thread, rebuilding the file first when it is
+   * missing or too old. Started once; later calls return the same future.
+   */
+  CompletableFuture<Void> load() {
+    CompletableFuture<Void> started = loading.get();
+    if (started != null) {
+      return started;
+    }
+
+    CompletableFuture<Void> created = new CompletableFuture<>();
+    if (!loading.compareAndSet(null, created)) {
+      return loading.get();
+    }
+
+    Thread.ofVirtual()
+        .name("local-coordinate-index")
+        .start(
+            () -> {
+              rebuildLock.lock();
+              try {
+                if (filter == null) {
+                  if (!isFresh()) {
+                    rebuild();
+                  }
+                  filter = BloomFilter.map(indexFile);
+                }
+              } catch (IOException | UncheckedIOException e) {
+                LOGGER.warning("Local coordinate index is not available: " + e.getMessage());
+              } finally {
+                rebuildLock.unlock();
+                created.complete(null);
+              }
+            });
+    return created;
+  }
+
+  private boolean isFresh() throws IOException {
+    if (!Files.isRegularFile(indexFile)) {
+      return false;
+    }
+
+    FileTime modified = Files.getLastModifiedTime(indexFile);
+    return modified.toInstant().plus(MAX_AGE).isAfter(clock.instant());
+  }
+
+  /** Walk the local repository and write the filter of the downloaded coordinates. */
+  void rebuild() throws IOException {
+    long start = System.nanoTime();
+    List<String> coordinates = new ArrayList<>();
+
+    if (Files.isDirectory(localRepository)) {
+      try (Stream<Path> files = Files.walk(localRepository)) {
+        files
+            .filter(file -> file.getFileName().toString().endsWith(".pom"))
+            .forEach(
+                pom -> {
+                  String coordinate = coordinatesOf(pom);
+                  if (coordinate != null
+                      && isDownloaded(pom.getParent(), pom.getFileName().toString())) {
+                    coordinates.add(coordinate);
+                  }
+                });
+      }
+    }
+
+    BloomFilter built = BloomFilter.create(coordinates.size(), FALSE_POSITIVE_PROBABILITY);
+    coordinates.forEach(built::put);
+    built.writeTo(indexFile);
+
+    LOGGER.info(
+        "Indexed "
+            + coordinates.size()
+            + " downloaded artifacts in "
+            + Duration.ofNanos(System.nanoTime() - start).toMillis()
+            + " ms, using "
+            + built.sizeInBytes()
+            + " bytes");
+  }
+
+  /** The coordinates of a POM in the repository layout, or null when it is not at its place. */
+  private String coordinatesOf(Path pom) {
+    Path versionDirectory = pom.getParent();
+    Path artifactDirectory = versionDirectory.getParent();
+
+    if (artifactDirectory == null || artifactDirectory.getParent() == null) {
+      return null;
+    }
+
+    String version = versionDirectory.getFileName().toString();
+    String artifactId = artifactDirectory.getFileName().toString();
+
+    if (!pom.getFileName().toString().equals(artifactId + "-" + version + ".pom")) {
+      return null;
+    }
+
+    Path groupDirectory = localRepository.relativize(artifactDirectory.getParent());
+    if (groupDirectory.toString().isEmpty()) {
+      return null;
+    }
+
+    String groupId =
+        groupDirectory.toString().replace(groupDirectory.getFileSystem().getSeparator(), ".");
+    return key(groupId, artifactId, version);
+  }
+
+  /**
+   * Whether Maven recorded the file as downloaded from a remote repository. Installed files are
+   * recorded with an empty repository id.
+   */
+  private static boolean isDownloaded(Path versionDirectory, String fileName) {
+    Path record = versionDirectory.resolve(REMOTE_REPOSITORIES_FILE_NAME);
+
+    if (!Files.isRegularFile(versionDirectory.resolve(fileName)) || !Files.isRegularFile(record)) {
+      return false;
+    }
+
+    try {
+      for (String line : Files.readAllLines(record, StandardCharsets.UTF_8)) {
+        if (line.startsWith(fileName + ">") && !line.endsWith(">=")) {
+          return true;
+        }
+      }
+      return false;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  private static String key(String groupId, String artifactId, String version) {
+    return groupId + ":" + artifactId + ":" + version;
+  }
+}
@@ -0,0 +1,141 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+import nl.fizzylogic.maven.dependencymanager.model.MavenRepository;
+import nl.fizzylogic.maven.dependencymanager.model.SearchQuery;
+import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+
+/**
+ * Searches a repository on the local file system, configured with a {@code file:} URL. The
+ * directory layout is read directly: exact queries look up the artifact directory, keyword queries
+ * walk the POM files of the repository. Also serves as a stand-in for a remote repository in tests.
+ */
+class LocalRepositorySearchBackend implements SearchBackend {
+
+  private final String repositoryId;
+  private final Path root;
+
+  LocalRepositorySearchBackend(String repositoryId, Path root) {
+    this.repositoryId = repositoryId;
+    this.root = root;
+  }
+
+  LocalRepositorySearchBackend(MavenRepository repository) {
+    this(repository.getId(), Path.of(URI.create(repository.getUrl())));
+  }
+
+  /** Whether the repository is on the local file system. */
+  static boolean supports(MavenRepository repository) {
+    return repository.getUrl().startsWith("file:");
+  }
+
+  @Override
+  public String getRepositoryId() {
+    return repositoryId;
+  }
+
+  @Override
+  public CompletableFuture<List<SearchResult>> search(SearchQuery query) {
+    return CompletableFuture.supplyAsync(
+        () -> {
+          HighestVersions results = new HighestVersions();
+          try {
+            if (query.isExact()) {
+              searchArtifact(query, results);
+            } else {
+              searchKeywords(query.getText().toLowerCase(Locale.ROOT), results);
+            }
+          } catch (IOException e) {
+            throw new UncheckedIOException(e);
+          }
+          return results.toList(HttpSearchBackend.MAX_RESULTS);
+        },
+        task -> Thread.ofVirtual().name("local-search").start(task));
+  }
+
+  private void searchArtifact(SearchQuery query, HighestVersions results) throws IOException {
+    Path artifactDirectory =
+        root.resolve(query.getGroupId().replace('.', '/')).resolve(query.getArtifactId());
+
+    if (query.getVersion() != null) {
+      if (hasPom(artifactDirectory, query.getArtifactId(), query.getVersion())) {
+        results.add(
+            new SearchResult(query.getGroupId(), query.getArtifactId(), query.getVersion()));
+      }
+      return;
+    }
+
+    if (!Files.isDirectory(artifactDirectory)) {
+      return;
+    }
+
+    try (Stream<Path> versions = Files.list(artifactDirectory)) {
+      versions
+          .map(version -> version.getFileName().toString())
+          .filter(version -> hasPom(artifactDirectory, query.getArtifactId(), version))
+          .forEach(
+              version ->
+                  results.add(
+                      new SearchResult(query.getGroupId(), query.getArtifactId(), version)));
+    }
+  }
+
+  private void searchKeywords(String keywords, HighestVersions results) throws IOException {
+    if (!Files.isDirectory(root)) {
+      return;
+    }
+
+    try (Stream<Path> files = Files.walk(root)) {
+      files
+          .filter(file -> file.getFileName().toString().endsWith(".pom"))
+          .map(this::coordinatesOf)
+          .filter(
+              result ->
+                  result != null
+                      && (result.getGroupId() + ":" + result.getArtifactId())
+                          .toLowerCase(Locale.ROOT)
+                          .contains(keywords))
+          .forEach(results::add);
+    }
+  }
+
+  /**
+   * Derive the coordinates from the path of a POM file, such as org/example/lib/1.0/lib-1.0.pom.
+   */
+  private SearchResult coordinatesOf(Path pomFile) {
+    Path relative = root.relativize(pomFile);
+    int count = relative.getNameCount();
+
+    if (count < 4) {
+      return null;
+    }
+
+    String artifactId = relative.getName(count - 3).toString();
+    String version = relative.getName(count - 2).toString();
+
+    if (!pomFile.getFileName().toString().equals(artifactId + "-" + version + ".pom")) {
+      return null;
+    }
+
+    String groupId =
+        relative
+            .subpath(0, count - 3)
+            .toString()
+            .replace(relative.getFileSystem().getSeparator(), ".");
+    return new SearchResult(groupId, artifactId, version);
+  }
+
+  private static boolean hasPom(Path artifactDirectory, String artifactId, String version) {
+    return Files.isRegularFile(
+        artifactDirectory.resolve(version).resolve(artifactId + "-" + version + ".pom"));
+  }
+}
@@ -0,0 +1,241 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import nl.fizzylogic.maven.dependencymanager.model.DependencyCoordinates;
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
+
+/**
+ * Checks the files of a dependency graph in the local repository against the checksums stored next
+ * to them, and downloads the files that don't match again. The graph is expanded by the {@link
+ * ArtifactPrefetcher} from the POMs in the local repository only; files that are not there are
+ * reported as missing rather than fetched, so the network is used only to repair files that were
+ * found to be corrupt. Every file is hashed on its own virtual thread through a memory mapping, so
+ * the check runs on all cores and is limited by how fast the disk delivers the files.
+ */
+@TraceStartup
+@ApplicationScoped
+public class LocalRepositoryVerifier {
+
+  private static final Logger LOGGER = Logger.getLogger(LocalRepositoryVerifier.class.getName());
+
+  @Inject ArtifactPrefetcher artifactPrefetcher;
+
+  /**
+   * Verify the files of the dependencies and their transitive dependencies.
+   *
+   * @param dependencies The dependencies to verify, each with a version
+   * @param connectionsPerHost The maximum number of concurrent downloads per repository host
+   * @param repair Whether to download the files that don't match their checksum again; without it
+   *     the network is not used at all
+   * @return The outcome of the verification
+   */
+  public VerifyResult verify(
+      List<DependencyCoordinates> dependencies, int connectionsPerHost, boolean repair) {
+    long start = System.nanoTime();
+    VerifyResult result = new VerifyResult();
+
+    ArtifactPrefetcher.PrefetchResult graph = artifactPrefetcher.walkLocal(dependencies);
+    result.missing.addAll(graph.getMissing());
+    for (String failure : graph.getFailures()) {
+      result.failures.add("Failed to read " + failure);
+    }
+
+    Map<String, Path> files = new LinkedHashMap<>();
+    graph
+        .getArtifacts()
+        .forEach(
+            (key, file) -> {
+              files.put(key, file);
+              if (!key.endsWith(":pom")) {
+                String coordinates = key.substring(0, key.lastIndexOf(':'));
+                files.put(coordinates + ":pom", pomOf(file));
+              }
+            });
+
+    List<String> mismatches = check(files, result);
+
+    if (repair && !mismatches.isEmpty()) {
+      redownload(mismatches, files, connectionsPerHost, result);
+    }
+
+    result.elapsed = Duration.ofNanos(System.nanoTime() - start);
+    return result;
+  }
+
+  /**
+   * Hash the files concurrently and compare them with their checksum files. Files that cannot be
+   * read are reported as failures, not as mismatches, so they are never deleted for repair.
+   *
+   * @return the keys of the files that don't match
+   */
+  private List<String> check(Map<String, Path> files, VerifyResult result) {
+    ConcurrentLinkedQueue<String> mismatches = new ConcurrentLinkedQueue<>();
+    List<CompletableFuture<Void>> checks = new ArrayList<>();
+
+    try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      files.forEach(
+          (key, file) ->
+              checks.add(
+                  CompletableFuture.runAsync(
+                      () -> {
+                        try {
+                          switch (check(file)) {
+                            case MATCHES -> result.verified.incrementAndGet();
+                            case NO_CHECKSUM -> result.unverified.incrementAndGet();
+                            case MISMATCH -> {
+                              LOGGER.warning("Checksum mismatch for " + file);
+                              mismatches.add(key);
+                            }
+                          }
+                        } catch (IOException e) {
+                          result.failures.add("Failed to read " + key + ": " + e.getMessage());
+                        }
+                      },
+                      executor)));
+
+      CompletableFuture.allOf(checks.toArray(CompletableFuture[]::new)).join();
+    }
+
+    List<String> sorted = new ArrayList<>(mismatches);
+    sorted.sort(null);
+    result.mismatches.addAll(sorted);
+    return sorted;
+  }
+
+  /** Delete the files that don't match and fetch them again, checking the new files as well. */
+  private void redownload(
+      List<String> mismatches,
+      Map<String, Path> files,
+      int connectionsPerHost,
+      VerifyResult result) {
+    List<String> deleted = new ArrayList<>();
+
+    for (String key : mismatches) {
+      Path file = files.get(key);
+      try {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".sha1"));
+        Files.deleteIfExists(file.resolveSibling(file.getFileName() + ".sha256"));
+        deleted.add(key);
+      } catch (IOException e) {
+        result.failures.add("Failed to delete " + key + ": " + e.getMessage());
+      }
+    }
+
+    if (deleted.isEmpty()) {
+      return;
+    }
+
+    ArtifactPrefetcher.PrefetchResult fetched =
+        artifactPrefetcher.fetchFiles(deleted, connectionsPerHost);
+    for (String failure : fetched.getFailures()) {
+      result.failures.add("Failed to fetch " + failure);
+    }
+
+    for (String key : deleted) {
+      Path file = files.get(key);
+      try {
+        if (Files.isRegularFile(file) && check(file) != Checksum.MISMATCH) {
+          result.repaired.incrementAndGet();
+        }
+      } catch (IOException e) {
+        result.failures.add("Failed to read " + key + ": " + e.getMessage());
+      }
+    }
+  }
+
+  /** Compare a file with its .sha256 file, or its .sha1 file when there is no .sha256. */
+  private static Checksum check(Path file) throws IOException {
+    Path sha256 = file.resolveSibling(file.getFileName() + ".sha256");
+    Path sha1 = file.resolveSibling(file.getFileName() + ".sha1");
+
+    if (Files.isRegularFile(sha256)) {
+      return matches(FileDigests.sha256(file), sha256);
+    }
+    if (Files.isRegularFile(sha1)) {
+      return matches(FileDigests.sha1(file), sha1);
+    }
+    return Checksum.NO_CHECKSUM;
+  }
+
+  private static Checksum matches(String actual, Path checksumFile) throws IOException {
+    // Checksum files may hold the file name after the checksum
+    String expected =
+        Files.readString(checksumFile, StandardCharsets.US_ASCII).trim().split("\\s+")[0];
+    return expected.equalsIgnoreCase(actual) ? Checksum.MATCHES : Checksum.MISMATCH;
+  }
+
+  private static Path pomOf(Path artifact) {
+    String fileName = artifact.getFileName().toString();
+    return artifact.resolveSibling(fileName.substring(0, fileName.lastIndexOf('.')) + ".pom");
+  }
+
+  private enum Checksum {
+    MATCHES,
+    MISMATCH,
+    NO_CHECKSUM
+  }
+
+  /** Outcome of a verification. */
+  public static class VerifyResult {
+    private final AtomicInteger verified = new AtomicInteger();
+    private final AtomicInteger unverified = new AtomicInteger();
+    private final AtomicInteger repaired = new AtomicInteger();
+    private final List<String> mismatches = new ArrayList<>();
+    private final List<String> missing = new ArrayList<>();
+    private final ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+    private Duration elapsed = Duration.ZERO;
+
+    /** Number of files that match their checksum. */
+    public int getVerifiedCount() {
+      return verified.get();
+    }
+
+    /** Number of files without a checksum file to compare with. */
+    public int getUnverifiedCount() {
+      return unverified.get();
+    }
+
+    /** Number of mismatching files that were downloaded again and now match. */
+    public int getRepairedCount() {
+      return repaired.get();
+    }
+
+    /** The files that did not match their checksum, by groupId:artifactId:version:extension. */
+    public List<String> getMismatches() {
+      return mismatches;
+    }
+
+    /** The files of the graph that are not in the local repository, which are not downloaded. */
+    public List<String> getMissing() {
+      return missing;
+    }
+
+    /** The files that could not be read, deleted or downloaded, with the reason. */
+    public List<String> getFailures() {
+      return new ArrayList<>(failures);
+    }
+
+    public Duration getElapsed() {
+      return elapsed;
+    }
+  }
+}
@@ -1,26 +1,53 @@
 package nl.fizzylogic.maven.dependencymanager.services;
 
 import java.io.File;
+import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.logging.Logger;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.enterprise.context.ApplicationScoped;
 
+import org.apache.maven.settings.Mirror;
 import org.apache.maven.settings.Profile;
+import org.apache.maven.settings.Proxy;
 import org.apache.maven.settings.Repository;
+import org.apache.maven.settings.Server;
 import org.apache.maven.settings.Settings;
 import org.apache.maven.settings.building.DefaultSettingsBuilder;
 import org.apache.maven.settings.building.DefaultSettingsBuilderFactory;
 import org.apache.maven.settings.building.DefaultSettingsBuildingRequest;
 import org.apache.maven.settings.building.SettingsBuildingRequest;
 import org.apache.maven.settings.building.SettingsBuildingResult;
+import org.apache.maven.settings.building.SettingsProblem;
+import org.apache.maven.settings.crypto.DefaultSettingsDecrypter;
+import org.apache.maven.settings.crypto.DefaultSettingsDecryptionRequest;
+import org.apache.maven.settings.crypto.SettingsDecryptionResult;
+import org.crac.Context;
+import org.crac.Core;
+import org.crac.Resource;
+import org.sonatype.plexus.components.cipher.DefaultPlexusCipher;
+import org.sonatype.plexus.components.sec.dispatcher.DefaultSecDispatcher;
 
-/** Service to load Maven repository configuration from user and global settings. */
+import nl.fizzylogic.maven.dependencymanager.model.MavenRepository;
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
+
+/**
+ * Service to load Maven repository configuration from user and global settings. Repositories are
+ * replaced by the mirrors that the settings configure for them, and the proxies from the settings
+ * are selected per host. The settings are read again after a restore from a CRaC checkpoint, as
+ * they may have changed in the meantime.
+ */
+@TraceStartup
 @ApplicationScoped
-public class MavenConfiguration {
+public class MavenConfiguration implements Resource {
 
   private static final Logger LOGGER = Logger.getLogger(MavenConfiguration.class.getName());
+  private static final String MAVEN_CENTRAL_ID = "central";
   private static final String MAVEN_CENTRAL_URL = "https://repo1.maven.org/maven2";
   private static final String USER_SETTINGS_PATH =
       System.getProperty("user.home") + "/.m2/settings.xml";
@@ -28,39 +55,70 @@ public class MavenConfiguration {
       System.getenv("M2_HOME") != null
           ? System.getenv("M2_HOME") + "/conf/settings.xml"
           : "/usr/share/maven/conf/settings.xml";
+  private static final String SETTINGS_SECURITY_PATH =
+      System.getProperty("user.home") + "/.m2/settings-security.xml";
+
+  String userSettingsPath = USER_SETTINGS_PATH;
+  String globalSettingsPath = GLOBAL_SETTINGS_PATH;
+
+  private Settings settings;
+  private SettingsDecryptionResult decrypted;
+
+  @PostConstruct
+  void registerCheckpointResource() {
+    Core.getGlobalContext().register(this);
+  }
+
+  @Override
+  public void beforeCheckpoint(Context<? extends Resource> context) {}
+
+  @Override
+  public synchronized void afterRestore(Context<? extends Resource> context) {
+    settings = null;
+    decrypted = null;
+  }
 
   /**
    * Get list of repository URLs configured in Maven settings. Always includes Maven Central as
    * fallback.
    */
   public List<String> getRepositoryUrls() {
-    List<String> repositories = new ArrayList<>();
+    List<String> urls = new ArrayList<>();
+
+    for (MavenRepository repository : getRepositories()) {
+      urls.add(repository.getUrl());
+    }
+
+    LOGGER.info("Configured repositories: " + urls);
+    return urls;
+  }
+
+  /**
+   * Get list of repositories configured in Maven settings. Always includes Maven Central as
+   * fallback. A repository that is matched by a mirror is replaced by that mirror, so several
+   * repositories can be served by a single mirror entry.
+   */
+  public List<MavenRepository> getRepositories() {
+    List<MavenRepository> repositories = new ArrayList<>();
+    List<String> urls = new ArrayList<>();
+    List<Mirror> mirrors = List.of();
 
     try {
       Settings settings = loadMavenSettings();
+      mirrors = settings.getMirrors();
 
       // Get repositories from active profiles
       for (String activeProfile : settings.getActiveProfiles()) {
         Profile profile = settings.getProfilesAsMap().get(activeProfile);
         if (profile != null) {
-          for (Repository repo : profile.getRepositories()) {
-            String url = repo.getUrl();
-            if (url != null && !url.trim().isEmpty()) {
-              repositories.add(url.trim());
-            }
-          }
+          addRepositories(profile, repositories, urls);
         }
       }
 
       // Also check default profile repositories
       for (Profile profile : settings.getProfiles()) {
         if (profile.getActivation() != null && profile.getActivation().isActiveByDefault()) {
-          for (Repository repo : profile.getRepositories()) {
-            String url = repo.getUrl();
-            if (url != null && !url.trim().isEmpty() && !repositories.contains(url.trim())) {
-              repositories.add(url.trim());
-            }
-          }
+          addRepositories(profile, repositories, urls);
         }
       }
 
@@ -69,31 +127,286 @@ public class MavenConfiguration {
     }
 
     // Always ensure Maven Central is available as fallback
-    if (!repositories.contains(MAVEN_CENTRAL_URL)) {
-      repositories.add(MAVEN_CENTRAL_URL);
+    if (!urls.contains(MAVEN_CENTRAL_URL)) {
+      repositories.add(new MavenRepository(MAVEN_CENTRAL_ID, MAVEN_CENTRAL_URL));
+    }
+
+    return applyMirrors(repositories, mirrors);
+  }
+
+  /**
+   * Get the mirror that the settings configure for Maven Central, through which everything that
+   * would come from Central must be resolved.
+   *
+   * @return The mirror, or empty when Central is reached directly
+   */
+  public Optional<MavenRepository> getCentralMirror() {
+    try {
+      Mirror mirror =
+          selectMirror(
+              new MavenRepository(MAVEN_CENTRAL_ID, MAVEN_CENTRAL_URL),
+              loadMavenSettings().getMirrors());
+      return mirror != null
+          ? Optional.of(new MavenRepository(mirror.getId(), mirror.getUrl()))
+          : Optional.empty();
+    } catch (Exception e) {
+      LOGGER.warning("Failed to load Maven settings: " + e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Get the proxy that the Maven settings configure for requests to the host of a URI.
+   *
+   * @return The active proxy for the protocol of the URI, or empty when the host is reached
+   *     directly
+   */
+  public Optional<Proxy> getProxy(URI uri) {
+    try {
+      return Optional.ofNullable(selectProxy(uri, decryptedSettings().getProxies()));
+    } catch (Exception e) {
+      LOGGER.warning("Failed to load Maven settings: " + e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Get the server entry with the credentials for a repository or mirror, with its password
+   * decrypted.
+   *
+   * @param id The id of the repository or mirror
+   * @return The server with the same id, or empty when the settings have no credentials for it
+   */
+  public Optional<Server> getServer(String id) {
+    try {
+      return decryptedSettings().getServers().stream()
+          .filter(server -> server.getId() != null && server.getId().equals(id))
+          .findFirst();
+    } catch (Exception e) {
+      LOGGER.warning("Failed to load Maven settings: " + e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /** Replace each repository by its mirror, keeping the first entry per URL. */
+  static List<MavenRepository> applyMirrors(
+      List<MavenRepository> repositories, List<Mirror> mirrors) {
+    List<MavenRepository> mirrored = new ArrayList<>();
+    List<String> urls = new ArrayList<>();
+
+    for (MavenRepository repository : repositories) {
+      Mirror mirror = selectMirror(repository, mirrors);
+      MavenRepository effective =
+          mirror != null ? new MavenRepository(mirror.getId(), mirror.getUrl()) : repository;
+
+      if (mirror != null) {
+        LOGGER.info("Repository " + repository + " is mirrored by " + effective);
+      }
+
+      if (!urls.contains(effective.getUrl())) {
+        urls.add(effective.getUrl());
+        mirrored.add(effective);
+      }
+    }
+
+    return mirrored;
+  }
+
+  /**
+   * Select the mirror of a repository the way Maven does: a mirror naming the repository id exactly
+   * wins, otherwise the first mirror whose mirrorOf pattern matches.
+   */
+  static Mirror selectMirror(MavenRepository repository, List<Mirror> mirrors) {
+    for (Mirror mirror : mirrors) {
+      if (repository.getId() != null && repository.getId().equals(mirror.getMirrorOf())) {
+        return mirror;
+      }
+    }
+
+    for (Mirror mirror : mirrors) {
+      if (matchesMirrorOf(mirror.getMirrorOf(), repository)) {
+        return mirror;
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Match a repository against a mirrorOf pattern: a comma separated list of repository ids, where
+   * {@code *} matches any repository, {@code external:*} any repository that is not on localhost or
+   * on disk, {@code external:http:*} any such repository using plain HTTP, and {@code !id} excludes
+   * a repository.
+   */
+  static boolean matchesMirrorOf(String mirrorOf, MavenRepository repository) {
+    if (mirrorOf == null) {
+      return false;
+    }
+
+    boolean matched = false;
+
+    for (String pattern : mirrorOf.split(",")) {
+      pattern = pattern.trim();
+
+      if (pattern.isEmpty()) {
+        continue;
+      }
+
+      if (pattern.startsWith("!")) {
+        if (pattern.substring(1).equals(repository.getId())) {
+          return false;
+        }
+      } else if (pattern.equals("*")
+          || pattern.equals(repository.getId())
+          || (pattern.equals("external:*") && isExternal(repository))
+          || (pattern.equals("external:http:*")
+              && isExternal(repository)
+              && repository.getUrl().startsWith("http:"))) {
+        matched = true;
+      }
+    }
+
+    return matched;
+  }
+
+  private static boolean isExternal(MavenRepository repository) {
+    try {
+      URI uri = URI.create(repository.getUrl());
+      String host = uri.getHost();
+      return !"file".equals(uri.getScheme())
+          && host != null
+          && !host.equals("localhost")
+          && !host.equals("127.0.0.1");
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+  }
+
+  /**
+   * Select the first active proxy for the protocol of a URI, unless the host is one of its
+   * nonProxyHosts. An HTTP proxy is also used for HTTPS when no HTTPS proxy is configured, as most
+   * proxy configurations only declare the former.
+   */
+  static Proxy selectProxy(URI uri, List<Proxy> proxies) {
+    String scheme = uri.getScheme();
+    String host = uri.getHost();
+
+    if (scheme == null || host == null || "file".equals(scheme)) {
+      return null;
+    }
+
+    Proxy fallback = null;
+
+    for (Proxy proxy : proxies) {
+      if (!proxy.isActive() || isNonProxyHost(host, proxy.getNonProxyHosts())) {
+        continue;
+      }
+
+      String protocol = proxy.getProtocol() != null ? proxy.getProtocol() : "http";
+
+      if (protocol.equalsIgnoreCase(scheme)) {
+        return proxy;
+      }
+
+      if (fallback == null
+          && "https".equalsIgnoreCase(scheme)
+          && "http".equalsIgnoreCase(protocol)) {
+        fallback = proxy;
+      }
+    }
+
+    return fallback;
+  }
+
+  /** Match a host against a nonProxyHosts list, separated by | or comma, with * wildcards. */
+  static boolean isNonProxyHost(String host, String nonProxyHosts) {
+    if (nonProxyHosts == null || nonProxyHosts.isBlank()) {
+      return false;
+    }
+
+    String candidate = host.toLowerCase(Locale.ROOT);
+
+    for (String pattern : nonProxyHosts.split("[|,]")) {
+      pattern = pattern.trim().toLowerCase(Locale.ROOT);
+
+      if (pattern.isEmpty()) {
+        continue;
+      }
+
+      String regex = ("\\Q" + pattern + "\\E").replace("*", "\\E.*\\Q");
+      if (candidate.matches(regex)) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  /** Add the repositories of a profile, skipping URLs that were already added. */
+  private void addRepositories(
+      Profile profile, List<MavenRepository> repositories, List<String> urls) {
+    for (Repository repo : profile.getRepositories()) {
+      String url = repo.getUrl();
+      if (url != null && !url.trim().isEmpty() && !urls.contains(url.trim())) {
+        urls.add(url.trim());
+        repositories.add(new MavenRepository(repo.getId(), url.trim()));
+      }
+    }
+  }
+
+  /**
+   * Load Maven settings from user and global settings files. The settings are read once per
+   * process; a failed attempt is not remembered, so the next call tries again.
+   */
+  private synchronized Settings loadMavenSettings() throws Exception {
+    if (settings == null) {
+      settings = buildMavenSettings();
+    }
+    return settings;
+  }
+
+  /** Decrypt the servers and proxies of the settings, once per process. */
+  private synchronized SettingsDecryptionResult decryptedSettings() throws Exception {
+    if (decrypted == null) {
+      decrypted = decrypt(loadMavenSettings(), SETTINGS_SECURITY_PATH);
+    }
+    return decrypted;
+  }
+
+  /**
+   * Decrypt the passwords of the servers and proxies. Values that fail to decrypt are logged and
+   * kept as they are, like Maven does.
+   */
+  static SettingsDecryptionResult decrypt(Settings settings, String settingsSecurityPath) {
+    DefaultSecDispatcher dispatcher =
+        new DefaultSecDispatcher(new DefaultPlexusCipher(), Map.of(), settingsSecurityPath);
+    SettingsDecryptionResult result =
+        new DefaultSettingsDecrypter(dispatcher)
+            .decrypt(new DefaultSettingsDecryptionRequest(settings));
+
+    for (SettingsProblem problem : result.getProblems()) {
+      LOGGER.warning("Failed to decrypt settings: " + problem.getMessage());
     }
 
-    LOGGER.info("Configured repositories: " + repositories);
-    return repositories;
+    return result;
   }
 
-  /** Load Maven settings from user and global settings files. */
-  private Settings loadMavenSettings() throws Exception {
+  private Settings buildMavenSettings() throws Exception {
     DefaultSettingsBuilder settingsBuilder = new DefaultSettingsBuilderFactory().newInstance();
     SettingsBuildingRequest request = new DefaultSettingsBuildingRequest();
 
     // Set user settings file
-    File userSettingsFile = new File(USER_SETTINGS_PATH);
+    File userSettingsFile = new File(userSettingsPath);
     if (userSettingsFile.exists()) {
       request.setUserSettingsFile(userSettingsFile);
-      LOGGER.info("Loading user settings from: " + USER_SETTINGS_PATH);
+      LOGGER.info("Loading user settings from: " + userSettingsPath);
     }
 
     // Set global settings file
-    File globalSettingsFile = new File(GLOBAL_SETTINGS_PATH);
+    File globalSettingsFile = new File(globalSettingsPath);
     if (globalSettingsFile.exists()) {
       request.setGlobalSettingsFile(globalSettingsFile);
-      LOGGER.info("Loading global settings from: " + GLOBAL_SETTINGS_PATH);
+      LOGGER.info("Loading global settings from: " + globalSettingsPath);
     }
 
     SettingsBuildingResult result = settingsBuilder.build(request);
@@ -1,6 +1,9 @@
 package nl.fizzylogic.maven.dependencymanager.services;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.logging.Logger;
 
 import jakarta.enterprise.context.ApplicationScoped;
@@ -9,8 +12,18 @@ import jakarta.inject.Inject;
 import nl.fizzylogic.maven.dependencymanager.model.DependencyCoordinates;
 import nl.fizzylogic.maven.dependencymanager.model.ResolvedDependency;
 import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
 
-/** Service for resolving Maven dependencies and versions using Maven Central Search API. */
+/**
+ * Service for resolving Maven dependencies and versions using Maven Central Search API. When the
+ * Maven settings mirror Central, search.maven.org is bypassed and the versions are resolved through
+ * the configured repositories with the {@link FederatedSearch}, which asks the mirror. Coordinates
+ * that were not found are remembered for a short time in the {@link NegativeCache}; lookups that
+ * failed are not, so they are tried again on the next attempt. Versions that were downloaded into
+ * the local repository before, or that are listed in its repository metadata, are confirmed by the
+ * {@link LocalCoordinateIndex} and the {@link RepositoryMetadataCache} without a lookup.
+ */
+@TraceStartup
 @ApplicationScoped
 public class MavenDependencyResolver {
 
@@ -18,6 +31,16 @@ public class MavenDependencyResolver {
 
   @Inject MavenRepositorySearch repositorySearch;
 
+  @Inject FederatedSearch federatedSearch;
+
+  @Inject MavenConfiguration repositoryService;
+
+  @Inject NegativeCache negativeCache;
+
+  @Inject LocalCoordinateIndex localIndex;
+
+  @Inject RepositoryMetadataCache metadataCache;
+
   /**
    * Resolve the latest version of a dependency.
    *
@@ -26,34 +49,70 @@ public class MavenDependencyResolver {
    * @return The latest version, or null if not found
    */
   public String resolveLatestVersion(String groupId, String artifactId) {
+    String searchQuery = groupId + ":" + artifactId;
+
+    if (isKnownMissing(searchQuery)) {
+      return null;
+    }
+
     try {
       // Use the search API to find the dependency
-      String searchQuery = groupId + ":" + artifactId;
-      List<SearchResult> results = repositorySearch.execute(searchQuery);
+      return latestVersionOf(groupId, artifactId, search(searchQuery));
+    } catch (Exception e) {
+      logLatestVersionFailure(groupId, artifactId, e);
+      return null;
+    }
+  }
 
-      if (results.isEmpty()) {
-        LOGGER.warning("No versions found for " + groupId + ":" + artifactId);
-        return null;
-      }
+  /**
+   * Resolve the latest version of a dependency without blocking the calling thread.
+   *
+   * @param groupId The dependency group ID
+   * @param artifactId The dependency artifact ID
+   * @return A future completing with the latest version, or null if not found
+   */
+  public CompletableFuture<String> resolveLatestVersionAsync(String groupId, String artifactId) {
+    String searchQuery = groupId + ":" + artifactId;
 
-      // The search API returns the latest version in the SearchResult
-      SearchResult result = results.get(0);
-      String latestVersion = result.getLatestVersion();
+    if (isKnownMissing(searchQuery)) {
+      return CompletableFuture.completedFuture(null);
+    }
 
-      LOGGER.info(
-          "Resolved latest version for " + groupId + ":" + artifactId + " = " + latestVersion);
-      return latestVersion;
+    return searchAsync(searchQuery)
+        .handle(
+            (results, error) -> {
+              if (error != null) {
+                logLatestVersionFailure(groupId, artifactId, error);
+                return null;
+              }
+              return latestVersionOf(groupId, artifactId, results);
+            });
+  }
 
-    } catch (Exception e) {
-      LOGGER.severe(
-          "Failed to resolve latest version for "
-              + groupId
-              + ":"
-              + artifactId
-              + ": "
-              + e.getMessage());
+  private String latestVersionOf(String groupId, String artifactId, List<SearchResult> results) {
+    if (results.isEmpty()) {
+      LOGGER.warning("No versions found for " + groupId + ":" + artifactId);
+      negativeCache.recordMissing(groupId + ":" + artifactId);
       return null;
     }
+
+    // The search API returns the latest version in the SearchResult
+    SearchResult result = results.get(0);
+    String latestVersion = result.getLatestVersion();
+
+    LOGGER.info(
+        "Resolved latest version for " + groupId + ":" + artifactId + " = " + latestVersion);
+    return latestVersion;
+  }
+
+  private void logLatestVersionFailure(String groupId, String artifactId, Throwable error) {
+    LOGGER.severe(
+        "Failed to resolve latest version for "
+            + groupId
+            + ":"
+            + artifactId
+            + ": "
+            + rootMessage(error));
   }
 
   /**
@@ -65,38 +124,89 @@ public class MavenDependencyResolver {
    * @return true if the dependency exists, false otherwise
    */
   public boolean dependencyExists(String groupId, String artifactId, String version) {
-    try {
-      // Use the search API to find the specific version
-      String searchQuery = groupId + ":" + artifactId + ":" + version;
-      List<SearchResult> results = repositorySearch.execute(searchQuery);
+    String searchQuery = groupId + ":" + artifactId + ":" + version;
 
-      // If we get results, the version exists
-      boolean exists = !results.isEmpty();
+    if (isKnownMissing(searchQuery)) {
+      return false;
+    }
 
-      LOGGER.info(
-          "Dependency "
-              + groupId
-              + ":"
-              + artifactId
-              + ":"
-              + version
-              + (exists ? " exists" : " does not exist"));
-      return exists;
+    if (isKnownLocally(groupId, artifactId, version)) {
+      return true;
+    }
 
+    try {
+      // Use the search API to find the specific version
+      return existsIn(groupId, artifactId, version, search(searchQuery));
     } catch (Exception e) {
-      LOGGER.warning(
-          "Failed to check existence of "
-              + groupId
-              + ":"
-              + artifactId
-              + ":"
-              + version
-              + ": "
-              + e.getMessage());
+      logExistsFailure(groupId, artifactId, version, e);
       return false;
     }
   }
 
+  /**
+   * Check if a specific version of a dependency exists without blocking the calling thread.
+   *
+   * @param groupId The dependency group ID
+   * @param artifactId The dependency artifact ID
+   * @param version The version to check
+   * @return A future completing with true if the dependency exists, false otherwise
+   */
+  public CompletableFuture<Boolean> dependencyExistsAsync(
+      String groupId, String artifactId, String version) {
+    String searchQuery = groupId + ":" + artifactId + ":" + version;
+
+    if (isKnownMissing(searchQuery)) {
+      return CompletableFuture.completedFuture(false);
+    }
+
+    if (isKnownLocally(groupId, artifactId, version)) {
+      return CompletableFuture.completedFuture(true);
+    }
+
+    return searchAsync(searchQuery)
+        .handle(
+            (results, error) -> {
+              if (error != null) {
+                logExistsFailure(groupId, artifactId, version, error);
+                return false;
+              }
+              return existsIn(groupId, artifactId, version, results);
+            });
+  }
+
+  private boolean existsIn(
+      String groupId, String artifactId, String version, List<SearchResult> results) {
+    // If we get results, the version exists
+    boolean exists = !results.isEmpty();
+
+    if (!exists) {
+      negativeCache.recordMissing(groupId + ":" + artifactId + ":" + version);
+    }
+
+    LOGGER.info(
+        "Dependency "
+            + groupId
+            + ":"
+            + artifactId
+            + ":"
+            + version
+            + (exists ? " exists" : " does not exist"));
+    return exists;
+  }
+
+  private void logExistsFailure(
+      String groupId, String artifactId, String version, Throwable error) {
+    LOGGER.warning(
+        "Failed to check existence of "
+            + groupId
+            + ":"
+            + artifactId
+            + ":"
+            + version
+            + ": "
+            + rootMessage(error));
+  }
+
   /**
    * Resolve a dependency to a specific version or latest if version is null.
    *
@@ -128,4 +238,104 @@ public class MavenDependencyResolver {
       }
     }
   }
+
+  /**
+   * Resolve a dependency to a specific version or latest if version is null, without blocking the
+   * calling thread. Many dependencies can be resolved concurrently this way.
+   *
+   * @param coordinates The dependency coordinates
+   * @return A future completing with the resolved dependency, or null if resolution failed
+   */
+  public CompletableFuture<ResolvedDependency> resolveDependencyAsync(
+      DependencyCoordinates coordinates) {
+    String groupId = coordinates.getGroupId();
+    String artifactId = coordinates.getArtifactId();
+    String version = coordinates.getVersion();
+
+    if (version != null) {
+      return dependencyExistsAsync(groupId, artifactId, version)
+          .thenApply(
+              exists -> {
+                if (exists) {
+                  return new ResolvedDependency(groupId, artifactId, version);
+                }
+                LOGGER.warning(
+                    "Specified version "
+                        + version
+                        + " not found for "
+                        + groupId
+                        + ":"
+                        + artifactId);
+                return null;
+              });
+    }
+
+    return resolveLatestVersionAsync(groupId, artifactId)
+        .thenApply(
+            latestVersion -> {
+              if (latestVersion != null) {
+                return new ResolvedDependency(groupId, artifactId, latestVersion);
+              }
+              LOGGER.warning("Could not resolve latest version for " + groupId + ":" + artifactId);
+              return null;
+            });
+  }
+
+  /** Search Central, or the configured repositories when Central is mirrored. */
+  private List<SearchResult> search(String query) throws IOException, InterruptedException {
+    return isCentralMirrored() ? federatedSearch.execute(query) : repositorySearch.execute(query);
+  }
+
+  /** Search like {@link #search(String)}, without blocking the calling thread. */
+  CompletableFuture<List<SearchResult>> searchAsync(String query) {
+    return isCentralMirrored()
+        ? federatedSearch.searchAsync(query)
+        : repositorySearch.searchAsync(query);
+  }
+
+  /** Whether the answer to a search is cached for the search that {@link #search} would use. */
+  boolean isCached(String query) {
+    return isCentralMirrored() ? federatedSearch.isCached(query) : repositorySearch.isCached(query);
+  }
+
+  private boolean isCentralMirrored() {
+    return repositoryService.getCentralMirror().isPresent();
+  }
+
+  /** Whether the coordinates were recently found to be missing, so they aren't looked up again. */
+  private boolean isKnownMissing(String coordinates) {
+    if (negativeCache.isMissing(coordinates)) {
+      LOGGER.info(coordinates + " was not found recently, skipping the lookup");
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Whether the local repository shows that the version exists remotely: it was downloaded from a
+   * remote repository, or the metadata of a remote repository lists it.
+   */
+  private boolean isKnownLocally(String groupId, String artifactId, String version) {
+    if (localIndex.isDownloaded(groupId, artifactId, version)
+        || metadataCache.listsVersion(groupId, artifactId, version)) {
+      LOGGER.info(
+          "Dependency "
+              + groupId
+              + ":"
+              + artifactId
+              + ":"
+              + version
+              + " exists according to the local repository");
+      return true;
+    }
+    return false;
+  }
+
+  /** The message of the failure, unwrapped from the completion exception of a future. */
+  private static String rootMessage(Throwable error) {
+    if (error instanceof CompletionException && error.getCause() != null) {
+      return error.getCause().getMessage();
+    }
+    return error.getMessage();
+  }
 }
@@ -1,26 +1,37 @@
 package nl.fizzylogic.maven.dependencymanager.services;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URLEncoder;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 import java.util.logging.Logger;
 
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
+import nl.fizzylogic.maven.dependencymanager.model.SearchQuery;
 import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
-
-/** Service to search for Maven dependencies using the Maven Central Search API. */
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
+
+/**
+ * Service to search for Maven dependencies using the Maven Central Search API. Requests are routed
+ * through the proxy that the Maven settings configure for the search host. Successful answers are
+ * kept in the {@link SearchResultCache}, which is shared with the other processes of the tool.
+ * search.maven.org only knows what Central serves, so when the settings mirror Central, the {@link
+ * MavenDependencyResolver} resolves versions through the {@link FederatedSearch} instead.
+ */
+@TraceStartup
 @ApplicationScoped
 public class MavenRepositorySearch {
 
@@ -30,83 +41,166 @@ public class MavenRepositorySearch {
   private static final int MAX_RESULTS = 20;
   private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
 
-  private final HttpClient httpClient;
-  private final ObjectMapper objectMapper;
-
   @Inject MavenConfiguration repositoryService;
 
-  public MavenRepositorySearch() {
-    this.httpClient = HttpClient.newBuilder().connectTimeout(REQUEST_TIMEOUT).build();
-    this.objectMapper = new ObjectMapper();
-  }
+  @Inject HttpRouting routing;
+
+  @Inject SearchResultCache cache;
 
   /** Search for dependencies using either exact groupId:artifactId format or keyword search. */
   public List<SearchResult> execute(String query) throws IOException, InterruptedException {
-    if (query == null || query.trim().isEmpty()) {
-      throw new IllegalArgumentException("Search query cannot be empty");
+    List<SearchResult> results = new ArrayList<>();
+    execute(query, results::add);
+    return results;
+  }
+
+  /**
+   * Search for dependencies, passing each result to the consumer as soon as it is parsed from the
+   * response. This allows callers to stream results without waiting for the full response.
+   */
+  public void execute(String query, Consumer<SearchResult> consumer)
+      throws IOException, InterruptedException {
+    HttpRequest request = buildSearchRequest(query);
+    String cacheKey = request.uri().toString();
+    Optional<List<SearchResult>> cached = cache.get(cacheKey);
+
+    if (cached.isPresent()) {
+      cached.get().forEach(consumer);
+      return;
     }
 
-    String searchQuery = buildSearchQuery(query.trim());
-    String searchUrl = buildSearchUrl(searchQuery);
+    HttpResponse<InputStream> response =
+        routing.send(request, HttpResponse.BodyHandlers.ofInputStream(), null);
+    List<SearchResult> results = new ArrayList<>();
 
-    LOGGER.info("Searching with URL: " + searchUrl);
+    try (InputStream body = response.body()) {
+      if (response.statusCode() != 200) {
+        throw statusError(response.statusCode());
+      }
 
-    HttpRequest request =
-        HttpRequest.newBuilder()
-            .uri(URI.create(searchUrl))
-            .timeout(REQUEST_TIMEOUT)
-            .header("Accept", "application/json")
-            .GET()
-            .build();
+      parseSearchResponse(
+          body,
+          result -> {
+            results.add(result);
+            consumer.accept(result);
+          });
+    }
 
-    HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+    cache.put(cacheKey, results);
+  }
 
-    if (response.statusCode() != 200) {
-      throw new IOException("Search request failed with status: " + response.statusCode());
+  /**
+   * Search for dependencies without blocking the calling thread. Cancelling the returned future
+   * aborts the underlying HTTP exchange, so superseded searches don't keep a connection busy.
+   */
+  public CompletableFuture<List<SearchResult>> searchAsync(String query) {
+    SearchQuery searchQuery;
+
+    try {
+      searchQuery = SearchQuery.parse(query);
+    } catch (IllegalArgumentException e) {
+      return CompletableFuture.failedFuture(e);
     }
 
-    return parseSearchResponse(response.body());
+    return searchAsync(searchQuery);
+  }
+
+  /** Search for dependencies matching a parsed query without blocking the calling thread. */
+  public CompletableFuture<List<SearchResult>> searchAsync(SearchQuery query) {
+    HttpRequest request = buildSearchRequest(query);
+    String cacheKey = request.uri().toString();
+    Optional<List<SearchResult>> cached = cache.get(cacheKey);
+
+    if (cached.isPresent()) {
+      return CompletableFuture.completedFuture(new ArrayList<>(cached.get()));
+    }
+
+    CompletableFuture<HttpResponse<byte[]>> response =
+        routing.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray(), null);
+
+    CompletableFuture<List<SearchResult>> results =
+        response.thenApply(
+            completed -> {
+              if (completed.statusCode() != 200) {
+                throw new CompletionException(statusError(completed.statusCode()));
+              }
+
+              List<SearchResult> parsed = new ArrayList<>();
+              try {
+                parseSearchResponse(new ByteArrayInputStream(completed.body()), parsed::add);
+              } catch (IOException e) {
+                throw new CompletionException(e);
+              }
+
+              cache.put(cacheKey, parsed);
+              return parsed;
+            });
+
+    results.whenComplete(
+        (parsed, error) -> {
+          if (results.isCancelled()) {
+            response.cancel(true);
+          }
+        });
+
+    return results;
   }
 
   /**
-   * Build search query based on input format. If input contains colons, treat as exact search with
-   * different formats: - groupId:artifactId (exact search) - groupId:artifactId:version (exact
-   * search with version) Otherwise, treat as keyword search.
+   * Check whether the answer to a search is in the search result cache, without searching.
+   *
+   * @throws IllegalArgumentException if the query is not valid
    */
-  private String buildSearchQuery(String input) {
-    if (input.contains(":")) {
-      String[] parts = input.split(":");
-
-      if (parts.length == 2) {
-        // Exact search: groupId:artifactId
-        String groupId = parts[0].trim();
-        String artifactId = parts[1].trim();
-
-        if (groupId.isEmpty() || artifactId.isEmpty()) {
-          throw new IllegalArgumentException("GroupId and artifactId cannot be empty");
-        }
-
-        return String.format("g:\"%s\" AND a:\"%s\"", groupId, artifactId);
-      } else if (parts.length == 3) {
-        // Exact search: groupId:artifactId:version
-        String groupId = parts[0].trim();
-        String artifactId = parts[1].trim();
-        String version = parts[2].trim();
-
-        if (groupId.isEmpty() || artifactId.isEmpty() || version.isEmpty()) {
-          throw new IllegalArgumentException("GroupId, artifactId, and version cannot be empty");
-        }
-
-        return String.format("g:\"%s\" AND a:\"%s\" AND v:\"%s\"", groupId, artifactId, version);
-      } else {
-        throw new IllegalArgumentException(
-            "Invalid format. Use 'groupId:artifactId' or 'groupId:artifactId:version' for exact"
-                + " search, or keywords for general search");
-      }
-    } else {
-      // Keyword search
-      return input;
+  public boolean isCached(String query) {
+    return cache.get(buildSearchUrl(buildSearchQuery(SearchQuery.parse(query)))).isPresent();
+  }
+
+  /** The error for a failed search, telling throttling apart from other failures. */
+  private static IOException statusError(int statusCode) {
+    if (statusCode == 429 || statusCode == 503) {
+      return new IOException(
+          "Search request was throttled by search.maven.org with status: "
+              + statusCode
+              + ", try again later");
+    }
+    return new IOException("Search request failed with status: " + statusCode);
+  }
+
+  /** Build the HTTP request for a search query, validating the query first. */
+  private HttpRequest buildSearchRequest(String query) {
+    return buildSearchRequest(SearchQuery.parse(query));
+  }
+
+  private HttpRequest buildSearchRequest(SearchQuery query) {
+    String searchQuery = buildSearchQuery(query);
+    String searchUrl = buildSearchUrl(searchQuery);
+
+    LOGGER.info("Searching with URL: " + searchUrl);
+
+    return HttpRequest.newBuilder()
+        .uri(URI.create(searchUrl))
+        .timeout(REQUEST_TIMEOUT)
+        .header("Accept", "application/json")
+        .GET()
+        .build();
+  }
+
+  /**
+   * Build the Solr query: exact searches on groupId and artifactId, and optionally version, or the
+   * keywords for a general search.
+   */
+  private String buildSearchQuery(SearchQuery query) {
+    if (!query.isExact()) {
+      return query.getText();
     }
+
+    if (query.getVersion() == null) {
+      return String.format("g:\"%s\" AND a:\"%s\"", query.getGroupId(), query.getArtifactId());
+    }
+
+    return String.format(
+        "g:\"%s\" AND a:\"%s\" AND v:\"%s\"",
+        query.getGroupId(), query.getArtifactId(), query.getVersion());
   }
 
   /** Build the complete search URL with encoded parameters. */
@@ -120,61 +214,17 @@ public class MavenRepositorySearch {
     }
   }
 
-  /** Parse JSON response from Maven Central Search API. */
-  private List<SearchResult> parseSearchResponse(String jsonResponse) throws IOException {
-    List<SearchResult> results = new ArrayList<>();
-
+  /**
+   * Parse JSON response from Maven Central Search API. The response is read as a token stream, so
+   * each document is passed to the consumer while the rest of the response is still arriving.
+   */
+  void parseSearchResponse(InputStream jsonResponse, Consumer<SearchResult> consumer)
+      throws IOException {
     try {
-      JsonNode root = objectMapper.readTree(jsonResponse);
-      JsonNode response = root.get("response");
-
-      if (response == null) {
-        LOGGER.warning("No 'response' field in search result");
-        return results;
-      }
-
-      JsonNode docs = response.get("docs");
-      if (docs == null || !docs.isArray()) {
-        LOGGER.info("No documents found in search response");
-        return results;
-      }
-
-      for (JsonNode doc : docs) {
-        SearchResult result = parseDocument(doc);
-        if (result != null) {
-          results.add(result);
-        }
-      }
-
+      SearchResponseReader.read(jsonResponse, consumer);
     } catch (Exception e) {
       LOGGER.severe("Failed to parse search response: " + e.getMessage());
       throw new IOException("Failed to parse search response", e);
     }
-
-    return results;
-  }
-
-  /** Parse a single document from the search response. */
-  private SearchResult parseDocument(JsonNode doc) {
-    try {
-      JsonNode groupIdNode = doc.get("g");
-      JsonNode artifactIdNode = doc.get("a");
-      JsonNode versionNode = doc.get("latestVersion");
-
-      if (groupIdNode == null || artifactIdNode == null || versionNode == null) {
-        LOGGER.warning("Missing required fields in document: " + doc);
-        return null;
-      }
-
-      String groupId = groupIdNode.asText();
-      String artifactId = artifactIdNode.asText();
-      String latestVersion = versionNode.asText();
-
-      return new SearchResult(groupId, artifactId, latestVersion);
-
-    } catch (Exception e) {
-      LOGGER.warning("Failed to parse document: " + e.getMessage());
-      return null;
-    }
   }
 }
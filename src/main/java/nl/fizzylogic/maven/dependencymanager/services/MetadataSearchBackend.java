@@ -0,0 +1,140 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.logging.Logger;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.Versioning;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+import nl.fizzylogic.maven.dependencymanager.model.MavenRepository;
+import nl.fizzylogic.maven.dependencymanager.model.SearchQuery;
+import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+
+/**
+ * Answers exact searches from the maven-metadata.xml of an artifact in a repository that has no
+ * search API, such as a plain mirror of Maven Central. Keyword searches find nothing.
+ */
+class MetadataSearchBackend implements SearchBackend {
+
+  private static final Logger LOGGER = Logger.getLogger(MetadataSearchBackend.class.getName());
+
+  private final MavenRepository repository;
+  private final HttpRouting routing;
+
+  MetadataSearchBackend(MavenRepository repository, HttpRouting routing) {
+    this.repository = repository;
+    this.routing = routing;
+  }
+
+  @Override
+  public String getRepositoryId() {
+    return repository.getId();
+  }
+
+  @Override
+  public CompletableFuture<List<SearchResult>> search(SearchQuery query) {
+    if (!query.isExact()) {
+      return CompletableFuture.completedFuture(List.of());
+    }
+
+    URI metadataUri = metadataUri(query);
+    LOGGER.info("Reading versions from " + repository.getId() + " at: " + metadataUri);
+
+    HttpRequest request =
+        HttpRequest.newBuilder()
+            .uri(metadataUri)
+            .timeout(HttpSearchBackend.REQUEST_TIMEOUT)
+            .GET()
+            .build();
+
+    CompletableFuture<HttpResponse<byte[]>> response =
+        routing.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray(), repository);
+
+    CompletableFuture<List<SearchResult>> results =
+        response.thenApply(
+            completed -> {
+              if (completed.statusCode() == 404) {
+                return List.of();
+              }
+
+              if (completed.statusCode() != 200) {
+                throw new CompletionException(
+                    new IOException(
+                        "Metadata request to "
+                            + repository.getId()
+                            + " failed with status: "
+                            + completed.statusCode()));
+              }
+
+              try {
+                return results(query, completed.body());
+              } catch (IOException e) {
+                throw new CompletionException(e);
+              }
+            });
+
+    results.whenComplete(
+        (found, error) -> {
+          if (results.isCancelled()) {
+            response.cancel(true);
+          }
+        });
+
+    return results;
+  }
+
+  private URI metadataUri(SearchQuery query) {
+    String baseUrl = repository.getUrl();
+    return URI.create(
+        (baseUrl.endsWith("/") ? baseUrl : baseUrl + "/")
+            + query.getGroupId().replace('.', '/')
+            + "/"
+            + query.getArtifactId()
+            + "/maven-metadata.xml");
+  }
+
+  /**
+   * The result for the query: the queried version when the metadata lists it, or otherwise the
+   * release version, falling back to the highest version listed.
+   */
+  private static List<SearchResult> results(SearchQuery query, byte[] body) throws IOException {
+    Versioning versioning;
+
+    try {
+      Metadata metadata = new MetadataXpp3Reader().read(new ByteArrayInputStream(body), false);
+      versioning = metadata.getVersioning();
+    } catch (XmlPullParserException e) {
+      throw new IOException("Failed to parse metadata: " + e.getMessage(), e);
+    }
+
+    if (versioning == null || versioning.getVersions().isEmpty()) {
+      return List.of();
+    }
+
+    if (query.getVersion() != null) {
+      return versioning.getVersions().contains(query.getVersion())
+          ? List.of(new SearchResult(query.getGroupId(), query.getArtifactId(), query.getVersion()))
+          : List.of();
+    }
+
+    if (versioning.getRelease() != null) {
+      return List.of(
+          new SearchResult(query.getGroupId(), query.getArtifactId(), versioning.getRelease()));
+    }
+
+    HighestVersions highest = new HighestVersions();
+    for (String version : versioning.getVersions()) {
+      highest.add(new SearchResult(query.getGroupId(), query.getArtifactId(), version));
+    }
+    return highest.toList(1);
+  }
+}
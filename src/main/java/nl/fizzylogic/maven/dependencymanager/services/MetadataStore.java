@@ -0,0 +1,479 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Store of version lists per key, such as groupId:artifactId, in a single memory-mapped file. The
+ * file starts with an open-addressing hash index of fixed-size slots, followed by an append-only
+ * log of records. Lookups probe the mapped index and compare the key bytes in place; nothing is
+ * decoded until the versions are asked for.
+ *
+ * <p>Updates append a new record and repoint the slot of its key, under an exclusive file lock, so
+ * processes sharing the file never write over each other. Readers don't lock: records are never
+ * changed once written, and a slot gets its offset before its hash. When the index gets too full or
+ * the log holds too many replaced records, the live records are rewritten to a new file that
+ * atomically replaces the old one. The old file is then marked as retired, which tells the
+ * processes that still have it open to open the new one.
+ *
+ * <pre>
+ * header: int magic, int format version, int slot count, int used slots,
+ *         long data end, long live bytes, int retired, int reserved
+ * slots:  long key hash (0 when empty), long record offset
+ * record: int length, varint key length, key, long refreshed at, varint count,
+ *         (varint length, version) per version
+ * </pre>
+ */
+final class MetadataStore implements Closeable {
+
+  static final int MAGIC = 0x4d444d53; // "MDMS"
+  static final int FORMAT_VERSION = 1;
+  static final int INITIAL_SLOTS = 1024;
+
+  private static final int HEADER_SIZE = 40;
+  private static final int SLOT_SIZE = 16;
+  private static final int SLOT_COUNT = 8;
+  private static final int USED_SLOTS = 12;
+  private static final int DATA_END = 16;
+  private static final int LIVE_BYTES = 24;
+  private static final int RETIRED = 32;
+
+  /** Bytes of replaced records that are tolerated on top of the live records before compacting. */
+  private static final long COMPACTION_SLACK = 64 * 1024;
+
+  private final Path file;
+  private FileChannel channel;
+  private ByteBuffer buffer;
+
+  private MetadataStore(Path file) {
+    this.file = file;
+  }
+
+  /**
+   * Open the store, creating it when it doesn't exist. A file in another format is replaced, as the
+   * store only holds what can be read again from the repositories.
+   */
+  static MetadataStore open(Path file) throws IOException {
+    MetadataStore store = new MetadataStore(file);
+    store.reopen();
+    return store;
+  }
+
+  /**
+   * Find the versions of a key.
+   *
+   * @return a view of the stored record, or null when the key is not in the store
+   */
+  synchronized Versions lookup(String key) throws IOException {
+    if (buffer.getInt(RETIRED) != 0) {
+      reopen();
+    }
+
+    byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+    long hash = hashOf(key);
+    int slot = findSlot(hash, keyBytes);
+
+    if (slot < 0 || buffer.getLong(slot) == 0) {
+      return null;
+    }
+
+    return new Versions(buffer, position(buffer.getLong(slot + 8)));
+  }
+
+  /** Store the versions of a key, replacing the versions stored before. */
+  synchronized void put(String key, long refreshedAt, List<String> versions) throws IOException {
+    byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+    byte[] record = encode(keyBytes, refreshedAt, versions);
+    boolean compacted;
+
+    FileLock lock = lockCurrent();
+    try {
+      compacted = putLocked(hashOf(key), keyBytes, record);
+    } finally {
+      lock.release();
+    }
+
+    if (compacted) {
+      reopen();
+    }
+  }
+
+  /** Visit the key and versions of every record in the store, in the order of the index. */
+  synchronized void forEach(RecordVisitor visitor) throws IOException {
+    if (buffer.getInt(RETIRED) != 0) {
+      reopen();
+    }
+    // Picks up the records other processes appended since the file was mapped
+    remap();
+
+    int slotCount = buffer.getInt(SLOT_COUNT);
+    for (int i = 0; i < slotCount; i++) {
+      int slot = HEADER_SIZE + i * SLOT_SIZE;
+      if (buffer.getLong(slot) == 0) {
+        continue;
+      }
+
+      int position = position(buffer.getLong(slot + 8));
+      long keyLength = CompactRecords.readVarint(buffer, position + 4);
+      byte[] keyBytes = new byte[CompactRecords.value(keyLength)];
+      buffer.get(CompactRecords.next(keyLength), keyBytes);
+
+      visitor.accept(new String(keyBytes, StandardCharsets.UTF_8), new Versions(buffer, position));
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * Append the record and point its slot to it, or compact the store when it is due.
+   *
+   * @return true when the store was compacted into a new file
+   */
+  private boolean putLocked(long hash, byte[] keyBytes, byte[] record) throws IOException {
+    int slotCount = buffer.getInt(SLOT_COUNT);
+    int usedSlots = buffer.getInt(USED_SLOTS);
+    long dataEnd = buffer.getLong(DATA_END);
+    long liveBytes = buffer.getLong(LIVE_BYTES);
+    long garbage = dataEnd - dataStart(slotCount) - liveBytes;
+
+    int slot = findSlot(hash, keyBytes);
+    boolean replacing = slot >= 0 && buffer.getLong(slot) != 0;
+
+    if (slot < 0
+        || (!replacing && (usedSlots + 1) * 2 > slotCount)
+        || garbage > 2 * liveBytes + COMPACTION_SLACK) {
+      compact(hash, keyBytes, record);
+      return true;
+    }
+
+    write(ByteBuffer.wrap(record), dataEnd);
+
+    if (replacing) {
+      liveBytes -= 4 + buffer.getInt(position(buffer.getLong(slot + 8)));
+    } else {
+      usedSlots++;
+    }
+
+    // The offset goes in before the hash, so readers never follow a slot to a missing record
+    write(ByteBuffer.allocate(8).putLong(0, dataEnd), slot + 8);
+    if (!replacing) {
+      write(ByteBuffer.allocate(8).putLong(0, hash), slot);
+    }
+
+    ByteBuffer header = ByteBuffer.allocate(20);
+    header.putInt(0, usedSlots).putLong(4, dataEnd + record.length);
+    header.putLong(12, liveBytes + record.length);
+    write(header, USED_SLOTS);
+    return false;
+  }
+
+  /** Rewrite the live records, including the new one, to a new file with a larger index. */
+  private void compact(long hash, byte[] keyBytes, byte[] record) throws IOException {
+    remap();
+    int slotCount = buffer.getInt(SLOT_COUNT);
+    List<Long> hashes = new ArrayList<>();
+    List<byte[]> records = new ArrayList<>();
+
+    for (int i = 0; i < slotCount; i++) {
+      int slot = HEADER_SIZE + i * SLOT_SIZE;
+      long slotHash = buffer.getLong(slot);
+      if (slotHash == 0) {
+        continue;
+      }
+
+      int position = position(buffer.getLong(slot + 8));
+      if (slotHash == hash && keyMatches(buffer, position, keyBytes)) {
+        continue;
+      }
+
+      byte[] live = new byte[4 + buffer.getInt(position)];
+      buffer.get(position, live);
+      hashes.add(slotHash);
+      records.add(live);
+    }
+
+    hashes.add(hash);
+    records.add(record);
+
+    Path temporary = Files.createTempFile(file.getParent(), file.getFileName() + "-", ".tmp");
+    try {
+      try (FileChannel target = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+        ByteBuffer content = build(hashes, records);
+        while (content.hasRemaining()) {
+          target.write(content);
+        }
+      }
+      Files.move(
+          temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+
+    write(ByteBuffer.allocate(4).putInt(0, 1), RETIRED);
+  }
+
+  /** Build a store holding the records, with an index that is at most a quarter full. */
+  private static ByteBuffer build(List<Long> hashes, List<byte[]> records) {
+    int slotCount = INITIAL_SLOTS;
+    while (slotCount < records.size() * 4) {
+      slotCount *= 2;
+    }
+
+    long dataEnd = dataStart(slotCount);
+    for (byte[] record : records) {
+      dataEnd += record.length;
+    }
+
+    if (dataEnd > Integer.MAX_VALUE) {
+      throw new IllegalStateException("Metadata store is too large");
+    }
+
+    ByteBuffer content = ByteBuffer.allocate((int) dataEnd);
+    content.putInt(0, MAGIC).putInt(4, FORMAT_VERSION).putInt(SLOT_COUNT, slotCount);
+    content.putInt(USED_SLOTS, records.size()).putLong(DATA_END, dataEnd);
+    content.putLong(LIVE_BYTES, dataEnd - dataStart(slotCount));
+
+    int mask = slotCount - 1;
+    int position = (int) dataStart(slotCount);
+
+    for (int i = 0; i < records.size(); i++) {
+      long hash = hashes.get(i);
+      int index = (int) hash & mask;
+      while (content.getLong(HEADER_SIZE + index * SLOT_SIZE) != 0) {
+        index = (index + 1) & mask;
+      }
+
+      content.putLong(HEADER_SIZE + index * SLOT_SIZE, hash);
+      content.putLong(HEADER_SIZE + index * SLOT_SIZE + 8, position);
+      content.put(position, records.get(i));
+      position += records.get(i).length;
+    }
+
+    return content;
+  }
+
+  /**
+   * Find the slot of a key, or the empty slot where it would go.
+   *
+   * @return the position of the slot, or -1 when the index is full
+   */
+  private int findSlot(long hash, byte[] keyBytes) throws IOException {
+    int slotCount = buffer.getInt(SLOT_COUNT);
+    int mask = slotCount - 1;
+    int index = (int) hash & mask;
+
+    for (int probes = 0; probes < slotCount; probes++) {
+      int slot = HEADER_SIZE + index * SLOT_SIZE;
+      long slotHash = buffer.getLong(slot);
+
+      if (slotHash == 0) {
+        return slot;
+      }
+
+      if (slotHash == hash) {
+        long offset = buffer.getLong(slot + 8);
+        if (offset + 4 > buffer.limit()
+            || offset + 4 + buffer.getInt((int) offset) > buffer.limit()) {
+          // Appended by another process after the file was mapped
+          remap();
+        }
+        if (keyMatches(buffer, position(offset), keyBytes)) {
+          return slot;
+        }
+      }
+
+      index = (index + 1) & mask;
+    }
+
+    return -1;
+  }
+
+  /** Lock the file, opening the file that replaced it first when it was retired. */
+  private FileLock lockCurrent() throws IOException {
+    while (true) {
+      FileLock lock = channel.lock();
+      ByteBuffer retired = ByteBuffer.allocate(4);
+      channel.read(retired, RETIRED);
+
+      if (retired.getInt(0) == 0) {
+        return lock;
+      }
+
+      lock.release();
+      reopen();
+    }
+  }
+
+  private void reopen() throws IOException {
+    if (channel != null) {
+      channel.close();
+    }
+
+    Files.createDirectories(file.getParent());
+    channel =
+        FileChannel.open(
+            file, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE);
+
+    FileLock lock = channel.lock();
+    try {
+      ByteBuffer header = ByteBuffer.allocate(8);
+      channel.read(header, 0);
+
+      if (channel.size() < HEADER_SIZE
+          || header.getInt(0) != MAGIC
+          || header.getInt(4) != FORMAT_VERSION) {
+        channel.truncate(0);
+        write(build(List.of(), List.of()), 0);
+      }
+    } finally {
+      lock.release();
+    }
+
+    remap();
+  }
+
+  private void remap() throws IOException {
+    buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+  }
+
+  private void write(ByteBuffer content, long position) throws IOException {
+    while (content.hasRemaining()) {
+      position += channel.write(content, position);
+    }
+  }
+
+  private static long dataStart(int slotCount) {
+    return HEADER_SIZE + (long) slotCount * SLOT_SIZE;
+  }
+
+  private int position(long offset) throws IOException {
+    if (offset < HEADER_SIZE || offset + 4 > buffer.limit()) {
+      throw new IOException("Corrupt metadata store " + file + ": record at " + offset);
+    }
+    return (int) offset;
+  }
+
+  /** The hash of a key; never 0, as that marks an empty slot. */
+  private static long hashOf(String key) {
+    long hash = BloomFilter.hash(key);
+    return hash == 0 ? 1 : hash;
+  }
+
+  private static boolean keyMatches(ByteBuffer buffer, int position, byte[] keyBytes) {
+    long length = CompactRecords.readVarint(buffer, position + 4);
+    if (CompactRecords.value(length) != keyBytes.length) {
+      return false;
+    }
+
+    int start = CompactRecords.next(length);
+    for (int i = 0; i < keyBytes.length; i++) {
+      if (buffer.get(start + i) != keyBytes[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static byte[] encode(byte[] keyBytes, long refreshedAt, List<String> versions) {
+    CompactRecords.VarintBuffer content = new CompactRecords.VarintBuffer();
+    content.put(new byte[4]);
+    content.putVarint(keyBytes.length);
+    content.put(keyBytes);
+    content.put(ByteBuffer.allocate(8).putLong(0, refreshedAt).array());
+    content.putVarint(versions.size());
+
+    for (String version : versions) {
+      byte[] bytes = version.getBytes(StandardCharsets.UTF_8);
+      content.putVarint(bytes.length);
+      content.put(bytes);
+    }
+
+    byte[] record = Arrays.copyOf(content.bytes(), content.position());
+    ByteBuffer.wrap(record).putInt(0, record.length - 4);
+    return record;
+  }
+
+  interface RecordVisitor {
+    void accept(String key, Versions versions) throws IOException;
+  }
+
+  /** A stored record, read in place from the mapped file. */
+  static final class Versions {
+    private final ByteBuffer buffer;
+    private final long refreshedAt;
+    private final int count;
+    private final int versionsStart;
+
+    private Versions(ByteBuffer buffer, int position) {
+      this.buffer = buffer;
+      long keyLength = CompactRecords.readVarint(buffer, position + 4);
+      int refreshedAtPosition = CompactRecords.next(keyLength) + CompactRecords.value(keyLength);
+      this.refreshedAt = buffer.getLong(refreshedAtPosition);
+      long countVarint = CompactRecords.readVarint(buffer, refreshedAtPosition + 8);
+      this.count = CompactRecords.value(countVarint);
+      this.versionsStart = CompactRecords.next(countVarint);
+    }
+
+    /** The time the versions were stored, in milliseconds since the epoch. */
+    long refreshedAt() {
+      return refreshedAt;
+    }
+
+    /** Whether a version is in the list, comparing its bytes without decoding the list. */
+    boolean contains(String version) {
+      byte[] bytes = version.getBytes(StandardCharsets.UTF_8);
+      int position = versionsStart;
+
+      for (int i = 0; i < count; i++) {
+        long length = CompactRecords.readVarint(buffer, position);
+        int start = CompactRecords.next(length);
+        position = start + CompactRecords.value(length);
+
+        if (CompactRecords.value(length) == bytes.length && bytesEqual(start, bytes)) {
+          return true;
+        }
+      }
+
+      return false;
+    }
+
+    /** Decode the versions, in the order they were stored. */
+    List<String> list() {
+      List<String> versions = new ArrayList<>(count);
+      int position = versionsStart;
+
+      for (int i = 0; i < count; i++) {
+        long length = CompactRecords.readVarint(buffer, position);
+        byte[] bytes = new byte[CompactRecords.value(length)];
+        buffer.get(CompactRecords.next(length), bytes);
+        versions.add(new String(bytes, StandardCharsets.UTF_8));
+        position = CompactRecords.next(length) + bytes.length;
+      }
+
+      return versions;
+    }
+
+    private boolean bytesEqual(int start, byte[] bytes) {
+      for (int i = 0; i < bytes.length; i++) {
+        if (buffer.get(start + i) != bytes[i]) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
@@ -0,0 +1,164 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
+
+/**
+ * Remembers for a short time which coordinates were not found, so typos and missing artifacts
+ * aren't looked up again on every attempt. Entries are kept in memory and appended to a file, so
+ * they are shared with the next runs of the command. Only answers that say "not found" belong here;
+ * failed lookups must never be recorded, as the next attempt may well succeed.
+ */
+@TraceStartup
+@ApplicationScoped
+public class NegativeCache {
+
+  private static final Logger LOGGER = Logger.getLogger(NegativeCache.class.getName());
+  private static final Path CACHE_FILE_PATH =
+      Path.of(System.getProperty("user.home"), ".m2", "dependencymanager", "negative-cache");
+
+  public static final Duration DEFAULT_TTL = Duration.ofMinutes(10);
+
+  /** Number of expired lines the file may contain before it is rewritten without them. */
+  private static final int COMPACTION_THRESHOLD = 256;
+
+  private final Path cacheFile;
+  private final Duration ttl;
+  private final Clock clock;
+  private final Map<String, Long> expirations = new ConcurrentHashMap<>();
+  private volatile boolean loaded;
+
+  public NegativeCache() {
+    this(CACHE_FILE_PATH, DEFAULT_TTL, Clock.systemUTC());
+  }
+
+  NegativeCache(Path cacheFile, Duration ttl, Clock clock) {
+    this.cacheFile = cacheFile;
+    this.ttl = ttl;
+    this.clock = clock;
+  }
+
+  /**
+   * Check whether the coordinates were recently found to be missing.
+   *
+   * @param coordinates The coordinates, such as groupId:artifactId or groupId:artifactId:version
+   * @return true when a "not found" answer for the coordinates has not expired yet
+   */
+  public boolean isMissing(String coordinates) {
+    load();
+    Long expiresAt = expirations.get(coordinates);
+
+    if (expiresAt == null) {
+      return false;
+    }
+
+    if (expiresAt <= clock.millis()) {
+      expirations.remove(coordinates, expiresAt);
+      return false;
+    }
+
+    return true;
+  }
+
+  /**
+   * Record that the coordinates were not found.
+   *
+   * @param coordinates The coordinates, such as groupId:artifactId or groupId:artifactId:version
+   */
+  public void recordMissing(String coordinates) {
+    load();
+    long expiresAt = clock.millis() + ttl.toMillis();
+    expirations.put(coordinates, expiresAt);
+
+    try {
+      Files.createDirectories(cacheFile.getParent());
+      Files.writeString(
+          cacheFile,
+          expiresAt + " " + coordinates + "\n",
+          StandardCharsets.UTF_8,
+          StandardOpenOption.CREATE,
+          StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      LOGGER.fine("Failed to write negative cache " + cacheFile + ": " + e.getMessage());
+    }
+  }
+
+  /** Read the entries that other runs wrote, once per process. */
+  private void load() {
+    if (loaded) {
+      return;
+    }
+
+    synchronized (this) {
+      if (loaded) {
+        return;
+      }
+      loaded = true;
+
+      if (!Files.isRegularFile(cacheFile)) {
+        return;
+      }
+
+      try {
+        List<String> lines = Files.readAllLines(cacheFile, StandardCharsets.UTF_8);
+        long now = clock.millis();
+        int expired = 0;
+
+        for (String line : lines) {
+          int separator = line.indexOf(' ');
+          if (separator <= 0) {
+            continue;
+          }
+
+          long expiresAt = Long.parseLong(line.substring(0, separator));
+          if (expiresAt <= now) {
+            expired++;
+            continue;
+          }
+
+          expirations.merge(line.substring(separator + 1), expiresAt, Math::max);
+        }
+
+        if (expired >= COMPACTION_THRESHOLD) {
+          compact();
+        }
+      } catch (IOException | NumberFormatException e) {
+        LOGGER.fine("Failed to read negative cache " + cacheFile + ": " + e.getMessage());
+      }
+    }
+  }
+
+  /** Rewrite the file with the entries that have not expired. */
+  private void compact() throws IOException {
+    StringBuilder content = new StringBuilder();
+    expirations.forEach(
+        (coordinates, expiresAt) ->
+            content.append(expiresAt).append(' ').append(coordinates).append('\n'));
+
+    Path temporary = Files.createTempFile(cacheFile.getParent(), "negative-cache-", ".tmp");
+    try {
+      Files.writeString(temporary, content, StandardCharsets.UTF_8);
+      Files.move(
+          temporary,
+          cacheFile,
+          StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+  }
+}
@@ -0,0 +1,68 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+import nl.fizzylogic.maven.dependencymanager.model.MavenRepository;
+import nl.fizzylogic.maven.dependencymanager.model.SearchQuery;
+import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+
+/**
+ * Searches a Sonatype Nexus 3 repository through its REST search API. Repository URLs of Nexus 3
+ * have the form {@code https://host/repository/<name>/}.
+ */
+class NexusSearchBackend extends HttpSearchBackend {
+
+  private static final String REPOSITORY_MARKER = "/repository/";
+
+  private final String baseUrl;
+  private final String repositoryName;
+
+  NexusSearchBackend(MavenRepository repository, HttpRouting routing) {
+    super(repository, routing);
+    this.baseUrl = baseUrl(repository.getUrl(), REPOSITORY_MARKER);
+    this.repositoryName = segmentAfter(repository.getUrl(), REPOSITORY_MARKER);
+  }
+
+  /** Whether the repository URL has the form used by Nexus 3. */
+  static boolean supports(MavenRepository repository) {
+    return segmentAfter(repository.getUrl(), REPOSITORY_MARKER) != null;
+  }
+
+  @Override
+  URI searchUri(SearchQuery query) {
+    StringBuilder uri = new StringBuilder(baseUrl);
+    uri.append("/service/rest/v1/search?repository=").append(encode(repositoryName));
+    uri.append("&sort=version&direction=desc");
+
+    if (query.isExact()) {
+      uri.append("&maven.groupId=").append(encode(query.getGroupId()));
+      uri.append("&maven.artifactId=").append(encode(query.getArtifactId()));
+      if (query.getVersion() != null) {
+        uri.append("&maven.baseVersion=").append(encode(query.getVersion()));
+      }
+    } else {
+      uri.append("&q=").append(encode(query.getText()));
+    }
+
+    return URI.create(uri.toString());
+  }
+
+  @Override
+  void readResults(InputStream body, SearchQuery query, HighestVersions results)
+      throws IOException {
+    SearchResponseReader.readObjects(
+        body,
+        "items",
+        item -> {
+          String groupId = item.get("group");
+          String artifactId = item.get("name");
+          String version = item.get("version");
+
+          if (groupId != null && artifactId != null && version != null) {
+            results.add(new SearchResult(groupId, artifactId, version));
+          }
+        });
+  }
+}
@@ -4,6 +4,9 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
 import java.util.logging.Logger;
 
 import jakarta.enterprise.context.ApplicationScoped;
@@ -13,7 +16,12 @@ import org.apache.maven.model.Model;
 import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
 import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
 
+import nl.fizzylogic.maven.dependencymanager.model.DependencyCoordinates;
+import nl.fizzylogic.maven.dependencymanager.util.PropertyInterpolator;
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
+
 /** Service for reading, modifying, and writing Maven POM files. */
+@TraceStartup
 @ApplicationScoped
 public class ProjectModelEditor {
 
@@ -111,7 +119,7 @@ public class ProjectModelEditor {
    * @param model The Maven Model to modify
    * @param groupId The dependency group ID
    * @param artifactId The dependency artifact ID
-   * @param version The dependency version
+   * @param version The dependency version, or null when dependencyManagement manages it
    * @return true if the dependency was added, false if it already exists
    */
   public boolean addDependency(Model model, String groupId, String artifactId, String version) {
@@ -130,7 +138,12 @@ public class ProjectModelEditor {
     // Add to model
     model.addDependency(dependency);
 
-    LOGGER.info("Added dependency: " + groupId + ":" + artifactId + ":" + version);
+    LOGGER.info(
+        "Added dependency: "
+            + groupId
+            + ":"
+            + artifactId
+            + (version != null ? ":" + version : " (managed version)"));
     return true;
   }
 
@@ -148,13 +161,46 @@ public class ProjectModelEditor {
             dep -> groupId.equals(dep.getGroupId()) && artifactId.equals(dep.getArtifactId()));
   }
 
+  /**
+   * Get the dependencies of the Maven Model with their coordinates interpolated from the project
+   * properties. Dependencies without a version, or with a version that refers to a property defined
+   * outside the POM, are managed elsewhere and are skipped.
+   *
+   * @param model The Maven Model to read
+   * @return The dependencies with an explicit version
+   */
+  public List<DependencyCoordinates> getEffectiveDependencies(Model model) {
+    List<DependencyCoordinates> dependencies = new ArrayList<>();
+    Properties properties = new Properties();
+    properties.putAll(model.getProperties());
+    if (model.getVersion() != null) {
+      properties.setProperty("project.version", model.getVersion());
+    }
+
+    for (Dependency dependency : model.getDependencies()) {
+      String version = PropertyInterpolator.interpolate(dependency.getVersion(), properties);
+
+      if (version == null || version.contains("${")) {
+        continue;
+      }
+
+      dependencies.add(
+          new DependencyCoordinates(
+              PropertyInterpolator.interpolate(dependency.getGroupId(), properties),
+              PropertyInterpolator.interpolate(dependency.getArtifactId(), properties),
+              version));
+    }
+
+    return dependencies;
+  }
+
   /**
    * Add a dependency to the current project's pom.xml file. This is a convenience method that reads
    * the POM, adds the dependency, and writes it back.
    *
    * @param groupId The dependency group ID
    * @param artifactId The dependency artifact ID
-   * @param version The dependency version
+   * @param version The dependency version, or null when dependencyManagement manages it
    * @return true if the dependency was successfully added, false if it already exists
    * @throws IOException if there are issues reading or writing the pom.xml file
    */
@@ -178,8 +224,7 @@ public class ProjectModelEditor {
               + groupId
               + ":"
               + artifactId
-              + ":"
-              + version);
+              + (version != null ? ":" + version : ""));
     }
 
     return added;
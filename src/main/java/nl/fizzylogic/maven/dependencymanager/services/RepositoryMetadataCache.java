@@ -0,0 +1,245 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import org.apache.maven.artifact.repository.metadata.Metadata;
+import org.apache.maven.artifact.repository.metadata.io.xpp3.MetadataXpp3Reader;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
+
+/**
+ * Knows the versions that the repositories list for each groupId:artifactId, as recorded in the
+ * maven-metadata files of the local repository. The parsed version lists are kept in a {@link
+ * MetadataStore}, so the XML of an artifact is parsed at most once per refresh interval, by any
+ * process, and later lookups read the memory-mapped store in place.
+ *
+ * <p>Version lists only grow: a refresh adds the versions found in the metadata files to the ones
+ * stored before. The metadata of locally installed artifacts is ignored, as those versions may
+ * never have been published.
+ */
+@TraceStartup
+@ApplicationScoped
+public class RepositoryMetadataCache {
+
+  private static final Logger LOGGER = Logger.getLogger(RepositoryMetadataCache.class.getName());
+  private static final Path LOCAL_REPOSITORY_PATH =
+      Path.of(System.getProperty("user.home"), ".m2", "repository");
+  private static final Path STORE_FILE_PATH =
+      Path.of(System.getProperty("user.home"), ".m2", "dependencymanager", "metadata.store");
+  private static final String LOCAL_METADATA_FILE_NAME = "maven-metadata-local.xml";
+
+  /** Number of artifacts without metadata that are remembered before the markers are dropped. */
+  private static final int MAX_UNLISTED = 1 << 14;
+
+  /** Age after which the metadata files of an artifact are read again. */
+  static final Duration REFRESH_INTERVAL = Duration.ofHours(1);
+
+  private final Path localRepository;
+  private final Path storeFile;
+  private final Clock clock;
+  private final Map<String, Long> unlisted = new ConcurrentHashMap<>();
+  private volatile MetadataStore store;
+  private volatile boolean unavailable;
+
+  public RepositoryMetadataCache() {
+    this(LOCAL_REPOSITORY_PATH, STORE_FILE_PATH, Clock.systemUTC());
+  }
+
+  RepositoryMetadataCache(Path localRepository, Path storeFile, Clock clock) {
+    this.localRepository = localRepository;
+    this.storeFile = storeFile;
+    this.clock = clock;
+  }
+
+  /**
+   * Check whether the repositories list a version of an artifact.
+   *
+   * @return true when the version is in the stored or local metadata of the artifact
+   */
+  public boolean listsVersion(String groupId, String artifactId, String version) {
+    MetadataStore.Versions versions = lookup(groupId, artifactId);
+    return versions != null && versions.contains(version);
+  }
+
+  /**
+   * Get the versions the repositories list for an artifact.
+   *
+   * @return the versions in the order they were recorded, or empty when none are known
+   */
+  public Optional<List<String>> versions(String groupId, String artifactId) {
+    MetadataStore.Versions versions = lookup(groupId, artifactId);
+    if (versions == null) {
+      return Optional.empty();
+    }
+
+    List<String> list = versions.list();
+    return list.isEmpty() ? Optional.empty() : Optional.of(list);
+  }
+
+  /** Add versions of an artifact that were learned from a remote repository. */
+  public void record(String groupId, String artifactId, List<String> versions) {
+    MetadataStore current = store();
+    if (current == null) {
+      return;
+    }
+
+    String key = groupId + ":" + artifactId;
+    try {
+      MetadataStore.Versions stored = current.lookup(key);
+      current.put(key, clock.millis(), merge(stored, versions));
+    } catch (IOException | RuntimeException e) {
+      LOGGER.fine("Failed to store metadata of " + key + ": " + e.getMessage());
+    }
+  }
+
+  /** Visit the key, refresh time and versions of every artifact in the store. */
+  void forEach(MetadataVisitor visitor) throws IOException {
+    MetadataStore current = store();
+    if (current == null) {
+      return;
+    }
+
+    current.forEach(
+        (key, versions) -> visitor.accept(key, versions.refreshedAt(), versions.list()));
+  }
+
+  /**
+   * Merge versions of an artifact that were stored elsewhere, such as by another machine.
+   *
+   * @param key The groupId:artifactId of the artifact
+   * @param refreshedAt The time the versions were read, kept when it is later than the stored one
+   */
+  void merge(String key, long refreshedAt, List<String> versions) throws IOException {
+    MetadataStore current = store();
+    if (current == null) {
+      throw new IOException("Metadata store is not available");
+    }
+
+    MetadataStore.Versions stored = current.lookup(key);
+    long refreshed = stored == null ? refreshedAt : Math.max(stored.refreshedAt(), refreshedAt);
+    current.put(key, refreshed, merge(stored, versions));
+  }
+
+  /** The stored versions, refreshed from the local metadata files when they are too old. */
+  private MetadataStore.Versions lookup(String groupId, String artifactId) {
+    MetadataStore current = store();
+    if (current == null) {
+      return null;
+    }
+
+    String key = groupId + ":" + artifactId;
+    try {
+      long now = clock.millis();
+      MetadataStore.Versions stored = current.lookup(key);
+      if (stored != null && now - stored.refreshedAt() < REFRESH_INTERVAL.toMillis()) {
+        return stored;
+      }
+
+      Long checkedAt = unlisted.get(key);
+      if (checkedAt != null && now - checkedAt < REFRESH_INTERVAL.toMillis()) {
+        return stored;
+      }
+
+      List<String> versions = readLocalMetadata(groupId, artifactId);
+      if (versions.isEmpty()) {
+        // Remembered in memory only, so a miss neither lists the directory again nor writes
+        if (unlisted.size() >= MAX_UNLISTED) {
+          unlisted.clear();
+        }
+        unlisted.put(key, now);
+        return stored;
+      }
+
+      current.put(key, now, merge(stored, versions));
+      unlisted.remove(key);
+      return current.lookup(key);
+    } catch (IOException | RuntimeException e) {
+      LOGGER.fine("Failed to look up metadata of " + key + ": " + e.getMessage());
+      return null;
+    }
+  }
+
+  /** The versions listed by the maven-metadata files of the artifact that came from remotes. */
+  private List<String> readLocalMetadata(String groupId, String artifactId) {
+    Path artifactDirectory = localRepository.resolve(groupId.replace('.', '/')).resolve(artifactId);
+    List<String> versions = new ArrayList<>();
+
+    if (!Files.isDirectory(artifactDirectory)) {
+      return versions;
+    }
+
+    try (DirectoryStream<Path> files =
+        Files.newDirectoryStream(artifactDirectory, "maven-metadata-*.xml")) {
+      MetadataXpp3Reader reader = new MetadataXpp3Reader();
+
+      for (Path file : files) {
+        if (file.getFileName().toString().equals(LOCAL_METADATA_FILE_NAME)) {
+          continue;
+        }
+
+        try (InputStream input = Files.newInputStream(file)) {
+          Metadata metadata = reader.read(input, false);
+          if (metadata.getVersioning() != null) {
+            versions.addAll(metadata.getVersioning().getVersions());
+          }
+        } catch (IOException | XmlPullParserException e) {
+          LOGGER.fine("Ignoring unreadable metadata " + file + ": " + e.getMessage());
+        }
+      }
+    } catch (IOException e) {
+      LOGGER.fine("Failed to list metadata of " + artifactDirectory + ": " + e.getMessage());
+    }
+
+    return versions;
+  }
+
+  private MetadataStore store() {
+    MetadataStore current = store;
+    if (current != null || unavailable) {
+      return current;
+    }
+
+    synchronized (this) {
+      if (store == null && !unavailable) {
+        try {
+          store = MetadataStore.open(storeFile);
+        } catch (IOException | RuntimeException e) {
+          LOGGER.warning("Metadata store is not available: " + e.getMessage());
+          unavailable = true;
+        }
+      }
+      return store;
+    }
+  }
+
+  interface MetadataVisitor {
+    void accept(String key, long refreshedAt, List<String> versions) throws IOException;
+  }
+
+  /** The stored versions followed by the new ones that were not stored yet. */
+  private static List<String> merge(MetadataStore.Versions stored, List<String> versions) {
+    Set<String> merged = new LinkedHashSet<>();
+    if (stored != null) {
+      merged.addAll(stored.list());
+    }
+    merged.addAll(versions);
+    return new ArrayList<>(merged);
+  }
+}
@@ -0,0 +1,282 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Paces the requests to each host, so parallel lookups don't get the client throttled or banned.
+ * Every host has a concurrency limit that adapts with AIMD: it grows by one for every round of
+ * successful requests and halves when the host answers 429 or 503. Such an answer also pauses the
+ * host for the time given in its Retry-After header, or for an exponentially growing backoff when
+ * the header is missing.
+ *
+ * <p>Rate-limited requests, such as searches, are paced per host by a token bucket on top of that,
+ * as search APIs limit their request rate. They are scheduled apart from the other requests to the
+ * same host, so file downloads are only paced by how the host responds.
+ */
+final class RequestScheduler {
+
+  private static final Logger LOGGER = Logger.getLogger(RequestScheduler.class.getName());
+
+  static final double DEFAULT_REQUESTS_PER_SECOND = 10;
+  static final int DEFAULT_BURST = 10;
+  static final int INITIAL_CONCURRENCY = 4;
+  static final int MAX_CONCURRENCY = 32;
+
+  /** Longest pause that is honoured; a host asking for a longer pause fails its requests. */
+  static final Duration MAX_PAUSE = Duration.ofSeconds(30);
+
+  private static final Duration INITIAL_BACKOFF = Duration.ofSeconds(1);
+
+  private final double requestsPerSecond;
+  private final int burst;
+  private final Duration initialBackoff;
+  private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+  private final Map<String, Host> rateLimitedHosts = new ConcurrentHashMap<>();
+  private final ScheduledExecutorService timer =
+      Executors.newSingleThreadScheduledExecutor(
+          runnable -> {
+            Thread thread = new Thread(runnable, "request-scheduler");
+            thread.setDaemon(true);
+            return thread;
+          });
+
+  RequestScheduler() {
+    this(DEFAULT_REQUESTS_PER_SECOND, DEFAULT_BURST, INITIAL_BACKOFF);
+  }
+
+  RequestScheduler(double requestsPerSecond, int burst) {
+    this(requestsPerSecond, burst, INITIAL_BACKOFF);
+  }
+
+  RequestScheduler(double requestsPerSecond, int burst, Duration initialBackoff) {
+    this.requestsPerSecond = requestsPerSecond;
+    this.burst = burst;
+    this.initialBackoff = initialBackoff;
+  }
+
+  /** Wait for a turn to send a rate-limited request to a route. */
+  CompletableFuture<Void> acquire(String route) {
+    return acquire(route, true);
+  }
+
+  /**
+   * Wait for a turn to send a request to a route. The returned future completes when the request
+   * may be sent; every completed turn must be ended with {@link #completed} or {@link #failed}.
+   * Cancelling the future gives up the place in the queue.
+   *
+   * @param rateLimited Whether the request counts against the request rate of the route
+   */
+  CompletableFuture<Void> acquire(String route, boolean rateLimited) {
+    CompletableFuture<Void> turn = new CompletableFuture<>();
+    Host host = host(route, rateLimited);
+    host.enqueue(turn);
+    host.dispatch();
+    return turn;
+  }
+
+  /**
+   * End a turn with the status of the response.
+   *
+   * @return true when the host throttled the request and it should be sent again
+   */
+  boolean completed(String route, int statusCode, Optional<String> retryAfter) {
+    return completed(route, true, statusCode, retryAfter);
+  }
+
+  /**
+   * End a turn with the status of the response.
+   *
+   * @return true when the host throttled the request and it should be sent again
+   */
+  boolean completed(
+      String route, boolean rateLimited, int statusCode, Optional<String> retryAfter) {
+    Host host = host(route, rateLimited);
+    boolean retry = host.completed(statusCode, retryAfter);
+    host.dispatch();
+    return retry;
+  }
+
+  /** End a turn for a request that failed without a response. */
+  void failed(String route, boolean rateLimited) {
+    Host host = host(route, rateLimited);
+    host.release();
+    host.dispatch();
+  }
+
+  /** The current concurrency limit of the rate-limited requests to a route. */
+  int concurrencyLimit(String route) {
+    return host(route, true).currentLimit();
+  }
+
+  private Host host(String route, boolean rateLimited) {
+    return (rateLimited ? rateLimitedHosts : hosts)
+        .computeIfAbsent(route, key -> new Host(key, rateLimited));
+  }
+
+  /** Parse a Retry-After value, either a number of seconds or an HTTP date. */
+  static Optional<Duration> parseRetryAfter(String value) {
+    String trimmed = value.trim();
+
+    try {
+      return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(trimmed))));
+    } catch (NumberFormatException e) {
+      // Not a number of seconds, try the HTTP date form
+    }
+
+    try {
+      ZonedDateTime until = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME);
+      Duration delay = Duration.between(ZonedDateTime.now(until.getZone()), until);
+      return Optional.of(delay.isNegative() ? Duration.ZERO : delay);
+    } catch (DateTimeParseException e) {
+      return Optional.empty();
+    }
+  }
+
+  /** Rate, concurrency and pause state of a single host. */
+  private final class Host {
+    private final String route;
+    private final boolean rateLimited;
+    private final Queue<CompletableFuture<Void>> waiting = new ArrayDeque<>();
+    private double tokens = burst;
+    private long refilledAt = System.nanoTime();
+    private double limit = INITIAL_CONCURRENCY;
+    private int inFlight;
+    private long pausedUntil = refilledAt;
+    private int consecutiveThrottles;
+    private boolean dispatchScheduled;
+
+    Host(String route, boolean rateLimited) {
+      this.route = route;
+      this.rateLimited = rateLimited;
+    }
+
+    synchronized void enqueue(CompletableFuture<Void> turn) {
+      waiting.add(turn);
+    }
+
+    synchronized int currentLimit() {
+      return (int) limit;
+    }
+
+    synchronized void release() {
+      inFlight--;
+    }
+
+    /** Give turns to waiting requests while the limits allow, or schedule the next attempt. */
+    void dispatch() {
+      List<CompletableFuture<Void>> granted = new ArrayList<>();
+
+      synchronized (this) {
+        long now = System.nanoTime();
+        refill(now);
+
+        while (!waiting.isEmpty() && inFlight < (int) limit) {
+          if (waiting.peek().isDone()) {
+            waiting.poll();
+            continue;
+          }
+
+          long waitNanos =
+              Math.max(pausedUntil - now, !rateLimited || tokens >= 1 ? 0 : nanosUntilToken());
+
+          if (waitNanos > 0) {
+            scheduleDispatch(waitNanos);
+            break;
+          }
+
+          if (rateLimited) {
+            tokens--;
+          }
+          inFlight++;
+          granted.add(waiting.poll());
+        }
+      }
+
+      // Complete outside the lock, as completing runs the request on this thread
+      for (CompletableFuture<Void> turn : granted) {
+        if (!turn.complete(null)) {
+          release();
+        }
+      }
+    }
+
+    synchronized boolean completed(int statusCode, Optional<String> retryAfter) {
+      inFlight--;
+
+      if (statusCode != 429 && statusCode != 503) {
+        consecutiveThrottles = 0;
+        limit = Math.min(MAX_CONCURRENCY, limit + 1 / limit);
+        return false;
+      }
+
+      consecutiveThrottles++;
+      Duration pause =
+          retryAfter
+              .flatMap(RequestScheduler::parseRetryAfter)
+              .orElseGet(
+                  () -> initialBackoff.multipliedBy(1L << Math.min(consecutiveThrottles - 1, 10)));
+
+      long now = System.nanoTime();
+      if (pausedUntil - now <= 0) {
+        // Halve once per throttling episode, not for every request that was already in flight
+        limit = Math.max(1, limit / 2);
+      }
+
+      boolean retry = pause.compareTo(MAX_PAUSE) <= 0;
+      Duration honoured = retry ? pause : MAX_PAUSE;
+      if (now + honoured.toNanos() - pausedUntil > 0) {
+        pausedUntil = now + honoured.toNanos();
+      }
+
+      LOGGER.warning(
+          route
+              + " answered "
+              + statusCode
+              + ", pausing for "
+              + honoured.toMillis()
+              + " ms and lowering the concurrency to "
+              + (int) limit);
+      return retry;
+    }
+
+    private void refill(long now) {
+      tokens = Math.min(burst, tokens + (now - refilledAt) * requestsPerSecond / 1e9);
+      refilledAt = now;
+    }
+
+    private long nanosUntilToken() {
+      return (long) Math.ceil((1 - tokens) * 1e9 / requestsPerSecond);
+    }
+
+    private void scheduleDispatch(long delayNanos) {
+      if (dispatchScheduled) {
+        return;
+      }
+      dispatchScheduled = true;
+      timer.schedule(
+          () -> {
+            synchronized (this) {
+              dispatchScheduled = false;
+            }
+            dispatch();
+          },
+          delayNanos,
+          TimeUnit.NANOSECONDS);
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import nl.fizzylogic.maven.dependencymanager.model.SearchQuery;
+import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+
+/** The search API of a single repository, as used by the federated search. */
+public interface SearchBackend {
+
+  /** The id of the repository that is searched. */
+  String getRepositoryId();
+
+  /**
+   * Search the repository without blocking the calling thread. The results hold one entry per
+   * groupId:artifactId, with the highest version found in the repository.
+   *
+   * @param query The search query
+   * @return A future completing with the results, or failing when the repository can't be searched
+   */
+  CompletableFuture<List<SearchResult>> search(SearchQuery query);
+}
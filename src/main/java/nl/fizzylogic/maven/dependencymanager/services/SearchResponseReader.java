@@ -0,0 +1,166 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.logging.Logger;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+
+/**
+ * Reads the Solr response of the Maven Central Search API. The reader only knows the fields of the
+ * response shape that are used by the tool and walks the token stream directly, so it needs no data
+ * binding or reflection. The JSON factory is created when the class is initialized, which happens
+ * at image build time for native executables.
+ */
+final class SearchResponseReader {
+
+  private static final Logger LOGGER = Logger.getLogger(SearchResponseReader.class.getName());
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private SearchResponseReader() {}
+
+  /**
+   * Read a search response, passing each document to the consumer as soon as it is read.
+   *
+   * @param jsonResponse The response body
+   * @param consumer Receives the search results
+   * @throws IOException if the response is not valid JSON or not a JSON object
+   */
+  static void read(InputStream jsonResponse, Consumer<SearchResult> consumer) throws IOException {
+    try (JsonParser parser = JSON_FACTORY.createParser(jsonResponse)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("Search response is not a JSON object");
+      }
+
+      boolean foundResponse = false;
+
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String fieldName = parser.currentName();
+        parser.nextToken();
+
+        if ("response".equals(fieldName) && parser.currentToken() == JsonToken.START_OBJECT) {
+          foundResponse = true;
+          readResponseObject(parser, consumer);
+        } else {
+          parser.skipChildren();
+        }
+      }
+
+      if (!foundResponse) {
+        LOGGER.warning("No 'response' field in search result");
+      }
+    }
+  }
+
+  /** Read the 'response' object, streaming the documents in its 'docs' array. */
+  private static void readResponseObject(JsonParser parser, Consumer<SearchResult> consumer)
+      throws IOException {
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String fieldName = parser.currentName();
+      parser.nextToken();
+
+      if ("docs".equals(fieldName) && parser.currentToken() == JsonToken.START_ARRAY) {
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+          SearchResult result = readDocument(parser);
+          if (result != null) {
+            consumer.accept(result);
+          }
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+  }
+
+  /** Read a single document, skipping the fields that are not used. */
+  private static SearchResult readDocument(JsonParser parser) throws IOException {
+    String groupId = null;
+    String artifactId = null;
+    String latestVersion = null;
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String fieldName = parser.currentName();
+      JsonToken value = parser.nextToken();
+
+      if (value.isScalarValue()) {
+        switch (fieldName) {
+          case "g" -> groupId = parser.getValueAsString();
+          case "a" -> artifactId = parser.getValueAsString();
+          case "latestVersion" -> latestVersion = parser.getValueAsString();
+          default -> {}
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+
+    if (groupId == null || artifactId == null || latestVersion == null) {
+      LOGGER.warning(
+          "Missing required fields in document: g="
+              + groupId
+              + ", a="
+              + artifactId
+              + ", v="
+              + latestVersion);
+      return null;
+    }
+
+    return new SearchResult(groupId, artifactId, latestVersion);
+  }
+
+  /**
+   * Read a JSON object with an array of objects in one of its fields, passing the scalar fields of
+   * each object in the array to the consumer. Nested objects and arrays are skipped.
+   *
+   * @param json The response body
+   * @param arrayField The name of the field holding the array
+   * @param consumer Receives the scalar fields of each object, as text
+   * @throws IOException if the response is not valid JSON or not a JSON object
+   */
+  static void readObjects(
+      InputStream json, String arrayField, Consumer<Map<String, String>> consumer)
+      throws IOException {
+    try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("Search response is not a JSON object");
+      }
+
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String fieldName = parser.currentName();
+        parser.nextToken();
+
+        if (arrayField.equals(fieldName) && parser.currentToken() == JsonToken.START_ARRAY) {
+          while (parser.nextToken() == JsonToken.START_OBJECT) {
+            consumer.accept(readScalarFields(parser));
+          }
+        } else {
+          parser.skipChildren();
+        }
+      }
+    }
+  }
+
+  private static Map<String, String> readScalarFields(JsonParser parser) throws IOException {
+    Map<String, String> fields = new HashMap<>();
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String fieldName = parser.currentName();
+      JsonToken value = parser.nextToken();
+
+      if (value.isScalarValue()) {
+        fields.put(fieldName, parser.getValueAsString());
+      } else {
+        parser.skipChildren();
+      }
+    }
+
+    return fields;
+  }
+}
@@ -0,0 +1,428 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+import jakarta.enterprise.context.ApplicationScoped;
+
+import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+import nl.fizzylogic.maven.dependencymanager.util.TraceStartup;
+
+/**
+ * On-disk cache of search results that is shared by all processes of the tool, so parallel builds
+ * on one machine answer repeated searches from disk. Entries are spread over shards by the hash of
+ * their key. Every shard is an append-only log of checksummed entries, where the last entry of a
+ * key wins.
+ *
+ * <p>Readers never lock. Each process keeps an index of the entries it has seen per shard, and
+ * reads the part of the log that was appended since only when a key is missing or expired. A torn
+ * entry at the end of a log, from a writer that is still busy, fails its checksum and is read again
+ * on the next miss. Writers take a short exclusive lock on a lock file of their shard, so writes to
+ * different shards never wait for each other. Under that lock a writer cuts off a torn entry left
+ * by a writer that died before it appends its own entry. A log that grew too large is compacted
+ * under that lock into a new file that atomically replaces it; readers keep reading the old file
+ * until they notice the replacement on their next miss.
+ *
+ * <p>Only successful, non-empty answers belong here; the {@link NegativeCache} remembers what was
+ * not found, and failures are never cached.
+ */
+@TraceStartup
+@ApplicationScoped
+public class SearchResultCache {
+
+  private static final Logger LOGGER = Logger.getLogger(SearchResultCache.class.getName());
+  private static final Path CACHE_DIRECTORY_PATH =
+      Path.of(System.getProperty("user.home"), ".m2", "dependencymanager", "search-cache");
+
+  public static final Duration DEFAULT_TTL = Duration.ofHours(1);
+
+  static final int SHARD_COUNT = 16;
+
+  /** Size of a log after which it is compacted on the next write. */
+  static final long COMPACTION_THRESHOLD = 1024 * 1024;
+
+  /** Entry header: int payload length and int CRC32 of the payload. */
+  private static final int ENTRY_HEADER_SIZE = 8;
+
+  private final Path cacheDirectory;
+  private final Duration ttl;
+  private final Clock clock;
+  private final Shard[] shards = new Shard[SHARD_COUNT];
+  long compactionThreshold = COMPACTION_THRESHOLD;
+
+  public SearchResultCache() {
+    this(CACHE_DIRECTORY_PATH, DEFAULT_TTL, Clock.systemUTC());
+  }
+
+  SearchResultCache(Path cacheDirectory, Duration ttl, Clock clock) {
+    this.cacheDirectory = cacheDirectory;
+    this.ttl = ttl;
+    this.clock = clock;
+
+    for (int i = 0; i < SHARD_COUNT; i++) {
+      shards[i] = new Shard(String.format("shard-%02x", i));
+    }
+  }
+
+  /**
+   * Get the cached results of a search.
+   *
+   * @param key The key of the search, such as its request URL
+   * @return the results, or empty when they are not cached or expired
+   */
+  public Optional<List<SearchResult>> get(String key) {
+    try {
+      return Optional.ofNullable(shardOf(key).get(key, clock.millis()));
+    } catch (IOException | RuntimeException e) {
+      LOGGER.fine("Failed to read search cache for " + key + ": " + e.getMessage());
+      return Optional.empty();
+    }
+  }
+
+  /** Cache the results of a successful search. Empty results are not cached. */
+  public void put(String key, List<SearchResult> results) {
+    if (results.isEmpty()) {
+      return;
+    }
+
+    try {
+      shardOf(key).put(key, results, clock.millis() + ttl.toMillis(), clock.millis());
+    } catch (IOException | RuntimeException e) {
+      LOGGER.fine("Failed to write search cache for " + key + ": " + e.getMessage());
+    }
+  }
+
+  /** Visit every entry that did not expire, including the ones other processes wrote. */
+  void forEach(EntryVisitor visitor) throws IOException {
+    long now = clock.millis();
+
+    for (Shard shard : shards) {
+      synchronized (shard) {
+        shard.refresh();
+      }
+
+      for (Map.Entry<String, Entry> entry : shard.index.entrySet()) {
+        if (entry.getValue().expiresAt > now) {
+          visitor.accept(entry.getKey(), entry.getValue().expiresAt, entry.getValue().results);
+        }
+      }
+    }
+  }
+
+  /** Check whether an entry that expires at the given time has expired already. */
+  boolean isExpired(long expiresAt) {
+    return expiresAt <= clock.millis();
+  }
+
+  /**
+   * Merge an entry that was cached elsewhere, such as by another machine. The entry is kept only
+   * when it expires later than the entry that is cached for its key.
+   *
+   * @return true when the entry was cached
+   */
+  boolean merge(String key, List<SearchResult> results, long expiresAt) throws IOException {
+    long now = clock.millis();
+    if (results.isEmpty() || expiresAt <= now) {
+      return false;
+    }
+
+    Shard shard = shardOf(key);
+    synchronized (shard) {
+      shard.refresh();
+      Entry cached = shard.index.get(key);
+      if (cached != null && cached.expiresAt >= expiresAt) {
+        return false;
+      }
+      shard.put(key, results, expiresAt, now);
+    }
+    return true;
+  }
+
+  private Shard shardOf(String key) {
+    return shards[(int) (BloomFilter.hash(key) >>> 60) & (SHARD_COUNT - 1)];
+  }
+
+  /** One log file with its lock file, and the index of the entries this process has read. */
+  private final class Shard {
+    private final Path logFile;
+    private final Path lockFile;
+    private final Map<String, Entry> index = new ConcurrentHashMap<>();
+    private volatile Object fileKey;
+    private volatile long readUpTo;
+
+    Shard(String name) {
+      this.logFile = cacheDirectory.resolve(name + ".log");
+      this.lockFile = cacheDirectory.resolve(name + ".lock");
+    }
+
+    List<SearchResult> get(String key, long now) throws IOException {
+      Entry entry = index.get(key);
+      if (entry != null && entry.expiresAt > now) {
+        return entry.results;
+      }
+
+      // Only a miss looks at the file, to pick up what other processes appended or compacted
+      synchronized (this) {
+        refresh();
+      }
+
+      entry = index.get(key);
+      return entry != null && entry.expiresAt > now ? entry.results : null;
+    }
+
+    void put(String key, List<SearchResult> results, long expiresAt, long now) throws IOException {
+      byte[] entry = encode(key, results, expiresAt);
+      Files.createDirectories(cacheDirectory);
+
+      // The file lock is per process; the monitor keeps threads of this process apart
+      synchronized (this) {
+        try (FileChannel lockChannel =
+            FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+          FileLock lock = lockChannel.lock();
+          try {
+            // No other writer appends under the lock, so bytes after the last complete entry are
+            // left by a writer that died halfway; cut them off, or they hide every later entry
+            refresh();
+
+            try (FileChannel log =
+                FileChannel.open(logFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+              if (log.size() > readUpTo) {
+                LOGGER.fine("Removing " + (log.size() - readUpTo) + " torn bytes from " + logFile);
+                log.truncate(readUpTo);
+              }
+
+              ByteBuffer content = ByteBuffer.wrap(entry);
+              long position = readUpTo;
+              while (content.hasRemaining()) {
+                position += log.write(content, position);
+              }
+
+              if (log.size() > compactionThreshold) {
+                compact(now);
+              }
+            }
+          } finally {
+            lock.release();
+          }
+        }
+
+        index.put(key, new Entry(expiresAt, List.copyOf(results)));
+      }
+    }
+
+    /** Read what was appended since the last read, or the whole log when it was replaced. */
+    private void refresh() throws IOException {
+      if (!Files.isRegularFile(logFile)) {
+        index.clear();
+        readUpTo = 0;
+        fileKey = null;
+        return;
+      }
+
+      // Taken before opening, so a replacement in between makes the next miss read it all again
+      Object currentKey = Files.readAttributes(logFile, BasicFileAttributes.class).fileKey();
+
+      try (FileChannel log = FileChannel.open(logFile, StandardOpenOption.READ)) {
+        long start = readUpTo;
+
+        if (currentKey == null || !currentKey.equals(fileKey) || log.size() < start) {
+          index.clear();
+          start = 0;
+        }
+
+        if (log.size() > start) {
+          ByteBuffer content = log.map(FileChannel.MapMode.READ_ONLY, start, log.size() - start);
+          readUpTo = start + readEntries(content, index::put);
+        } else {
+          readUpTo = start;
+        }
+        fileKey = currentKey;
+      }
+    }
+
+    /** Rewrite the log with the entries that did not expire, the last one of every key. */
+    private void compact(long now) throws IOException {
+      Map<String, Entry> live = new LinkedHashMap<>();
+
+      try (FileChannel log = FileChannel.open(logFile, StandardOpenOption.READ)) {
+        readEntries(log.map(FileChannel.MapMode.READ_ONLY, 0, log.size()), live::put);
+      }
+      live.values().removeIf(entry -> entry.expiresAt <= now);
+
+      Path temporary = Files.createTempFile(cacheDirectory, logFile.getFileName() + "-", ".tmp");
+      try {
+        try (FileChannel target = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+          for (Map.Entry<String, Entry> entry : live.entrySet()) {
+            ByteBuffer content =
+                ByteBuffer.wrap(
+                    encode(entry.getKey(), entry.getValue().results, entry.getValue().expiresAt));
+            while (content.hasRemaining()) {
+              target.write(content);
+            }
+          }
+        }
+        Files.move(
+            temporary,
+            logFile,
+            StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING);
+      } finally {
+        Files.deleteIfExists(temporary);
+      }
+
+      LOGGER.fine("Compacted " + logFile + " to " + live.size() + " entries");
+    }
+  }
+
+  /** The cached results of a key and when they expire. */
+  private record Entry(long expiresAt, List<SearchResult> results) {}
+
+  interface EntryVisitor {
+    void accept(String key, long expiresAt, List<SearchResult> results) throws IOException;
+  }
+
+  private interface EntryConsumer {
+    void accept(String key, Entry entry);
+  }
+
+  /**
+   * Read the complete entries in the buffer, stopping at the first one that is torn or corrupt.
+   *
+   * @return the number of bytes of complete entries that were read
+   */
+  private static int readEntries(ByteBuffer content, EntryConsumer consumer) {
+    int position = 0;
+    CRC32 crc = new CRC32();
+
+    while (position + ENTRY_HEADER_SIZE <= content.limit()) {
+      int length = content.getInt(position);
+      int checksum = content.getInt(position + 4);
+      int payload = position + ENTRY_HEADER_SIZE;
+
+      if (length <= 0 || payload + length > content.limit()) {
+        break;
+      }
+
+      crc.reset();
+      crc.update(content.slice(payload, length));
+      if ((int) crc.getValue() != checksum) {
+        break;
+      }
+
+      Map.Entry<String, Entry> entry = decode(content, payload);
+      consumer.accept(entry.getKey(), entry.getValue());
+      position = payload + length;
+    }
+
+    return position;
+  }
+
+  /** Encode an entry: header, followed by its {@link #encodePayload payload}. */
+  static byte[] encode(String key, List<SearchResult> results, long expiresAt) {
+    CompactRecords.VarintBuffer payload = encodePayload(key, results, expiresAt);
+
+    CRC32 crc = new CRC32();
+    crc.update(payload.bytes(), 0, payload.position());
+
+    ByteBuffer entry = ByteBuffer.allocate(ENTRY_HEADER_SIZE + payload.position());
+    entry.putInt(payload.position()).putInt((int) crc.getValue());
+    entry.put(payload.bytes(), 0, payload.position());
+    return entry.array();
+  }
+
+  /**
+   * Encode the payload of an entry: long expiry, key and results as varint-prefixed strings. The
+   * {@link CacheArchive} stores entries in this form as well.
+   */
+  static CompactRecords.VarintBuffer encodePayload(
+      String key, List<SearchResult> results, long expiresAt) {
+    CompactRecords.VarintBuffer payload = new CompactRecords.VarintBuffer();
+    payload.put(ByteBuffer.allocate(8).putLong(0, expiresAt).array());
+    putString(payload, key);
+    payload.putVarint(results.size());
+
+    for (SearchResult result : results) {
+      putString(payload, result.getGroupId());
+      putString(payload, result.getArtifactId());
+      putString(payload, result.getLatestVersion());
+      putString(payload, result.getRepository());
+    }
+
+    return payload;
+  }
+
+  /** Decode a payload that was written with {@link #encodePayload}. */
+  static void decodePayload(ByteBuffer payload, EntryVisitor visitor) throws IOException {
+    Map.Entry<String, Entry> entry;
+    try {
+      entry = decode(payload, 0);
+    } catch (RuntimeException e) {
+      throw new IOException("Corrupt search cache entry", e);
+    }
+    visitor.accept(entry.getKey(), entry.getValue().expiresAt, entry.getValue().results);
+  }
+
+  private static Map.Entry<String, Entry> decode(ByteBuffer content, int position) {
+    long expiresAt = content.getLong(position);
+    int[] cursor = {position + 8};
+    String key = getString(content, cursor);
+    long count = CompactRecords.readVarint(content, cursor[0]);
+    cursor[0] = CompactRecords.next(count);
+
+    List<SearchResult> results = new ArrayList<>(CompactRecords.value(count));
+    for (int i = 0; i < CompactRecords.value(count); i++) {
+      results.add(
+          new SearchResult(
+              getString(content, cursor),
+              getString(content, cursor),
+              getString(content, cursor),
+              getString(content, cursor)));
+    }
+
+    return Map.entry(key, new Entry(expiresAt, List.copyOf(results)));
+  }
+
+  /** A string as its UTF-8 length + 1, or 0 for null, followed by its bytes. */
+  private static void putString(CompactRecords.VarintBuffer buffer, String value) {
+    if (value == null) {
+      buffer.putVarint(0);
+      return;
+    }
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    buffer.putVarint(bytes.length + 1);
+    buffer.put(bytes);
+  }
+
+  private static String getString(ByteBuffer content, int[] cursor) {
+    long length = CompactRecords.readVarint(content, cursor[0]);
+    int start = CompactRecords.next(length);
+
+    if (CompactRecords.value(length) == 0) {
+      cursor[0] = start;
+      return null;
+    }
+
+    byte[] bytes = new byte[CompactRecords.value(length) - 1];
+    content.get(start, bytes);
+    cursor[0] = start + bytes.length;
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+}
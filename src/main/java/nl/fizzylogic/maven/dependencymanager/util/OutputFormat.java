@@ -0,0 +1,14 @@
+package nl.fizzylogic.maven.dependencymanager.util;
+
+/** Output formats supported by the commands. */
+public enum OutputFormat {
+  TABLE,
+  JSON,
+  NDJSON,
+  CSV;
+
+  /** Whether the format is meant to be consumed by scripts instead of people. */
+  public boolean isMachineReadable() {
+    return this != TABLE;
+  }
+}
@@ -0,0 +1,40 @@
+package nl.fizzylogic.maven.dependencymanager.util;
+
+import java.util.Properties;
+
+/** Utility class to replace ${...} placeholders in POM values with property values. */
+public class PropertyInterpolator {
+
+  private PropertyInterpolator() {}
+
+  /**
+   * Replace ${...} placeholders in the value. Placeholders without a matching property are left as
+   * they are, so callers can detect unresolved values by checking for "${".
+   */
+  public static String interpolate(String value, Properties properties) {
+    if (value == null || !value.contains("${")) {
+      return value;
+    }
+
+    StringBuilder result = new StringBuilder();
+    int position = 0;
+
+    while (position < value.length()) {
+      int start = value.indexOf("${", position);
+      int end = start >= 0 ? value.indexOf('}', start) : -1;
+
+      if (start < 0 || end < 0) {
+        result.append(value, position, value.length());
+        break;
+      }
+
+      String replacement = properties.getProperty(value.substring(start + 2, end));
+
+      result.append(value, position, start);
+      result.append(replacement != null ? replacement : value.substring(start, end + 1));
+      position = end + 1;
+    }
+
+    return result.toString();
+  }
+}
@@ -0,0 +1,104 @@
+package nl.fizzylogic.maven.dependencymanager.util;
+
+import java.io.PrintStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Collects the time spent constructing beans. The timings are always collected, as they are cheap;
+ * they are only reported when the trace is enabled with the --trace-startup option, in which case
+ * the report is written when the process exits.
+ */
+public final class StartupTrace {
+
+  /** The part of the bean life cycle that is measured. */
+  public enum Phase {
+    CONSTRUCT,
+    POST_CONSTRUCT
+  }
+
+  private static final Map<String, AtomicLongArray> TIMINGS = new ConcurrentHashMap<>();
+  private static final AtomicBoolean ENABLED = new AtomicBoolean();
+
+  private StartupTrace() {}
+
+  /**
+   * Record the time spent in a phase of the construction of a bean.
+   *
+   * @param beanClass The bean class
+   * @param phase The phase that was measured
+   * @param nanos The time spent, in nanoseconds
+   */
+  public static void record(Class<?> beanClass, Phase phase, long nanos) {
+    TIMINGS
+        .computeIfAbsent(
+            beanClass.getSimpleName(), name -> new AtomicLongArray(Phase.values().length))
+        .addAndGet(phase.ordinal(), nanos);
+  }
+
+  /** Enable the trace, writing the report to the stream when the process exits. */
+  public static void enable(PrintStream out) {
+    if (ENABLED.compareAndSet(false, true)) {
+      Runtime.getRuntime().addShutdownHook(new Thread(() -> out.print(report()), "startup-trace"));
+    }
+  }
+
+  /** Format the recorded timings, slowest bean first. */
+  public static String report() {
+    List<Map.Entry<String, AtomicLongArray>> beans = new ArrayList<>(TIMINGS.entrySet());
+    beans.sort((a, b) -> Long.compare(total(b.getValue()), total(a.getValue())));
+
+    StringBuilder report = new StringBuilder();
+    report.append("Startup trace");
+    ProcessHandle.current()
+        .info()
+        .startInstant()
+        .ifPresent(
+            start ->
+                report
+                    .append(" (process running for ")
+                    .append(Duration.between(start, Instant.now()).toMillis())
+                    .append(" ms)"));
+    report.append('\n');
+
+    long totalNanos = 0;
+    for (Map.Entry<String, AtomicLongArray> bean : beans) {
+      AtomicLongArray timings = bean.getValue();
+      totalNanos += total(timings);
+      report.append(
+          String.format(
+              "  %8.2f ms  %s (constructor %.2f ms, post-construct %.2f ms)%n",
+              millis(total(timings)),
+              bean.getKey(),
+              millis(timings.get(Phase.CONSTRUCT.ordinal())),
+              millis(timings.get(Phase.POST_CONSTRUCT.ordinal()))));
+    }
+
+    report.append(
+        String.format("  %8.2f ms  total for %d beans%n", millis(totalNanos), beans.size()));
+    return report.toString();
+  }
+
+  /** Forget the recorded timings. */
+  static void reset() {
+    TIMINGS.clear();
+  }
+
+  private static long total(AtomicLongArray timings) {
+    long total = 0;
+    for (int i = 0; i < timings.length(); i++) {
+      total += timings.get(i);
+    }
+    return total;
+  }
+
+  private static double millis(long nanos) {
+    return nanos / 1_000_000.0;
+  }
+}
@@ -0,0 +1,51 @@
+package nl.fizzylogic.maven.dependencymanager.util;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Priority;
+import jakarta.interceptor.AroundConstruct;
+import jakarta.interceptor.Interceptor;
+import jakarta.interceptor.InvocationContext;
+
+/**
+ * Measures the constructor and post-construct callback of beans marked with {@link TraceStartup}.
+ */
+@TraceStartup
+@Interceptor
+@Priority(Interceptor.Priority.PLATFORM_BEFORE)
+public class StartupTraceInterceptor {
+
+  @AroundConstruct
+  Object aroundConstruct(InvocationContext context) throws Exception {
+    long start = System.nanoTime();
+    try {
+      return context.proceed();
+    } finally {
+      StartupTrace.record(
+          context.getConstructor().getDeclaringClass(),
+          StartupTrace.Phase.CONSTRUCT,
+          System.nanoTime() - start);
+    }
+  }
+
+  @PostConstruct
+  Object postConstruct(InvocationContext context) throws Exception {
+    long start = System.nanoTime();
+    try {
+      return context.proceed();
+    } finally {
+      StartupTrace.record(
+          beanClass(context.getTarget().getClass()),
+          StartupTrace.Phase.POST_CONSTRUCT,
+          System.nanoTime() - start);
+    }
+  }
+
+  /** The bean class behind the subclass that is generated to apply the interceptors. */
+  private static Class<?> beanClass(Class<?> type) {
+    Class<?> beanClass = type;
+    while (beanClass.getName().endsWith("_Subclass") && beanClass.getSuperclass() != null) {
+      beanClass = beanClass.getSuperclass();
+    }
+    return beanClass;
+  }
+}
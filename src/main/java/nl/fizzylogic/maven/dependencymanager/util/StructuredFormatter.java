@@ -0,0 +1,107 @@
+package nl.fizzylogic.maven.dependencymanager.util;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+
+/** Utility class to format records as JSON objects or CSV rows for machine-readable output. */
+public class StructuredFormatter {
+
+  private StructuredFormatter() {}
+
+  /** Get the fields of a search result in output order. */
+  public static Map<String, String> searchResultFields(SearchResult result) {
+    Map<String, String> fields = new LinkedHashMap<>();
+    fields.put("groupId", result.getGroupId());
+    fields.put("artifactId", result.getArtifactId());
+    fields.put("latestVersion", result.getLatestVersion());
+    fields.put("repository", result.getRepository());
+    return fields;
+  }
+
+  /** Format a record as a single-line JSON object. Null values are written as JSON null. */
+  public static String toJsonObject(Map<String, String> fields) {
+    StringBuilder json = new StringBuilder("{");
+
+    for (Map.Entry<String, String> field : fields.entrySet()) {
+      if (json.length() > 1) {
+        json.append(',');
+      }
+      appendJsonString(json, field.getKey());
+      json.append(':');
+      if (field.getValue() == null) {
+        json.append("null");
+      } else {
+        appendJsonString(json, field.getValue());
+      }
+    }
+
+    return json.append('}').toString();
+  }
+
+  /** Format records as a JSON array with one object per line. */
+  public static String toJsonArray(List<Map<String, String>> records) {
+    if (records.isEmpty()) {
+      return "[]";
+    }
+
+    StringBuilder json = new StringBuilder("[\n");
+
+    for (int i = 0; i < records.size(); i++) {
+      json.append("  ").append(toJsonObject(records.get(i)));
+      json.append(i < records.size() - 1 ? ",\n" : "\n");
+    }
+
+    return json.append(']').toString();
+  }
+
+  /** Format values as a CSV row, quoting values that contain separators, quotes or newlines. */
+  public static String toCsvRow(Collection<String> values) {
+    StringBuilder csv = new StringBuilder();
+    boolean first = true;
+
+    for (String value : values) {
+      if (!first) {
+        csv.append(',');
+      }
+      first = false;
+      if (value == null) {
+        continue;
+      }
+      if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+        csv.append('"').append(value.replace("\"", "\"\"")).append('"');
+      } else {
+        csv.append(value);
+      }
+    }
+
+    return csv.toString();
+  }
+
+  private static void appendJsonString(StringBuilder json, String value) {
+    json.append('"');
+
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"' -> json.append("\\\"");
+        case '\\' -> json.append("\\\\");
+        case '\n' -> json.append("\\n");
+        case '\r' -> json.append("\\r");
+        case '\t' -> json.append("\\t");
+        default -> {
+          if (c < 0x20) {
+            json.append(String.format("\\u%04x", (int) c));
+          } else {
+            json.append(c);
+          }
+        }
+      }
+    }
+
+    json.append('"');
+  }
+}
@@ -1,6 +1,9 @@
 package nl.fizzylogic.maven.dependencymanager.util;
 
+import java.io.PrintStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
 
@@ -8,7 +11,17 @@ import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
 public class TableFormatter {
 
   private static final String COLUMN_SEPARATOR = " | ";
-  private static final String HEADER_SEPARATOR = "-";
+  private static final char HEADER_SEPARATOR = '-';
+  private static final String GROUP_ID_HEADER = "GroupId";
+  private static final String ARTIFACT_ID_HEADER = "ArtifactId";
+  private static final String VERSION_HEADER = "Latest version";
+  private static final String REPOSITORY_HEADER = "Repository";
+
+  /** Number of rows used to estimate the column widths when writing a table as a stream. */
+  public static final int DEFAULT_WIDTH_WINDOW = 100;
+
+  /** Number of characters collected before they are handed to the output stream. */
+  private static final int WRITE_CHUNK_SIZE = 8192;
 
   /** Format search results into a table with headers. */
   public static String formatSearchResults(List<SearchResult> results) {
@@ -16,90 +29,222 @@ public class TableFormatter {
       return "No dependencies found.";
     }
 
-    // Calculate column widths
-    int groupIdWidth =
-        Math.max(
-            "GroupId".length(),
-            results.stream().mapToInt(r -> r.getGroupId().length()).max().orElse(0));
-    int artifactIdWidth =
-        Math.max(
-            "ArtifactId".length(),
-            results.stream().mapToInt(r -> r.getArtifactId().length()).max().orElse(0));
-    int versionWidth =
-        Math.max(
-            "Latest version".length(),
-            results.stream().mapToInt(r -> r.getLatestVersion().length()).max().orElse(0));
+    ColumnWidths widths = new ColumnWidths();
+    for (SearchResult result : results) {
+      widths.include(result);
+    }
 
     StringBuilder table = new StringBuilder();
+    appendHeader(table, widths);
 
-    // Header row
-    table.append(
-        formatRow(
-            "GroupId",
-            "ArtifactId",
-            "Latest version",
-            groupIdWidth,
-            artifactIdWidth,
-            versionWidth));
-    table.append("\n");
-
-    // Separator row
-    table.append(formatSeparatorRow(groupIdWidth, artifactIdWidth, versionWidth));
-    table.append("\n");
-
-    // Data rows
     for (SearchResult result : results) {
-      table.append(
-          formatRow(
-              result.getGroupId(),
-              result.getArtifactId(),
-              result.getLatestVersion(),
-              groupIdWidth,
-              artifactIdWidth,
-              versionWidth));
-      table.append("\n");
-    }
-
-    return table.toString().trim();
+      table.append('\n');
+      appendRow(table, result, widths);
+    }
+
+    return table.toString();
+  }
+
+  /**
+   * Write search results as a table directly to the output stream, without building the table in
+   * memory first.
+   */
+  public static void writeSearchResults(List<SearchResult> results, PrintStream out) {
+    if (results == null || results.isEmpty()) {
+      out.println("No dependencies found.");
+      return;
+    }
+
+    try (StreamingTableWriter writer = new StreamingTableWriter(out, results.size())) {
+      for (SearchResult result : results) {
+        writer.accept(result);
+      }
+    }
+  }
+
+  /**
+   * Writes search results as a table in a single pass. The column widths are estimated from the
+   * first rows of the stream; these rows are held back until the window is full or the writer is
+   * closed. Later rows are formatted as they are accepted and handed to the output stream in
+   * chunks, or earlier on {@link #flush()}. A later value that is wider than the estimate is
+   * written in full and shifts the rest of its row.
+   */
+  public static class StreamingTableWriter implements Consumer<SearchResult>, AutoCloseable {
+    private final PrintStream out;
+    private final int widthWindow;
+    private final List<SearchResult> pending;
+    private final ColumnWidths widths = new ColumnWidths();
+    private final StringBuilder chunk = new StringBuilder(WRITE_CHUNK_SIZE + 256);
+    private boolean headerWritten;
+    private int rowCount;
+
+    public StreamingTableWriter(PrintStream out) {
+      this(out, DEFAULT_WIDTH_WINDOW);
+    }
+
+    public StreamingTableWriter(PrintStream out, int widthWindow) {
+      if (widthWindow < 1) {
+        throw new IllegalArgumentException("Width window must be at least 1");
+      }
+      this.out = out;
+      this.widthWindow = widthWindow;
+      this.pending = new ArrayList<>(Math.min(widthWindow, DEFAULT_WIDTH_WINDOW));
+    }
+
+    @Override
+    public void accept(SearchResult result) {
+      rowCount++;
+
+      if (headerWritten) {
+        writeRow(result);
+        return;
+      }
+
+      pending.add(result);
+      widths.include(result);
+
+      if (pending.size() >= widthWindow) {
+        flushPending();
+      }
+    }
+
+    /** Number of rows accepted by the writer. */
+    public int getRowCount() {
+      return rowCount;
+    }
+
+    /** Write the rows that were formatted since the last chunk was written. */
+    public void flush() {
+      writeChunk();
+      out.flush();
+    }
+
+    /** Write the rows that are still held back for the width estimation. */
+    @Override
+    public void close() {
+      if (!headerWritten && !pending.isEmpty()) {
+        flushPending();
+      }
+      writeChunk();
+      out.flush();
+    }
+
+    private void flushPending() {
+      appendHeader(chunk, widths);
+      chunk.append('\n');
+      headerWritten = true;
+
+      for (SearchResult result : pending) {
+        writeRow(result);
+      }
+      pending.clear();
+      writeChunk();
+    }
+
+    private void writeRow(SearchResult result) {
+      appendRow(chunk, result, widths);
+      chunk.append('\n');
+
+      if (chunk.length() >= WRITE_CHUNK_SIZE) {
+        writeChunk();
+      }
+    }
+
+    /** Hand the collected rows to the output stream in one call. */
+    private void writeChunk() {
+      if (chunk.length() > 0) {
+        out.append(chunk);
+        chunk.setLength(0);
+      }
+    }
   }
 
-  /** Format a single row with proper column alignment. */
-  private static String formatRow(
+  /**
+   * Widths of the table columns, at least as wide as the column headers. The repository column is
+   * only shown when a result names its repository.
+   */
+  private static class ColumnWidths {
+    private int groupId = GROUP_ID_HEADER.length();
+    private int artifactId = ARTIFACT_ID_HEADER.length();
+    private int version = VERSION_HEADER.length();
+    private int repository = -1;
+
+    void include(SearchResult result) {
+      groupId = Math.max(groupId, result.getGroupId().length());
+      artifactId = Math.max(artifactId, result.getArtifactId().length());
+      version = Math.max(version, result.getLatestVersion().length());
+      if (result.getRepository() != null) {
+        repository =
+            Math.max(
+                Math.max(repository, REPOSITORY_HEADER.length()), result.getRepository().length());
+      }
+    }
+
+    boolean showRepository() {
+      return repository >= 0;
+    }
+  }
+
+  /** Append the header row and the separator row, separated by a newline. */
+  private static void appendHeader(StringBuilder table, ColumnWidths widths) {
+    appendRow(
+        table, GROUP_ID_HEADER, ARTIFACT_ID_HEADER, VERSION_HEADER, REPOSITORY_HEADER, widths);
+    table.append('\n');
+    table.append("| ");
+    appendRepeated(table, HEADER_SEPARATOR, widths.groupId);
+    table.append(COLUMN_SEPARATOR);
+    appendRepeated(table, HEADER_SEPARATOR, widths.artifactId);
+    table.append(COLUMN_SEPARATOR);
+    appendRepeated(table, HEADER_SEPARATOR, widths.version);
+    if (widths.showRepository()) {
+      table.append(COLUMN_SEPARATOR);
+      appendRepeated(table, HEADER_SEPARATOR, widths.repository);
+    }
+    table.append(" |");
+  }
+
+  /** Append the row of a search result. */
+  private static void appendRow(StringBuilder table, SearchResult result, ColumnWidths widths) {
+    appendRow(
+        table,
+        result.getGroupId(),
+        result.getArtifactId(),
+        result.getLatestVersion(),
+        result.getRepository() != null ? result.getRepository() : "",
+        widths);
+  }
+
+  /** Append a single row with proper column alignment. */
+  private static void appendRow(
+      StringBuilder table,
       String groupId,
       String artifactId,
       String version,
-      int groupIdWidth,
-      int artifactIdWidth,
-      int versionWidth) {
-    return String.format(
-        "| %-"
-            + groupIdWidth
-            + "s"
-            + COLUMN_SEPARATOR
-            + "%-"
-            + artifactIdWidth
-            + "s"
-            + COLUMN_SEPARATOR
-            + "%-"
-            + versionWidth
-            + "s |",
-        groupId,
-        artifactId,
-        version);
+      String repository,
+      ColumnWidths widths) {
+    table.append("| ");
+    appendPadded(table, groupId, widths.groupId);
+    table.append(COLUMN_SEPARATOR);
+    appendPadded(table, artifactId, widths.artifactId);
+    table.append(COLUMN_SEPARATOR);
+    appendPadded(table, version, widths.version);
+    if (widths.showRepository()) {
+      table.append(COLUMN_SEPARATOR);
+      appendPadded(table, repository, widths.repository);
+    }
+    table.append(" |");
   }
 
-  /** Format the separator row with dashes. */
-  private static String formatSeparatorRow(
-      int groupIdWidth, int artifactIdWidth, int versionWidth) {
-    return String.format(
-        "| %s" + COLUMN_SEPARATOR + "%s" + COLUMN_SEPARATOR + "%s |",
-        repeat(HEADER_SEPARATOR, groupIdWidth),
-        repeat(HEADER_SEPARATOR, artifactIdWidth),
-        repeat(HEADER_SEPARATOR, versionWidth));
+  /** Append a value, padded with spaces on the right up to the width. */
+  private static void appendPadded(StringBuilder table, String value, int width) {
+    table.append(value);
+    appendRepeated(table, ' ', width - value.length());
   }
 
-  /** Repeat a string n times. */
-  private static String repeat(String str, int times) {
-    return str.repeat(Math.max(0, times));
+  /** Append a character n times. */
+  private static void appendRepeated(StringBuilder table, char c, int times) {
+    for (int i = 0; i < times; i++) {
+      table.append(c);
+    }
   }
 }
@@ -0,0 +1,87 @@
+package nl.fizzylogic.maven.dependencymanager.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Switches the controlling terminal into character mode, so key presses are delivered without
+ * waiting for enter and without being echoed. Uses stty, which is available on Linux and macOS.
+ */
+public class TerminalMode implements AutoCloseable {
+
+  private static final File TTY = new File("/dev/tty");
+
+  private final String savedSettings;
+  private final Thread restoreHook;
+  private boolean restored;
+
+  private TerminalMode(String savedSettings) {
+    this.savedSettings = savedSettings;
+    this.restoreHook = new Thread(this::restore, "terminal-restore");
+    Runtime.getRuntime().addShutdownHook(restoreHook);
+  }
+
+  /** Whether the process is attached to a terminal that supports character mode. */
+  public static boolean isSupported() {
+    return System.console() != null && TTY.exists();
+  }
+
+  /**
+   * Enable character mode. The previous terminal settings are restored on close, and also when the
+   * process is interrupted with Ctrl-C.
+   *
+   * @throws IOException if the terminal settings cannot be changed
+   */
+  public static TerminalMode enableCharacterMode() throws IOException {
+    String savedSettings = stty("-g").trim();
+    stty("-icanon", "-echo", "min", "1");
+    return new TerminalMode(savedSettings);
+  }
+
+  @Override
+  public void close() {
+    restore();
+    try {
+      Runtime.getRuntime().removeShutdownHook(restoreHook);
+    } catch (IllegalStateException e) {
+      // The JVM is already shutting down and the hook restores the terminal
+    }
+  }
+
+  private synchronized void restore() {
+    if (restored) {
+      return;
+    }
+    restored = true;
+
+    try {
+      stty(savedSettings);
+    } catch (IOException e) {
+      // Nothing left to do; the user can run 'stty sane' to recover
+    }
+  }
+
+  private static String stty(String... arguments) throws IOException {
+    String[] command = new String[arguments.length + 1];
+    command[0] = "stty";
+    System.arraycopy(arguments, 0, command, 1, arguments.length);
+
+    Process process =
+        new ProcessBuilder(command)
+            .redirectInput(TTY)
+            .redirectError(ProcessBuilder.Redirect.INHERIT)
+            .start();
+
+    try {
+      String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+      if (process.waitFor() != 0) {
+        throw new IOException("stty exited with status " + process.exitValue());
+      }
+      return output;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while configuring the terminal", e);
+    }
+  }
+}
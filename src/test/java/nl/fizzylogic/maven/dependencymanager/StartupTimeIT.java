@@ -0,0 +1,116 @@
+package nl.fizzylogic.maven.dependencymanager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Measures the startup time of the native executable. Runs with the native profile, which builds
+ * the executable and points the native.image.path property at it.
+ */
+class StartupTimeIT {
+
+  private static final int WARMUP_RUNS = 3;
+  private static final int MEASURED_RUNS = 15;
+  private static final long MAX_MEDIAN_MILLIS = 20;
+
+  @TempDir Path home;
+
+  @Test
+  void testHelpStartsWithinBudget() throws Exception {
+    assertMedianStartup("--help");
+  }
+
+  @Test
+  void testSearchHelpStartsWithinBudget() throws Exception {
+    assertMedianStartup("search", "--help");
+  }
+
+  @Test
+  void testCachedSearchStartsWithinBudget() throws Exception {
+    String executable = executable();
+    String[] search = {"-Duser.home=" + home, "search", "org.apache.commons:commons-lang3"};
+
+    // Fill the search cache of an empty home directory with one real search
+    assumeTrue(
+        run(executable, search).exitCode() == 0, "search.maven.org is not reachable to prime");
+    Map<Path, Long> primed = cacheFiles();
+
+    assertMedianStartup(search);
+
+    // Every measured search was answered from the cache, so nothing was written to it
+    assertEquals(primed, cacheFiles());
+  }
+
+  private void assertMedianStartup(String... arguments) throws Exception {
+    String executable = executable();
+
+    for (int i = 0; i < WARMUP_RUNS; i++) {
+      run(executable, arguments);
+    }
+
+    List<Long> durations = new ArrayList<>();
+    for (int i = 0; i < MEASURED_RUNS; i++) {
+      Run run = run(executable, arguments);
+      assertEquals(0, run.exitCode(), Arrays.toString(arguments) + " failed");
+      durations.add(run.millis());
+    }
+    Collections.sort(durations);
+    long median = durations.get(durations.size() / 2);
+
+    assertTrue(
+        median <= MAX_MEDIAN_MILLIS,
+        Arrays.toString(arguments) + " took " + median + " ms (median of " + durations + ")");
+  }
+
+  private static String executable() {
+    String executable = System.getProperty("native.image.path");
+    assumeTrue(
+        executable != null && new File(executable).canExecute(), "Native executable not built");
+    return executable;
+  }
+
+  /** The size of every file in the search cache of the home directory. */
+  private Map<Path, Long> cacheFiles() throws IOException {
+    Map<Path, Long> sizes = new TreeMap<>();
+    try (Stream<Path> files = Files.walk(home.resolve(".m2/dependencymanager/search-cache"))) {
+      for (Path file : files.filter(Files::isRegularFile).toList()) {
+        sizes.put(file, Files.size(file));
+      }
+    }
+    return sizes;
+  }
+
+  /** Run the executable and return its exit code and the wall-clock time in milliseconds. */
+  private Run run(String executable, String... arguments) throws IOException, InterruptedException {
+    List<String> command = new ArrayList<>();
+    command.add(executable);
+    command.addAll(Arrays.asList(arguments));
+
+    long start = System.nanoTime();
+    Process process =
+        new ProcessBuilder(command)
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .redirectError(ProcessBuilder.Redirect.DISCARD)
+            .start();
+    int exitCode = process.waitFor();
+    return new Run(exitCode, (System.nanoTime() - start) / 1_000_000);
+  }
+
+  private record Run(int exitCode, long millis) {}
+}
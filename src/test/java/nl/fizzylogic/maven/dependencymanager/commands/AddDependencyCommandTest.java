@@ -2,10 +2,14 @@ package nl.fizzylogic.maven.dependencymanager.commands;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import nl.fizzylogic.maven.dependencymanager.model.DependencyCoordinates;
+import nl.fizzylogic.maven.dependencymanager.util.OutputFormat;
 
 class AddDependencyCommandTest {
 
@@ -117,4 +121,52 @@ class AddDependencyCommandTest {
         new DependencyCoordinates("org.springframework", "spring-core", null);
     assertEquals("org.springframework:spring-core", coordsWithoutVersion.toString());
   }
+
+  @Test
+  void testReportWritesJsonResult() {
+    command.outputFormat = OutputFormat.JSON;
+
+    String output =
+        captureOutput(
+            () -> command.report("added", "org.springframework", "spring-core", "6.1.0", null));
+
+    assertEquals(
+        "{\"status\":\"added\",\"groupId\":\"org.springframework\","
+            + "\"artifactId\":\"spring-core\",\"version\":\"6.1.0\",\"message\":null}",
+        output.trim());
+  }
+
+  @Test
+  void testReportWritesCsvResult() {
+    command.outputFormat = OutputFormat.CSV;
+
+    String output =
+        captureOutput(
+            () -> command.report("exists", "org.springframework", "spring-core", "6.1.0", null));
+
+    String[] lines = output.split("\\R");
+    assertEquals("status,groupId,artifactId,version,message", lines[0]);
+    assertEquals("exists,org.springframework,spring-core,6.1.0,", lines[1]);
+  }
+
+  @Test
+  void testReportIsSilentForTableOutput() {
+    String output =
+        captureOutput(
+            () -> command.report("added", "org.springframework", "spring-core", "6.1.0", null));
+
+    assertEquals("", output);
+  }
+
+  private String captureOutput(Runnable action) {
+    PrintStream originalOut = System.out;
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    System.setOut(new PrintStream(outputStream));
+    try {
+      action.run();
+    } finally {
+      System.setOut(originalOut);
+    }
+    return outputStream.toString();
+  }
 }
@@ -0,0 +1,118 @@
+package nl.fizzylogic.maven.dependencymanager.commands;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.apache.maven.model.Model;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import nl.fizzylogic.maven.dependencymanager.model.DependencyCoordinates;
+import nl.fizzylogic.maven.dependencymanager.services.ArtifactPrefetcher;
+import nl.fizzylogic.maven.dependencymanager.services.BomIndex;
+import nl.fizzylogic.maven.dependencymanager.services.ProjectModelEditor;
+
+class FetchDependenciesCommandTest {
+
+  private static final String POM =
+      """
+      <project>
+        <modelVersion>4.0.0</modelVersion>
+        <groupId>com.example</groupId>
+        <artifactId>app</artifactId>
+        <version>1.0</version>
+        <dependencyManagement>
+          <dependencies>
+            <dependency>
+              <groupId>io.quarkus.platform</groupId>
+              <artifactId>quarkus-bom</artifactId>
+              <version>3.25.0</version>
+              <type>pom</type>
+              <scope>import</scope>
+            </dependency>
+          </dependencies>
+        </dependencyManagement>
+        <dependencies>
+          <dependency>
+            <groupId>io.quarkus</groupId>
+            <artifactId>quarkus-arc</artifactId>
+          </dependency>
+          <dependency>
+            <groupId>org.example</groupId>
+            <artifactId>unmanaged</artifactId>
+          </dependency>
+        </dependencies>
+      </project>
+      """;
+
+  @TempDir Path project;
+
+  private FetchDependenciesCommand command;
+  private ByteArrayOutputStream output;
+  private ByteArrayOutputStream error;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    Files.writeString(project.resolve("pom.xml"), POM);
+
+    command = new FetchDependenciesCommand();
+    command.artifactPrefetcher = mock(ArtifactPrefetcher.class);
+    command.pomManipulation = new ProjectModelEditor();
+    command.bomIndex = mock(BomIndex.class);
+    when(command.artifactPrefetcher.prefetch(anyList(), anyInt()))
+        .thenReturn(new ArtifactPrefetcher.PrefetchResult());
+
+    output = new ByteArrayOutputStream();
+    error = new ByteArrayOutputStream();
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testDependenciesManagedByBomAreFetched() throws Exception {
+    DependencyCoordinates managed =
+        new DependencyCoordinates("io.quarkus", "quarkus-arc", "3.25.0");
+    BomIndex.EffectiveDependencies effective = mock(BomIndex.EffectiveDependencies.class);
+    when(effective.getResolved()).thenReturn(List.of(managed));
+    when(effective.getUnresolved()).thenReturn(List.of("org.example:unmanaged"));
+    ArgumentCaptor<Model> model = ArgumentCaptor.forClass(Model.class);
+    when(command.bomIndex.effectiveDependencies(eq(project.toFile()), model.capture()))
+        .thenReturn(effective);
+
+    boolean fetched =
+        command.fetchProject(project.toFile(), new PrintStream(output), new PrintStream(error));
+
+    // The versionless dependencies of the pom are resolved through the BOM, not dropped
+    assertEquals(2, model.getValue().getDependencies().size());
+    ArgumentCaptor<List<DependencyCoordinates>> dependencies = ArgumentCaptor.forClass(List.class);
+    verify(command.artifactPrefetcher).prefetch(dependencies.capture(), anyInt());
+    assertEquals(List.of(managed), dependencies.getValue());
+
+    assertFalse(fetched);
+    assertTrue(
+        error.toString().contains("Error: org.example:unmanaged has no resolvable version"),
+        error.toString());
+  }
+
+  @Test
+  void testProjectWithResolvedDependenciesIsFetched() throws Exception {
+    BomIndex.EffectiveDependencies effective = mock(BomIndex.EffectiveDependencies.class);
+    when(effective.getResolved())
+        .thenReturn(List.of(new DependencyCoordinates("io.quarkus", "quarkus-arc", "3.25.0")));
+    when(effective.getUnresolved()).thenReturn(List.of());
+    when(command.bomIndex.effectiveDependencies(any(), any())).thenReturn(effective);
+
+    assertTrue(
+        command.fetchProject(project.toFile(), new PrintStream(output), new PrintStream(error)));
+    assertTrue(output.toString().contains("Fetching 1 dependencies..."));
+    assertEquals("", error.toString());
+  }
+}
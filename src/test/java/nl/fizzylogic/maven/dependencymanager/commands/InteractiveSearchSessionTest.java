@@ -0,0 +1,143 @@
+package nl.fizzylogic.maven.dependencymanager.commands;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+import nl.fizzylogic.maven.dependencymanager.services.FederatedSearch;
+
+@ExtendWith(MockitoExtension.class)
+class InteractiveSearchSessionTest {
+
+  @Mock private FederatedSearch searchService;
+
+  private ByteArrayOutputStream screen;
+  private InteractiveSearchSession session;
+
+  @BeforeEach
+  void setUp() {
+    screen = new ByteArrayOutputStream();
+    session =
+        new InteractiveSearchSession(
+            searchService, new PrintStream(screen, true, StandardCharsets.UTF_8), Duration.ZERO);
+  }
+
+  @AfterEach
+  void tearDown() {
+    session.close();
+  }
+
+  @Test
+  void testTypingSearchesAfterDebounce() {
+    List<SearchResult> results = List.of(new SearchResult("org.junit", "junit-bom", "5.10.0"));
+    when(searchService.searchAsync("ju")).thenReturn(CompletableFuture.completedFuture(results));
+
+    type("ju");
+
+    verify(searchService, timeout(1000)).searchAsync("ju");
+    awaitResults(results);
+    assertTrue(screen.toString(StandardCharsets.UTF_8).contains("> org.junit:junit-bom:5.10.0"));
+  }
+
+  @Test
+  void testShortQueryDoesNotSearch() {
+    type("j");
+
+    assertTrue(session.getResults().isEmpty());
+    verify(searchService, never()).searchAsync(anyString());
+  }
+
+  @Test
+  void testNewQueryCancelsSearchInFlight() {
+    CompletableFuture<List<SearchResult>> slowSearch = new CompletableFuture<>();
+    when(searchService.searchAsync("ju")).thenReturn(slowSearch);
+    when(searchService.searchAsync("jun")).thenReturn(CompletableFuture.completedFuture(List.of()));
+
+    type("ju");
+    verify(searchService, timeout(1000)).searchAsync("ju");
+    type("n");
+    verify(searchService, timeout(1000)).searchAsync("jun");
+
+    assertTrue(slowSearch.isCancelled());
+  }
+
+  @Test
+  void testEarlierQueryIsServedFromCache() {
+    List<SearchResult> results = List.of(new SearchResult("org.junit", "junit-bom", "5.10.0"));
+    when(searchService.searchAsync("ju")).thenReturn(CompletableFuture.completedFuture(results));
+    when(searchService.searchAsync("jux")).thenReturn(CompletableFuture.completedFuture(List.of()));
+
+    type("ju");
+    awaitResults(results);
+    type("x");
+    verify(searchService, timeout(1000)).searchAsync("jux");
+    awaitResults(List.of());
+
+    session.onKey(0x7f);
+
+    assertEquals(results, session.getResults());
+    verify(searchService, times(1)).searchAsync("ju");
+  }
+
+  @Test
+  void testArrowKeysAndEnterSelectResult() throws IOException {
+    SearchResult first = new SearchResult("org.junit", "junit-bom", "5.10.0");
+    SearchResult second = new SearchResult("junit", "junit", "4.13.2");
+    when(searchService.searchAsync("junit"))
+        .thenReturn(CompletableFuture.completedFuture(List.of(first, second)));
+
+    type("junit");
+    awaitResults(List.of(first, second));
+
+    byte[] keys = {0x1b, '[', 'B', '\r'};
+    SearchResult selection = session.run(null, new ByteArrayInputStream(keys));
+
+    assertEquals(second, selection);
+  }
+
+  @Test
+  void testEndOfTransmissionCancelsSession() throws IOException {
+    SearchResult selection = session.run(null, new ByteArrayInputStream(new byte[] {'a', 0x04}));
+
+    assertNull(selection);
+    assertFalse(session.getQuery().isEmpty());
+  }
+
+  private void type(String text) {
+    for (char c : text.toCharArray()) {
+      session.onKey(c);
+    }
+  }
+
+  private void awaitResults(List<SearchResult> expected) {
+    long deadline = System.nanoTime() + Duration.ofSeconds(1).toNanos();
+    while (!expected.equals(session.getResults()) && System.nanoTime() < deadline) {
+      Thread.onSpinWait();
+    }
+    assertEquals(expected, session.getResults());
+  }
+}
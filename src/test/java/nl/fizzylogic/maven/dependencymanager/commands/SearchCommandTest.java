@@ -6,6 +6,9 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -17,6 +20,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -27,7 +31,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
-import nl.fizzylogic.maven.dependencymanager.services.MavenRepositorySearch;
+import nl.fizzylogic.maven.dependencymanager.services.FederatedSearch;
+import nl.fizzylogic.maven.dependencymanager.util.OutputFormat;
 
 /**
  * Unit tests for SearchCommand.
@@ -38,7 +43,7 @@ import nl.fizzylogic.maven.dependencymanager.services.MavenRepositorySearch;
 @ExtendWith(MockitoExtension.class)
 class SearchCommandTest {
 
-  @Mock private MavenRepositorySearch searchService;
+  @Mock private FederatedSearch searchService;
 
   @InjectMocks private SearchDependencyCommand searchCommand;
 
@@ -304,6 +309,80 @@ class SearchCommandTest {
     assertTrue(output.contains("Searching for: " + unicodeQuery));
   }
 
+  @Test
+  void testSearchWithNdjsonOutput() throws Exception {
+    // Given
+    searchCommand.query = "spring-boot";
+    searchCommand.outputFormat = OutputFormat.NDJSON;
+    streamResults(
+        "spring-boot",
+        new SearchResult("org.springframework.boot", "spring-boot-starter", "3.2.0", "central"),
+        new SearchResult(
+            "org.springframework.boot", "spring-boot-autoconfigure", "3.2.0", "central"));
+
+    // When
+    searchCommand.executeSearch();
+
+    // Then
+    String[] lines = outputStream.toString().split("\\R");
+    assertEquals(2, lines.length);
+    assertEquals(
+        "{\"groupId\":\"org.springframework.boot\",\"artifactId\":\"spring-boot-starter\","
+            + "\"latestVersion\":\"3.2.0\",\"repository\":\"central\"}",
+        lines[0]);
+    assertFalse(outputStream.toString().contains("Searching for"));
+  }
+
+  @Test
+  void testSearchWithJsonOutput() throws Exception {
+    // Given
+    searchCommand.query = "spring-boot";
+    searchCommand.outputFormat = OutputFormat.JSON;
+    streamResults(
+        "spring-boot", new SearchResult("org.springframework.boot", "spring-boot", "3.2.0"));
+
+    // When
+    searchCommand.executeSearch();
+
+    // Then
+    String output = outputStream.toString().trim();
+    assertTrue(output.startsWith("["));
+    assertTrue(output.endsWith("]"));
+    assertTrue(output.contains("\"artifactId\":\"spring-boot\""));
+  }
+
+  @Test
+  void testSearchWithCsvOutput() throws Exception {
+    // Given
+    searchCommand.query = "spring-boot";
+    searchCommand.outputFormat = OutputFormat.CSV;
+    streamResults(
+        "spring-boot",
+        new SearchResult("org.springframework.boot", "spring-boot", "3.2.0", "central"));
+
+    // When
+    searchCommand.executeSearch();
+
+    // Then
+    String[] lines = outputStream.toString().split("\\R");
+    assertEquals("groupId,artifactId,latestVersion,repository", lines[0]);
+    assertEquals("org.springframework.boot,spring-boot,3.2.0,central", lines[1]);
+  }
+
+  @SuppressWarnings("unchecked")
+  private void streamResults(String query, SearchResult... results) throws Exception {
+    doAnswer(
+            invocation -> {
+              Consumer<SearchResult> consumer = invocation.getArgument(1);
+              for (SearchResult result : results) {
+                consumer.accept(result);
+              }
+              return null;
+            })
+        .when(searchService)
+        .execute(eq(query), any(Consumer.class));
+  }
+
   @Test
   void testSearchCommandAnnotations() {
     // Test that the command has proper annotations configured
@@ -0,0 +1,65 @@
+package nl.fizzylogic.maven.dependencymanager.commands;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import nl.fizzylogic.maven.dependencymanager.model.DependencyCoordinates;
+
+class WarmCacheCommandTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void testCoordinatesFileIsRead() throws Exception {
+    Path file = directory.resolve("dependencies.txt");
+    Files.writeString(
+        file,
+        """
+        # The dependencies of the build
+
+        org.example:lib:1.0
+          org.example:other
+        """);
+
+    assertEquals(
+        List.of(
+            new DependencyCoordinates("org.example", "lib", "1.0"),
+            new DependencyCoordinates("org.example", "other", null)),
+        new WarmCacheCommand().readCoordinatesFile(file));
+  }
+
+  @Test
+  void testLockFileIsRead() throws Exception {
+    Path file = directory.resolve("dependencies.lock");
+    Files.writeString(
+        file,
+        """
+        # Locked dependencies of this module, written by the lock command. Do not edit.
+        dependency org.example:lib:1.0
+        dependency org.example:other:2.0
+        artifact org.example:lib:1.0:jar 5f1d1c2e
+        artifact org.example:transitive:3.0:jar 0a9b8c7d
+        """);
+
+    assertEquals(
+        List.of(
+            new DependencyCoordinates("org.example", "lib", "1.0"),
+            new DependencyCoordinates("org.example", "other", "2.0")),
+        new WarmCacheCommand().readCoordinatesFile(file));
+  }
+
+  @Test
+  void testUnreadableLineIsRejected() throws Exception {
+    Path file = directory.resolve("dependencies.txt");
+    Files.writeString(file, "org.example:lib:1.0 org.example:other:2.0\n");
+
+    assertThrows(
+        IllegalArgumentException.class, () -> new WarmCacheCommand().readCoordinatesFile(file));
+  }
+}
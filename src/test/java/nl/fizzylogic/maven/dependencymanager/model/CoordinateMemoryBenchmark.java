@@ -0,0 +1,102 @@
+package nl.fizzylogic.maven.dependencymanager.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares search results that hold their own groupId and artifactId strings with the interned
+ * model, for a million coordinates as they come out of a parser: every value a fresh string. The
+ * main method first prints the heap that each representation retains, then runs the benchmarks of
+ * building the results.
+ *
+ * <p>Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=nl.fizzylogic.maven.dependencymanager.model.CoordinateMemoryBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CoordinateMemoryBenchmark {
+
+  static final int COORDINATES = 1_000_000;
+
+  @Benchmark
+  public List<PlainSearchResult> createPlain() {
+    return createPlainResults();
+  }
+
+  @Benchmark
+  public List<SearchResult> createInterned() {
+    return createInternedResults();
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    long baseline = retainedHeap();
+    List<PlainSearchResult> plain = createPlainResults();
+    System.out.printf("Plain strings:    %,d bytes%n", retainedHeap() - baseline);
+    plain.clear();
+
+    baseline = retainedHeap();
+    List<SearchResult> interned = createInternedResults();
+    System.out.printf("Interned symbols: %,d bytes%n", retainedHeap() - baseline);
+    interned.clear();
+
+    new Runner(
+            new OptionsBuilder().include(CoordinateMemoryBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+
+  private static List<PlainSearchResult> createPlainResults() {
+    List<PlainSearchResult> results = new ArrayList<>(COORDINATES);
+    for (int i = 0; i < COORDINATES; i++) {
+      results.add(
+          new PlainSearchResult(groupId(i), artifactId(i), "1." + (i % 10) + "." + (i % 100)));
+    }
+    return results;
+  }
+
+  private static List<SearchResult> createInternedResults() {
+    List<SearchResult> results = new ArrayList<>(COORDINATES);
+    for (int i = 0; i < COORDINATES; i++) {
+      results.add(new SearchResult(groupId(i), artifactId(i), "1." + (i % 10) + "." + (i % 100)));
+    }
+    return results;
+  }
+
+  /** A few hundred groups, as in a real index where most artifacts share a handful of groupIds. */
+  private static String groupId(int i) {
+    return new String("org.apache.commons.group" + (i % 500));
+  }
+
+  /** Ten versions of every artifact. */
+  private static String artifactId(int i) {
+    return new String("commons-artifact-" + (i / 10));
+  }
+
+  private static long retainedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+
+  /** The search result as it was before interning, kept as the baseline. */
+  record PlainSearchResult(String groupId, String artifactId, String latestVersion) {}
+}
@@ -0,0 +1,44 @@
+package nl.fizzylogic.maven.dependencymanager.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class DependencyCoordinatesTest {
+
+  @Test
+  void testCoordinatesCanBeUsedAsKeys() {
+    Map<DependencyCoordinates, String> versions =
+        Map.of(new DependencyCoordinates("org.example", "lib", null), "1.0");
+
+    assertEquals("1.0", versions.get(new DependencyCoordinates("org.example", "lib", null)));
+    assertNull(versions.get(new DependencyCoordinates("org.example", "lib", "1.0")));
+  }
+
+  @Test
+  void testParse() {
+    assertEquals(
+        new DependencyCoordinates("org.example", "lib", "1.0"),
+        DependencyCoordinates.parse(" org.example : lib : 1.0 "));
+    assertEquals(
+        new DependencyCoordinates("org.example", "lib", null),
+        DependencyCoordinates.parse("org.example:lib"));
+    assertThrows(IllegalArgumentException.class, () -> DependencyCoordinates.parse("org.example"));
+    assertThrows(
+        IllegalArgumentException.class, () -> DependencyCoordinates.parse("org.example:lib:"));
+  }
+
+  @Test
+  void testParseRejectsWhitespaceWithinField() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> DependencyCoordinates.parse("dependency org.example:lib:1.0"));
+    assertThrows(
+        IllegalArgumentException.class, () -> DependencyCoordinates.parse("org.example:my lib"));
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> DependencyCoordinates.parse("org.example:lib:1.0 sha256"));
+  }
+}
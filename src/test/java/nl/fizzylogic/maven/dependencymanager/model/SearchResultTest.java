@@ -2,6 +2,8 @@ package nl.fizzylogic.maven.dependencymanager.model;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.Set;
+
 import org.junit.jupiter.api.Test;
 
 class SearchResultTest {
@@ -39,4 +41,16 @@ class SearchResultTest {
     assertTrue(str.contains("6.0.0"));
     assertTrue(str.contains("SearchResult"));
   }
+
+  @Test
+  void testEqualResultsAreDeduplicated() {
+    SearchResult result = new SearchResult("org.springframework", "spring-core", "6.0.0");
+    SearchResult same = new SearchResult("org.springframework", "spring-core", "6.0.0");
+    SearchResult otherRepository = same.withRepository("central");
+
+    assertEquals(result, same);
+    assertEquals(result.hashCode(), same.hashCode());
+    assertNotEquals(result, otherRepository);
+    assertEquals(2, Set.of(result, otherRepository).size());
+  }
 }
@@ -0,0 +1,92 @@
+package nl.fizzylogic.maven.dependencymanager.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+class SymbolTableTest {
+
+  @Test
+  void testEqualStringsAreShared() {
+    SymbolTable table = new SymbolTable(100);
+
+    String first = table.intern(new String("org.apache.commons"));
+    String second = table.intern(new String("org.apache.commons"));
+
+    assertSame(first, second);
+    assertEquals("org.apache.maven", table.intern("org.apache.maven"));
+    assertEquals(2, table.size());
+  }
+
+  @Test
+  void testTableStaysWithinItsCapacity() {
+    SymbolTable table = new SymbolTable(100);
+
+    for (int i = 0; i < 10_000; i++) {
+      assertEquals("group" + i, table.intern(new String("group" + i)));
+      assertTrue(table.size() <= 100);
+    }
+  }
+
+  @Test
+  void testNullIsNotStored() {
+    SymbolTable table = new SymbolTable(100);
+
+    assertNull(table.intern(null));
+    assertEquals(0, table.size());
+  }
+
+  @Test
+  void testConcurrentInterningAgreesOnStrings() {
+    SymbolTable table = new SymbolTable(10_000);
+    List<CompletableFuture<String[]>> workers = new ArrayList<>();
+
+    for (int worker = 0; worker < 4; worker++) {
+      workers.add(
+          CompletableFuture.supplyAsync(
+              () -> {
+                String[] symbols = new String[5_000];
+                for (int i = 0; i < symbols.length; i++) {
+                  symbols[i] = table.intern(new String("artifact" + i));
+                }
+                return symbols;
+              }));
+    }
+
+    String[] expected = workers.get(0).join();
+    for (CompletableFuture<String[]> worker : workers) {
+      String[] symbols = worker.join();
+      for (int i = 0; i < expected.length; i++) {
+        assertSame(expected[i], symbols[i]);
+      }
+    }
+    assertEquals(5_000, table.size());
+  }
+
+  @Test
+  void testModelsShareInternedStrings() {
+    SearchResult first = new SearchResult(new String("org.example"), new String("lib"), "1.0");
+    ResolvedDependency second =
+        new ResolvedDependency(new String("org.example"), new String("lib"), "2.0");
+
+    assertSame(first.getGroupId(), second.getGroupId());
+    assertSame(first.getArtifactId(), second.getArtifactId());
+  }
+
+  @Test
+  void testEqualityDoesNotDependOnInterning() {
+    DependencyCoordinates interned = new DependencyCoordinates("org.example", "lib", "1.0");
+    DependencyCoordinates other =
+        new DependencyCoordinates(new String("org.example"), new String("lib"), "1.0");
+
+    assertEquals(interned, other);
+    assertEquals(interned.hashCode(), other.hashCode());
+    assertEquals(
+        31 * (31 * "org.example".hashCode() + "lib".hashCode()) + "1.0".hashCode(),
+        interned.hashCode());
+  }
+}
@@ -0,0 +1,235 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.sun.net.httpserver.HttpServer;
+
+import nl.fizzylogic.maven.dependencymanager.model.DependencyCoordinates;
+import nl.fizzylogic.maven.dependencymanager.model.MavenRepository;
+
+class ArtifactPrefetcherTest {
+
+  @Mock private MavenConfiguration repositoryService;
+
+  private ArtifactPrefetcher prefetcher;
+  private HttpServer server;
+  private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+  private final List<String> requests = new CopyOnWriteArrayList<>();
+
+  @TempDir Path localRepository;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    MockitoAnnotations.openMocks(this);
+
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/repo/",
+        exchange -> {
+          String path = exchange.getRequestURI().getPath().substring("/repo/".length());
+          requests.add(path);
+          byte[] content = files.get(path);
+          exchange.sendResponseHeaders(content != null ? 200 : 404, content != null ? 0 : -1);
+          if (content != null) {
+            try (OutputStream body = exchange.getResponseBody()) {
+              body.write(content);
+            }
+          }
+          exchange.close();
+        });
+    server.start();
+
+    when(repositoryService.getRepositories())
+        .thenReturn(
+            List.of(
+                new MavenRepository(
+                    "test", "http://localhost:" + server.getAddress().getPort() + "/repo")));
+
+    prefetcher = new ArtifactPrefetcher();
+    prefetcher.repositoryService = repositoryService;
+    prefetcher.routing = new HttpRouting();
+    prefetcher.routing.repositoryService = repositoryService;
+    prefetcher.localRepository = localRepository;
+
+    publish(
+        "com/example/parent/1.0/parent-1.0.pom",
+        """
+            <project>
+                <modelVersion>4.0.0</modelVersion>
+                <groupId>com.example</groupId>
+                <artifactId>parent</artifactId>
+                <version>1.0</version>
+                <packaging>pom</packaging>
+                <properties>
+                    <lib.version>2.0</lib.version>
+                </properties>
+                <dependencyManagement>
+                    <dependencies>
+                        <dependency>
+                            <groupId>com.example</groupId>
+                            <artifactId>lib</artifactId>
+                            <version>${lib.version}</version>
+                        </dependency>
+                    </dependencies>
+                </dependencyManagement>
+            </project>
+            """);
+    publish(
+        "com/example/app/1.0/app-1.0.pom",
+        """
+            <project>
+                <modelVersion>4.0.0</modelVersion>
+                <parent>
+                    <groupId>com.example</groupId>
+                    <artifactId>parent</artifactId>
+                    <version>1.0</version>
+                </parent>
+                <artifactId>app</artifactId>
+                <dependencies>
+                    <dependency>
+                        <groupId>com.example</groupId>
+                        <artifactId>lib</artifactId>
+                    </dependency>
+                    <dependency>
+                        <groupId>com.example</groupId>
+                        <artifactId>test-only</artifactId>
+                        <version>1.0</version>
+                        <scope>test</scope>
+                    </dependency>
+                    <dependency>
+                        <groupId>com.example</groupId>
+                        <artifactId>optional</artifactId>
+                        <version>1.0</version>
+                        <optional>true</optional>
+                    </dependency>
+                </dependencies>
+            </project>
+            """);
+    publish("com/example/app/1.0/app-1.0.jar", "app");
+    publish(
+        "com/example/lib/2.0/lib-2.0.pom",
+        """
+            <project>
+                <modelVersion>4.0.0</modelVersion>
+                <groupId>com.example</groupId>
+                <artifactId>lib</artifactId>
+                <version>2.0</version>
+            </project>
+            """);
+    publish("com/example/lib/2.0/lib-2.0.jar", "lib");
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  void testPrefetchDownloadsTransitiveDependencies() throws Exception {
+    ArtifactPrefetcher.PrefetchResult result =
+        prefetcher.prefetch(List.of(new DependencyCoordinates("com.example", "app", "1.0")), 2);
+
+    assertTrue(result.getFailures().isEmpty(), result.getFailures().toString());
+    assertEquals(5, result.getDownloadedCount());
+    assertTrue(Files.isRegularFile(localRepository.resolve("com/example/lib/2.0/lib-2.0.jar")));
+    assertArrayEquals(
+        files.get("com/example/lib/2.0/lib-2.0.jar"),
+        Files.readAllBytes(localRepository.resolve("com/example/lib/2.0/lib-2.0.jar")));
+    assertTrue(
+        Files.isRegularFile(localRepository.resolve("com/example/lib/2.0/lib-2.0.jar.sha1")));
+    assertTrue(
+        Files.isRegularFile(localRepository.resolve("com/example/parent/1.0/parent-1.0.pom")));
+    assertFalse(requests.stream().anyMatch(path -> path.contains("test-only")));
+    assertFalse(requests.stream().anyMatch(path -> path.contains("optional")));
+    assertEquals(
+        Map.of(
+            "com.example:app:1.0:jar",
+            localRepository.resolve("com/example/app/1.0/app-1.0.jar"),
+            "com.example:lib:2.0:jar",
+            localRepository.resolve("com/example/lib/2.0/lib-2.0.jar")),
+        result.getArtifacts());
+  }
+
+  @Test
+  void testPrefetchSkipsFilesAlreadyPresent() {
+    prefetcher.prefetch(List.of(new DependencyCoordinates("com.example", "app", "1.0")), 2);
+    requests.clear();
+
+    ArtifactPrefetcher.PrefetchResult result =
+        prefetcher.prefetch(List.of(new DependencyCoordinates("com.example", "app", "1.0")), 2);
+
+    assertEquals(0, result.getDownloadedCount());
+    assertEquals(5, result.getPresentCount());
+    assertTrue(requests.isEmpty());
+  }
+
+  @Test
+  void testPrefetchRejectsChecksumMismatch() throws Exception {
+    files.put("com/example/lib/2.0/lib-2.0.jar", "tampered".getBytes(StandardCharsets.UTF_8));
+
+    ArtifactPrefetcher.PrefetchResult result =
+        prefetcher.prefetch(List.of(new DependencyCoordinates("com.example", "app", "1.0")), 2);
+
+    assertEquals(1, result.getFailures().size());
+    assertTrue(result.getFailures().get(0).contains("Checksum mismatch"));
+    assertFalse(Files.exists(localRepository.resolve("com/example/lib/2.0/lib-2.0.jar")));
+    // The streamed content is discarded with its temporary file
+    try (Stream<Path> left = Files.list(localRepository.resolve("com/example/lib/2.0"))) {
+      assertEquals(List.of(), left.filter(file -> file.toString().endsWith(".tmp")).toList());
+    }
+  }
+
+  @Test
+  void testPrefetchReportsMissingArtifact() {
+    ArtifactPrefetcher.PrefetchResult result =
+        prefetcher.prefetch(List.of(new DependencyCoordinates("com.example", "missing", "1.0")), 2);
+
+    assertEquals(1, result.getFailures().size());
+    assertTrue(result.getFailures().get(0).startsWith("com.example:missing:1.0"));
+  }
+
+  @Test
+  void testManagedVersionsOfBom() throws Exception {
+    assertEquals(
+        Map.of("com.example:lib", "2.0"),
+        prefetcher.managedVersions(new DependencyCoordinates("com.example", "parent", "1.0")));
+    assertTrue(
+        Files.isRegularFile(localRepository.resolve("com/example/parent/1.0/parent-1.0.pom")));
+  }
+
+  @Test
+  void testPrefetchRejectsInvalidConnectionLimit() {
+    assertThrows(IllegalArgumentException.class, () -> prefetcher.prefetch(List.of(), 0));
+  }
+
+  private void publish(String path, String content) throws Exception {
+    byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+    files.put(path, bytes);
+    files.put(
+        path + ".sha1",
+        HexFormat.of()
+            .formatHex(MessageDigest.getInstance("SHA-1").digest(bytes))
+            .getBytes(StandardCharsets.US_ASCII));
+  }
+}
@@ -0,0 +1,68 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BloomFilterTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void testAddedValuesAreAlwaysFound() {
+    BloomFilter filter = BloomFilter.create(10_000, 0.01);
+
+    for (int i = 0; i < 10_000; i++) {
+      filter.put("org.example:artifact-" + i + ":1.0");
+    }
+
+    for (int i = 0; i < 10_000; i++) {
+      assertTrue(filter.mightContain("org.example:artifact-" + i + ":1.0"));
+    }
+  }
+
+  @Test
+  void testFalsePositiveRateMatchesSizing() {
+    BloomFilter filter = BloomFilter.create(10_000, 0.01);
+    for (int i = 0; i < 10_000; i++) {
+      filter.put("org.example:artifact-" + i + ":1.0");
+    }
+
+    int falsePositives = 0;
+    for (int i = 0; i < 100_000; i++) {
+      if (filter.mightContain("org.example:missing-" + i + ":1.0")) {
+        falsePositives++;
+      }
+    }
+
+    assertTrue(falsePositives < 2_000, "False positives: " + falsePositives);
+    assertTrue(filter.sizeInBytes() < 16_000, "Size: " + filter.sizeInBytes());
+  }
+
+  @Test
+  void testMappedFilterAnswersLikeTheOriginal() throws Exception {
+    BloomFilter filter = BloomFilter.create(100, 0.01);
+    filter.put("org.example:lib:1.0");
+    Path file = directory.resolve("filter.bloom");
+    filter.writeTo(file);
+
+    BloomFilter mapped = BloomFilter.map(file);
+
+    assertTrue(mapped.mightContain("org.example:lib:1.0"));
+    assertFalse(mapped.mightContain("org.example:lib:2.0"));
+    assertEquals(Files.size(file), mapped.sizeInBytes());
+  }
+
+  @Test
+  void testMapRejectsOtherFiles() throws Exception {
+    Path file = directory.resolve("other");
+    Files.writeString(file, "this is not a bloom filter at all");
+
+    assertThrows(IOException.class, () -> BloomFilter.map(file));
+  }
+}
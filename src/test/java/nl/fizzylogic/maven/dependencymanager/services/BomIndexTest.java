@@ -0,0 +1,159 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.DependencyManagement;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import nl.fizzylogic.maven.dependencymanager.model.DependencyCoordinates;
+
+class BomIndexTest {
+
+  private static final DependencyCoordinates BOM =
+      new DependencyCoordinates("io.quarkus.platform", "quarkus-bom", "3.25.0");
+
+  @Mock private ArtifactPrefetcher artifactPrefetcher;
+
+  @TempDir Path cacheDirectory;
+
+  @TempDir Path project;
+
+  private BomIndex bomIndex;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    MockitoAnnotations.openMocks(this);
+    bomIndex = index();
+    when(artifactPrefetcher.managedVersions(BOM))
+        .thenReturn(Map.of("io.quarkus:quarkus-arc", "3.25.0", "org.example:lib", "1.0"));
+  }
+
+  @Test
+  void testManagedVersionFromImportedBom() throws IOException {
+    Model model = model(bom("${quarkus.platform.version}"));
+    model.addProperty("quarkus.platform.version", "3.25.0");
+
+    assertEquals(
+        Optional.of("3.25.0"),
+        bomIndex.managedVersion(project.toFile(), model, "io.quarkus", "quarkus-arc"));
+    assertEquals(
+        Optional.empty(),
+        bomIndex.managedVersion(project.toFile(), model, "io.quarkus", "unmanaged"));
+    verify(artifactPrefetcher, times(1)).managedVersions(BOM);
+  }
+
+  @Test
+  void testProjectManagementTakesPrecedence() throws IOException {
+    Dependency managed = new Dependency();
+    managed.setGroupId("org.example");
+    managed.setArtifactId("lib");
+    managed.setVersion("2.0");
+
+    Model model = model(bom("3.25.0"), managed);
+
+    assertEquals(
+        Optional.of("2.0"), bomIndex.managedVersion(project.toFile(), model, "org.example", "lib"));
+  }
+
+  @Test
+  void testIndexIsReadFromDiskInLaterRuns() throws IOException {
+    Model model = model(bom("3.25.0"));
+    bomIndex.managedVersion(project.toFile(), model, "io.quarkus", "quarkus-arc");
+
+    assertEquals(
+        Optional.of("1.0"), index().managedVersion(project.toFile(), model, "org.example", "lib"));
+    verify(artifactPrefetcher, times(1)).managedVersions(BOM);
+  }
+
+  @Test
+  void testModelWithoutManagementIsNotManaged() throws IOException {
+    assertEquals(
+        Optional.empty(),
+        bomIndex.managedVersion(project.toFile(), new Model(), "io.quarkus", "quarkus-arc"));
+    verifyNoInteractions(artifactPrefetcher);
+  }
+
+  @Test
+  void testVersionsAreInheritedFromRemoteParent() throws IOException {
+    DependencyCoordinates parent = new DependencyCoordinates("com.example", "parent", "1.0");
+    Properties parentProperties = new Properties();
+    parentProperties.setProperty("lib.version", "3.0");
+    when(artifactPrefetcher.projectProperties(parent)).thenReturn(parentProperties);
+    when(artifactPrefetcher.managedVersions(parent)).thenReturn(Map.of("org.example:lib", "3.0"));
+
+    Model model = model(bom("3.25.0"));
+    model.setParent(parent(parent));
+    model.addDependency(dependency("org.example", "lib", null));
+    model.addDependency(dependency("org.example", "other", "${lib.version}"));
+    model.addDependency(dependency("org.example", "unmanaged", null));
+
+    BomIndex.EffectiveDependencies dependencies =
+        bomIndex.effectiveDependencies(project.toFile(), model);
+
+    assertEquals(
+        List.of(
+            new DependencyCoordinates("org.example", "lib", "3.0"),
+            new DependencyCoordinates("org.example", "other", "3.0")),
+        dependencies.getResolved());
+    assertEquals(List.of("org.example:unmanaged"), dependencies.getUnresolved());
+  }
+
+  private static Parent parent(DependencyCoordinates coordinates) {
+    Parent parent = new Parent();
+    parent.setGroupId(coordinates.getGroupId());
+    parent.setArtifactId(coordinates.getArtifactId());
+    parent.setVersion(coordinates.getVersion());
+    return parent;
+  }
+
+  private static Dependency dependency(String groupId, String artifactId, String version) {
+    Dependency dependency = new Dependency();
+    dependency.setGroupId(groupId);
+    dependency.setArtifactId(artifactId);
+    dependency.setVersion(version);
+    return dependency;
+  }
+
+  private BomIndex index() {
+    BomIndex index = new BomIndex(cacheDirectory);
+    index.artifactPrefetcher = artifactPrefetcher;
+    index.pomManipulation = new ProjectModelEditor();
+    return index;
+  }
+
+  private static Dependency bom(String version) {
+    Dependency bom = new Dependency();
+    bom.setGroupId("io.quarkus.platform");
+    bom.setArtifactId("quarkus-bom");
+    bom.setVersion(version);
+    bom.setType("pom");
+    bom.setScope("import");
+    return bom;
+  }
+
+  private static Model model(Dependency... managed) {
+    DependencyManagement management = new DependencyManagement();
+    for (Dependency dependency : managed) {
+      management.addDependency(dependency);
+    }
+
+    Model model = new Model();
+    model.setDependencyManagement(management);
+    return model;
+  }
+}
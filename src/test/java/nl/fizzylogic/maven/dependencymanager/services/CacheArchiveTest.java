@@ -0,0 +1,127 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+
+class CacheArchiveTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void testExportAndImportIntoEmptyCaches() throws IOException {
+    CacheArchive source = archive(directory.resolve("source"), Duration.ofHours(1));
+    source.searchCache.put(
+        "https://example.org/search?q=g:a", List.of(new SearchResult("g", "a", "1.0", "central")));
+    source.metadataCache.record("g", "a", List.of("1.0", "1.1"));
+
+    Path file = directory.resolve("cache.gz");
+    CacheArchive.ArchiveResult exported = source.exportTo(file);
+
+    assertEquals(1, exported.getSearchEntries());
+    assertEquals(1, exported.getMetadataEntries());
+
+    CacheArchive target = archive(directory.resolve("target"), Duration.ofHours(1));
+    CacheArchive.ArchiveResult imported = target.importFrom(file);
+
+    assertEquals(1, imported.getSearchEntries());
+    assertEquals(1, imported.getMetadataEntries());
+    assertEquals(
+        Optional.of(List.of(new SearchResult("g", "a", "1.0", "central"))),
+        target.searchCache.get("https://example.org/search?q=g:a"));
+    assertEquals(Optional.of(List.of("1.0", "1.1")), target.metadataCache.versions("g", "a"));
+  }
+
+  @Test
+  void testImportMergesWithExistingEntries() throws IOException {
+    CacheArchive source = archive(directory.resolve("source"), Duration.ofMinutes(1));
+    source.searchCache.put("key", List.of(new SearchResult("g", "a", "1.0")));
+    source.metadataCache.record("g", "a", List.of("1.0", "1.1"));
+
+    Path file = directory.resolve("cache.gz");
+    source.exportTo(file);
+
+    CacheArchive target = archive(directory.resolve("target"), Duration.ofHours(1));
+    target.searchCache.put("key", List.of(new SearchResult("g", "a", "2.0")));
+    target.metadataCache.record("g", "a", List.of("2.0"));
+
+    CacheArchive.ArchiveResult imported = target.importFrom(file);
+
+    // The cached search result expires later than the imported one, so it is kept
+    assertEquals(1, imported.getSkippedEntries());
+    assertEquals(
+        Optional.of(List.of(new SearchResult("g", "a", "2.0"))), target.searchCache.get("key"));
+    assertEquals(
+        Optional.of(List.of("2.0", "1.0", "1.1")), target.metadataCache.versions("g", "a"));
+  }
+
+  @Test
+  void testImportRejectsCorruptArchive() throws IOException {
+    CacheArchive source = archive(directory.resolve("source"), Duration.ofHours(1));
+    source.searchCache.put("key", List.of(new SearchResult("g", "a", "1.0")));
+
+    Path file = directory.resolve("cache.gz");
+    source.exportTo(file);
+
+    byte[] content = Files.readAllBytes(file);
+    Files.write(file, Arrays.copyOf(content, content.length - 6));
+
+    CacheArchive target = archive(directory.resolve("target"), Duration.ofHours(1));
+    assertThrows(IOException.class, () -> target.importFrom(file));
+    assertEquals(Optional.empty(), target.searchCache.get("key"));
+  }
+
+  @Test
+  void testImportCountsExpiredEntries() throws IOException {
+    CacheArchive source =
+        archive(
+            directory.resolve("source"),
+            Duration.ofHours(1),
+            Clock.offset(Clock.systemUTC(), Duration.ofHours(-2)));
+    source.searchCache.put("key", List.of(new SearchResult("g", "a", "1.0")));
+
+    Path file = directory.resolve("cache.gz");
+    source.exportTo(file);
+
+    CacheArchive target = archive(directory.resolve("target"), Duration.ofHours(1));
+    CacheArchive.ArchiveResult imported = target.importFrom(file);
+
+    assertEquals(0, imported.getSearchEntries());
+    assertEquals(0, imported.getSkippedEntries());
+    assertEquals(1, imported.getExpiredEntries());
+  }
+
+  @Test
+  void testImportRejectsOtherFiles() throws IOException {
+    Path file = directory.resolve("cache.gz");
+    Files.writeString(file, "not an archive");
+
+    CacheArchive target = archive(directory.resolve("target"), Duration.ofHours(1));
+    assertThrows(IOException.class, () -> target.importFrom(file));
+  }
+
+  private static CacheArchive archive(Path directory, Duration ttl) {
+    return archive(directory, ttl, Clock.systemUTC());
+  }
+
+  private static CacheArchive archive(Path directory, Duration ttl, Clock clock) {
+    CacheArchive archive = new CacheArchive();
+    archive.searchCache = new SearchResultCache(directory.resolve("search-cache"), ttl, clock);
+    archive.metadataCache =
+        new RepositoryMetadataCache(
+            directory.resolve("repository"), directory.resolve("metadata.store"), clock);
+    return archive;
+  }
+}
@@ -0,0 +1,254 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.sun.net.httpserver.HttpServer;
+
+import nl.fizzylogic.maven.dependencymanager.model.DependencyCoordinates;
+import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+
+class CacheWarmerTest {
+
+  @Mock private MavenRepositorySearch repositorySearch;
+
+  @Mock private MavenConfiguration repositoryService;
+
+  private MavenDependencyResolver dependencyResolver;
+
+  private CacheWarmer cacheWarmer;
+
+  @TempDir Path cacheDirectory;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    NegativeCache negativeCache =
+        new NegativeCache(
+            cacheDirectory.resolve("negative-cache"), NegativeCache.DEFAULT_TTL, Clock.systemUTC());
+    RepositoryMetadataCache metadataCache =
+        new RepositoryMetadataCache(
+            cacheDirectory.resolve("repository"),
+            cacheDirectory.resolve("metadata.store"),
+            Clock.systemUTC());
+    LocalCoordinateIndex localIndex =
+        new LocalCoordinateIndex(
+            cacheDirectory.resolve("repository"),
+            cacheDirectory.resolve("local-coordinates.bloom"),
+            Clock.systemUTC());
+
+    dependencyResolver = new MavenDependencyResolver();
+    dependencyResolver.repositorySearch = repositorySearch;
+    dependencyResolver.repositoryService = repositoryService;
+    dependencyResolver.negativeCache = negativeCache;
+    dependencyResolver.metadataCache = metadataCache;
+    dependencyResolver.localIndex = localIndex;
+
+    cacheWarmer = new CacheWarmer();
+    cacheWarmer.dependencyResolver = dependencyResolver;
+    cacheWarmer.negativeCache = negativeCache;
+    cacheWarmer.metadataCache = metadataCache;
+    cacheWarmer.localIndex = localIndex;
+  }
+
+  @AfterEach
+  void tearDown() {
+    // The index loads in the background; let it finish before the directory is removed
+    cacheWarmer.localIndex.load().join();
+  }
+
+  @Test
+  void testWarmSearchesLatestVersionAndVersion() {
+    when(repositorySearch.searchAsync(anyString()))
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                List.of(new SearchResult("org.example", "library", "1.0.0"))));
+
+    CacheWarmer.WarmResult result =
+        cacheWarmer.warm(
+            List.of(
+                new DependencyCoordinates("org.example", "library", "1.0.0"),
+                new DependencyCoordinates("org.example", "library", null)));
+
+    assertEquals(2, result.getFetchedCount());
+    assertEquals(0, result.getCachedCount());
+    verify(repositorySearch).searchAsync("org.example:library");
+    verify(repositorySearch).searchAsync("org.example:library:1.0.0");
+  }
+
+  @Test
+  void testWarmSkipsCachedAnswers() {
+    when(repositorySearch.isCached("org.example:library")).thenReturn(true);
+
+    CacheWarmer.WarmResult result =
+        cacheWarmer.warm(List.of(new DependencyCoordinates("org.example", "library", null)));
+
+    assertEquals(0, result.getFetchedCount());
+    assertEquals(1, result.getCachedCount());
+    verify(repositorySearch, never()).searchAsync(anyString());
+  }
+
+  @Test
+  void testWarmRemembersMissingArtifacts() {
+    when(repositorySearch.searchAsync("org.example:missing"))
+        .thenReturn(CompletableFuture.completedFuture(Collections.emptyList()));
+
+    CacheWarmer.WarmResult result =
+        cacheWarmer.warm(List.of(new DependencyCoordinates("org.example", "missing", null)));
+
+    assertEquals(1, result.getMissingCount());
+    assertTrue(cacheWarmer.negativeCache.isMissing("org.example:missing"));
+
+    CacheWarmer.WarmResult again =
+        cacheWarmer.warm(List.of(new DependencyCoordinates("org.example", "missing", null)));
+
+    assertEquals(1, again.getCachedCount());
+    verify(repositorySearch, times(1)).searchAsync("org.example:missing");
+  }
+
+  @Test
+  void testWarmReportsFailures() {
+    when(repositorySearch.searchAsync("org.example:library"))
+        .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Connection refused")));
+
+    CacheWarmer.WarmResult result =
+        cacheWarmer.warm(List.of(new DependencyCoordinates("org.example", "library", null)));
+
+    assertEquals(List.of("org.example:library: Connection refused"), result.getFailures());
+    assertFalse(cacheWarmer.negativeCache.isMissing("org.example:library"));
+  }
+
+  @Test
+  void testWarmLoadsLocalMetadata() throws Exception {
+    Path artifactDirectory = cacheDirectory.resolve("repository/org/example/library");
+    Files.createDirectories(artifactDirectory);
+    Files.writeString(
+        artifactDirectory.resolve("maven-metadata-central.xml"),
+        "<metadata><versioning><versions><version>1.0.0</version></versions></versioning>"
+            + "</metadata>");
+    when(repositorySearch.searchAsync(anyString()))
+        .thenReturn(CompletableFuture.completedFuture(Collections.emptyList()));
+
+    cacheWarmer.warm(List.of(new DependencyCoordinates("org.example", "library", null)));
+    Files.delete(artifactDirectory.resolve("maven-metadata-central.xml"));
+
+    assertEquals(
+        List.of("1.0.0"),
+        cacheWarmer.metadataCache.versions("org.example", "library").orElseThrow());
+  }
+
+  @Test
+  void testWarmSearchesThroughMirrorOfCentral() throws Exception {
+    AtomicInteger requests = new AtomicInteger();
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/mirror/",
+        exchange -> {
+          requests.incrementAndGet();
+          byte[] body =
+              """
+              <metadata>
+                <groupId>org.example</groupId>
+                <artifactId>lib</artifactId>
+                <versioning>
+                  <release>2.0</release>
+                  <versions>
+                    <version>1.0</version>
+                    <version>2.0</version>
+                  </versions>
+                </versioning>
+              </metadata>
+              """
+                  .getBytes(StandardCharsets.UTF_8);
+          boolean found =
+              exchange
+                  .getRequestURI()
+                  .getPath()
+                  .equals("/mirror/org/example/lib/maven-metadata.xml");
+          exchange.sendResponseHeaders(found ? 200 : 404, found ? body.length : -1);
+          if (found) {
+            try (OutputStream output = exchange.getResponseBody()) {
+              output.write(body);
+            }
+          }
+          exchange.close();
+        });
+    server.start();
+
+    try {
+      Path settings = cacheDirectory.resolve("settings.xml");
+      Files.writeString(
+          settings,
+          """
+          <settings>
+            <mirrors>
+              <mirror>
+                <id>company</id>
+                <mirrorOf>central</mirrorOf>
+                <url>http://localhost:%d/mirror</url>
+              </mirror>
+            </mirrors>
+          </settings>
+          """
+              .formatted(server.getAddress().getPort()));
+
+      MavenConfiguration configuration = new MavenConfiguration();
+      configuration.userSettingsPath = settings.toString();
+      configuration.globalSettingsPath = cacheDirectory.resolve("missing.xml").toString();
+
+      FederatedSearch federatedSearch = new FederatedSearch();
+      federatedSearch.repositoryService = configuration;
+      federatedSearch.centralSearch = repositorySearch;
+      federatedSearch.routing = new HttpRouting();
+      federatedSearch.routing.repositoryService = configuration;
+      federatedSearch.cache =
+          new SearchResultCache(
+              cacheDirectory.resolve("search-cache"),
+              SearchResultCache.DEFAULT_TTL,
+              Clock.systemUTC());
+
+      dependencyResolver.repositoryService = configuration;
+      dependencyResolver.federatedSearch = federatedSearch;
+
+      List<DependencyCoordinates> dependencies =
+          List.of(
+              new DependencyCoordinates("org.example", "lib", "1.0"),
+              new DependencyCoordinates("org.example", "unknown", null));
+      CacheWarmer.WarmResult result = cacheWarmer.warm(dependencies);
+
+      assertEquals(2, result.getFetchedCount());
+      assertEquals(1, result.getMissingCount());
+      assertEquals(List.of(), result.getFailures());
+
+      // The resolver answers from what the warmer cached, without asking the mirror again
+      int warmed = requests.get();
+      assertEquals("2.0", dependencyResolver.resolveLatestVersion("org.example", "lib"));
+      assertTrue(dependencyResolver.dependencyExistsAsync("org.example", "lib", "1.0").join());
+      assertNull(dependencyResolver.resolveLatestVersion("org.example", "unknown"));
+      assertEquals(warmed, requests.get());
+
+      assertEquals(3, cacheWarmer.warm(dependencies).getCachedCount());
+      verifyNoInteractions(repositorySearch);
+    } finally {
+      server.stop(0);
+    }
+  }
+}
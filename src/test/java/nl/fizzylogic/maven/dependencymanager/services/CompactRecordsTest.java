@@ -0,0 +1,78 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CompactRecordsTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void testRecordsRoundTrip() throws Exception {
+    CompactRecords.Writer writer = new CompactRecords.Writer();
+    writer.add("org.apache.commons", "commons-lang3", "3.14.0", "central");
+    writer.add("org.apache.commons", "commons-text", null);
+    writer.add();
+    Path file = directory.resolve("records.bin");
+
+    writer.writeTo(file);
+    CompactRecords.Reader reader = CompactRecords.Reader.map(file);
+
+    assertEquals(3, reader.recordCount());
+    assertArrayEquals(
+        new String[] {"org.apache.commons", "commons-lang3", "3.14.0", "central"},
+        reader.record(0));
+    assertEquals(3, reader.fieldCount(1));
+    assertEquals("commons-text", reader.field(1, 1));
+    assertNull(reader.field(1, 2));
+    assertEquals(0, reader.fieldCount(2));
+    assertThrows(IndexOutOfBoundsException.class, () -> reader.field(1, 3));
+  }
+
+  @Test
+  void testRepeatedStringsAreStoredOnce() throws Exception {
+    CompactRecords.Writer writer = new CompactRecords.Writer();
+    for (int i = 0; i < 1_000; i++) {
+      writer.add("org.apache.commons", "commons-lang3", "3.14.0", "central");
+    }
+    Path file = directory.resolve("records.bin");
+
+    writer.writeTo(file);
+
+    // Per record: a 4-byte offset, a field count and four one-byte string references
+    assertTrue(Files.size(file) < 1_000 * 9 + 100, "Size: " + Files.size(file));
+  }
+
+  @Test
+  void testVarintsOfAllWidths() {
+    CompactRecords.VarintBuffer buffer = new CompactRecords.VarintBuffer();
+    int[] values = {0, 1, 127, 128, 16_383, 16_384, Integer.MAX_VALUE, -1};
+    for (int value : values) {
+      buffer.putVarint(value);
+    }
+
+    ByteBuffer bytes = ByteBuffer.wrap(buffer.bytes(), 0, buffer.position());
+    int position = 0;
+    for (int value : values) {
+      long varint = CompactRecords.readVarint(bytes, position);
+      assertEquals(value, CompactRecords.value(varint));
+      position = CompactRecords.next(varint);
+    }
+    assertEquals(buffer.position(), position);
+  }
+
+  @Test
+  void testOtherFilesAreRejected() throws Exception {
+    Path file = directory.resolve("other.bin");
+    Files.writeString(file, "this is not a record file");
+
+    assertThrows(IOException.class, () -> CompactRecords.Reader.map(file));
+  }
+}
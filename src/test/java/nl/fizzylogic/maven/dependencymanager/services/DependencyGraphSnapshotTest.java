@@ -0,0 +1,233 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.maven.model.Model;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import nl.fizzylogic.maven.dependencymanager.model.DependencyCoordinates;
+import nl.fizzylogic.maven.dependencymanager.model.ResolvedDependency;
+
+class DependencyGraphSnapshotTest {
+
+  private static final DependencyCoordinates BOM =
+      new DependencyCoordinates("io.quarkus.platform", "quarkus-bom", "3.25.0");
+
+  @Mock private MavenDependencyResolver dependencyResolver;
+
+  @Mock private ArtifactPrefetcher artifactPrefetcher;
+
+  private DependencyGraphSnapshot snapshot;
+
+  @TempDir Path tempDir;
+
+  @TempDir Path cacheDirectory;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    MockitoAnnotations.openMocks(this);
+    snapshot = new DependencyGraphSnapshot();
+    snapshot.pomManipulation = new ProjectModelEditor();
+    snapshot.dependencyResolver = dependencyResolver;
+    snapshot.bomIndex = new BomIndex(cacheDirectory);
+    snapshot.bomIndex.artifactPrefetcher = artifactPrefetcher;
+    snapshot.bomIndex.pomManipulation = snapshot.pomManipulation;
+
+    when(artifactPrefetcher.managedVersions(BOM))
+        .thenReturn(
+            Map.of("io.quarkus:quarkus-arc", "3.25.0", "io.quarkus:quarkus-core", "3.25.0"));
+
+    when(dependencyResolver.resolveDependencyAsync(any()))
+        .thenAnswer(
+            invocation -> {
+              DependencyCoordinates coordinates = invocation.getArgument(0);
+              return CompletableFuture.completedFuture(
+                  new ResolvedDependency(
+                      coordinates.getGroupId(),
+                      coordinates.getArtifactId(),
+                      coordinates.getVersion()));
+            });
+  }
+
+  @Test
+  void testFirstResolutionResolvesAllDependencies() throws IOException {
+    createPomFile("5.9.2");
+
+    DependencyGraphSnapshot.Resolution resolution = snapshot.resolve(tempDir.toFile());
+
+    assertEquals(3, resolution.getResolved().size());
+    assertEquals(0, resolution.getReusedCount());
+    assertTrue(new File(tempDir.toFile(), "target/dependency-graph.snapshot").isFile());
+    verify(dependencyResolver, times(3)).resolveDependencyAsync(any());
+  }
+
+  @Test
+  void testUnchangedProjectIsLoadedFromSnapshot() throws IOException {
+    createPomFile("5.9.2");
+    snapshot.resolve(tempDir.toFile());
+    clearInvocations(dependencyResolver);
+
+    DependencyGraphSnapshot.Resolution resolution = snapshot.resolve(tempDir.toFile());
+
+    assertEquals(3, resolution.getResolved().size());
+    assertEquals(3, resolution.getReusedCount());
+    verifyNoInteractions(dependencyResolver);
+  }
+
+  @Test
+  void testSnapshotInAnotherFormatIsIgnored() throws IOException {
+    createPomFile("5.9.2");
+    File snapshotFile = new File(tempDir.toFile(), "target/dependency-graph.snapshot");
+    snapshotFile.getParentFile().mkdirs();
+    Files.write(snapshotFile.toPath(), new byte[] {0x44, 0x47, 0x47, 0x53, 0, 0, 0, 2});
+
+    DependencyGraphSnapshot.Resolution resolution = snapshot.resolve(tempDir.toFile());
+
+    assertEquals(3, resolution.getResolved().size());
+    assertEquals(0, resolution.getReusedCount());
+  }
+
+  @Test
+  void testOnlyChangedDependencyIsResolved() throws IOException {
+    createPomFile("5.9.2");
+    snapshot.resolve(tempDir.toFile());
+    clearInvocations(dependencyResolver);
+
+    createPomFile("5.10.0");
+    DependencyGraphSnapshot.Resolution resolution = snapshot.resolve(tempDir.toFile());
+
+    assertEquals(3, resolution.getResolved().size());
+    assertEquals(2, resolution.getReusedCount());
+    verify(dependencyResolver)
+        .resolveDependencyAsync(argThat(coordinates -> "5.10.0".equals(coordinates.getVersion())));
+    verifyNoMoreInteractions(dependencyResolver);
+  }
+
+  @Test
+  void testUnresolvedDependencyIsReported() throws IOException {
+    createPomFile("99.99.99");
+    doReturn(CompletableFuture.completedFuture(null))
+        .when(dependencyResolver)
+        .resolveDependencyAsync(
+            argThat(coordinates -> "99.99.99".equals(coordinates.getVersion())));
+
+    DependencyGraphSnapshot.Resolution resolution = snapshot.resolve(tempDir.toFile());
+
+    assertEquals(1, resolution.getUnresolved().size());
+    assertEquals(
+        "org.junit.jupiter:junit-jupiter:99.99.99", resolution.getUnresolved().get(0).toString());
+  }
+
+  @Test
+  void testDependencyAddedWithoutVersionIsCheckedWithTheBomVersion() throws IOException {
+    createPomFile("5.9.2");
+    snapshot.resolve(tempDir.toFile());
+    clearInvocations(dependencyResolver);
+
+    // As add does for a managed dependency: the dependency is written without a <version>
+    Model model = snapshot.pomManipulation.readPom(tempDir.toFile());
+    snapshot.pomManipulation.addDependency(model, "io.quarkus", "quarkus-core", null);
+    snapshot.pomManipulation.writePom(model, tempDir.toFile());
+
+    DependencyGraphSnapshot.Resolution resolution = snapshot.resolve(tempDir.toFile());
+
+    assertEquals(4, resolution.getResolved().size());
+    assertTrue(
+        resolution
+            .getResolved()
+            .contains(new ResolvedDependency("io.quarkus", "quarkus-core", "3.25.0")));
+    verify(dependencyResolver)
+        .resolveDependencyAsync(new DependencyCoordinates("io.quarkus", "quarkus-core", "3.25.0"));
+    verifyNoMoreInteractions(dependencyResolver);
+  }
+
+  @Test
+  void testDependencyWithoutResolvableVersionIsUnresolved() throws IOException {
+    createPomFile("5.9.2");
+    Model model = snapshot.pomManipulation.readPom(tempDir.toFile());
+    snapshot.pomManipulation.addDependency(model, "org.example", "unmanaged", null);
+    snapshot.pomManipulation.writePom(model, tempDir.toFile());
+
+    DependencyGraphSnapshot.Resolution resolution = snapshot.resolve(tempDir.toFile());
+
+    assertEquals(
+        List.of(new DependencyCoordinates("org.example", "unmanaged", null)),
+        resolution.getUnresolved());
+
+    // The snapshot is not stored as complete, so the next check reports it again
+    clearInvocations(dependencyResolver);
+    DependencyGraphSnapshot.Resolution again = snapshot.resolve(tempDir.toFile());
+
+    assertEquals(resolution.getUnresolved(), again.getUnresolved());
+    assertEquals(3, again.getReusedCount());
+    verifyNoInteractions(dependencyResolver);
+  }
+
+  private void createPomFile(String junitVersion) throws IOException {
+    File pomFile = new File(tempDir.toFile(), "pom.xml");
+
+    String pomContent =
+        """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <project xmlns="http://maven.apache.org/POM/4.0.0">
+                <modelVersion>4.0.0</modelVersion>
+                <groupId>com.example</groupId>
+                <artifactId>test-project</artifactId>
+                <version>1.0.0</version>
+
+                <properties>
+                    <junit.version>%s</junit.version>
+                </properties>
+
+                <dependencyManagement>
+                    <dependencies>
+                        <dependency>
+                            <groupId>io.quarkus.platform</groupId>
+                            <artifactId>quarkus-bom</artifactId>
+                            <version>3.25.0</version>
+                            <type>pom</type>
+                            <scope>import</scope>
+                        </dependency>
+                    </dependencies>
+                </dependencyManagement>
+
+                <dependencies>
+                    <dependency>
+                        <groupId>org.junit.jupiter</groupId>
+                        <artifactId>junit-jupiter</artifactId>
+                        <version>${junit.version}</version>
+                    </dependency>
+                    <dependency>
+                        <groupId>org.apache.commons</groupId>
+                        <artifactId>commons-lang3</artifactId>
+                        <version>3.18.0</version>
+                    </dependency>
+                    <dependency>
+                        <groupId>io.quarkus</groupId>
+                        <artifactId>quarkus-arc</artifactId>
+                    </dependency>
+                </dependencies>
+            </project>
+            """
+            .formatted(junitVersion);
+
+    try (FileWriter writer = new FileWriter(pomFile)) {
+      writer.write(pomContent);
+    }
+  }
+}
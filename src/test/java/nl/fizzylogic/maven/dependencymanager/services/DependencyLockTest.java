@@ -0,0 +1,203 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DependencyLockTest {
+
+  private DependencyLock dependencyLock;
+
+  @TempDir Path project;
+
+  @TempDir Path localRepository;
+
+  @TempDir Path bomCache;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    dependencyLock = new DependencyLock();
+    dependencyLock.pomManipulation = new ProjectModelEditor();
+    dependencyLock.localRepository = localRepository;
+    dependencyLock.bomIndex = new BomIndex(bomCache);
+    dependencyLock.bomIndex.pomManipulation = dependencyLock.pomManipulation;
+
+    writePom(project, "<modules><module>core</module></modules>", "");
+    writePom(
+        project.resolve("core"),
+        "",
+        "<dependency><groupId>org.example</groupId><artifactId>library</artifactId>"
+            + "<version>${library.version}</version></dependency>");
+  }
+
+  @Test
+  void testLockedProjectVerifies() throws IOException {
+    for (File module : dependencyLock.moduleDirectories(project.toFile())) {
+      dependencyLock.lock(module, false);
+    }
+
+    assertTrue(
+        Files.readAllLines(project.resolve("core").resolve(DependencyLock.LOCK_FILE_NAME))
+            .contains("dependency org.example:library:1.0.0"));
+
+    DependencyLock.VerifyResult result = dependencyLock.verify(project.toFile());
+
+    assertTrue(result.isValid(), result.getProblems().toString());
+    assertEquals(2, result.getModuleCount());
+  }
+
+  @Test
+  void testVerifyReportsChangedVersion() throws IOException {
+    dependencyLock.lock(project.toFile(), false);
+    dependencyLock.lock(project.resolve("core").toFile(), false);
+
+    Path pom = project.resolve("core").resolve("pom.xml");
+    Files.writeString(pom, Files.readString(pom).replace("1.0.0", "1.1.0"));
+
+    DependencyLock.VerifyResult result = dependencyLock.verify(project.toFile());
+
+    assertFalse(result.isValid());
+    assertEquals(
+        List.of("org.example:library:1.1.0 is locked at org.example:library:1.0.0"),
+        result.getProblems().get(project.resolve("core").toFile()));
+  }
+
+  @Test
+  void testVerifyReportsMissingLockFile() throws IOException {
+    dependencyLock.lock(project.toFile(), false);
+
+    DependencyLock.VerifyResult result = dependencyLock.verify(project.toFile());
+
+    assertEquals(
+        List.of("No " + DependencyLock.LOCK_FILE_NAME + " found"),
+        result.getProblems().get(project.resolve("core").toFile()));
+  }
+
+  @Test
+  void testVerifyHashesLockedArtifacts() throws IOException {
+    Path jar = localRepository.resolve("org/example/library/1.0.0/library-1.0.0.jar");
+    Files.createDirectories(jar.getParent());
+    Files.writeString(jar, "content");
+    String checksum = FileDigests.sha256(jar);
+
+    dependencyLock.lock(project.toFile(), false);
+    Files.write(
+        project.resolve("core").resolve(DependencyLock.LOCK_FILE_NAME),
+        List.of(
+            "dependency org.example:library:1.0.0",
+            "artifact org.example:library:1.0.0:jar " + checksum));
+
+    assertTrue(dependencyLock.verify(project.toFile()).isValid());
+
+    Files.writeString(jar, "tampered");
+
+    DependencyLock.VerifyResult result = dependencyLock.verify(project.toFile());
+    List<String> problems = result.getProblems().get(project.resolve("core").toFile());
+
+    assertEquals(1, problems.size());
+    assertTrue(problems.get(0).startsWith("org.example:library:1.0.0:jar has checksum"));
+  }
+
+  @Test
+  void testVersionsManagedByLocalParentAreLocked() throws IOException {
+    writeModuleWithParent(
+        "<dependency><groupId>org.example</groupId><artifactId>library</artifactId></dependency>");
+    Path module = project.resolve("app");
+
+    DependencyLock.LockResult result = dependencyLock.lock(module.toFile(), false);
+
+    assertEquals(1, result.getDependencyCount());
+    assertEquals(List.of(), result.getUnresolved());
+    assertTrue(
+        Files.readAllLines(module.resolve(DependencyLock.LOCK_FILE_NAME))
+            .contains("dependency org.example:library:1.0.0"));
+  }
+
+  @Test
+  void testUnresolvableVersionsAreReported() throws IOException {
+    writeModuleWithParent(
+        "<dependency><groupId>org.example</groupId><artifactId>unmanaged</artifactId></dependency>"
+            + "<dependency><groupId>org.example</groupId><artifactId>other</artifactId>"
+            + "<version>${undefined.version}</version></dependency>");
+    Path module = project.resolve("app");
+
+    DependencyLock.LockResult result = dependencyLock.lock(module.toFile(), false);
+
+    assertEquals(0, result.getDependencyCount());
+    assertEquals(
+        List.of("org.example:unmanaged", "org.example:other:${undefined.version}"),
+        result.getUnresolved());
+
+    Files.writeString(
+        project.resolve("pom.xml"),
+        Files.readString(project.resolve("pom.xml"))
+            .replace(
+                "<modules><module>core</module></modules>",
+                "<modules><module>app</module></modules>"));
+    DependencyLock.VerifyResult verification = dependencyLock.verify(project.toFile());
+
+    assertEquals(
+        List.of(
+            "org.example:unmanaged has no resolvable version",
+            "org.example:other:${undefined.version} has no resolvable version"),
+        verification.getProblems().get(module.toFile()));
+  }
+
+  /** Writes a module "app" that inherits from the project, which manages org.example:library. */
+  private void writeModuleWithParent(String dependencies) throws IOException {
+    Path pom = project.resolve("pom.xml");
+    Files.writeString(
+        pom,
+        Files.readString(pom)
+            .replace(
+                "<dependencies>",
+                "<dependencyManagement><dependencies><dependency><groupId>org.example</groupId>"
+                    + "<artifactId>library</artifactId><version>${library.version}</version>"
+                    + "</dependency></dependencies></dependencyManagement><dependencies>"));
+
+    Path module = project.resolve("app");
+    Files.createDirectories(module);
+    Files.writeString(
+        module.resolve("pom.xml"),
+        """
+        <project xmlns="http://maven.apache.org/POM/4.0.0">
+          <modelVersion>4.0.0</modelVersion>
+          <parent>
+            <groupId>com.example</groupId>
+            <artifactId>%s</artifactId>
+            <version>1.0.0</version>
+          </parent>
+          <artifactId>app</artifactId>
+          <dependencies>%s</dependencies>
+        </project>
+        """
+            .formatted(project.getFileName(), dependencies));
+  }
+
+  private static void writePom(Path directory, String modules, String dependencies)
+      throws IOException {
+    Files.createDirectories(directory);
+    Files.writeString(
+        directory.resolve("pom.xml"),
+        """
+        <project xmlns="http://maven.apache.org/POM/4.0.0">
+          <modelVersion>4.0.0</modelVersion>
+          <groupId>com.example</groupId>
+          <artifactId>%s</artifactId>
+          <version>1.0.0</version>
+          <properties><library.version>1.0.0</library.version></properties>
+          %s
+          <dependencies>%s</dependencies>
+        </project>
+        """
+            .formatted(directory.getFileName(), modules, dependencies));
+  }
+}
@@ -0,0 +1,242 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import nl.fizzylogic.maven.dependencymanager.model.MavenRepository;
+import nl.fizzylogic.maven.dependencymanager.model.SearchQuery;
+import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+
+class FederatedSearchTest {
+
+  @Mock private MavenConfiguration repositoryService;
+
+  @Mock private MavenRepositorySearch centralSearch;
+
+  private FederatedSearch federatedSearch;
+
+  @TempDir Path localRepository;
+
+  @TempDir Path cacheDirectory;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    federatedSearch = new FederatedSearch();
+    federatedSearch.repositoryService = repositoryService;
+    federatedSearch.centralSearch = centralSearch;
+    federatedSearch.routing = new HttpRouting();
+    federatedSearch.routing.repositoryService = repositoryService;
+    federatedSearch.cache =
+        new SearchResultCache(cacheDirectory, SearchResultCache.DEFAULT_TTL, Clock.systemUTC());
+  }
+
+  @Test
+  void testResultsAreMergedKeepingHighestVersion() throws Exception {
+    publish("org/example/lib/1.2.0/lib-1.2.0.pom");
+    publish("org/example/lib/1.10.0/lib-1.10.0.pom");
+    publish("org/example/other/2.0/other-2.0.pom");
+    when(repositoryService.getRepositories())
+        .thenReturn(
+            List.of(
+                new MavenRepository("central", "https://repo1.maven.org/maven2"),
+                new MavenRepository("local", localRepository.toUri().toString())));
+    when(centralSearch.searchAsync(any(SearchQuery.class)))
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                List.of(new SearchResult("org.example", "lib", "1.9.0"))));
+
+    List<SearchResult> results = federatedSearch.execute("example");
+
+    assertEquals(2, results.size());
+    SearchResult lib = find(results, "lib");
+    assertEquals("1.10.0", lib.getLatestVersion());
+    assertEquals("local", lib.getRepository());
+    assertEquals("local", find(results, "other").getRepository());
+  }
+
+  @Test
+  void testMergedAnswersAreCached() throws Exception {
+    when(repositoryService.getRepositories())
+        .thenReturn(List.of(new MavenRepository("central", "https://repo1.maven.org/maven2")));
+    when(centralSearch.searchAsync(any(SearchQuery.class)))
+        .thenReturn(
+            CompletableFuture.completedFuture(
+                List.of(new SearchResult("org.example", "lib", "1.9.0"))));
+
+    assertFalse(federatedSearch.isCached("org.example:lib"));
+    List<SearchResult> results = federatedSearch.searchAsync("org.example:lib").join();
+
+    assertTrue(federatedSearch.isCached("org.example:lib"));
+    assertEquals(results, federatedSearch.execute("org.example:lib"));
+    verify(centralSearch, times(1)).searchAsync(any(SearchQuery.class));
+  }
+
+  @Test
+  void testAnswersWithFailingRepositoryAreNotCached() throws Exception {
+    when(repositoryService.getRepositories())
+        .thenReturn(
+            List.of(
+                new MavenRepository("central", "https://repo1.maven.org/maven2"),
+                new MavenRepository("local", localRepository.toUri().toString())));
+    when(centralSearch.searchAsync(any(SearchQuery.class)))
+        .thenReturn(CompletableFuture.failedFuture(new IOException("Connection reset")));
+    publish("org/example/lib/1.0/lib-1.0.pom");
+
+    assertEquals(1, federatedSearch.execute("org.example:lib").size());
+
+    assertFalse(federatedSearch.isCached("org.example:lib"));
+  }
+
+  @Test
+  void testResultsStreamBeforeSlowBackendAnswers() throws Exception {
+    CompletableFuture<List<SearchResult>> slow = new CompletableFuture<>();
+    List<SearchResult> streamed = new ArrayList<>();
+    List<SearchBackend> backends =
+        List.of(
+            backend("slow", slow),
+            backend(
+                "fast",
+                CompletableFuture.completedFuture(
+                    List.of(new SearchResult("org.example", "lib", "1.0")))));
+
+    Thread search =
+        Thread.ofVirtual()
+            .start(
+                () -> {
+                  try {
+                    federatedSearch.execute(SearchQuery.parse("lib"), backends, streamed::add);
+                  } catch (Exception e) {
+                    throw new RuntimeException(e);
+                  }
+                });
+
+    synchronized (this) {
+      long deadline = System.currentTimeMillis() + 1000;
+      while (streamed.isEmpty() && System.currentTimeMillis() < deadline) {
+        wait(10);
+      }
+    }
+    assertEquals(1, streamed.size());
+    assertEquals("fast", streamed.get(0).getRepository());
+    assertTrue(search.isAlive());
+
+    slow.complete(List.of(new SearchResult("org.example", "lib", "2.0")));
+    search.join();
+
+    assertEquals(2, streamed.size());
+    assertEquals("2.0", streamed.get(1).getLatestVersion());
+    assertEquals("slow", streamed.get(1).getRepository());
+  }
+
+  @Test
+  void testFailingBackendDoesNotFailSearch() throws Exception {
+    List<SearchResult> streamed = new ArrayList<>();
+    List<SearchBackend> backends =
+        List.of(
+            backend("broken", CompletableFuture.failedFuture(new IOException("Connection reset"))),
+            backend(
+                "working",
+                CompletableFuture.completedFuture(
+                    List.of(new SearchResult("org.example", "lib", "1.0")))));
+
+    federatedSearch.execute(SearchQuery.parse("lib"), backends, streamed::add);
+
+    assertEquals(1, streamed.size());
+  }
+
+  @Test
+  void testSearchFailsWhenAllBackendsFail() {
+    List<SearchBackend> backends =
+        List.of(
+            backend("broken", CompletableFuture.failedFuture(new IOException("Connection reset"))));
+
+    IOException exception =
+        assertThrows(
+            IOException.class,
+            () -> federatedSearch.execute(SearchQuery.parse("lib"), backends, result -> {}));
+    assertTrue(exception.getMessage().contains("broken: IOException Connection reset"));
+  }
+
+  @Test
+  void testLocalRepositoryExactSearch() {
+    publish("org/example/lib/1.0/lib-1.0.pom");
+    publish("org/example/lib/1.1/lib-1.1.pom");
+    LocalRepositorySearchBackend backend =
+        new LocalRepositorySearchBackend("local", localRepository);
+
+    List<SearchResult> latest = backend.search(SearchQuery.parse("org.example:lib")).join();
+    List<SearchResult> version = backend.search(SearchQuery.parse("org.example:lib:1.0")).join();
+    List<SearchResult> missing = backend.search(SearchQuery.parse("org.example:lib:2.0")).join();
+
+    assertEquals("1.1", latest.get(0).getLatestVersion());
+    assertEquals("1.0", version.get(0).getLatestVersion());
+    assertTrue(missing.isEmpty());
+  }
+
+  @Test
+  void testUnknownRepositoryTypeIsSkipped() {
+    when(repositoryService.getRepositories())
+        .thenReturn(
+            List.of(
+                new MavenRepository("central", "https://repo1.maven.org/maven2"),
+                new MavenRepository("mirror", "https://repo.maven.apache.org/maven2"),
+                new MavenRepository("plain", "https://maven.example.com/releases"),
+                new MavenRepository("nexus", "https://nexus.example.com/repository/public/"),
+                new MavenRepository(
+                    "artifactory", "https://example.jfrog.io/artifactory/libs-release/")));
+
+    List<SearchBackend> backends = federatedSearch.backends();
+
+    assertEquals(3, backends.size());
+    assertInstanceOf(CentralSearchBackend.class, backends.get(0));
+    assertInstanceOf(NexusSearchBackend.class, backends.get(1));
+    assertInstanceOf(ArtifactorySearchBackend.class, backends.get(2));
+  }
+
+  private void publish(String path) {
+    try {
+      Path file = localRepository.resolve(path);
+      Files.createDirectories(file.getParent());
+      Files.writeString(file, "<project/>");
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static SearchResult find(List<SearchResult> results, String artifactId) {
+    return results.stream()
+        .filter(result -> result.getArtifactId().equals(artifactId))
+        .findFirst()
+        .orElseThrow();
+  }
+
+  private static SearchBackend backend(
+      String repositoryId, CompletableFuture<List<SearchResult>> results) {
+    return new SearchBackend() {
+      @Override
+      public String getRepositoryId() {
+        return repositoryId;
+      }
+
+      @Override
+      public CompletableFuture<List<SearchResult>> search(SearchQuery query) {
+        return results;
+      }
+    };
+  }
+}
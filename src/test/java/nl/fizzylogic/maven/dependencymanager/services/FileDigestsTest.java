@@ -0,0 +1,34 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class FileDigestsTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void testDigestsOfFile() throws IOException {
+    Path file = directory.resolve("file.txt");
+    Files.writeString(file, "abc");
+
+    assertEquals(
+        "ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad",
+        FileDigests.sha256(file));
+    assertEquals("a9993e364706816aba3e25717850c26c9cd0d89d", FileDigests.sha1(file));
+  }
+
+  @Test
+  void testDigestOfEmptyFile() throws IOException {
+    Path file = directory.resolve("empty.txt");
+    Files.createFile(file);
+
+    assertEquals("da39a3ee5e6b4b0d3255bfef95601890afd80709", FileDigests.sha1(file));
+  }
+}
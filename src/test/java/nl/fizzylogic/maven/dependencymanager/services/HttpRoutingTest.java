@@ -0,0 +1,275 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.apache.maven.settings.Proxy;
+import org.apache.maven.settings.Server;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+import nl.fizzylogic.maven.dependencymanager.model.MavenRepository;
+
+class HttpRoutingTest {
+
+  @Mock private MavenConfiguration repositoryService;
+
+  private HttpRouting routing;
+  private HttpServer proxyServer;
+  private final List<String> proxiedRequests = new CopyOnWriteArrayList<>();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    MockitoAnnotations.openMocks(this);
+    routing = new HttpRouting();
+    routing.repositoryService = repositoryService;
+
+    proxyServer = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    proxyServer.createContext(
+        "/",
+        exchange -> {
+          proxiedRequests.add(exchange.getRequestURI().toString());
+          byte[] body = "proxied".getBytes(StandardCharsets.UTF_8);
+          exchange.sendResponseHeaders(200, body.length);
+          try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+          }
+          exchange.close();
+        });
+    proxyServer.start();
+  }
+
+  @AfterEach
+  void tearDown() {
+    proxyServer.stop(0);
+  }
+
+  @Test
+  void testClientIsSharedPerHost() {
+    HttpClient first = routing.clientFor(URI.create("https://repo1.maven.org/maven2/a"));
+    HttpClient second = routing.clientFor(URI.create("https://repo1.maven.org:443/maven2/b"));
+    HttpClient other = routing.clientFor(URI.create("https://search.maven.org/solrsearch"));
+
+    assertSame(first, second);
+    assertNotSame(first, other);
+    assertEquals(2, routing.routeCount());
+    verify(repositoryService, times(2)).getProxy(any());
+  }
+
+  @Test
+  void testRequestsAreSentThroughConfiguredProxy() throws Exception {
+    Proxy proxy = new Proxy();
+    proxy.setHost("localhost");
+    proxy.setPort(proxyServer.getAddress().getPort());
+    URI target = URI.create("http://repo.example.invalid/maven2/a.pom");
+    when(repositoryService.getProxy(target)).thenReturn(Optional.of(proxy));
+
+    HttpResponse<String> response =
+        routing
+            .clientFor(target)
+            .send(HttpRequest.newBuilder(target).build(), HttpResponse.BodyHandlers.ofString());
+
+    assertEquals("proxied", response.body());
+    assertEquals(List.of(target.toString()), proxiedRequests);
+  }
+
+  @Test
+  void testCredentialsAreSentPreemptivelyAndBuiltOnce() throws Exception {
+    List<String> authorizations = new CopyOnWriteArrayList<>();
+    HttpServer repositoryServer =
+        server(
+            exchange -> {
+              authorizations.add(
+                  String.valueOf(exchange.getRequestHeaders().getFirst("Authorization")));
+              exchange.sendResponseHeaders(200, -1);
+              exchange.close();
+            });
+    when(repositoryService.getServer("private")).thenReturn(Optional.of(server("s3cret")));
+    MavenRepository repository = new MavenRepository("private", urlOf(repositoryServer, "/repo"));
+
+    try {
+      for (int i = 0; i < 2; i++) {
+        HttpResponse<Void> response =
+            routing.send(
+                HttpRequest.newBuilder(URI.create(repository.getUrl() + "/a.pom")).build(),
+                HttpResponse.BodyHandlers.discarding(),
+                repository);
+        assertEquals(200, response.statusCode());
+      }
+    } finally {
+      repositoryServer.stop(0);
+    }
+
+    assertEquals(
+        List.of("Basic ZGVwbG95ZXI6czNjcmV0", "Basic ZGVwbG95ZXI6czNjcmV0"), authorizations);
+    verify(repositoryService, times(1)).getServer("private");
+  }
+
+  @Test
+  void testCredentialsAreNotSentAfterRedirectToOtherHost() throws Exception {
+    List<String> authorizations = new CopyOnWriteArrayList<>();
+    HttpServer storage =
+        server(
+            exchange -> {
+              authorizations.add(
+                  String.valueOf(exchange.getRequestHeaders().getFirst("Authorization")));
+              byte[] body = "artifact".getBytes(StandardCharsets.UTF_8);
+              exchange.sendResponseHeaders(200, body.length);
+              try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+              }
+              exchange.close();
+            });
+    HttpServer repositoryServer =
+        server(
+            exchange -> {
+              authorizations.add(
+                  String.valueOf(exchange.getRequestHeaders().getFirst("Authorization")));
+              exchange.getResponseHeaders().add("Location", urlOf(storage, "/blob"));
+              exchange.sendResponseHeaders(302, -1);
+              exchange.close();
+            });
+    when(repositoryService.getServer("private")).thenReturn(Optional.of(server("s3cret")));
+    MavenRepository repository = new MavenRepository("private", urlOf(repositoryServer, "/repo"));
+
+    try {
+      HttpResponse<String> response =
+          routing
+              .sendAsync(
+                  HttpRequest.newBuilder(URI.create(repository.getUrl() + "/a.jar")).build(),
+                  HttpResponse.BodyHandlers.ofString(),
+                  repository)
+              .join();
+
+      assertEquals(200, response.statusCode());
+      assertEquals("artifact", response.body());
+    } finally {
+      repositoryServer.stop(0);
+      storage.stop(0);
+    }
+
+    assertEquals(List.of("Basic ZGVwbG95ZXI6czNjcmV0", "null"), authorizations);
+  }
+
+  @Test
+  void testThrottledRequestIsSentAgain() throws Exception {
+    List<Integer> statuses = new CopyOnWriteArrayList<>(List.of(429, 200));
+    HttpServer throttling =
+        server(
+            exchange -> {
+              int status = statuses.remove(0);
+              if (status == 429) {
+                exchange.getResponseHeaders().add("Retry-After", "0");
+              }
+              exchange.sendResponseHeaders(status, -1);
+              exchange.close();
+            });
+    routing.scheduler = new RequestScheduler(1000, 100, Duration.ofMillis(10));
+
+    try {
+      HttpResponse<Void> response =
+          routing
+              .sendAsync(
+                  HttpRequest.newBuilder(URI.create(urlOf(throttling, "/search"))).build(),
+                  HttpResponse.BodyHandlers.discarding(),
+                  null)
+              .join();
+
+      assertEquals(200, response.statusCode());
+      assertTrue(statuses.isEmpty());
+    } finally {
+      throttling.stop(0);
+    }
+  }
+
+  @Test
+  void testDownloadsAreNotHeldToSearchRate() throws Exception {
+    HttpServer repository =
+        server(
+            exchange -> {
+              exchange.sendResponseHeaders(200, -1);
+              exchange.close();
+            });
+    routing.scheduler = new RequestScheduler(10, 1, Duration.ofMillis(10));
+
+    try {
+      long start = System.nanoTime();
+      for (int i = 0; i < 30; i++) {
+        HttpResponse<Void> response =
+            routing.send(
+                HttpRequest.newBuilder(
+                        URI.create(urlOf(repository, "/maven2/org/example/lib/1." + i + "/x.jar")))
+                    .build(),
+                HttpResponse.BodyHandlers.discarding(),
+                null);
+        assertEquals(200, response.statusCode());
+      }
+
+      // At 10 requests per second, 30 requests would take at least 2.9 seconds
+      assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 2000);
+    } finally {
+      repository.stop(0);
+    }
+  }
+
+  @Test
+  void testSearchRequestsAreRecognized() {
+    assertTrue(
+        HttpRouting.isSearchRequest(
+            URI.create("https://search.maven.org/solrsearch/select?q=g:a")));
+    assertTrue(
+        HttpRouting.isSearchRequest(
+            URI.create("https://nexus.example.com/service/rest/v1/search?repository=r")));
+    assertTrue(
+        HttpRouting.isSearchRequest(
+            URI.create("https://example.jfrog.io/artifactory/api/search/gavc?g=g")));
+    assertFalse(
+        HttpRouting.isSearchRequest(
+            URI.create("https://repo1.maven.org/maven2/org/example/lib/1.0/lib-1.0.jar")));
+  }
+
+  @Test
+  void testRouteIncludesDefaultPort() {
+    assertEquals(
+        "https://repo1.maven.org:443",
+        HttpRouting.routeOf(URI.create("https://Repo1.maven.org/x")));
+    assertEquals("http://localhost:8081", HttpRouting.routeOf(URI.create("http://localhost:8081")));
+  }
+
+  private static HttpServer server(HttpHandler handler) throws Exception {
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", handler);
+    server.start();
+    return server;
+  }
+
+  private static String urlOf(HttpServer server, String path) {
+    return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+  }
+
+  private static Server server(String password) {
+    Server server = new Server();
+    server.setUsername("deployer");
+    server.setPassword(password);
+    return server;
+  }
+}
@@ -0,0 +1,118 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import nl.fizzylogic.maven.dependencymanager.model.MavenRepository;
+import nl.fizzylogic.maven.dependencymanager.model.SearchQuery;
+import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+
+class HttpSearchBackendTest {
+
+  private HttpServer server;
+  private String baseUrl;
+  private final Map<String, String> responses = new ConcurrentHashMap<>();
+  private final Map<String, String> queries = new ConcurrentHashMap<>();
+  private HttpRouting routing;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    routing = new HttpRouting();
+    routing.repositoryService = mock(MavenConfiguration.class);
+
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/",
+        exchange -> {
+          String path = exchange.getRequestURI().getPath();
+          queries.put(path, exchange.getRequestURI().getQuery());
+          String response = responses.get(path);
+          byte[] body = response != null ? response.getBytes(StandardCharsets.UTF_8) : null;
+          exchange.sendResponseHeaders(body != null ? 200 : 404, body != null ? body.length : -1);
+          if (body != null) {
+            try (OutputStream out = exchange.getResponseBody()) {
+              out.write(body);
+            }
+          }
+          exchange.close();
+        });
+    server.start();
+    baseUrl = "http://localhost:" + server.getAddress().getPort();
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  void testNexusSearchKeepsHighestVersion() {
+    responses.put(
+        "/service/rest/v1/search",
+        """
+            {"items": [
+              {"group": "org.example", "name": "lib", "version": "1.2", "assets": [{"path": "x"}]},
+              {"group": "org.example", "name": "lib", "version": "1.10"},
+              {"group": "org.example", "name": "other", "version": "3.0"}
+            ], "continuationToken": null}
+            """);
+    NexusSearchBackend backend =
+        new NexusSearchBackend(
+            new MavenRepository("nexus", baseUrl + "/repository/maven-public/"), routing);
+
+    List<SearchResult> results = backend.search(SearchQuery.parse("org.example:lib")).join();
+
+    assertEquals(2, results.size());
+    assertEquals("1.10", results.get(0).getLatestVersion());
+    String query = queries.get("/service/rest/v1/search");
+    assertTrue(query.contains("repository=maven-public"), query);
+    assertTrue(query.contains("maven.groupId=org.example"), query);
+    assertTrue(query.contains("maven.artifactId=lib"), query);
+  }
+
+  @Test
+  void testArtifactorySearchParsesStorageUris() {
+    responses.put(
+        "/artifactory/api/search/gavc",
+        """
+            {"results": [
+              {"uri": "%1$s/artifactory/api/storage/libs-release/org/example/lib/1.0/lib-1.0.pom"},
+              {"uri": "%1$s/artifactory/api/storage/libs-release/org/example/lib/1.1/lib-1.1.jar"},
+              {"uri": "%1$s/artifactory/api/storage/libs-release/org/example/lib/maven-metadata.xml"}
+            ]}
+            """
+            .formatted(baseUrl));
+    ArtifactorySearchBackend backend =
+        new ArtifactorySearchBackend(
+            new MavenRepository("artifactory", baseUrl + "/artifactory/libs-release/"), routing);
+
+    List<SearchResult> results = backend.search(SearchQuery.parse("org.example:lib")).join();
+
+    assertEquals(1, results.size());
+    assertEquals("org.example", results.get(0).getGroupId());
+    assertEquals("1.1", results.get(0).getLatestVersion());
+    assertTrue(queries.get("/artifactory/api/search/gavc").contains("repos=libs-release"));
+  }
+
+  @Test
+  void testFailedRequestFailsSearch() {
+    NexusSearchBackend backend =
+        new NexusSearchBackend(
+            new MavenRepository("nexus", baseUrl + "/repository/missing/"), routing);
+
+    assertThrows(RuntimeException.class, () -> backend.search(SearchQuery.parse("lib")).join());
+  }
+}
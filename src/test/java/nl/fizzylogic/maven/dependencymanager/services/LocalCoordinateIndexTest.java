@@ -0,0 +1,89 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Clock;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class LocalCoordinateIndexTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void testOnlyDownloadedArtifactsAreConfirmed() throws Exception {
+    Path repository = directory.resolve("repository");
+    publish(repository, "org/example/lib/1.0", "lib-1.0.pom", "central");
+    publish(repository, "org/example/local/1.0", "local-1.0.pom", "");
+
+    LocalCoordinateIndex index = index(repository);
+
+    assertTrue(index.isDownloaded("org.example", "lib", "1.0"));
+    assertFalse(index.isDownloaded("org.example", "local", "1.0"));
+    assertFalse(index.isDownloaded("org.example", "lib", "2.0"));
+
+    loaded(index);
+    assertTrue(index.isDownloaded("org.example", "lib", "1.0"));
+    assertFalse(index.isDownloaded("org.example", "local", "1.0"));
+  }
+
+  @Test
+  void testIndexFileIsReusedUntilItIsTooOld() throws Exception {
+    Path repository = directory.resolve("repository");
+    Path indexFile = directory.resolve("index.bloom");
+    publish(repository, "org/example/lib/1.0", "lib-1.0.pom", "central");
+    index(repository).refresh();
+
+    // Downloaded after the index was built, so not known until the index is rebuilt
+    publish(repository, "org/example/lib/1.1", "lib-1.1.pom", "central");
+    assertFalse(loaded(index(repository)).isDownloaded("org.example", "lib", "1.1"));
+
+    Files.setLastModifiedTime(
+        indexFile,
+        FileTime.from(Instant.now().minus(LocalCoordinateIndex.MAX_AGE).minusSeconds(60)));
+    assertTrue(loaded(index(repository)).isDownloaded("org.example", "lib", "1.1"));
+  }
+
+  @Test
+  void testLookupDoesNotWaitForTheIndex() throws Exception {
+    Path repository = directory.resolve("repository");
+    publish(repository, "org/example/lib/1.0", "lib-1.0.pom", "central");
+    LocalCoordinateIndex index = index(repository);
+
+    assertTrue(index.isDownloaded("org.example", "lib", "1.0"));
+
+    index.load().join();
+    assertTrue(Files.isRegularFile(directory.resolve("index.bloom")));
+  }
+
+  @Test
+  void testMissingRepositoryConfirmsNothing() {
+    LocalCoordinateIndex index = index(directory.resolve("missing"));
+
+    assertFalse(index.isDownloaded("org.example", "lib", "1.0"));
+    assertFalse(loaded(index).isDownloaded("org.example", "lib", "1.0"));
+  }
+
+  private static LocalCoordinateIndex loaded(LocalCoordinateIndex index) {
+    index.load().join();
+    return index;
+  }
+
+  private LocalCoordinateIndex index(Path repository) {
+    return new LocalCoordinateIndex(
+        repository, directory.resolve("index.bloom"), Clock.systemUTC());
+  }
+
+  private static void publish(Path repository, String path, String pom, String repositoryId)
+      throws Exception {
+    Path versionDirectory = Files.createDirectories(repository.resolve(path));
+    Files.writeString(versionDirectory.resolve(pom), "<project/>");
+    Files.writeString(
+        versionDirectory.resolve("_remote.repositories"), pom + ">" + repositoryId + "=\n");
+  }
+}
@@ -0,0 +1,177 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.sun.net.httpserver.HttpServer;
+
+import nl.fizzylogic.maven.dependencymanager.model.DependencyCoordinates;
+import nl.fizzylogic.maven.dependencymanager.model.MavenRepository;
+
+class LocalRepositoryVerifierTest {
+
+  private static final List<DependencyCoordinates> DEPENDENCIES =
+      List.of(new DependencyCoordinates("com.example", "lib", "1.0"));
+
+  @Mock private MavenConfiguration repositoryService;
+
+  private LocalRepositoryVerifier verifier;
+  private ArtifactPrefetcher prefetcher;
+  private HttpServer server;
+  private final AtomicInteger requests = new AtomicInteger();
+  private final Map<String, byte[]> files = new ConcurrentHashMap<>();
+
+  @TempDir Path localRepository;
+
+  @BeforeEach
+  void setUp() throws Exception {
+    MockitoAnnotations.openMocks(this);
+
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/repo/",
+        exchange -> {
+          requests.incrementAndGet();
+          byte[] content = files.get(exchange.getRequestURI().getPath().substring(6));
+          exchange.sendResponseHeaders(content != null ? 200 : 404, content != null ? 0 : -1);
+          if (content != null) {
+            try (OutputStream body = exchange.getResponseBody()) {
+              body.write(content);
+            }
+          }
+          exchange.close();
+        });
+    server.start();
+
+    when(repositoryService.getRepositories())
+        .thenReturn(
+            List.of(
+                new MavenRepository(
+                    "test", "http://localhost:" + server.getAddress().getPort() + "/repo")));
+
+    prefetcher = new ArtifactPrefetcher();
+    prefetcher.repositoryService = repositoryService;
+    prefetcher.routing = new HttpRouting();
+    prefetcher.routing.repositoryService = repositoryService;
+    prefetcher.localRepository = localRepository;
+
+    verifier = new LocalRepositoryVerifier();
+    verifier.artifactPrefetcher = prefetcher;
+
+    publish(
+        "com/example/lib/1.0/lib-1.0.pom",
+        """
+            <project>
+                <modelVersion>4.0.0</modelVersion>
+                <groupId>com.example</groupId>
+                <artifactId>lib</artifactId>
+                <version>1.0</version>
+            </project>
+            """);
+    publish("com/example/lib/1.0/lib-1.0.jar", "lib");
+  }
+
+  @AfterEach
+  void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  void testVerifyMatchingFiles() {
+    prefetcher.prefetch(DEPENDENCIES, 2);
+
+    LocalRepositoryVerifier.VerifyResult result = verifier.verify(DEPENDENCIES, 2, true);
+
+    assertTrue(result.getFailures().isEmpty(), result.getFailures().toString());
+    assertEquals(2, result.getVerifiedCount());
+    assertTrue(result.getMismatches().isEmpty());
+  }
+
+  @Test
+  void testVerifyReportsCorruptFileWithoutRepair() throws Exception {
+    prefetcher.prefetch(DEPENDENCIES, 2);
+    Path jar = localRepository.resolve("com/example/lib/1.0/lib-1.0.jar");
+    Files.writeString(jar, "corrupt");
+
+    requests.set(0);
+
+    LocalRepositoryVerifier.VerifyResult result = verifier.verify(DEPENDENCIES, 2, false);
+
+    assertEquals(List.of("com.example:lib:1.0:jar"), result.getMismatches());
+    assertEquals(0, result.getRepairedCount());
+    assertEquals("corrupt", Files.readString(jar));
+    assertEquals(0, requests.get());
+  }
+
+  @Test
+  void testVerifyReportsMissingFilesWithoutDownloading() throws Exception {
+    LocalRepositoryVerifier.VerifyResult result = verifier.verify(DEPENDENCIES, 2, true);
+
+    assertEquals(List.of("com.example:lib:1.0:pom"), result.getMissing());
+    assertTrue(result.getFailures().isEmpty(), result.getFailures().toString());
+    assertEquals(0, requests.get());
+
+    Path pom = localRepository.resolve("com/example/lib/1.0/lib-1.0.pom");
+    Files.createDirectories(pom.getParent());
+    Files.write(pom, files.get("com/example/lib/1.0/lib-1.0.pom"));
+
+    result = verifier.verify(DEPENDENCIES, 2, true);
+
+    assertEquals(List.of("com.example:lib:1.0:jar"), result.getMissing());
+    assertEquals(0, requests.get());
+    assertFalse(Files.exists(pom.resolveSibling("lib-1.0.jar")));
+  }
+
+  @Test
+  void testVerifyDownloadsCorruptFileAgain() throws Exception {
+    prefetcher.prefetch(DEPENDENCIES, 2);
+    Path jar = localRepository.resolve("com/example/lib/1.0/lib-1.0.jar");
+    Files.writeString(jar, "corrupt");
+
+    LocalRepositoryVerifier.VerifyResult result = verifier.verify(DEPENDENCIES, 2, true);
+
+    assertEquals(List.of("com.example:lib:1.0:jar"), result.getMismatches());
+    assertEquals(1, result.getRepairedCount());
+    assertEquals("lib", Files.readString(jar));
+  }
+
+  @Test
+  void testVerifyPrefersSha256() throws Exception {
+    prefetcher.prefetch(DEPENDENCIES, 2);
+    Path jar = localRepository.resolve("com/example/lib/1.0/lib-1.0.jar");
+    Files.writeString(jar.resolveSibling("lib-1.0.jar.sha256"), "0000");
+
+    LocalRepositoryVerifier.VerifyResult result = verifier.verify(DEPENDENCIES, 2, false);
+
+    assertEquals(List.of("com.example:lib:1.0:jar"), result.getMismatches());
+  }
+
+  private void publish(String path, String content) throws Exception {
+    byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+    files.put(path, bytes);
+    files.put(
+        path + ".sha1",
+        HexFormat.of()
+            .formatHex(MessageDigest.getInstance("SHA-1").digest(bytes))
+            .getBytes(StandardCharsets.US_ASCII));
+  }
+}
@@ -2,10 +2,22 @@ package nl.fizzylogic.maven.dependencymanager.services;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
 
+import org.apache.maven.settings.Mirror;
+import org.apache.maven.settings.Proxy;
+import org.apache.maven.settings.Server;
+import org.apache.maven.settings.Settings;
+import org.apache.maven.settings.crypto.SettingsDecryptionResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.sonatype.plexus.components.cipher.DefaultPlexusCipher;
+
+import nl.fizzylogic.maven.dependencymanager.model.MavenRepository;
 
 class MavenConfigurationTest {
 
@@ -33,4 +45,141 @@ class MavenConfigurationTest {
     // Should at least contain Maven Central
     assertTrue(repositories.size() >= 1);
   }
+
+  @Test
+  void testMirrorReplacesMatchingRepositories() {
+    List<MavenRepository> repositories =
+        List.of(
+            new MavenRepository("company", "https://repo.example.com/releases"),
+            new MavenRepository("snapshots", "http://localhost:8081/snapshots"),
+            new MavenRepository("central", "https://repo1.maven.org/maven2"));
+
+    List<MavenRepository> mirrored =
+        MavenConfiguration.applyMirrors(
+            repositories, List.of(mirror("internal", "external:*,!company")));
+
+    assertEquals(3, mirrored.size());
+    assertEquals("company", mirrored.get(0).getId());
+    assertEquals("snapshots", mirrored.get(1).getId());
+    assertEquals("internal", mirrored.get(2).getId());
+    assertEquals("https://mirror.example.com/internal", mirrored.get(2).getUrl());
+  }
+
+  @Test
+  void testRepositoriesSharingAMirrorAreMerged() {
+    List<MavenRepository> repositories =
+        List.of(
+            new MavenRepository("central", "https://repo1.maven.org/maven2"),
+            new MavenRepository("google", "https://maven.google.com"));
+
+    List<MavenRepository> mirrored =
+        MavenConfiguration.applyMirrors(
+            repositories, List.of(mirror("everything", "*"), mirror("central-only", "central")));
+
+    assertEquals(2, mirrored.size());
+    assertEquals("central-only", mirrored.get(0).getId());
+    assertEquals("everything", mirrored.get(1).getId());
+  }
+
+  @Test
+  void testMirrorOfPatterns() {
+    MavenRepository plainHttp = new MavenRepository("legacy", "http://repo.example.com/legacy");
+    MavenRepository onDisk = new MavenRepository("disk", "file:///opt/repository");
+
+    assertTrue(MavenConfiguration.matchesMirrorOf("external:http:*", plainHttp));
+    assertFalse(MavenConfiguration.matchesMirrorOf("external:*", onDisk));
+    assertFalse(MavenConfiguration.matchesMirrorOf("*,!legacy", plainHttp));
+    assertTrue(MavenConfiguration.matchesMirrorOf("other, legacy", plainHttp));
+    assertFalse(MavenConfiguration.matchesMirrorOf(null, plainHttp));
+  }
+
+  @Test
+  void testProxySelectionHonoursProtocolAndNonProxyHosts() {
+    Proxy httpProxy = proxy("http", "proxy.example.com", "*.internal|localhost");
+    Proxy httpsProxy = proxy("https", "secure-proxy.example.com", null);
+
+    assertSame(
+        httpProxy,
+        MavenConfiguration.selectProxy(
+            URI.create("https://repo1.maven.org/maven2"), List.of(httpProxy)));
+    assertSame(
+        httpsProxy,
+        MavenConfiguration.selectProxy(
+            URI.create("https://repo1.maven.org/maven2"), List.of(httpProxy, httpsProxy)));
+    assertNull(
+        MavenConfiguration.selectProxy(
+            URI.create("https://nexus.corp.internal/repository/public"), List.of(httpProxy)));
+    assertNull(
+        MavenConfiguration.selectProxy(URI.create("file:///opt/repository"), List.of(httpProxy)));
+  }
+
+  @Test
+  void testInactiveProxyIsIgnored() {
+    Proxy inactive = proxy("http", "proxy.example.com", null);
+    inactive.setActive(false);
+
+    assertNull(
+        MavenConfiguration.selectProxy(URI.create("http://repo.example.com"), List.of(inactive)));
+  }
+
+  @Test
+  void testEncryptedPasswordsAreDecryptedWithMasterPassword(@TempDir Path directory)
+      throws Exception {
+    DefaultPlexusCipher cipher = new DefaultPlexusCipher();
+    Path settingsSecurity = directory.resolve("settings-security.xml");
+    Files.writeString(
+        settingsSecurity,
+        "<settingsSecurity><master>"
+            + cipher.encryptAndDecorate("master-secret", "settings.security")
+            + "</master></settingsSecurity>");
+
+    Settings settings = new Settings();
+    settings.setServers(
+        List.of(
+            server("company", cipher.encryptAndDecorate("s3cret", "master-secret")),
+            server("other", "plain-password")));
+
+    SettingsDecryptionResult result =
+        MavenConfiguration.decrypt(settings, settingsSecurity.toString());
+
+    assertEquals("s3cret", result.getServers().get(0).getPassword());
+    assertEquals("plain-password", result.getServers().get(1).getPassword());
+    assertTrue(result.getProblems().isEmpty());
+  }
+
+  @Test
+  void testMissingSettingsSecurityIsReportedAsProblem(@TempDir Path directory) {
+    Settings settings = new Settings();
+    settings.setServers(List.of(server("company", "{bm90LXJlYWxseS1lbmNyeXB0ZWQ=}")));
+
+    SettingsDecryptionResult result =
+        MavenConfiguration.decrypt(settings, directory.resolve("missing.xml").toString());
+
+    assertFalse(result.getProblems().isEmpty());
+  }
+
+  private static Server server(String id, String password) {
+    Server server = new Server();
+    server.setId(id);
+    server.setUsername("deployer");
+    server.setPassword(password);
+    return server;
+  }
+
+  private static Mirror mirror(String id, String mirrorOf) {
+    Mirror mirror = new Mirror();
+    mirror.setId(id);
+    mirror.setMirrorOf(mirrorOf);
+    mirror.setUrl("https://mirror.example.com/" + id);
+    return mirror;
+  }
+
+  private static Proxy proxy(String protocol, String host, String nonProxyHosts) {
+    Proxy proxy = new Proxy();
+    proxy.setProtocol(protocol);
+    proxy.setHost(host);
+    proxy.setPort(3128);
+    proxy.setNonProxyHosts(nonProxyHosts);
+    return proxy;
+  }
 }
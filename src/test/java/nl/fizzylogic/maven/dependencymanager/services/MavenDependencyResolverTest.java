@@ -3,14 +3,26 @@ package nl.fizzylogic.maven.dependencymanager.services;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import com.sun.net.httpserver.HttpServer;
+
 import nl.fizzylogic.maven.dependencymanager.model.DependencyCoordinates;
 import nl.fizzylogic.maven.dependencymanager.model.ResolvedDependency;
 import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
@@ -19,13 +31,37 @@ class MavenDependencyResolverTest {
 
   @Mock private MavenRepositorySearch repositorySearch;
 
+  @Mock private MavenConfiguration repositoryService;
+
   private MavenDependencyResolver resolverService;
 
+  @TempDir Path cacheDirectory;
+
   @BeforeEach
   void setUp() {
     MockitoAnnotations.openMocks(this);
     resolverService = new MavenDependencyResolver();
     resolverService.repositorySearch = repositorySearch;
+    resolverService.repositoryService = repositoryService;
+    resolverService.negativeCache =
+        new NegativeCache(
+            cacheDirectory.resolve("negative-cache"), NegativeCache.DEFAULT_TTL, Clock.systemUTC());
+    resolverService.localIndex =
+        new LocalCoordinateIndex(
+            cacheDirectory.resolve("repository"),
+            cacheDirectory.resolve("local-coordinates.bloom"),
+            Clock.systemUTC());
+    resolverService.metadataCache =
+        new RepositoryMetadataCache(
+            cacheDirectory.resolve("repository"),
+            cacheDirectory.resolve("metadata.store"),
+            Clock.systemUTC());
+  }
+
+  @AfterEach
+  void tearDown() {
+    // The index loads in the background; let it finish before the directory is removed
+    resolverService.localIndex.load().join();
   }
 
   @Test
@@ -117,6 +153,184 @@ class MavenDependencyResolverTest {
     assertEquals("5.9.2", resolved.getVersion());
   }
 
+  @Test
+  void testResolveLatestVersionAsync() {
+    SearchResult mockResult = new SearchResult("org.junit.jupiter", "junit-jupiter", "5.9.2");
+    when(repositorySearch.searchAsync("org.junit.jupiter:junit-jupiter"))
+        .thenReturn(CompletableFuture.completedFuture(Arrays.asList(mockResult)));
+
+    String version =
+        resolverService.resolveLatestVersionAsync("org.junit.jupiter", "junit-jupiter").join();
+
+    assertEquals("5.9.2", version);
+  }
+
+  @Test
+  void testDependencyExistsAsyncWithFailedSearch() {
+    when(repositorySearch.searchAsync("org.junit.jupiter:junit-jupiter:5.8.2"))
+        .thenReturn(CompletableFuture.failedFuture(new IOException("Connection reset")));
+
+    boolean exists =
+        resolverService.dependencyExistsAsync("org.junit.jupiter", "junit-jupiter", "5.8.2").join();
+
+    assertFalse(exists);
+  }
+
+  @Test
+  void testResolveDependencyAsyncWithNonExistentVersion() {
+    when(repositorySearch.searchAsync("org.junit.jupiter:junit-jupiter:99.99.99"))
+        .thenReturn(CompletableFuture.completedFuture(Collections.emptyList()));
+
+    DependencyCoordinates coordinates =
+        new DependencyCoordinates("org.junit.jupiter", "junit-jupiter", "99.99.99");
+
+    assertNull(resolverService.resolveDependencyAsync(coordinates).join());
+  }
+
+  @Test
+  void testMissingArtifactIsNotLookedUpAgain() throws Exception {
+    when(repositorySearch.execute("invalid.group:invalid-artifact"))
+        .thenReturn(Collections.emptyList());
+
+    assertNull(resolverService.resolveLatestVersion("invalid.group", "invalid-artifact"));
+    assertNull(resolverService.resolveLatestVersion("invalid.group", "invalid-artifact"));
+    assertNull(
+        resolverService.resolveLatestVersionAsync("invalid.group", "invalid-artifact").join());
+
+    verify(repositorySearch, times(1)).execute("invalid.group:invalid-artifact");
+    verify(repositorySearch, never()).searchAsync(anyString());
+  }
+
+  @Test
+  void testFailedLookupIsNotCached() throws Exception {
+    when(repositorySearch.execute("org.junit.jupiter:junit-jupiter:5.8.2"))
+        .thenThrow(new IOException("Connection reset"))
+        .thenReturn(Arrays.asList(new SearchResult("org.junit.jupiter", "junit-jupiter", "5.8.2")));
+
+    assertFalse(resolverService.dependencyExists("org.junit.jupiter", "junit-jupiter", "5.8.2"));
+    assertTrue(resolverService.dependencyExists("org.junit.jupiter", "junit-jupiter", "5.8.2"));
+
+    verify(repositorySearch, times(2)).execute("org.junit.jupiter:junit-jupiter:5.8.2");
+  }
+
+  @Test
+  void testDownloadedVersionIsConfirmedWithoutLookup() throws Exception {
+    Path versionDirectory =
+        Files.createDirectories(cacheDirectory.resolve("repository/org/example/lib/1.0"));
+    Files.writeString(versionDirectory.resolve("lib-1.0.pom"), "<project/>");
+    Files.writeString(versionDirectory.resolve("_remote.repositories"), "lib-1.0.pom>central=\n");
+
+    assertTrue(resolverService.dependencyExists("org.example", "lib", "1.0"));
+    assertTrue(resolverService.dependencyExistsAsync("org.example", "lib", "1.0").join());
+
+    verifyNoInteractions(repositorySearch);
+  }
+
+  @Test
+  void testVersionListedInLocalMetadataIsConfirmedWithoutLookup() throws Exception {
+    Path artifactDirectory =
+        Files.createDirectories(cacheDirectory.resolve("repository/org/example/lib"));
+    Files.writeString(
+        artifactDirectory.resolve("maven-metadata-central.xml"),
+        """
+        <metadata>
+          <groupId>org.example</groupId>
+          <artifactId>lib</artifactId>
+          <versioning>
+            <versions>
+              <version>1.0</version>
+              <version>2.0</version>
+            </versions>
+          </versioning>
+        </metadata>
+        """);
+
+    assertTrue(resolverService.dependencyExists("org.example", "lib", "2.0"));
+
+    verifyNoInteractions(repositorySearch);
+  }
+
+  @Test
+  void testVersionsAreResolvedThroughMirrorOfCentral() throws Exception {
+    HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext(
+        "/mirror/",
+        exchange -> {
+          byte[] body =
+              """
+              <metadata>
+                <groupId>org.example</groupId>
+                <artifactId>lib</artifactId>
+                <versioning>
+                  <release>2.0</release>
+                  <versions>
+                    <version>1.0</version>
+                    <version>2.0</version>
+                  </versions>
+                </versioning>
+              </metadata>
+              """
+                  .getBytes(StandardCharsets.UTF_8);
+          boolean found =
+              exchange
+                  .getRequestURI()
+                  .getPath()
+                  .equals("/mirror/org/example/lib/maven-metadata.xml");
+          exchange.sendResponseHeaders(found ? 200 : 404, found ? body.length : -1);
+          if (found) {
+            try (OutputStream output = exchange.getResponseBody()) {
+              output.write(body);
+            }
+          }
+          exchange.close();
+        });
+    server.start();
+
+    try {
+      Path settings = cacheDirectory.resolve("settings.xml");
+      Files.writeString(
+          settings,
+          """
+          <settings>
+            <mirrors>
+              <mirror>
+                <id>company</id>
+                <mirrorOf>central</mirrorOf>
+                <url>http://localhost:%d/mirror</url>
+              </mirror>
+            </mirrors>
+          </settings>
+          """
+              .formatted(server.getAddress().getPort()));
+
+      MavenConfiguration configuration = new MavenConfiguration();
+      configuration.userSettingsPath = settings.toString();
+      configuration.globalSettingsPath = cacheDirectory.resolve("missing.xml").toString();
+
+      FederatedSearch federatedSearch = new FederatedSearch();
+      federatedSearch.repositoryService = configuration;
+      federatedSearch.centralSearch = repositorySearch;
+      federatedSearch.routing = new HttpRouting();
+      federatedSearch.routing.repositoryService = configuration;
+      federatedSearch.cache =
+          new SearchResultCache(
+              cacheDirectory.resolve("search-cache"),
+              SearchResultCache.DEFAULT_TTL,
+              Clock.systemUTC());
+
+      resolverService.repositoryService = configuration;
+      resolverService.federatedSearch = federatedSearch;
+
+      assertEquals("2.0", resolverService.resolveLatestVersion("org.example", "lib"));
+      assertTrue(resolverService.dependencyExists("org.example", "lib", "1.0"));
+      assertFalse(resolverService.dependencyExistsAsync("org.example", "lib", "3.0").join());
+      assertNull(resolverService.resolveLatestVersion("org.example", "unknown"));
+      verifyNoInteractions(repositorySearch);
+    } finally {
+      server.stop(0);
+    }
+  }
+
   @Test
   void testResolvedDependencyToString() {
     ResolvedDependency resolved =
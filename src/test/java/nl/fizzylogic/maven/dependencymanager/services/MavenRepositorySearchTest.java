@@ -2,13 +2,26 @@ package nl.fizzylogic.maven.dependencymanager.services;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+
 @ExtendWith(MockitoExtension.class)
 class MavenRepositorySearchTest {
 
@@ -16,9 +29,13 @@ class MavenRepositorySearchTest {
 
   @InjectMocks MavenRepositorySearch searchService;
 
+  @TempDir Path cacheDirectory;
+
   @BeforeEach
   void setUp() {
     searchService = new MavenRepositorySearch();
+    searchService.cache =
+        new SearchResultCache(cacheDirectory, SearchResultCache.DEFAULT_TTL, Clock.systemUTC());
   }
 
   @Test
@@ -48,6 +65,51 @@ class MavenRepositorySearchTest {
         });
   }
 
+  @Test
+  void testSearchAsyncWithEmptyQueryFails() {
+    CompletableFuture<List<SearchResult>> search = searchService.searchAsync("  ");
+
+    assertTrue(search.isCompletedExceptionally());
+    ExecutionException exception = assertThrows(ExecutionException.class, search::get);
+    assertInstanceOf(IllegalArgumentException.class, exception.getCause());
+  }
+
+  @Test
+  void testParseSearchResponseStreamsDocuments() throws IOException {
+    String json =
+        """
+            {
+              "responseHeader": {"status": 0, "params": {"q": "spring-core"}},
+              "response": {
+                "numFound": 2,
+                "docs": [
+                  {"g": "org.springframework", "a": "spring-core", "latestVersion": "6.1.0"},
+                  {"g": "incomplete", "a": "document"},
+                  {"g": "org.springframework", "a": "spring-beans", "latestVersion": "6.1.0"}
+                ]
+              }
+            }
+            """;
+    List<SearchResult> results = new ArrayList<>();
+
+    searchService.parseSearchResponse(
+        new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), results::add);
+
+    assertEquals(2, results.size());
+    assertEquals("spring-core", results.get(0).getArtifactId());
+    assertEquals("spring-beans", results.get(1).getArtifactId());
+  }
+
+  @Test
+  void testParseSearchResponseWithInvalidJson() {
+    assertThrows(
+        IOException.class,
+        () ->
+            searchService.parseSearchResponse(
+                new ByteArrayInputStream("not json".getBytes(StandardCharsets.UTF_8)),
+                result -> {}));
+  }
+
   // Note: Integration tests for actual API calls would require
   // network connectivity and should be run separately
 }
@@ -0,0 +1,93 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MetadataStoreTest {
+
+  @TempDir Path directory;
+
+  @Test
+  void testStoredVersionsAreFound() throws Exception {
+    try (MetadataStore store = MetadataStore.open(directory.resolve("metadata.store"))) {
+      store.put("org.example:lib", 42, List.of("1.0", "1.1"));
+
+      MetadataStore.Versions versions = store.lookup("org.example:lib");
+
+      assertEquals(42, versions.refreshedAt());
+      assertEquals(List.of("1.0", "1.1"), versions.list());
+      assertTrue(versions.contains("1.1"));
+      assertFalse(versions.contains("1.2"));
+      assertNull(store.lookup("org.example:other"));
+    }
+  }
+
+  @Test
+  void testPutReplacesVersions() throws Exception {
+    try (MetadataStore store = MetadataStore.open(directory.resolve("metadata.store"))) {
+      store.put("org.example:lib", 1, List.of("1.0"));
+      MetadataStore.Versions before = store.lookup("org.example:lib");
+      store.put("org.example:lib", 2, List.of("1.0", "2.0"));
+
+      assertEquals(List.of("1.0", "2.0"), store.lookup("org.example:lib").list());
+      // Views keep reading the record they were created for
+      assertEquals(List.of("1.0"), before.list());
+    }
+  }
+
+  @Test
+  void testStoreIsCompactedAsItGrows() throws Exception {
+    Path file = directory.resolve("metadata.store");
+    try (MetadataStore store = MetadataStore.open(file)) {
+      for (int round = 0; round < 3; round++) {
+        for (int i = 0; i < 2_000; i++) {
+          store.put("org.example:lib-" + i, round, List.of("1." + round));
+        }
+      }
+
+      for (int i = 0; i < 2_000; i++) {
+        assertEquals(List.of("1.2"), store.lookup("org.example:lib-" + i).list());
+      }
+    }
+
+    // Replaced records were dropped: well below three rounds of records
+    assertTrue(Files.size(file) < 300_000, "Size: " + Files.size(file));
+  }
+
+  @Test
+  void testStoresSharingAFileSeeEachOthersUpdates() throws Exception {
+    Path file = directory.resolve("metadata.store");
+    try (MetadataStore first = MetadataStore.open(file);
+        MetadataStore second = MetadataStore.open(file)) {
+      first.put("org.example:lib", 1, List.of("1.0"));
+      assertEquals(List.of("1.0"), second.lookup("org.example:lib").list());
+
+      // Enough keys to make the second store compact into a new file
+      for (int i = 0; i < 1_000; i++) {
+        second.put("org.example:lib-" + i, 1, List.of("1.0"));
+      }
+      first.put("org.example:lib", 2, List.of("1.0", "2.0"));
+
+      assertEquals(List.of("1.0", "2.0"), second.lookup("org.example:lib").list());
+      assertEquals(List.of("1.0"), first.lookup("org.example:lib-999").list());
+    }
+  }
+
+  @Test
+  void testFileInAnotherFormatIsReplaced() throws Exception {
+    Path file = directory.resolve("metadata.store");
+    Files.writeString(file, "this is not a metadata store, but long enough for a header");
+
+    try (MetadataStore store = MetadataStore.open(file)) {
+      assertNull(store.lookup("org.example:lib"));
+      store.put("org.example:lib", 1, List.of("1.0"));
+      assertTrue(store.lookup("org.example:lib").contains("1.0"));
+    }
+  }
+}
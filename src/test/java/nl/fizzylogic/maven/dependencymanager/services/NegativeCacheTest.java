@@ -0,0 +1,93 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class NegativeCacheTest {
+
+  private static final Duration TTL = Duration.ofMinutes(10);
+
+  private final AtomicLong now = new AtomicLong(1_000_000);
+
+  @TempDir Path directory;
+
+  @Test
+  void testEntryExpiresAfterTtl() {
+    NegativeCache cache = new NegativeCache(directory.resolve("negative-cache"), TTL, clock());
+
+    cache.recordMissing("org.example:typo");
+    assertTrue(cache.isMissing("org.example:typo"));
+    assertFalse(cache.isMissing("org.example:other"));
+
+    now.addAndGet(TTL.toMillis());
+    assertFalse(cache.isMissing("org.example:typo"));
+  }
+
+  @Test
+  void testEntriesAreSharedThroughFile() {
+    Path file = directory.resolve("nested").resolve("negative-cache");
+    new NegativeCache(file, TTL, clock()).recordMissing("org.example:typo:1.0");
+
+    NegativeCache nextRun = new NegativeCache(file, TTL, clock());
+
+    assertTrue(nextRun.isMissing("org.example:typo:1.0"));
+    now.addAndGet(TTL.toMillis());
+    assertFalse(new NegativeCache(file, TTL, clock()).isMissing("org.example:typo:1.0"));
+  }
+
+  @Test
+  void testExpiredEntriesAreCompacted() throws Exception {
+    Path file = directory.resolve("negative-cache");
+    StringBuilder content = new StringBuilder();
+    for (int i = 0; i < 300; i++) {
+      content.append(now.get() - 1).append(" org.example:gone-").append(i).append('\n');
+    }
+    content.append(now.get() + 1000).append(" org.example:typo\n");
+    Files.writeString(file, content);
+
+    NegativeCache cache = new NegativeCache(file, TTL, clock());
+
+    assertTrue(cache.isMissing("org.example:typo"));
+    assertEquals(1, Files.readAllLines(file).size());
+  }
+
+  @Test
+  void testUnreadableFileIsIgnored() throws Exception {
+    Path file = directory.resolve("negative-cache");
+    Files.writeString(file, "not a number org.example:typo\n");
+
+    NegativeCache cache = new NegativeCache(file, TTL, clock());
+
+    assertFalse(cache.isMissing("org.example:typo"));
+  }
+
+  private Clock clock() {
+    return new Clock() {
+      @Override
+      public ZoneOffset getZone() {
+        return ZoneOffset.UTC;
+      }
+
+      @Override
+      public Clock withZone(ZoneId zone) {
+        return this;
+      }
+
+      @Override
+      public Instant instant() {
+        return Instant.ofEpochMilli(now.get());
+      }
+    };
+  }
+}
@@ -0,0 +1,111 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RepositoryMetadataCacheTest {
+
+  private final AtomicLong now = new AtomicLong(1_000_000);
+
+  @TempDir Path directory;
+
+  @Test
+  void testRemoteMetadataIsReadAndLocalMetadataIgnored() throws Exception {
+    writeMetadata("maven-metadata-central.xml", "1.0", "1.1");
+    writeMetadata("maven-metadata-local.xml", "1.2-SNAPSHOT");
+
+    RepositoryMetadataCache cache = cache();
+
+    assertTrue(cache.listsVersion("org.example", "lib", "1.1"));
+    assertFalse(cache.listsVersion("org.example", "lib", "1.2-SNAPSHOT"));
+    assertEquals(Optional.of(List.of("1.0", "1.1")), cache.versions("org.example", "lib"));
+    assertEquals(Optional.empty(), cache.versions("org.example", "missing"));
+  }
+
+  @Test
+  void testMetadataIsReadAgainAfterTheRefreshInterval() throws Exception {
+    writeMetadata("maven-metadata-central.xml", "1.0");
+    cache().listsVersion("org.example", "lib", "1.0");
+
+    writeMetadata("maven-metadata-central.xml", "2.0");
+    assertFalse(cache().listsVersion("org.example", "lib", "2.0"));
+
+    now.addAndGet(RepositoryMetadataCache.REFRESH_INTERVAL.toMillis());
+    assertEquals(Optional.of(List.of("1.0", "2.0")), cache().versions("org.example", "lib"));
+  }
+
+  @Test
+  void testMissingMetadataIsNotStored() throws Exception {
+    RepositoryMetadataCache cache = cache();
+    List<String> keys = new ArrayList<>();
+
+    assertEquals(Optional.empty(), cache.versions("org.example", "lib"));
+    cache.forEach((key, refreshedAt, versions) -> keys.add(key));
+    assertEquals(List.of(), keys);
+
+    // The miss is remembered until the refresh interval passes
+    writeMetadata("maven-metadata-central.xml", "1.0");
+    assertEquals(Optional.empty(), cache.versions("org.example", "lib"));
+
+    now.addAndGet(RepositoryMetadataCache.REFRESH_INTERVAL.toMillis());
+    assertEquals(Optional.of(List.of("1.0")), cache.versions("org.example", "lib"));
+  }
+
+  @Test
+  void testRecordedVersionsAreMerged() {
+    RepositoryMetadataCache cache = cache();
+
+    cache.record("org.example", "lib", List.of("1.0"));
+    cache.record("org.example", "lib", List.of("1.0", "1.1"));
+
+    assertEquals(Optional.of(List.of("1.0", "1.1")), cache.versions("org.example", "lib"));
+  }
+
+  private RepositoryMetadataCache cache() {
+    return new RepositoryMetadataCache(
+        directory.resolve("repository"), directory.resolve("metadata.store"), clock());
+  }
+
+  private void writeMetadata(String fileName, String... versions) throws Exception {
+    Path artifactDirectory =
+        Files.createDirectories(directory.resolve("repository/org/example/lib"));
+    StringBuilder content = new StringBuilder("<metadata><versioning><versions>");
+    for (String version : versions) {
+      content.append("<version>").append(version).append("</version>");
+    }
+    content.append("</versions></versioning></metadata>");
+    Files.writeString(artifactDirectory.resolve(fileName), content);
+  }
+
+  private Clock clock() {
+    return new Clock() {
+      @Override
+      public ZoneOffset getZone() {
+        return ZoneOffset.UTC;
+      }
+
+      @Override
+      public Clock withZone(ZoneId zone) {
+        return this;
+      }
+
+      @Override
+      public Instant instant() {
+        return Instant.ofEpochMilli(now.get());
+      }
+    };
+  }
+}
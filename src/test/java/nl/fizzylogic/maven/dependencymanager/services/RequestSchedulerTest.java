@@ -0,0 +1,113 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class RequestSchedulerTest {
+
+  private static final String ROUTE = "https://search.maven.org:443";
+
+  @Test
+  void testConcurrencyIsLimitedPerHost() throws Exception {
+    RequestScheduler scheduler = new RequestScheduler(1000, 100, Duration.ofMillis(10));
+    CompletableFuture<?>[] turns =
+        new CompletableFuture<?>[RequestScheduler.INITIAL_CONCURRENCY + 1];
+
+    for (int i = 0; i < turns.length; i++) {
+      turns[i] = scheduler.acquire(ROUTE);
+    }
+
+    for (int i = 0; i < RequestScheduler.INITIAL_CONCURRENCY; i++) {
+      assertTrue(turns[i].isDone());
+    }
+    assertFalse(turns[turns.length - 1].isDone());
+    assertTrue(scheduler.acquire("https://other.example.com:443").isDone());
+
+    scheduler.completed(ROUTE, 200, Optional.empty());
+    turns[turns.length - 1].get(1, TimeUnit.SECONDS);
+  }
+
+  @Test
+  void testThrottlingHalvesConcurrencyAndSuccessGrowsIt() {
+    RequestScheduler scheduler = new RequestScheduler(1000, 100, Duration.ofMillis(10));
+
+    scheduler.acquire(ROUTE).join();
+    assertTrue(scheduler.completed(ROUTE, 429, Optional.of("0")));
+    assertEquals(RequestScheduler.INITIAL_CONCURRENCY / 2, scheduler.concurrencyLimit(ROUTE));
+
+    for (int i = 0; i < 10; i++) {
+      scheduler.acquire(ROUTE).join();
+      assertFalse(scheduler.completed(ROUTE, 200, Optional.empty()));
+    }
+    assertTrue(scheduler.concurrencyLimit(ROUTE) > RequestScheduler.INITIAL_CONCURRENCY / 2);
+  }
+
+  @Test
+  void testRetryAfterPausesHost() throws Exception {
+    RequestScheduler scheduler = new RequestScheduler(1000, 100, Duration.ofMillis(10));
+
+    scheduler.acquire(ROUTE).join();
+    assertTrue(scheduler.completed(ROUTE, 503, Optional.of("1")));
+
+    long start = System.nanoTime();
+    scheduler.acquire(ROUTE).get(5, TimeUnit.SECONDS);
+    long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    assertTrue(waitedMillis >= 900, "Waited only " + waitedMillis + " ms");
+  }
+
+  @Test
+  void testPauseLongerThanMaximumIsNotRetried() {
+    RequestScheduler scheduler = new RequestScheduler(1000, 100, Duration.ofMillis(10));
+
+    scheduler.acquire(ROUTE).join();
+
+    assertFalse(scheduler.completed(ROUTE, 429, Optional.of("3600")));
+  }
+
+  @Test
+  void testTokenBucketLimitsRate() throws Exception {
+    RequestScheduler scheduler = new RequestScheduler(20, 1, Duration.ofMillis(10));
+
+    long start = System.nanoTime();
+    for (int i = 0; i < 5; i++) {
+      scheduler.acquire(ROUTE).get(5, TimeUnit.SECONDS);
+      scheduler.completed(ROUTE, 200, Optional.empty());
+    }
+    long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+    // One token up front, then one every 50 ms
+    assertTrue(elapsedMillis >= 190, "Took only " + elapsedMillis + " ms");
+  }
+
+  @Test
+  void testRequestsThatAreNotRateLimitedSkipTokenBucket() throws Exception {
+    RequestScheduler scheduler = new RequestScheduler(1, 1, Duration.ofMillis(10));
+
+    for (int i = 0; i < 20; i++) {
+      scheduler.acquire(ROUTE, false).get(1, TimeUnit.SECONDS);
+      scheduler.completed(ROUTE, false, 200, Optional.empty());
+    }
+
+    // Rate-limited requests to the same host still get the full burst
+    assertTrue(scheduler.acquire(ROUTE).isDone());
+  }
+
+  @Test
+  void testParseRetryAfter() {
+    assertEquals(Optional.of(Duration.ofSeconds(120)), RequestScheduler.parseRetryAfter("120"));
+    assertEquals(Optional.empty(), RequestScheduler.parseRetryAfter("soon"));
+
+    String date = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now().plusSeconds(60));
+    Duration parsed = RequestScheduler.parseRetryAfter(date).orElseThrow();
+    assertTrue(parsed.toSeconds() > 50 && parsed.toSeconds() <= 60, parsed.toString());
+  }
+}
@@ -0,0 +1,195 @@
+package nl.fizzylogic.maven.dependencymanager.services;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+
+class SearchResultCacheTest {
+
+  private static final Duration TTL = Duration.ofMinutes(60);
+  private static final List<SearchResult> RESULTS =
+      List.of(
+          new SearchResult("org.apache.commons", "commons-lang3", "3.14.0", "central"),
+          new SearchResult("org.apache.commons", "commons-text", "1.11.0", null));
+
+  private final AtomicLong now = new AtomicLong(1_000_000);
+
+  @TempDir Path directory;
+
+  @Test
+  void testResultsAreCachedUntilTheyExpire() {
+    SearchResultCache cache = cache();
+
+    cache.put("query", RESULTS);
+    assertEquals(Optional.of(RESULTS), cache.get("query"));
+
+    now.addAndGet(TTL.toMillis());
+    assertEquals(Optional.empty(), cache.get("query"));
+  }
+
+  @Test
+  void testEmptyResultsAreNotCached() {
+    SearchResultCache cache = cache();
+
+    cache.put("query", List.of());
+
+    assertEquals(Optional.empty(), cache.get("query"));
+  }
+
+  @Test
+  void testEntriesAreSharedBetweenProcesses() {
+    SearchResultCache first = cache();
+    SearchResultCache second = cache();
+
+    assertEquals(Optional.empty(), second.get("query"));
+    first.put("query", RESULTS);
+
+    assertEquals(Optional.of(RESULTS), second.get("query"));
+  }
+
+  @Test
+  void testTornEntryIsSkippedUntilItIsComplete() throws Exception {
+    SearchResultCache writer = cache();
+    writer.put("query", RESULTS);
+    Path log = logFiles().get(0);
+    byte[] complete = Files.readAllBytes(log);
+
+    // Simulate a reader that sees the entry while the writer is halfway
+    Files.write(log, Arrays.copyOf(complete, complete.length / 2));
+    SearchResultCache reader = cache();
+    assertEquals(Optional.empty(), reader.get("query"));
+
+    Files.write(
+        log,
+        Arrays.copyOfRange(complete, complete.length / 2, complete.length),
+        StandardOpenOption.APPEND);
+    assertEquals(Optional.of(RESULTS), reader.get("query"));
+  }
+
+  @Test
+  void testTornEntryOfDeadWriterIsRemovedByNextWriter() throws Exception {
+    SearchResultCache writer = cache();
+    writer.put("query", RESULTS);
+    Path log = logFiles().get(0);
+    byte[] first = Files.readAllBytes(log);
+
+    // A writer that was killed halfway through appending its entry
+    byte[] torn = SearchResultCache.encode("killed", RESULTS, now.get() + TTL.toMillis());
+    Files.write(log, Arrays.copyOf(torn, torn.length / 2), StandardOpenOption.APPEND);
+
+    String sameShard = keyInShardOf("query");
+    cache().put(sameShard, RESULTS);
+
+    assertEquals(first.length, Files.readAllBytes(log).length - entrySize(sameShard));
+    SearchResultCache reader = cache();
+    assertEquals(Optional.of(RESULTS), reader.get("query"));
+    assertEquals(Optional.of(RESULTS), reader.get(sameShard));
+    assertEquals(Optional.empty(), reader.get("killed"));
+  }
+
+  @Test
+  void testCompactionKeepsLiveEntriesForReaders() {
+    SearchResultCache writer = cache();
+    writer.compactionThreshold = 4096;
+    SearchResultCache reader = cache();
+
+    writer.put("expired", RESULTS);
+    now.addAndGet(TTL.toMillis());
+    for (int i = 0; i < 500; i++) {
+      writer.put("query-" + i % 50, RESULTS);
+    }
+
+    for (int i = 0; i < 50; i++) {
+      assertEquals(Optional.of(RESULTS), reader.get("query-" + i));
+    }
+    assertEquals(Optional.empty(), reader.get("expired"));
+  }
+
+  @Test
+  void testConcurrentWritersDoNotCorruptTheLog() throws Exception {
+    SearchResultCache cache = cache();
+    cache.compactionThreshold = 8192;
+    List<CompletableFuture<Void>> writers = new ArrayList<>();
+
+    for (int worker = 0; worker < 4; worker++) {
+      int id = worker;
+      writers.add(
+          CompletableFuture.runAsync(
+              () -> {
+                for (int i = 0; i < 100; i++) {
+                  cache.put("query-" + id + "-" + i, RESULTS);
+                }
+              }));
+    }
+    writers.forEach(CompletableFuture::join);
+
+    SearchResultCache reader = cache();
+    for (int worker = 0; worker < 4; worker++) {
+      for (int i = 0; i < 100; i++) {
+        assertEquals(Optional.of(RESULTS), reader.get("query-" + worker + "-" + i));
+      }
+    }
+  }
+
+  /** A key that is stored in the same shard as the given key. */
+  private static String keyInShardOf(String key) {
+    for (int i = 0; ; i++) {
+      String candidate = "other-" + i;
+      if (BloomFilter.hash(candidate) >>> 60 == BloomFilter.hash(key) >>> 60) {
+        return candidate;
+      }
+    }
+  }
+
+  private int entrySize(String key) {
+    return SearchResultCache.encode(key, RESULTS, now.get() + TTL.toMillis()).length;
+  }
+
+  private List<Path> logFiles() throws Exception {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.filter(file -> file.toString().endsWith(".log")).toList();
+    }
+  }
+
+  private SearchResultCache cache() {
+    return new SearchResultCache(directory, TTL, clock());
+  }
+
+  private Clock clock() {
+    return new Clock() {
+      @Override
+      public ZoneOffset getZone() {
+        return ZoneOffset.UTC;
+      }
+
+      @Override
+      public Clock withZone(ZoneId zone) {
+        return this;
+      }
+
+      @Override
+      public Instant instant() {
+        return Instant.ofEpochMilli(now.get());
+      }
+    };
+  }
+}
@@ -0,0 +1,33 @@
+package nl.fizzylogic.maven.dependencymanager.util;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class StartupTraceTest {
+
+  @AfterEach
+  void tearDown() {
+    StartupTrace.reset();
+  }
+
+  @Test
+  void testReportListsSlowestBeanFirst() {
+    StartupTrace.record(String.class, StartupTrace.Phase.CONSTRUCT, 1_000_000);
+    StartupTrace.record(Integer.class, StartupTrace.Phase.CONSTRUCT, 2_000_000);
+    StartupTrace.record(Integer.class, StartupTrace.Phase.POST_CONSTRUCT, 3_000_000);
+
+    String report = StartupTrace.report();
+
+    assertTrue(report.indexOf("Integer") < report.indexOf("String"), report);
+    assertTrue(
+        report.contains("5.00 ms  Integer (constructor 2.00 ms, post-construct 3.00 ms)"), report);
+    assertTrue(report.contains("6.00 ms  total for 2 beans"), report);
+  }
+
+  @Test
+  void testReportWithoutBeans() {
+    assertTrue(StartupTrace.report().contains("0.00 ms  total for 0 beans"));
+  }
+}
@@ -0,0 +1,77 @@
+package nl.fizzylogic.maven.dependencymanager.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+
+class StructuredFormatterTest {
+
+  @Test
+  void testFormatSearchResultAsJsonObject() {
+    SearchResult result = new SearchResult("org.springframework", "spring-core", "6.0.0");
+
+    String json = StructuredFormatter.toJsonObject(StructuredFormatter.searchResultFields(result));
+
+    assertEquals(
+        "{\"groupId\":\"org.springframework\",\"artifactId\":\"spring-core\","
+            + "\"latestVersion\":\"6.0.0\",\"repository\":null}",
+        json);
+  }
+
+  @Test
+  void testJsonObjectEscapesSpecialCharacters() {
+    Map<String, String> fields = new LinkedHashMap<>();
+    fields.put("message", "say \"hi\"\\\n");
+    fields.put("version", null);
+
+    String json = StructuredFormatter.toJsonObject(fields);
+
+    assertEquals("{\"message\":\"say \\\"hi\\\"\\\\\\n\",\"version\":null}", json);
+  }
+
+  @Test
+  void testFormatEmptyJsonArray() {
+    assertEquals("[]", StructuredFormatter.toJsonArray(Collections.emptyList()));
+  }
+
+  @Test
+  void testFormatJsonArray() {
+    List<Map<String, String>> records =
+        Arrays.asList(
+            StructuredFormatter.searchResultFields(new SearchResult("a", "b", "1.0")),
+            StructuredFormatter.searchResultFields(new SearchResult("c", "d", "2.0")));
+
+    String json = StructuredFormatter.toJsonArray(records);
+
+    assertTrue(json.startsWith("[\n"));
+    assertTrue(json.endsWith("\n]"));
+    assertTrue(
+        json.contains(
+            "{\"groupId\":\"a\",\"artifactId\":\"b\",\"latestVersion\":\"1.0\","
+                + "\"repository\":null},"));
+    assertTrue(
+        json.contains(
+            "{\"groupId\":\"c\",\"artifactId\":\"d\",\"latestVersion\":\"2.0\","
+                + "\"repository\":null}\n"));
+  }
+
+  @Test
+  void testCsvRowQuotesValuesWhenNeeded() {
+    String csv = StructuredFormatter.toCsvRow(Arrays.asList("plain", "with,comma", "a \"quote\""));
+
+    assertEquals("plain,\"with,comma\",\"a \"\"quote\"\"\"", csv);
+  }
+
+  @Test
+  void testCsvRowWritesNullAsEmptyValue() {
+    assertEquals(",b,", StructuredFormatter.toCsvRow(Arrays.asList(null, "b", null)));
+  }
+}
@@ -0,0 +1,149 @@
+package nl.fizzylogic.maven.dependencymanager.util;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import nl.fizzylogic.maven.dependencymanager.model.SearchResult;
+
+/**
+ * Compares the original String.format based table formatter with the single-pass streaming table
+ * writer.
+ *
+ * <p>Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=nl.fizzylogic.maven.dependencymanager.util.TableFormatterBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableFormatterBenchmark {
+
+  @Param({"20", "1000", "100000"})
+  int rows;
+
+  private List<SearchResult> results;
+  private PrintStream out;
+
+  @Setup
+  public void setUp() {
+    results = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      results.add(
+          new SearchResult(
+              "org.example.group" + (i % 50), "artifact-" + i, "1." + (i % 10) + "." + i));
+    }
+
+    out = new PrintStream(new BufferedOutputStream(OutputStream.nullOutputStream(), 8192), false);
+  }
+
+  @Benchmark
+  public void formatWithStringFormat() {
+    out.println(LegacyTableFormatter.formatSearchResults(results));
+    out.flush();
+  }
+
+  @Benchmark
+  public void formatWithStringBuilder() {
+    out.println(TableFormatter.formatSearchResults(results));
+    out.flush();
+  }
+
+  @Benchmark
+  public void writeStreaming() {
+    try (TableFormatter.StreamingTableWriter writer =
+        new TableFormatter.StreamingTableWriter(out, TableFormatter.DEFAULT_WIDTH_WINDOW)) {
+      for (SearchResult result : results) {
+        writer.accept(result);
+      }
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(TableFormatterBenchmark.class.getSimpleName()).build())
+        .run();
+  }
+
+  /** The table formatter as it was before the streaming writer, kept as the baseline. */
+  static class LegacyTableFormatter {
+
+    static String formatSearchResults(List<SearchResult> results) {
+      int groupIdWidth =
+          Math.max(
+              "GroupId".length(),
+              results.stream().mapToInt(r -> r.getGroupId().length()).max().orElse(0));
+      int artifactIdWidth =
+          Math.max(
+              "ArtifactId".length(),
+              results.stream().mapToInt(r -> r.getArtifactId().length()).max().orElse(0));
+      int versionWidth =
+          Math.max(
+              "Latest version".length(),
+              results.stream().mapToInt(r -> r.getLatestVersion().length()).max().orElse(0));
+
+      StringBuilder table = new StringBuilder();
+      table.append(
+          formatRow(
+              "GroupId",
+              "ArtifactId",
+              "Latest version",
+              groupIdWidth,
+              artifactIdWidth,
+              versionWidth));
+      table.append("\n");
+      table.append(
+          String.format(
+              "| %s | %s | %s |",
+              "-".repeat(groupIdWidth), "-".repeat(artifactIdWidth), "-".repeat(versionWidth)));
+      table.append("\n");
+
+      for (SearchResult result : results) {
+        table.append(
+            formatRow(
+                result.getGroupId(),
+                result.getArtifactId(),
+                result.getLatestVersion(),
+                groupIdWidth,
+                artifactIdWidth,
+                versionWidth));
+        table.append("\n");
+      }
+
+      return table.toString().trim();
+    }
+
+    private static String formatRow(
+        String groupId,
+        String artifactId,
+        String version,
+        int groupIdWidth,
+        int artifactIdWidth,
+        int versionWidth) {
+      return String.format(
+          "| %-" + groupIdWidth + "s | %-" + artifactIdWidth + "s | %-" + versionWidth + "s |",
+          groupId,
+          artifactId,
+          version);
+    }
+  }
+}
@@ -2,6 +2,8 @@ package nl.fizzylogic.maven.dependencymanager.util;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -79,4 +81,82 @@ class TableFormatterTest {
     assertTrue(formatted.contains("very-long-artifact-id-name"));
     assertTrue(formatted.contains("1.0.0-SNAPSHOT"));
   }
+
+  @Test
+  void testFormatAlignsColumns() {
+    List<SearchResult> results =
+        Arrays.asList(
+            new SearchResult("a", "b", "1.0"),
+            new SearchResult("very.long.group.id.name", "artifact", "2.0"));
+
+    String[] lines = TableFormatter.formatSearchResults(results).split("\n");
+
+    assertEquals(4, lines.length);
+    assertEquals("| GroupId                 | ArtifactId | Latest version |", lines[0]);
+    assertEquals("| ----------------------- | ---------- | -------------- |", lines[1]);
+    assertEquals("| a                       | b          | 1.0            |", lines[2]);
+    for (String line : lines) {
+      assertEquals(lines[0].length(), line.length());
+    }
+  }
+
+  @Test
+  void testFormatShowsRepositoryColumnWhenKnown() {
+    List<SearchResult> results =
+        Arrays.asList(
+            new SearchResult("a", "b", "1.0", "central"),
+            new SearchResult("c", "d", "2.0", "company-nexus"));
+
+    String[] lines = TableFormatter.formatSearchResults(results).split("\n");
+
+    assertEquals("| GroupId | ArtifactId | Latest version | Repository    |", lines[0]);
+    assertEquals("| a       | b          | 1.0            | central       |", lines[2]);
+  }
+
+  @Test
+  void testWriteSearchResultsMatchesFormattedTable() {
+    List<SearchResult> results =
+        Arrays.asList(
+            new SearchResult("org.springframework", "spring-core", "6.0.0"),
+            new SearchResult("com.fasterxml.jackson.core", "jackson-core", "2.15.0"));
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    TableFormatter.writeSearchResults(results, new PrintStream(output));
+
+    assertEquals(
+        TableFormatter.formatSearchResults(results) + System.lineSeparator(),
+        output.toString().replace("\n", System.lineSeparator()));
+  }
+
+  @Test
+  void testStreamingWriterEstimatesWidthsFromWindow() {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    PrintStream out = new PrintStream(output);
+
+    try (TableFormatter.StreamingTableWriter writer =
+        new TableFormatter.StreamingTableWriter(out, 1)) {
+      writer.accept(new SearchResult("a", "b", "1.0"));
+      // The header is written as soon as the window is full
+      assertTrue(output.toString().contains("GroupId"));
+      writer.accept(new SearchResult("much.longer.group.id", "b", "1.0"));
+      assertEquals(2, writer.getRowCount());
+    }
+
+    String[] lines = output.toString().split("\n");
+    assertEquals(4, lines.length);
+    assertEquals(lines[0].length(), lines[2].length());
+    assertTrue(lines[3].contains("much.longer.group.id"));
+  }
+
+  @Test
+  void testStreamingWriterWithoutRowsWritesNothing() {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+    try (TableFormatter.StreamingTableWriter writer =
+        new TableFormatter.StreamingTableWriter(new PrintStream(output))) {
+      assertEquals(0, writer.getRowCount());
+    }
+
+    assertEquals("", output.toString());
+  }
 }